@@ -0,0 +1,82 @@
+package top.ajasta.AjastaApp.money;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+import top.ajasta.AjastaApp.reservation.pricing.PriceQuote;
+import top.ajasta.AjastaApp.reservation.pricing.PriceTable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Total, price text and payment link of a booking basket: the BigDecimal path the booking endpoints used
+ * (multiply per range, add, toString) against a price table quote in cents formatted through Money.
+ * Both sides end with the BigDecimal the order row stores.
+ * <p>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="MoneyBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private static final String PAYMENT_LINK = "https://pay.example/?order=B1&amount=";
+
+    @Param({"1", "8", "64"})
+    int ranges;
+
+    private BigDecimal perSlot;
+    private PriceTable table;
+    private List<SlotRange> basket;
+
+    @Setup
+    public void setUp() {
+        perSlot = new BigDecimal("15.00");
+        table = PriceTable.flat(Money.of(perSlot));
+        basket = new ArrayList<>(ranges);
+        LocalDate day = LocalDate.of(2030, 3, 4);
+        for (int i = 0; i < ranges; i++) {
+            int start = 16 + (i % 8) * 3;
+            basket.add(new SlotRange(day.plusDays(i / 8), 1, start, start + 2));
+        }
+    }
+
+    @Benchmark
+    public void bigDecimal(Blackhole bh) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (SlotRange r : basket) {
+            total = total.add(perSlot.multiply(BigDecimal.valueOf(r.length())));
+        }
+        String totalAmount = total.toString();
+        bh.consume(perSlot.toString());
+        bh.consume(PAYMENT_LINK + totalAmount);
+        bh.consume(total);
+    }
+
+    @Benchmark
+    public void money(Blackhole bh) {
+        PriceQuote quote = table.quote(basket);
+        String totalAmount = quote.total().toString();
+        Money uniform = quote.uniformSlotPrice();
+        bh.consume(uniform != null ? uniform.toString() : "varies");
+        bh.consume(PAYMENT_LINK + totalAmount);
+        bh.consume(quote.total().toBigDecimal());
+    }
+}
@@ -0,0 +1,135 @@
+package top.ajasta.AjastaApp.reservation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionTemplate;
+import top.ajasta.AjastaApp.AjastaApplication;
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+import top.ajasta.AjastaApp.reservation.repository.ResourceSpecifications;
+import top.ajasta.AjastaApp.reservation.repository.ResourceSummary;
+import top.ajasta.AjastaApp.reservation.repository.ResourceSummaryRepository;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One listing page read as managed Resource entities (every column, inside a transaction as the request sees it)
+ * against the ResourceSummary projection, on the H2 test profile with realistic description and rule lengths.
+ * Heap per page is gc.alloc.rate.norm from the gc profiler; column bytes per page are printed at setup.
+ * <p>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="ResourceListingBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceListingBenchmark {
+
+    private static final String PROBE = "listingbench";
+
+    @Param({"20", "100"})
+    int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ResourceRepository resourceRepository;
+    private ResourceSummaryRepository summaryRepository;
+    private TransactionTemplate transactions;
+    private Specification<Resource> spec;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(AjastaApplication.class)
+                .profiles("test")
+                .properties("spring.main.web-application-type=none", "spring.main.banner-mode=off",
+                        "spring.datasource.url=jdbc:h2:mem:listingbench;DB_CLOSE_DELAY=-1")
+                .run();
+        resourceRepository = context.getBean(ResourceRepository.class);
+        summaryRepository = context.getBean(ResourceSummaryRepository.class);
+        transactions = context.getBean(TransactionTemplate.class);
+        spec = ResourceSpecifications.filtered(null, PROBE, null);
+
+        List<Resource> rows = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            rows.add(Resource.builder()
+                    .name("Court " + i)
+                    .type(ResourceType.TURF_COURT)
+                    .location("Hall " + PROBE)
+                    .description("Floodlit artificial turf with changing rooms. ".repeat(30))
+                    .imageUrl("https://bucket.example/resources/" + i + ".jpg")
+                    .pricePerSlot(new BigDecimal("15.00"))
+                    .unitsCount(2)
+                    .openTime(LocalTime.of(8, 0))
+                    .closeTime(LocalTime.of(22, 0))
+                    .unavailableWeekdays("0")
+                    .unavailableDates("2030-12-24,2030-12-25,2030-12-26,2030-12-31,2031-01-01".repeat(10))
+                    .dailyUnavailableRanges("12:00-13:00;16:00-16:30")
+                    .build());
+        }
+        resourceRepository.saveAll(rows);
+
+        long fullBytes = transactions.execute(s -> resourceRepository.findAll(spec, Sort.by("id")).stream()
+                .mapToLong(ResourceListingBenchmark::columnBytes).sum());
+        long summaryBytes = summaryRepository.findAll(spec).stream().mapToLong(ResourceListingBenchmark::columnBytes).sum();
+        System.out.println("[column bytes per page] full=" + fullBytes + " summary=" + summaryBytes);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void fullEntities(Blackhole bh) {
+        bh.consume(transactions.execute(s -> {
+            List<Resource> page = resourceRepository.findAll(spec, Sort.by("id"));
+            page.forEach(r -> bh.consume(r.getName()));
+            return page.size();
+        }));
+    }
+
+    @Benchmark
+    public void summaryProjection(Blackhole bh) {
+        List<ResourceSummary> page = summaryRepository.findAll(spec);
+        page.forEach(r -> bh.consume(r.name()));
+        bh.consume(page.size());
+    }
+
+    // UTF-8 length of the text columns plus 8 bytes for each scalar one
+    private static long columnBytes(Resource r) {
+        return utf8(r.getName()) + utf8(r.getLocation()) + utf8(r.getDescription()) + utf8(r.getImageUrl())
+                + utf8(r.getUnavailableWeekdays()) + utf8(r.getUnavailableDates()) + utf8(r.getDailyUnavailableRanges())
+                + utf8(r.getType().name()) + 8L * 10;
+    }
+
+    private static long columnBytes(ResourceSummary r) {
+        return utf8(r.name()) + utf8(r.location()) + utf8(r.imageUrl()) + utf8(r.type().name()) + 8L * 6;
+    }
+
+    private static long utf8(String s) {
+        return s == null ? 0 : s.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
@@ -51,6 +51,16 @@ public class GlobalExceptionHandler {
         return  new ResponseEntity<>(response, HttpStatus.BAD_GATEWAY);
     }
 
+    @ExceptionHandler(SlotUnavailableException.class)
+    public ResponseEntity<Response<?>> handleSlotUnavailableException(SlotUnavailableException ex){
+
+        Response<?> response = Response.builder()
+                .statusCode(HttpStatus.CONFLICT.value())
+                .message(ex.getMessage())
+                .build();
+        return  new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(UnauthorizedAccessException.class)
     public ResponseEntity<Response<?>> handleUnauthorizedAccessException(UnauthorizedAccessException ex){
 
@@ -0,0 +1,8 @@
+package top.ajasta.AjastaApp.exceptions;
+
+public class SlotUnavailableException extends RuntimeException{
+
+    public SlotUnavailableException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,69 @@
+package top.ajasta.AjastaApp.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount in cents. Totals, quotes and payment amounts are computed with this and only turned into
+ * {@link BigDecimal} where they are stored (entity columns) or serialized (DTOs), so adding up a booking
+ * allocates no BigDecimal and formats without one. Overflow throws instead of wrapping.
+ */
+public record Money(long cents) implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    // Rounds half up to whole cents; null counts as zero
+    public static Money of(BigDecimal amount) {
+        if (amount == null) return ZERO;
+        return ofCents(amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact());
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money times(long factor) {
+        return ofCents(Math.multiplyExact(cents, factor));
+    }
+
+    public boolean isZero() {
+        return cents == 0;
+    }
+
+    public boolean isNegative() {
+        return cents < 0;
+    }
+
+    // Scale 2, e.g. 30.00
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    // Plain decimal with two fraction digits, the same text BigDecimal.toString() gives at scale 2
+    @Override
+    public String toString() {
+        // Long.MIN_VALUE has no positive counterpart
+        if (cents == Long.MIN_VALUE) return toBigDecimal().toPlainString();
+        long abs = Math.abs(cents);
+        long units = abs / 100;
+        int fraction = (int) (abs % 100);
+        StringBuilder sb = new StringBuilder(24);
+        if (cents < 0) sb.append('-');
+        sb.append(units).append('.');
+        if (fraction < 10) sb.append('0');
+        return sb.append(fraction).toString();
+    }
+}
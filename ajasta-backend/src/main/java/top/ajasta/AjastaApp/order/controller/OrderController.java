@@ -2,16 +2,22 @@ package top.ajasta.AjastaApp.order.controller;
 
 
 import top.ajasta.AjastaApp.enums.OrderStatus;
+import top.ajasta.AjastaApp.order.dtos.BackfillStatusDTO;
 import top.ajasta.AjastaApp.order.dtos.OrderDTO;
 import top.ajasta.AjastaApp.order.dtos.OrderItemDTO;
+import top.ajasta.AjastaApp.order.services.OrderBackfillService;
 import top.ajasta.AjastaApp.order.services.OrderService;
+import top.ajasta.AjastaApp.reservation.services.CalendarService;
 import top.ajasta.AjastaApp.response.Response;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -20,6 +26,8 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final CalendarService calendarService;
+    private final OrderBackfillService orderBackfillService;
 
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyAuthority('ADMIN','RESOURCE_MANAGER')")
@@ -33,6 +41,12 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getOrdersOfUser());
     }
 
+    // The caller's bookings as an .ics feed; polls with a matching ETag get a 304
+    @GetMapping("/me/calendar.ics")
+    public void getMyCalendar(WebRequest request, HttpServletResponse response) throws IOException {
+        calendarService.myFeed().send(request, response);
+    }
+
     @GetMapping("/order-item/{orderItemId}")
     public ResponseEntity<Response<OrderItemDTO>> getOrderItemById(@PathVariable Long orderItemId) {
         return ResponseEntity.ok(orderService.getOrderItemById(orderItemId));
@@ -63,6 +77,20 @@ public class OrderController {
         return ResponseEntity.ok(orderService.countUniqueCustomers());
     }
 
+    // Links legacy booking orders to their resources in the background; restart=true rescans from the first order
+    @PostMapping("/backfill-resources")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response<BackfillStatusDTO>> startResourceBackfill(
+            @RequestParam(defaultValue = "false") boolean restart) {
+        return ResponseEntity.accepted().body(orderBackfillService.start(restart));
+    }
+
+    @GetMapping("/backfill-resources")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response<BackfillStatusDTO>> getResourceBackfillStatus() {
+        return ResponseEntity.ok(orderBackfillService.status());
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('CUSTOMER')")
     public ResponseEntity<Response<?>> deleteOrder(@PathVariable Long id) {
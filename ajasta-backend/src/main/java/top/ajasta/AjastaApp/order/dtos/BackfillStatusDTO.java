@@ -0,0 +1,23 @@
+package top.ajasta.AjastaApp.order.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Progress of the legacy order → resource backfill, as of its last committed chunk
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillStatusDTO {
+
+    private Boolean running;
+    private Boolean finished;
+    private Long lastId;   // highest order id scanned; a restarted job continues after it
+    private Long scanned;  // legacy orders looked at
+    private Long linked;   // of those, given a resource id
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,37 @@
+package top.ajasta.AjastaApp.order.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Progress of a chunked backfill job, saved with each chunk so a restarted job resumes after the last id it committed
+@Entity
+@Table(name = "backfill_checkpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackfillCheckpoint {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(nullable = false)
+    private long lastId;
+
+    @Column(nullable = false)
+    private long scanned;
+
+    @Column(nullable = false)
+    private long linked;
+
+    @Column(nullable = false)
+    private boolean finished;
+
+    private LocalDateTime updatedAt;
+}
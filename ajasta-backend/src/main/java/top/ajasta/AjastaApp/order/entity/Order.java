@@ -17,7 +17,9 @@ import java.util.List;
 
 @Entity
 @Data
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_resource_id", columnList = "resource_id, id")
+})
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
@@ -60,6 +62,15 @@ public class Order {
     @Column(name = "resource_id")
     private Long resourceId;
 
+    // Last change of the row (status updates included); null for orders written before the column existed
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
 }
 
 
@@ -0,0 +1,7 @@
+package top.ajasta.AjastaApp.order.repository;
+
+import top.ajasta.AjastaApp.order.entity.BackfillCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BackfillCheckpointRepository extends JpaRepository<BackfillCheckpoint, String> {
+}
@@ -0,0 +1,59 @@
+package top.ajasta.AjastaApp.order.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Legacy booking orders (written before orders carried a resource_id) for the resource backfill: read in keyset
+ * chunks by id, so each chunk is one index range scan however far the job has got, and linked in one JDBC batch.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LegacyOrderJdbcRepository {
+
+    private static final String SELECT_CHUNK =
+            "SELECT id, booking_title, booking_details, order_status FROM orders " +
+            "WHERE resource_id IS NULL AND booking = TRUE AND id > ? ORDER BY id LIMIT ?";
+    // The resource_id guard leaves orders alone that were linked by other means since the chunk was read
+    private static final String LINK =
+            "UPDATE orders SET resource_id = ?, updated_at = ? WHERE id = ? AND resource_id IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record LegacyOrder(long id, String bookingTitle, String bookingDetails, String orderStatus) {
+    }
+
+    public record Link(long orderId, long resourceId) {
+    }
+
+    public List<LegacyOrder> findUnlinkedAfter(long afterId, int limit) {
+        return jdbcTemplate.query(SELECT_CHUNK, (rs, i) -> new LegacyOrder(
+                rs.getLong("id"), rs.getString("booking_title"), rs.getString("booking_details"), rs.getString("order_status")),
+                afterId, limit);
+    }
+
+    // The links that were applied, in the given order
+    public List<Link> link(List<Link> links) {
+        if (links.isEmpty()) return List.of();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(LINK, links, links.size(), (ps, link) -> {
+            ps.setLong(1, link.resourceId());
+            ps.setTimestamp(2, now);
+            ps.setLong(3, link.orderId());
+        });
+        // One batch of links.size() statements; SUCCESS_NO_INFO comes from drivers without per-statement counts
+        List<Link> applied = new ArrayList<>(links.size());
+        for (int i = 0; i < links.size(); i++) {
+            int n = counts[0][i];
+            if (n > 0 || n == Statement.SUCCESS_NO_INFO) applied.add(links.get(i));
+        }
+        return applied;
+    }
+}
@@ -3,15 +3,22 @@ package top.ajasta.AjastaApp.order.repository;
 import top.ajasta.AjastaApp.auth_users.entity.User;
 import top.ajasta.AjastaApp.enums.OrderStatus;
 import top.ajasta.AjastaApp.order.entity.Order;
+import top.ajasta.AjastaApp.reservation.calendar.CalendarEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
 
     Page<Order> findByOrderStatus(OrderStatus orderStatus, Pageable pageable);
 
@@ -20,17 +27,68 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     @Query("SELECT COUNT(DISTINCT o.user.id) FROM Order o")
     long countDistinctUsers();
 
+    // Whether the user booked the resource: by resource id, or, when matchTitles is set, by a legacy order without one
+    // whose title mentions the resource name
     @Query("SELECT CASE WHEN COUNT(o) > 0 THEN true ELSE false END FROM Order o " +
-           "WHERE o.user.id = :userId AND o.booking = true AND (:keyword IS NULL OR LOWER(o.bookingTitle) LIKE LOWER(CONCAT('%', :keyword, '%')))")
-    boolean userHasBookingWithTitleLike(@Param("userId") Long userId, @Param("keyword") String keyword);
+           "WHERE o.user.id = :userId AND o.booking = true AND (o.resourceId = :resourceId OR " +
+           "(:matchTitles = true AND o.resourceId IS NULL AND LOWER(o.bookingTitle) LIKE LOWER(CONCAT('%', :name, '%'))))")
+    boolean userHasBookingOfResource(@Param("userId") Long userId,
+                                     @Param("resourceId") Long resourceId,
+                                     @Param("name") String name,
+                                     @Param("matchTitles") boolean matchTitles);
 
-    // Scoped queries for resource managers
-    Page<Order> findByResourceIdIn(List<Long> resourceIds, Pageable pageable);
+    // Booking details of live legacy orders (written before the bookings table, so without booking rows)
+    // for a resource whose text mentions the given "Date: yyyy-MM-dd" marker, or a prefix of one such as "Date: 2025-0"
+    @Query("SELECT o.bookingDetails FROM Order o " +
+           "WHERE o.resourceId = :resourceId AND o.booking = true " +
+           "AND (o.orderStatus IS NULL OR o.orderStatus NOT IN :inactive) " +
+           "AND NOT EXISTS (SELECT b.id FROM Booking b WHERE b.orderId = o.id) " +
+           "AND o.bookingDetails LIKE CONCAT('%', :dateMarker, '%')")
+    List<String> findLegacyBookingDetailsForDay(@Param("resourceId") Long resourceId,
+                                                @Param("dateMarker") String dateMarker,
+                                                @Param("inactive") List<OrderStatus> inactive);
 
-    Page<Order> findByOrderStatusAndResourceIdIn(OrderStatus orderStatus, List<Long> resourceIds, Pageable pageable);
+    // Same as above for several resources at once; rows are (resourceId, bookingDetails)
+    @Query("SELECT o.resourceId, o.bookingDetails FROM Order o " +
+           "WHERE o.resourceId IN :resourceIds AND o.booking = true " +
+           "AND (o.orderStatus IS NULL OR o.orderStatus NOT IN :inactive) " +
+           "AND NOT EXISTS (SELECT b.id FROM Booking b WHERE b.orderId = o.id) " +
+           "AND o.bookingDetails LIKE CONCAT('%', :dateMarker, '%')")
+    List<Object[]> findLegacyBookingDetailsForResourcesOnDay(@Param("resourceIds") Collection<Long> resourceIds,
+                                                             @Param("dateMarker") String dateMarker,
+                                                             @Param("inactive") List<OrderStatus> inactive);
 
-    // Fallback queries for legacy booking orders without resourceId
-    Page<Order> findByResourceIdIsNullAndBookingTrue(Pageable pageable);
+    @Query("SELECT o.bookingDetails FROM Order o " +
+           "WHERE o.resourceId = :resourceId AND o.booking = true " +
+           "AND (o.orderStatus IS NULL OR o.orderStatus NOT IN :inactive) " +
+           "AND NOT EXISTS (SELECT b.id FROM Booking b WHERE b.orderId = o.id)")
+    List<String> findLegacyBookingDetailsForResource(@Param("resourceId") Long resourceId,
+                                                     @Param("inactive") List<OrderStatus> inactive);
 
-    Page<Order> findByResourceIdIsNullAndBookingTrueAndOrderStatus(OrderStatus orderStatus, Pageable pageable);
+    // Calendar feeds: (count, max id, last change) as the feed's validator, then the rows through a cursor.
+    // Orders written before updatedAt existed fall back to their order date.
+    @Query("SELECT COUNT(o), MAX(o.id), MAX(COALESCE(o.updatedAt, o.orderDate)) FROM Order o " +
+           "WHERE o.resourceId = :resourceId AND o.booking = true " +
+           "AND (o.orderStatus IS NULL OR o.orderStatus NOT IN :inactive)")
+    List<Object[]> calendarVersionOfResource(@Param("resourceId") Long resourceId,
+                                             @Param("inactive") List<OrderStatus> inactive);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query("SELECT new top.ajasta.AjastaApp.reservation.calendar.CalendarEntry(" +
+           "o.id, o.orderStatus, o.bookingTitle, o.bookingDetails, o.orderDate, o.updatedAt) FROM Order o " +
+           "WHERE o.resourceId = :resourceId AND o.booking = true " +
+           "AND (o.orderStatus IS NULL OR o.orderStatus NOT IN :inactive) ORDER BY o.id")
+    Stream<CalendarEntry> streamCalendarOfResource(@Param("resourceId") Long resourceId,
+                                                   @Param("inactive") List<OrderStatus> inactive);
+
+    @Query("SELECT COUNT(o), MAX(o.id), MAX(COALESCE(o.updatedAt, o.orderDate)) FROM Order o " +
+           "WHERE o.user.id = :userId AND o.booking = true")
+    List<Object[]> calendarVersionOfUser(@Param("userId") Long userId);
+
+    // Same rows and order as findByUserOrderByOrderDateDesc, restricted to bookings
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"))
+    @Query("SELECT new top.ajasta.AjastaApp.reservation.calendar.CalendarEntry(" +
+           "o.id, o.orderStatus, o.bookingTitle, o.bookingDetails, o.orderDate, o.updatedAt) FROM Order o " +
+           "WHERE o.user.id = :userId AND o.booking = true ORDER BY o.orderDate DESC")
+    Stream<CalendarEntry> streamCalendarOfUser(@Param("userId") Long userId);
 }
@@ -0,0 +1,66 @@
+package top.ajasta.AjastaApp.order.repository;
+
+import top.ajasta.AjastaApp.auth_users.entity.User;
+import top.ajasta.AjastaApp.enums.OrderStatus;
+import top.ajasta.AjastaApp.order.entity.Order;
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.repository.ResourceSpecifications;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Locale;
+
+/**
+ * Order listing filters as SQL predicates, so the listing is filtered, counted and paged by the database.
+ */
+public final class OrderSpecifications {
+
+    private OrderSpecifications() {
+    }
+
+    // Orders a resource manager may see: those of the resources they manage, plus legacy booking orders without a
+    // resource whose title mentions the name of one. Both sides are subqueries, nothing is fetched beforehand.
+    // A null managerId does not filter.
+    public static Specification<Order> visibleToManager(Long managerId) {
+        return visibleToManager(managerId, true);
+    }
+
+    // As above; without legacy titles only orders carrying a managed resource id match
+    public static Specification<Order> visibleToManager(Long managerId, boolean legacyTitles) {
+        return (root, query, cb) -> {
+            if (managerId == null) return null;
+
+            Subquery<Long> managed = query.subquery(Long.class);
+            Root<Resource> resource = managed.from(Resource.class);
+            Join<Resource, User> manager = resource.join("managers");
+            managed.select(resource.get("id")).where(cb.equal(manager.get("id"), managerId));
+            if (!legacyTitles) return root.get("resourceId").in(managed);
+
+            Subquery<Long> named = query.subquery(Long.class);
+            Root<Resource> namedResource = named.from(Resource.class);
+            Join<Resource, User> namedManager = namedResource.join("managers");
+            named.select(namedResource.get("id")).where(
+                    cb.equal(namedManager.get("id"), managerId),
+                    cb.greaterThan(cb.locate(cb.lower(root.get("bookingTitle")), cb.lower(namedResource.get("name"))), 0));
+
+            return cb.or(
+                    root.get("resourceId").in(managed),
+                    cb.and(cb.isNull(root.get("resourceId")), cb.isTrue(root.get("booking")), cb.exists(named)));
+        };
+    }
+
+    public static Specification<Order> statusIs(OrderStatus status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("orderStatus"), status);
+    }
+
+    // Case-insensitive substring of the booking title
+    public static Specification<Order> bookingTitleContains(String name) {
+        return (root, query, cb) -> {
+            if (name == null || name.isBlank()) return null;
+            String pattern = "%" + ResourceSpecifications.escapeLike(name.trim().toLowerCase(Locale.ROOT)) + "%";
+            return cb.like(cb.lower(root.get("bookingTitle")), pattern, '\\');
+        };
+    }
+}
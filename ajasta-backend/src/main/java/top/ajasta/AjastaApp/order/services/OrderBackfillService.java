@@ -0,0 +1,13 @@
+package top.ajasta.AjastaApp.order.services;
+
+import top.ajasta.AjastaApp.order.dtos.BackfillStatusDTO;
+import top.ajasta.AjastaApp.response.Response;
+
+public interface OrderBackfillService {
+
+    // Starts linking legacy booking orders to resources in the background, resuming from the last checkpoint;
+    // restart discards the checkpoint first, e.g. to retry unmatched orders after resources were added or renamed
+    Response<BackfillStatusDTO> start(boolean restart);
+
+    Response<BackfillStatusDTO> status();
+}
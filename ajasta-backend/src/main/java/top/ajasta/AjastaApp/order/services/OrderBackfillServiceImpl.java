@@ -0,0 +1,200 @@
+package top.ajasta.AjastaApp.order.services;
+
+import top.ajasta.AjastaApp.enums.OrderStatus;
+import top.ajasta.AjastaApp.exceptions.BadRequestException;
+import top.ajasta.AjastaApp.order.dtos.BackfillStatusDTO;
+import top.ajasta.AjastaApp.order.entity.BackfillCheckpoint;
+import top.ajasta.AjastaApp.order.entity.Order;
+import top.ajasta.AjastaApp.order.repository.BackfillCheckpointRepository;
+import top.ajasta.AjastaApp.order.repository.LegacyOrderJdbcRepository;
+import top.ajasta.AjastaApp.order.repository.LegacyOrderJdbcRepository.LegacyOrder;
+import top.ajasta.AjastaApp.order.repository.LegacyOrderJdbcRepository.Link;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+import top.ajasta.AjastaApp.reservation.search.SearchDocument;
+import top.ajasta.AjastaApp.reservation.services.AvailabilityService;
+import top.ajasta.AjastaApp.reservation.services.OccupancyService;
+import top.ajasta.AjastaApp.response.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Links legacy booking orders to their resource. Resource names are loaded once into a {@link ResourceTitleIndex};
+ * orders are then read in keyset chunks, and each chunk's links, occupancy counters and checkpoint commit together,
+ * so a stopped job resumes after the last committed chunk without linking or counting anything twice.
+ */
+@Service
+@Slf4j
+public class OrderBackfillServiceImpl implements OrderBackfillService {
+
+    static final String JOB = "order-resource-links";
+
+    private final LegacyOrderJdbcRepository legacyOrderRepository;
+    private final BackfillCheckpointRepository checkpointRepository;
+    private final ResourceRepository resourceRepository;
+    private final AvailabilityService availabilityService;
+    private final OccupancyService occupancyService;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public OrderBackfillServiceImpl(LegacyOrderJdbcRepository legacyOrderRepository,
+                                    BackfillCheckpointRepository checkpointRepository,
+                                    ResourceRepository resourceRepository,
+                                    AvailabilityService availabilityService,
+                                    OccupancyService occupancyService,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.orders.backfill-chunk-size:500}") int chunkSize) {
+        this.legacyOrderRepository = legacyOrderRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.resourceRepository = resourceRepository;
+        this.availabilityService = availabilityService;
+        this.occupancyService = occupancyService;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    @Override
+    public Response<BackfillStatusDTO> start(boolean restart) {
+        if (!running.compareAndSet(false, true)) {
+            throw new BadRequestException("The backfill is already running");
+        }
+        try {
+            if (restart) checkpointRepository.deleteById(JOB);
+            Thread.ofVirtual().name("order-backfill").start(() -> {
+                try {
+                    runChunks();
+                } catch (RuntimeException e) {
+                    log.error("Order backfill stopped, a new start resumes from the last checkpoint", e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return Response.<BackfillStatusDTO>builder()
+                .statusCode(HttpStatus.ACCEPTED.value())
+                .message("Backfill started")
+                .data(statusOf(checkpoint()))
+                .build();
+    }
+
+    @Override
+    public Response<BackfillStatusDTO> status() {
+        return Response.<BackfillStatusDTO>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Backfill status retrieved successfully")
+                .data(statusOf(checkpoint()))
+                .build();
+    }
+
+    // The whole job on the calling thread
+    void runChunks() {
+        long started = System.currentTimeMillis();
+        ResourceTitleIndex index = new ResourceTitleIndex();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<SearchDocument> rows = resourceRepository.streamSearchDocuments()) {
+                rows.forEach(r -> index.put(r.id(), r.name()));
+            }
+        });
+
+        BackfillCheckpoint checkpoint = checkpoint();
+        checkpoint.setFinished(false);
+        log.info("Order backfill from id {} against {} resource(s)", checkpoint.getLastId(), index.size());
+        while (true) {
+            List<LegacyOrder> chunk = legacyOrderRepository.findUnlinkedAfter(checkpoint.getLastId(), chunkSize);
+            if (chunk.isEmpty()) break;
+
+            List<Link> links = new ArrayList<>();
+            Map<Long, LegacyOrder> byId = new HashMap<>();
+            for (LegacyOrder order : chunk) {
+                Long resourceId = index.resolve(order.bookingTitle());
+                if (resourceId == null) continue;
+                links.add(new Link(order.id(), resourceId));
+                byId.put(order.id(), order);
+            }
+
+            BackfillCheckpoint current = checkpoint;
+            List<Order> linked = transaction.execute(status -> {
+                List<Order> orders = legacyOrderRepository.link(links).stream()
+                        .map(link -> toOrder(byId.get(link.orderId()), link.resourceId()))
+                        .toList();
+                // Live legacy orders were never counted, as the counters are keyed by resource
+                orders.stream().filter(o -> holdsSlots(o.getOrderStatus())).forEach(occupancyService::orderReinstated);
+
+                current.setLastId(chunk.get(chunk.size() - 1).id());
+                current.setScanned(current.getScanned() + chunk.size());
+                current.setLinked(current.getLinked() + orders.size());
+                current.setUpdatedAt(LocalDateTime.now());
+                checkpointRepository.save(current);
+                return orders;
+            });
+            // Cached days of those resources were built without these orders
+            linked.forEach(availabilityService::invalidate);
+            log.info("Order backfill at id {}: {} scanned, {} linked", current.getLastId(), current.getScanned(), current.getLinked());
+        }
+
+        checkpoint.setFinished(true);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+        log.info("Order backfill finished in {} ms: {} scanned, {} linked",
+                System.currentTimeMillis() - started, checkpoint.getScanned(), checkpoint.getLinked());
+    }
+
+    private BackfillCheckpoint checkpoint() {
+        return checkpointRepository.findById(JOB)
+                .orElseGet(() -> BackfillCheckpoint.builder().name(JOB).build());
+    }
+
+    private BackfillStatusDTO statusOf(BackfillCheckpoint checkpoint) {
+        return BackfillStatusDTO.builder()
+                .running(running.get())
+                .finished(checkpoint.isFinished())
+                .lastId(checkpoint.getLastId())
+                .scanned(checkpoint.getScanned())
+                .linked(checkpoint.getLinked())
+                .updatedAt(checkpoint.getUpdatedAt())
+                .build();
+    }
+
+    private static Order toOrder(LegacyOrder row, long resourceId) {
+        return Order.builder()
+                .id(row.id())
+                .resourceId(resourceId)
+                .booking(true)
+                .bookingTitle(row.bookingTitle())
+                .bookingDetails(row.bookingDetails())
+                .orderStatus(parseStatus(row.orderStatus()))
+                .build();
+    }
+
+    private static OrderStatus parseStatus(String name) {
+        if (name == null) return null;
+        try {
+            return OrderStatus.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean holdsSlots(OrderStatus status) {
+        return status != OrderStatus.CANCELLED && status != OrderStatus.FAILED;
+    }
+}
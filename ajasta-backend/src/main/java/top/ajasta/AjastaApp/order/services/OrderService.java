@@ -1,12 +1,12 @@
 package top.ajasta.AjastaApp.order.services;
 
 import top.ajasta.AjastaApp.enums.OrderStatus;
+import top.ajasta.AjastaApp.money.Money;
 import top.ajasta.AjastaApp.order.dtos.OrderDTO;
 import top.ajasta.AjastaApp.order.dtos.OrderItemDTO;
 import top.ajasta.AjastaApp.response.Response;
 import org.springframework.data.domain.Page;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 public interface OrderService {
@@ -20,7 +20,8 @@ public interface OrderService {
     Response<?> deleteOwnOrder(Long id);
 
     // Create a simple order entry for a resource booking (no items)
-    void createBookingOrder(BigDecimal totalAmount, String bookingTitle, String bookingDetails);
+    // Returns the id of the new order
+    Long createBookingOrder(Money totalAmount, String bookingTitle, String bookingDetails);
 
     // Set resource context for subsequent booking order creation
     void setCurrentBookingResourceId(Long resourceId);
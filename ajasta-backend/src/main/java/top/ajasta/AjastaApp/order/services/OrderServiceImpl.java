@@ -8,29 +8,34 @@ import top.ajasta.AjastaApp.enums.OrderStatus;
 import top.ajasta.AjastaApp.enums.PaymentStatus;
 import top.ajasta.AjastaApp.exceptions.BadRequestException;
 import top.ajasta.AjastaApp.exceptions.NotFoundException;
+import top.ajasta.AjastaApp.money.Money;
 import top.ajasta.AjastaApp.order.dtos.OrderDTO;
 import top.ajasta.AjastaApp.order.dtos.OrderItemDTO;
 import top.ajasta.AjastaApp.order.entity.Order;
 import top.ajasta.AjastaApp.order.entity.OrderItem;
 import top.ajasta.AjastaApp.order.repository.OrderItemRepository;
 import top.ajasta.AjastaApp.order.repository.OrderRepository;
+import top.ajasta.AjastaApp.order.repository.OrderSpecifications;
 import top.ajasta.AjastaApp.payment.repository.PaymentRepository;
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+import top.ajasta.AjastaApp.reservation.events.SlotsReleasedEvent;
 import top.ajasta.AjastaApp.response.Response;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -50,12 +55,21 @@ public class OrderServiceImpl  implements OrderService{
     private final TemplateEngine templateEngine;
     private final PaymentRepository paymentRepository;
     private final top.ajasta.AjastaApp.reservation.repository.ResourceRepository resourceRepository;
+    private final top.ajasta.AjastaApp.reservation.services.AvailabilityService availabilityService;
+    private final top.ajasta.AjastaApp.reservation.repository.BookingRepository bookingRepository;
+    private final top.ajasta.AjastaApp.reservation.repository.BookingSeriesRepository bookingSeriesRepository;
+    private final top.ajasta.AjastaApp.reservation.services.OccupancyService occupancyService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final ThreadLocal<Long> CURRENT_BOOKING_RESOURCE_ID = new ThreadLocal<>();
 
     @Value("${base.payment.link}")
     private String basePaymentLink;
 
+    // Whether orders without a resource id are matched to resources by their booking title
+    @Value("${app.orders.legacy-title-match:true}")
+    private boolean legacyTitleMatch;
+
 
 
     @Override
@@ -78,7 +92,7 @@ public class OrderServiceImpl  implements OrderService{
                     java.util.Set<Long> managedIds = managed.stream().map(top.ajasta.AjastaApp.reservation.entity.Resource::getId).collect(java.util.stream.Collectors.toSet());
                     String bt = order.getBookingTitle();
                     boolean allowedByTitle = false;
-                    if (bt != null && !managed.isEmpty()) {
+                    if (legacyTitleMatch && bt != null && !managed.isEmpty()) {
                         String low = bt.toLowerCase(java.util.Locale.ROOT);
                         allowedByTitle = managed.stream()
                                 .map(top.ajasta.AjastaApp.reservation.entity.Resource::getName)
@@ -121,91 +135,12 @@ public class OrderServiceImpl  implements OrderService{
         User current = userService.getCurrentLoggedInUser();
         boolean isAdmin = current.getRoles() != null && current.getRoles().stream().anyMatch(r -> "ADMIN".equalsIgnoreCase(r.getName()));
 
-        Page<Order> orderPage;
-        if (isAdmin) {
-            if (orderStatus != null){
-                orderPage = orderRepository.findByOrderStatus(orderStatus, pageable);
-            } else {
-                orderPage = orderRepository.findAll(pageable);
-            }
-        } else {
-            // Resource Manager: restrict to orders belonging to resources they manage
-            List<top.ajasta.AjastaApp.reservation.entity.Resource> managedResources = resourceRepository.findByManagers_Id(current.getId());
-            List<Long> managedIds = managedResources.stream().map(top.ajasta.AjastaApp.reservation.entity.Resource::getId).toList();
-            List<String> managedNames = managedResources.stream()
-                    .map(top.ajasta.AjastaApp.reservation.entity.Resource::getName)
-                    .filter(java.util.Objects::nonNull)
-                    .map(s -> s.toLowerCase(Locale.ROOT))
-                    .toList();
-
-            List<Order> collected = new java.util.ArrayList<>();
-            if (!managedIds.isEmpty()) {
-                Page<Order> scoped;
-                if (orderStatus != null) {
-                    scoped = orderRepository.findByOrderStatusAndResourceIdIn(orderStatus, managedIds, pageable);
-                } else {
-                    scoped = orderRepository.findByResourceIdIn(managedIds, pageable);
-                }
-                collected.addAll(scoped.getContent());
-            }
-
-            // Fallback: include legacy booking orders with no resourceId but bookingTitle contains a managed resource name
-            if (!managedNames.isEmpty()) {
-                Page<Order> legacy;
-                if (orderStatus != null) {
-                    legacy = orderRepository.findByResourceIdIsNullAndBookingTrueAndOrderStatus(orderStatus, pageable);
-                } else {
-                    legacy = orderRepository.findByResourceIdIsNullAndBookingTrue(pageable);
-                }
-                for (Order o : legacy.getContent()) {
-                    String bt = o.getBookingTitle();
-                    if (bt != null) {
-                        String low = bt.toLowerCase(Locale.ROOT);
-                        boolean match = managedNames.stream().anyMatch(low::contains);
-                        if (match) collected.add(o);
-                    }
-                }
-            }
-
-            // Merge unique by id and sort desc by id
-            java.util.Map<Long, Order> unique = new java.util.LinkedHashMap<>();
-            collected.sort((a,b) -> java.lang.Long.compare(b.getId(), a.getId()));
-            for (Order o : collected) {
-                unique.putIfAbsent(o.getId(), o);
-            }
-            List<Order> merged = new java.util.ArrayList<>(unique.values());
-
-            // Optional filter by resource name via bookingTitle
-            if (name != null && !name.isBlank()) {
-                String kw = name.toLowerCase(Locale.ROOT);
-                merged = merged.stream()
-                        .filter(o -> {
-                            String bt = o.getBookingTitle();
-                            return bt != null && bt.toLowerCase(Locale.ROOT).contains(kw);
-                        })
-                        .toList();
-            }
-
-            // In-memory pagination
-            int from = Math.min(page * size, merged.size());
-            int to = Math.min(from + size, merged.size());
-            List<Order> slice = merged.subList(from, to);
-            orderPage = new org.springframework.data.domain.PageImpl<>(slice, pageable, merged.size());
-        }
-
-        // For admin branch, apply optional name filter after query
-        if (isAdmin) {
-            if (name != null && !name.isBlank()) {
-                String kw = name.toLowerCase(Locale.ROOT);
-                List<Order> filtered = orderPage.getContent().stream()
-                        .filter(o -> {
-                            String bt = o.getBookingTitle();
-                            return bt != null && bt.toLowerCase(Locale.ROOT).contains(kw);
-                        })
-                        .toList();
-                orderPage = new org.springframework.data.domain.PageImpl<>(filtered, pageable, filtered.size());
-            }
-        }
+        // Resource managers see their resources' orders and matching legacy ones; filtered, counted and paged in SQL
+        Specification<Order> spec = Specification.allOf(
+                OrderSpecifications.visibleToManager(isAdmin ? null : current.getId(), legacyTitleMatch),
+                OrderSpecifications.statusIs(orderStatus),
+                OrderSpecifications.bookingTitleContains(name));
+        Page<Order> orderPage = orderRepository.findAll(spec, pageable);
 
         Page<OrderDTO> orderDTOPage  = orderPage.map(order -> modelMapper.map(order, OrderDTO.class));
 
@@ -270,6 +205,7 @@ public class OrderServiceImpl  implements OrderService{
     }
 
     @Override
+    @Transactional
     public Response<OrderDTO> updateOrderStatus(OrderDTO orderDTO) {
         log.info("Inside updateOrderStatus()");
 
@@ -289,7 +225,7 @@ public class OrderServiceImpl  implements OrderService{
                 // Fallback for legacy booking orders without resourceId: allow if bookingTitle mentions a managed resource
                 java.util.List<top.ajasta.AjastaApp.reservation.entity.Resource> managed = resourceRepository.findByManagers_Id(current.getId());
                 boolean allowedByTitle = false;
-                if (Boolean.TRUE.equals(order.getBooking())) {
+                if (legacyTitleMatch && Boolean.TRUE.equals(order.getBooking())) {
                     String bt = order.getBookingTitle();
                     if (bt != null && !managed.isEmpty()) {
                         String low = bt.toLowerCase(java.util.Locale.ROOT);
@@ -313,10 +249,25 @@ public class OrderServiceImpl  implements OrderService{
         }
 
         OrderStatus orderStatus = orderDTO.getOrderStatus();
+        boolean statusChanged = order.getOrderStatus() != orderStatus;
+        boolean released = holdsSlots(order.getOrderStatus()) && !holdsSlots(orderStatus);
+        boolean reinstated = !holdsSlots(order.getOrderStatus()) && holdsSlots(orderStatus);
         order.setOrderStatus(orderStatus);
 
         orderRepository.save(order);
 
+        // Cancelling (or reinstating) a booking changes which slots are taken. The days are dropped once this
+        // transaction commits, ahead of the waitlist and live-stream listeners of the event published below
+        if (statusChanged) {
+            availabilityService.invalidate(order);
+        }
+        if (released) {
+            occupancyService.orderReleased(order);
+            publishReleased(order, availabilityService.bookedRanges(order));
+        } else if (reinstated) {
+            occupancyService.orderReinstated(order);
+        }
+
         return Response.<OrderDTO>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Order status updated successfully")
@@ -345,7 +296,16 @@ public class OrderServiceImpl  implements OrderService{
             order.setPayment(null);
         }
 
+        // Before the rows go: a series order is invalidated through its series row
+        availabilityService.invalidate(order);
+        List<SlotRange> freed = holdsSlots(order.getOrderStatus()) ? availabilityService.bookedRanges(order) : List.of();
+        if (holdsSlots(order.getOrderStatus())) {
+            occupancyService.orderReleased(order);
+        }
+        bookingRepository.deleteByOrderId(order.getId());
+        bookingSeriesRepository.deleteByOrderId(order.getId());
         orderRepository.delete(order);
+        publishReleased(order, freed);
 
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
@@ -367,7 +327,7 @@ public class OrderServiceImpl  implements OrderService{
 
     @Override
     @Transactional
-    public void createBookingOrder(BigDecimal totalAmount, String bookingTitle, String bookingDetails) {
+    public Long createBookingOrder(Money totalAmount, String bookingTitle, String bookingDetails) {
         log.info("Inside createBookingOrder() amount={}, title={}...", totalAmount, bookingTitle);
         User customer = userService.getCurrentLoggedInUser();
 
@@ -376,7 +336,7 @@ public class OrderServiceImpl  implements OrderService{
             Order order = Order.builder()
                     .user(customer)
                     .orderDate(LocalDateTime.now())
-                    .totalAmount(totalAmount == null ? BigDecimal.ZERO : totalAmount)
+                    .totalAmount((totalAmount == null ? Money.ZERO : totalAmount).toBigDecimal())
                     .orderStatus(OrderStatus.INITIALIZED)
                     .paymentStatus(PaymentStatus.PENDING)
                     .orderItems(new ArrayList<>())
@@ -387,13 +347,7 @@ public class OrderServiceImpl  implements OrderService{
                     .build();
 
             Order saved = orderRepository.save(order);
-            OrderDTO dto = modelMapper.map(saved, OrderDTO.class);
-
-            Response.<OrderDTO>builder()
-                    .statusCode(HttpStatus.OK.value())
-                    .message("Booking recorded in order history")
-                    .data(dto)
-                    .build();
+            return saved.getId();
         } finally {
             // Clear context to avoid leakage across requests
             CURRENT_BOOKING_RESOURCE_ID.remove();
@@ -436,7 +390,7 @@ public class OrderServiceImpl  implements OrderService{
             context.setVariable("totalItems", orderDTO.getOrderItems().size());
 
 
-            String paymentLink = basePaymentLink + orderDTO.getId() + "&amount=" + orderDTO.getTotalAmount(); // Replace "yourdomain.com"
+            String paymentLink = basePaymentLink + orderDTO.getId() + "&amount=" + Money.of(orderDTO.getTotalAmount()); // Replace "yourdomain.com"
             context.setVariable("paymentLink", paymentLink);
 
             // Process the Thymeleaf template to generate the HTML email body
@@ -451,16 +405,15 @@ public class OrderServiceImpl  implements OrderService{
 
         }
 
-}
-
-
-
-
-
-
-
-
-
-
-
+    // Cancelled and failed orders no longer occupy their slots
+    private static boolean holdsSlots(OrderStatus status) {
+        return status != OrderStatus.CANCELLED && status != OrderStatus.FAILED;
+    }
 
+    // Lets the waitlist offer the slots once the transaction commits
+    private void publishReleased(Order order, List<SlotRange> freed) {
+        if (order.getResourceId() != null && !freed.isEmpty()) {
+            eventPublisher.publishEvent(new SlotsReleasedEvent(order.getResourceId(), freed));
+        }
+    }
+}
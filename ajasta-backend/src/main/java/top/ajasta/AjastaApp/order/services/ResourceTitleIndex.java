@@ -0,0 +1,68 @@
+package top.ajasta.AjastaApp.order.services;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resource names to ids, for resolving the resource of a legacy booking order from its title. Titles were written as
+ * "Booking: &lt;name&gt;", optionally followed by a " (...)" suffix such as "(3 slot(s))", or "Booking: Resource #&lt;id&gt;"
+ * when the resource was not found at booking time. Names shared by several resources resolve to nothing.
+ */
+public class ResourceTitleIndex {
+
+    private static final String PREFIX = "booking: ";
+    private static final String BY_ID = "resource #";
+
+    private final Map<String, Long> byName = new HashMap<>();
+    private final Set<String> ambiguous = new HashSet<>();
+    private final Set<Long> ids = new HashSet<>();
+
+    public void put(Long id, String name) {
+        if (id == null) return;
+        ids.add(id);
+        String key = key(name);
+        if (key == null || ambiguous.contains(key)) return;
+        Long previous = byName.putIfAbsent(key, id);
+        if (previous != null && !previous.equals(id)) {
+            byName.remove(key);
+            ambiguous.add(key);
+        }
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    // The id of the single resource the title names, or null
+    public Long resolve(String bookingTitle) {
+        String rest = key(bookingTitle);
+        if (rest == null || !rest.startsWith(PREFIX)) return null;
+        rest = rest.substring(PREFIX.length()).trim();
+
+        Long id = lookup(rest);
+        if (id == null && rest.endsWith(")")) {
+            int suffix = rest.lastIndexOf(" (");
+            if (suffix > 0) id = lookup(rest.substring(0, suffix).trim());
+        }
+        return id;
+    }
+
+    private Long lookup(String name) {
+        Long id = byName.get(name);
+        if (id != null || !name.startsWith(BY_ID)) return id;
+        try {
+            Long parsed = Long.valueOf(name.substring(BY_ID.length()));
+            return ids.contains(parsed) ? parsed : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String key(String text) {
+        if (text == null || text.isBlank()) return null;
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+}
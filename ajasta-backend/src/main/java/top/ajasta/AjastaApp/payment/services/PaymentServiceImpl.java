@@ -8,11 +8,16 @@ import top.ajasta.AjastaApp.enums.PaymentGateway;
 import top.ajasta.AjastaApp.enums.PaymentStatus;
 import top.ajasta.AjastaApp.exceptions.BadRequestException;
 import top.ajasta.AjastaApp.exceptions.NotFoundException;
+import top.ajasta.AjastaApp.money.Money;
 import top.ajasta.AjastaApp.order.entity.Order;
 import top.ajasta.AjastaApp.order.repository.OrderRepository;
 import top.ajasta.AjastaApp.payment.dtos.PaymentDTO;
 import top.ajasta.AjastaApp.payment.entity.Payment;
 import top.ajasta.AjastaApp.payment.repository.PaymentRepository;
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+import top.ajasta.AjastaApp.reservation.events.SlotsReleasedEvent;
+import top.ajasta.AjastaApp.reservation.services.AvailabilityService;
+import top.ajasta.AjastaApp.reservation.services.OccupancyService;
 import top.ajasta.AjastaApp.response.Response;
 import com.stripe.Stripe;
 import com.stripe.model.PaymentIntent;
@@ -22,13 +27,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.TypeToken;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.Year;
 import java.time.format.DateTimeFormatter;
@@ -45,6 +50,9 @@ public class PaymentServiceImpl implements PaymentService {
     private final OrderRepository orderRepository;
     private final TemplateEngine templateEngine;
     private final ModelMapper modelMapper;
+    private final AvailabilityService availabilityService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OccupancyService occupancyService;
 
 
     @Value("${stripe.api.secret.key}")
@@ -80,7 +88,9 @@ public class PaymentServiceImpl implements PaymentService {
 
         log.info("Amount is not null ... moving forward ...");
 
-        if (order.getTotalAmount().compareTo(paymentRequest.getAmount()) != 0) {
+        // Compared exactly: an amount with sub-cent digits never tallies
+        Money amount = Money.of(order.getTotalAmount());
+        if (amount.toBigDecimal().compareTo(paymentRequest.getAmount()) != 0) {
             log.info("Payment Amount Does Not Tally. Please Contact Out Customer Support Agent");
             throw new BadRequestException("Payment Amount Does Not Tally. Please Contact Out Customer Support Agent");
         }
@@ -90,7 +100,7 @@ public class PaymentServiceImpl implements PaymentService {
         //create payment intent i.e create unique transaction id for that payment
         try {
             PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
-                    .setAmount(paymentRequest.getAmount().multiply(BigDecimal.valueOf(100)).longValue()) // converting to cent
+                    .setAmount(amount.cents())
                     .setCurrency("usd")
                     .putMetadata("orderId", String.valueOf(orderId))
                     .build();
@@ -142,7 +152,7 @@ public class PaymentServiceImpl implements PaymentService {
         context.setVariable("customerName", order.getUser().getName());
         context.setVariable("orderId", order.getId());
         context.setVariable("currentYear", Year.now().getValue());
-        context.setVariable("amount", "$" + paymentDTO.getAmount());
+        context.setVariable("amount", "$" + Money.of(paymentDTO.getAmount()));
 
         if (paymentDTO.isSuccess()) {
             order.setPaymentStatus(PaymentStatus.COMPLETED);
@@ -168,9 +178,19 @@ public class PaymentServiceImpl implements PaymentService {
                     .isHtml(true)
                     .build());
         } else {
+            boolean wasActive = order.getOrderStatus() != OrderStatus.CANCELLED && order.getOrderStatus() != OrderStatus.FAILED;
             order.setPaymentStatus(PaymentStatus.FAILED);
             order.setOrderStatus(OrderStatus.CANCELLED);
             orderRepository.save(order);
+            // Free the booked slots again and let the waitlist have them
+            availabilityService.invalidate(order);
+            if (wasActive && order.getResourceId() != null) {
+                occupancyService.orderReleased(order);
+                List<SlotRange> freed = availabilityService.bookedRanges(order);
+                if (!freed.isEmpty()) {
+                    eventPublisher.publishEvent(new SlotsReleasedEvent(order.getResourceId(), freed));
+                }
+            }
 
 
             log.info("PAYMENT IS FAILED ABOUT TO SEND EMAIL");
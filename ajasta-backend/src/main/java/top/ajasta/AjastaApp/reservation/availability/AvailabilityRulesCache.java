@@ -0,0 +1,77 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import top.ajasta.AjastaApp.exceptions.NotFoundException;
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-resource cache of {@link CompiledAvailabilityRules}, keyed by the resource's {@code updatedAt}.
+ * <p>
+ * Rules compiled from an older version of a resource never replace newer cached ones, and rules are only stored
+ * if no {@link #evict} happened since the row was read, so a read racing a write cannot put the pre-write
+ * schedule back.
+ */
+@Component
+@RequiredArgsConstructor
+public class AvailabilityRulesCache {
+
+    private final ResourceRepository resourceRepository;
+
+    private final ConcurrentMap<Long, CompiledAvailabilityRules> rules = new ConcurrentHashMap<>();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // Cached rules for the id; the resource is only read from the database on a miss
+    public CompiledAvailabilityRules get(Long resourceId) {
+        CompiledAvailabilityRules cached = rules.get(resourceId);
+        if (cached != null) return cached;
+        long seen = generation();
+        Resource resource = resourceRepository.findById(resourceId)
+                .orElseThrow(() -> new NotFoundException("Resource not found"));
+        return get(resource, seen);
+    }
+
+    // Rules matching this exact version of the resource, recompiled only when updatedAt moved
+    public CompiledAvailabilityRules get(Resource resource) {
+        return get(resource, generation());
+    }
+
+    // Same, for a resource read after generation() returned seen; stored only if nothing was evicted since
+    public CompiledAvailabilityRules get(Resource resource, long seen) {
+        CompiledAvailabilityRules cached = rules.get(resource.getId());
+        if (cached != null && Objects.equals(cached.version(), resource.getUpdatedAt())) {
+            return cached;
+        }
+        CompiledAvailabilityRules compiled = CompiledAvailabilityRules.compile(resource);
+        rules.compute(resource.getId(), (k, current) -> evictions.get() != seen ? current : newer(current, compiled));
+        return compiled;
+    }
+
+    // Bumped by every evict(); read it before loading resources whose rules are then cached
+    public long generation() {
+        return evictions.get();
+    }
+
+    // Call after the write committed
+    public void evict(Long resourceId) {
+        if (resourceId == null) return;
+        evictions.incrementAndGet();
+        rules.remove(resourceId);
+    }
+
+    // The cached rules unless the compiled ones come from a later version of the resource
+    private static CompiledAvailabilityRules newer(CompiledAvailabilityRules current, CompiledAvailabilityRules compiled) {
+        if (current == null) return compiled;
+        LocalDateTime cachedVersion = current.version();
+        LocalDateTime version = compiled.version();
+        if (version == null || (cachedVersion != null && !version.isAfter(cachedVersion))) return current;
+        return compiled;
+    }
+}
@@ -0,0 +1,96 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads slot ranges back out of the human-readable {@code Order.bookingDetails} text written by
+ * {@code ResourceController} (single, batch and multi-day formats).
+ */
+public final class BookingDetailsParser {
+
+    private BookingDetailsParser() {
+    }
+
+    public static List<SlotRange> parse(String details) {
+        return parse(details, null);
+    }
+
+    // Returns the ranges of the given day only, or of every day when onlyDate is null
+    public static List<SlotRange> parse(String details, LocalDate onlyDate) {
+        List<SlotRange> out = new ArrayList<>();
+        if (details == null || details.isBlank()) return out;
+
+        LocalDate currentDate = null;
+        String pendingStart = null;
+        String pendingEnd = null;
+
+        for (String rawLine : details.split("\n")) {
+            String line = rawLine.trim();
+            if (line.startsWith("Date:")) {
+                flush(out, currentDate, pendingStart, pendingEnd, 1, onlyDate);
+                pendingStart = pendingEnd = null;
+                currentDate = parseDate(line.substring("Date:".length()).trim());
+            } else if (line.startsWith("Time:")) {
+                // Single-slot format: "Time: HH:mm - HH:mm" followed by "Unit: n"
+                flush(out, currentDate, pendingStart, pendingEnd, 1, onlyDate);
+                String[] times = line.substring("Time:".length()).split(" - ");
+                if (times.length == 2) {
+                    pendingStart = times[0].trim();
+                    pendingEnd = times[1].trim();
+                } else {
+                    pendingStart = pendingEnd = null;
+                }
+            } else if (line.startsWith("Unit:")) {
+                flush(out, currentDate, pendingStart, pendingEnd, parseUnit(line.substring("Unit:".length())), onlyDate);
+                pendingStart = pendingEnd = null;
+            } else if (line.startsWith("- ")) {
+                // Batch/multi format: "- HH:mm - HH:mm | Unit n"
+                String body = line.substring(2);
+                int unit = 1;
+                int bar = body.indexOf('|');
+                if (bar >= 0) {
+                    String unitPart = body.substring(bar + 1).trim();
+                    if (unitPart.startsWith("Unit")) unit = parseUnit(unitPart.substring("Unit".length()));
+                    body = body.substring(0, bar);
+                }
+                String[] times = body.split(" - ");
+                if (times.length == 2) {
+                    flush(out, currentDate, times[0].trim(), times[1].trim(), unit, onlyDate);
+                }
+            }
+        }
+        flush(out, currentDate, pendingStart, pendingEnd, 1, onlyDate);
+        return out;
+    }
+
+    private static void flush(List<SlotRange> out, LocalDate date, String start, String end, int unit, LocalDate onlyDate) {
+        if (date == null || start == null || end == null) return;
+        if (onlyDate != null && !onlyDate.equals(date)) return;
+        try {
+            int s = SlotGrid.startSlotOf(start);
+            int e = SlotGrid.endSlotOf(end);
+            if (e > s) out.add(new SlotRange(date, Math.max(1, unit), s, e));
+        } catch (IllegalArgumentException ignored) {
+            // Malformed legacy line; nothing to replay
+        }
+    }
+
+    private static LocalDate parseDate(String v) {
+        try {
+            return LocalDate.parse(v);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static int parseUnit(String v) {
+        try {
+            return Integer.parseInt(v.trim());
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+}
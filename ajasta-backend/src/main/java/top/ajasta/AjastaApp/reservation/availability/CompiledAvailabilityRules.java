@@ -0,0 +1,150 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+/**
+ * Scheduling configuration of a resource compiled from its string columns
+ * ({@code unavailableWeekdays}, {@code unavailableDates}, {@code dailyUnavailableRanges}, opening hours).
+ * <p>
+ * Instances are immutable; every lookup is a bit test or a binary search and allocates nothing.
+ */
+public final class CompiledAvailabilityRules {
+
+    private final Long resourceId;
+    private final LocalDateTime version;
+    private final int unitsCount;
+    private final long openMask;
+    private final long dailyBlockedMask;
+    // bit w set => weekday w (0=Sunday .. 6=Saturday) is closed
+    private final int closedWeekdays;
+    // sorted epoch days that are closed
+    private final int[] closedDays;
+
+    private CompiledAvailabilityRules(Long resourceId, LocalDateTime version, int unitsCount, long openMask,
+                                      long dailyBlockedMask, int closedWeekdays, int[] closedDays) {
+        this.resourceId = resourceId;
+        this.version = version;
+        this.unitsCount = unitsCount;
+        this.openMask = openMask;
+        this.dailyBlockedMask = dailyBlockedMask;
+        this.closedWeekdays = closedWeekdays;
+        this.closedDays = closedDays;
+    }
+
+    public static CompiledAvailabilityRules compile(Resource resource) {
+        int units = resource.getUnitsCount() == null || resource.getUnitsCount() < 1 ? 1 : resource.getUnitsCount();
+        return new CompiledAvailabilityRules(
+                resource.getId(),
+                resource.getUpdatedAt(),
+                units,
+                SlotGrid.openMask(resource.getOpenTime(), resource.getCloseTime()),
+                parseDailyRanges(resource.getDailyUnavailableRanges()),
+                parseWeekdays(resource.getUnavailableWeekdays()),
+                parseDates(resource.getUnavailableDates()));
+    }
+
+    public Long resourceId() {
+        return resourceId;
+    }
+
+    // updatedAt of the resource these rules were compiled from
+    public LocalDateTime version() {
+        return version;
+    }
+
+    public int unitsCount() {
+        return unitsCount;
+    }
+
+    public long openMask() {
+        return openMask;
+    }
+
+    public long dailyBlockedMask() {
+        return dailyBlockedMask;
+    }
+
+    public int closedWeekdays() {
+        return closedWeekdays;
+    }
+
+    public boolean isClosed(long epochDay) {
+        return (closedWeekdays & (1 << weekdayOf(epochDay))) != 0
+                || Arrays.binarySearch(closedDays, (int) epochDay) >= 0;
+    }
+
+    public boolean isClosed(LocalDate date) {
+        return isClosed(date.toEpochDay());
+    }
+
+    // Slots that may be booked on the given day, ignoring existing bookings
+    public long bookableMask(long epochDay) {
+        return isClosed(epochDay) ? 0L : openMask & ~dailyBlockedMask;
+    }
+
+    public long bookableMask(LocalDate date) {
+        return bookableMask(date.toEpochDay());
+    }
+
+    // 0=Sunday .. 6=Saturday; epoch day 0 (1970-01-01) was a Thursday
+    public static int weekdayOf(long epochDay) {
+        return (int) Math.floorMod(epochDay + 4, 7L);
+    }
+
+    // "0,6" -> bits 0 and 6
+    static int parseWeekdays(String csv) {
+        int mask = 0;
+        if (csv == null || csv.isBlank()) return mask;
+        for (String token : csv.split(",")) {
+            String t = token.trim();
+            if (t.isEmpty()) continue;
+            try {
+                int w = Integer.parseInt(t);
+                if (w >= 0 && w <= 6) mask |= 1 << w;
+            } catch (NumberFormatException ignored) {
+                // Same leniency as the booking page: unknown tokens are skipped
+            }
+        }
+        return mask;
+    }
+
+    // "2025-01-01,2025-12-25" -> sorted distinct epoch days
+    static int[] parseDates(String csv) {
+        if (csv == null || csv.isBlank()) return new int[0];
+        return Arrays.stream(csv.split(","))
+                .map(String::trim)
+                .filter(t -> !t.isEmpty())
+                .mapToInt(t -> {
+                    try {
+                        return (int) LocalDate.parse(t).toEpochDay();
+                    } catch (DateTimeParseException e) {
+                        return Integer.MIN_VALUE;
+                    }
+                })
+                .filter(d -> d != Integer.MIN_VALUE)
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    // "12:00-13:30;16:00-17:00" -> slots whose start time falls inside any range
+    static long parseDailyRanges(String ranges) {
+        long mask = 0L;
+        if (ranges == null || ranges.isBlank()) return mask;
+        for (String token : ranges.split(";")) {
+            String[] parts = token.trim().split("-");
+            if (parts.length != 2) continue;
+            try {
+                mask |= SlotGrid.rangeMask(SlotGrid.ceilSlotOf(parts[0]), SlotGrid.ceilSlotOf(parts[1]));
+            } catch (IllegalArgumentException ignored) {
+                // Malformed range; skipped like on the booking page
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,78 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Booked slots of one resource for one day, one 48-bit word per unit.
+ * <p>
+ * Every read is a single word load and every single-unit update is a CAS loop, so lookups never block
+ * and never allocate.
+ */
+public final class DayOccupancy {
+
+    private final AtomicLongArray busy;
+
+    public DayOccupancy(int unitsCount) {
+        this.busy = new AtomicLongArray(Math.max(1, unitsCount));
+    }
+
+    public int unitsCount() {
+        return busy.length();
+    }
+
+    public boolean hasUnit(int unit) {
+        return unit >= 1 && unit <= busy.length();
+    }
+
+    // Booked slots of a unit (1-based); unknown units report every slot as taken
+    public long busyMask(int unit) {
+        return hasUnit(unit) ? busy.get(unit - 1) : SlotGrid.FULL_DAY_MASK;
+    }
+
+    public boolean isFree(int unit, int slot) {
+        return (busyMask(unit) & (1L << slot)) == 0;
+    }
+
+    public boolean isRangeFree(int unit, int startSlot, int endSlot) {
+        return (busyMask(unit) & SlotGrid.rangeMask(startSlot, endSlot)) == 0;
+    }
+
+    // Marks slots as taken regardless of current state (used when replaying stored bookings)
+    public void occupy(int unit, long mask) {
+        if (!hasUnit(unit)) return;
+        int i = unit - 1;
+        long cur;
+        do {
+            cur = busy.get(i);
+        } while (!busy.compareAndSet(i, cur, cur | mask));
+    }
+
+    // Atomically takes the slots only if none of them is taken yet
+    public boolean tryOccupy(int unit, long mask) {
+        if (!hasUnit(unit)) return false;
+        int i = unit - 1;
+        long cur;
+        do {
+            cur = busy.get(i);
+            if ((cur & mask) != 0) return false;
+        } while (!busy.compareAndSet(i, cur, cur | mask));
+        return true;
+    }
+
+    public void release(int unit, long mask) {
+        if (!hasUnit(unit)) return;
+        int i = unit - 1;
+        long cur;
+        do {
+            cur = busy.get(i);
+        } while (!busy.compareAndSet(i, cur, cur & ~mask));
+    }
+
+    public void occupy(SlotRange range) {
+        occupy(range.unit(), range.mask());
+    }
+
+    public void release(SlotRange range) {
+        release(range.unit(), range.mask());
+    }
+}
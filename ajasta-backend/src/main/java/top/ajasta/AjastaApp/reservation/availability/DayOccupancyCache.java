@@ -0,0 +1,183 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * The {@link DayOccupancy} bitmaps of the availability engine by (resource, date), bounded in size and time.
+ * <p>
+ * A day is rebuilt from the database once it is older than the time to live, which also bounds how long bookings
+ * committed by another node stay invisible to this one. Past dates, expired days and, above the size bound, the
+ * least recently built ones are swept out every {@value #SWEEP_EVERY} builds or as soon as the bound is exceeded.
+ * Lookups stay plain map reads. A missing day is built once at a time per key by a task the other readers wait on,
+ * outside of any map lock; a {@link #remove} during the build keeps the result out of the cache.
+ */
+@Component
+public class DayOccupancyCache {
+
+    private static final int SWEEP_EVERY = 1024;
+
+    private final int maxDays;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final ConcurrentMap<Key, Entry> days = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Key, CompletableFuture<DayOccupancy>> building = new ConcurrentHashMap<>();
+    private final AtomicInteger buildsSinceSweep = new AtomicInteger();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    private record Key(long resourceId, long epochDay) {
+    }
+
+    private record Entry(DayOccupancy occupancy, long builtAt) {
+    }
+
+    @Autowired
+    public DayOccupancyCache(@Value("${app.availability.day-cache-max-days:50000}") int maxDays,
+                             @Value("${app.availability.day-cache-ttl-seconds:300}") long ttlSeconds) {
+        this(maxDays, ttlSeconds * 1000, System::currentTimeMillis);
+    }
+
+    public DayOccupancyCache(int maxDays, long ttlMillis, LongSupplier clock) {
+        if (maxDays < 1) throw new IllegalArgumentException("maxDays must be positive");
+        if (ttlMillis < 1) throw new IllegalArgumentException("ttlMillis must be positive");
+        this.maxDays = maxDays;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    // The live day or null
+    public DayOccupancy get(long resourceId, LocalDate date) {
+        Entry e = days.get(new Key(resourceId, date.toEpochDay()));
+        return e != null && live(e, clock.getAsLong()) ? e.occupancy() : null;
+    }
+
+    public boolean contains(long resourceId, LocalDate date) {
+        return get(resourceId, date) != null;
+    }
+
+    // The live day, built by the loader (at most once per key at a time) when missing or expired
+    public DayOccupancy get(long resourceId, LocalDate date, Supplier<DayOccupancy> loader) {
+        Key key = new Key(resourceId, date.toEpochDay());
+        Entry e = days.get(key);
+        if (e != null && live(e, clock.getAsLong())) return e.occupancy();
+
+        CompletableFuture<DayOccupancy> mine = new CompletableFuture<>();
+        CompletableFuture<DayOccupancy> running = building.putIfAbsent(key, mine);
+        if (running != null) return await(running);
+        try {
+            DayOccupancy built = build(key, loader, mine);
+            mine.complete(built);
+            return built;
+        } catch (RuntimeException | Error ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            building.remove(key, mine);
+        }
+    }
+
+    // Loads without holding any map lock; the map is only locked to store the result
+    private DayOccupancy build(Key key, Supplier<DayOccupancy> loader, CompletableFuture<DayOccupancy> mine) {
+        Entry e = days.get(key);
+        if (e != null && live(e, clock.getAsLong())) return e.occupancy();
+        DayOccupancy built = loader.get();
+        boolean[] stored = new boolean[1];
+        days.compute(key, (k, old) -> {
+            // Removed while building: the day may have been read before the write that removed it
+            if (building.get(k) != mine) return old;
+            if (old != null && live(old, clock.getAsLong())) return old;
+            stored[0] = true;
+            return new Entry(built, clock.getAsLong());
+        });
+        if (stored[0]) afterBuild();
+        return built;
+    }
+
+    private static DayOccupancy await(CompletableFuture<DayOccupancy> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException r) throw r;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+
+    public void put(long resourceId, LocalDate date, DayOccupancy occupancy) {
+        days.put(new Key(resourceId, date.toEpochDay()), new Entry(occupancy, clock.getAsLong()));
+        afterBuild();
+    }
+
+    // Keeps a live day that is already there
+    public void putIfAbsent(long resourceId, LocalDate date, DayOccupancy occupancy) {
+        long now = clock.getAsLong();
+        boolean[] built = new boolean[1];
+        days.compute(new Key(resourceId, date.toEpochDay()), (k, old) -> {
+            if (old != null && live(old, now)) return old;
+            built[0] = true;
+            return new Entry(occupancy, now);
+        });
+        if (built[0]) afterBuild();
+    }
+
+    public void remove(long resourceId, LocalDate date) {
+        Key key = new Key(resourceId, date.toEpochDay());
+        // A build in progress finds its task gone and does not store what it read
+        building.remove(key);
+        days.remove(key);
+    }
+
+    public int size() {
+        return days.size();
+    }
+
+    private boolean live(Entry e, long now) {
+        return now - e.builtAt() < ttlMillis;
+    }
+
+    private void afterBuild() {
+        if (days.size() > maxDays || buildsSinceSweep.incrementAndGet() >= SWEEP_EVERY) sweep();
+    }
+
+    // One sweeping thread at a time; the others carry on, the bound is only exceeded until it finishes
+    void sweep() {
+        if (!sweeping.compareAndSet(false, true)) return;
+        try {
+            buildsSinceSweep.set(0);
+            long now = clock.getAsLong();
+            long today = LocalDate.ofInstant(Instant.ofEpochMilli(now), zone).toEpochDay();
+            days.entrySet().removeIf(e -> e.getKey().epochDay() < today || !live(e.getValue(), now));
+
+            // Down to 90% of the bound, so the next few builds do not sweep again
+            int excess = days.size() - maxDays * 9 / 10;
+            if (days.size() > maxDays && excess > 0) {
+                List<Map.Entry<Key, Entry>> oldest = days.entrySet().stream()
+                        .sorted(Comparator.comparingLong(e -> e.getValue().builtAt()))
+                        .limit(excess)
+                        .toList();
+                // remove(key, value) leaves a day alone that was rebuilt meanwhile
+                oldest.forEach(e -> days.remove(e.getKey(), e.getValue()));
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
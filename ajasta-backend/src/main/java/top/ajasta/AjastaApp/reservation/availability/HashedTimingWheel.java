@@ -0,0 +1,187 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Hashed timing wheel for large numbers of short-lived timeouts.
+ * <p>
+ * Scheduling and cancelling are O(1) and lock-free for the caller: new timeouts go through a queue that only
+ * the worker drains, and a cancelled timeout is just flagged and dropped when its bucket comes round. One
+ * worker thread serves every timeout, so tens of thousands of pending timeouts cost one object each instead
+ * of one scheduled task each. Expiry is accurate to one tick.
+ */
+@Slf4j
+public final class HashedTimingWheel<T> implements AutoCloseable {
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<Queue<Timeout>> buckets;
+    private final Queue<Timeout> additions = new ConcurrentLinkedQueue<>();
+    private final Consumer<T> onExpire;
+    private final LongSupplier clock;
+    private final long startMillis;
+    private final AtomicInteger pending = new AtomicInteger();
+
+    // Next tick to process; only touched by the thread that advances the wheel
+    private long tick;
+
+    private volatile Thread worker;
+    private volatile boolean stopped;
+
+    public HashedTimingWheel(long tickMillis, int wheelSize, Consumer<T> onExpire) {
+        this(tickMillis, wheelSize, onExpire, System::currentTimeMillis);
+    }
+
+    // The clock is injectable so tests can drive the wheel with advanceTo() instead of a thread
+    public HashedTimingWheel(long tickMillis, int wheelSize, Consumer<T> onExpire, LongSupplier clock) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis must be positive");
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+        this.onExpire = onExpire;
+        this.clock = clock;
+        this.startMillis = clock.getAsLong();
+    }
+
+    public Timeout schedule(T task, long delay, TimeUnit unit) {
+        if (stopped) throw new IllegalStateException("Timing wheel is stopped");
+        long deadline = clock.getAsLong() - startMillis + Math.max(0, unit.toMillis(delay));
+        Timeout timeout = new Timeout(task, deadline);
+        pending.incrementAndGet();
+        additions.add(timeout);
+        return timeout;
+    }
+
+    // Timeouts scheduled and not yet expired or cancelled
+    public int pending() {
+        return pending.get();
+    }
+
+    public synchronized void start(String threadName) {
+        if (worker != null || stopped) return;
+        Thread t = new Thread(this::run, threadName);
+        t.setDaemon(true);
+        worker = t;
+        t.start();
+    }
+
+    @Override
+    public void close() {
+        stopped = true;
+        Thread t = worker;
+        if (t != null) {
+            t.interrupt();
+        }
+    }
+
+    // Processes every tick whose time has come by the given clock reading
+    public void advanceTo(long nowMillis) {
+        long lastTick = (nowMillis - startMillis) / tickMillis;
+        while (tick <= lastTick) {
+            transferAdditions();
+            expire(buckets.get((int) (tick & mask)));
+            tick++;
+        }
+    }
+
+    private void run() {
+        while (!stopped) {
+            long nextTickAt = startMillis + tick * tickMillis;
+            long sleep = nextTickAt - clock.getAsLong();
+            if (sleep > 0) {
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException e) {
+                    if (stopped) return;
+                    continue;
+                }
+            }
+            try {
+                advanceTo(clock.getAsLong());
+            } catch (RuntimeException e) {
+                log.error("Timing wheel tick failed", e);
+            }
+        }
+    }
+
+    private void transferAdditions() {
+        Timeout t;
+        while ((t = additions.poll()) != null) {
+            if (t.cancelled) continue;
+            // Anything already due lands in the current bucket
+            long dueTick = Math.max(tick, (t.deadline + tickMillis - 1) / tickMillis);
+            t.rounds = (dueTick - tick) / buckets.size();
+            buckets.get((int) (dueTick & mask)).add(t);
+        }
+    }
+
+    private void expire(Queue<Timeout> bucket) {
+        Iterator<Timeout> it = bucket.iterator();
+        while (it.hasNext()) {
+            Timeout t = it.next();
+            if (t.cancelled) {
+                it.remove();
+            } else if (t.rounds > 0) {
+                t.rounds--;
+            } else {
+                it.remove();
+                if (t.fire()) {
+                    pending.decrementAndGet();
+                    try {
+                        onExpire.accept(t.task);
+                    } catch (RuntimeException e) {
+                        log.error("Timeout handler failed for {}", t.task, e);
+                    }
+                }
+            }
+        }
+    }
+
+    public final class Timeout {
+        private final T task;
+        private final long deadline;
+        private long rounds;
+        private volatile boolean cancelled;
+        private boolean fired;
+
+        private Timeout(T task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        public T task() {
+            return task;
+        }
+
+        // True if this call prevented the expiry; false if it already fired or was cancelled
+        public boolean cancel() {
+            synchronized (this) {
+                if (cancelled || fired) return false;
+                cancelled = true;
+            }
+            pending.decrementAndGet();
+            return true;
+        }
+
+        private synchronized boolean fire() {
+            if (cancelled) return false;
+            fired = true;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Change to a resource's occupancy counters: booked unit-slots per (weekday, slot) and per day.
+ * <p>
+ * A booking adds its ranges with sign +1, a cancellation the same ranges with -1; a series adds every occurrence
+ * at once without expanding the weekday part, since all occurrences fall on the same weekday. Cells come out in
+ * (weekday, slot) and date order, so concurrent writers always touch the counter rows in the same order.
+ */
+public final class OccupancyTally {
+
+    private final long[][] slots = new long[7][SlotGrid.SLOTS_PER_DAY];
+    private final TreeMap<LocalDate, Long> days = new TreeMap<>();
+
+    public OccupancyTally add(SlotRange range, int sign) {
+        addSlots(range, (long) sign);
+        addDay(range.date(), (long) sign * range.length());
+        return this;
+    }
+
+    public OccupancyTally addSeries(SlotRange first, SeriesPattern pattern, int sign) {
+        addSlots(first, (long) sign * pattern.count());
+        for (LocalDate d = pattern.first(); !d.isAfter(pattern.last()); d = d.plusDays(pattern.periodDays())) {
+            addDay(d, (long) sign * first.length());
+        }
+        return this;
+    }
+
+    private void addSlots(SlotRange range, long delta) {
+        long[] row = slots[range.date().getDayOfWeek().getValue() - 1];
+        for (int s = range.startSlot(); s < range.endSlot(); s++) {
+            row[s] += delta;
+        }
+    }
+
+    private void addDay(LocalDate date, long delta) {
+        if (days.merge(date, delta, Long::sum) == 0) days.remove(date);
+    }
+
+    public long slot(DayOfWeek weekday, int slot) {
+        return slots[weekday.getValue() - 1][slot];
+    }
+
+    // Non-zero day deltas by date
+    public Map<LocalDate, Long> days() {
+        return Collections.unmodifiableMap(days);
+    }
+
+    public boolean isEmpty() {
+        if (!days.isEmpty()) return false;
+        for (long[] row : slots) {
+            for (long v : row) {
+                if (v != 0) return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,77 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Active resources grouped by type, so a free-window search walks one in-memory list instead of querying
+ * resource by resource. Built from a single query on first use and rebuilt after any resource write; a build
+ * that an invalidation overtook is returned to its caller but never published.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResourceTypeIndex {
+
+    private final ResourceRepository resourceRepository;
+    private final AvailabilityRulesCache rulesCache;
+
+    private volatile Map<ResourceType, List<Entry>> byType;
+    // Bumped by every invalidate(); guarded by this
+    private long invalidations;
+
+    // Active resources of the given type ordered by name
+    public List<Entry> resourcesOf(ResourceType type) {
+        Map<ResourceType, List<Entry>> snapshot = byType;
+        if (snapshot == null) {
+            long seen = invalidations();
+            snapshot = build();
+            synchronized (this) {
+                if (invalidations == seen) byType = snapshot;
+            }
+        }
+        return snapshot.getOrDefault(type, List.of());
+    }
+
+    public synchronized void invalidate() {
+        invalidations++;
+        byType = null;
+    }
+
+    private synchronized long invalidations() {
+        return invalidations;
+    }
+
+    private Map<ResourceType, List<Entry>> build() {
+        Map<ResourceType, List<Entry>> out = new EnumMap<>(ResourceType.class);
+        long seen = rulesCache.generation();
+        for (Resource r : resourceRepository.findByActiveTrue()) {
+            if (r.getType() == null) continue;
+            // Warm the rules cache with the row we already have so the search does not re-read it
+            rulesCache.get(r, seen);
+            out.computeIfAbsent(r.getType(), t -> new ArrayList<>()).add(Entry.of(r));
+        }
+        Comparator<Entry> byName = Comparator.comparing(Entry::name, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+        out.replaceAll((t, list) -> {
+            list.sort(byName.thenComparing(Entry::id));
+            return List.copyOf(list);
+        });
+        return out;
+    }
+
+    // Detached summary of a resource; the entity itself is not kept to avoid holding lazy associations
+    public record Entry(Long id, String name, String location, String imageUrl, BigDecimal pricePerSlot) {
+        static Entry of(Resource r) {
+            return new Entry(r.getId(), r.getName(), r.getLocation(), r.getImageUrl(), r.getPricePerSlot());
+        }
+    }
+}
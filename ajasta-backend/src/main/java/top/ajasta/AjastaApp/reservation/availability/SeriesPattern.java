@@ -0,0 +1,95 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Weekly recurrence: {@code first}, then every {@code intervalWeeks} weeks up to and including {@code last}
+ * (RRULE FREQ=WEEKLY;INTERVAL=n with UNTIL or COUNT, normalized to the date of the last occurrence).
+ * <p>
+ * Occurrences are never materialized: whether a date belongs to the series is a congruence test on its epoch
+ * day, and the first date two series share is found by stepping through at most one common period.
+ */
+public record SeriesPattern(LocalDate first, LocalDate last, int intervalWeeks) {
+
+    public static final int MAX_INTERVAL_WEEKS = 4;
+
+    public SeriesPattern {
+        if (first == null || last == null) throw new IllegalArgumentException("first and last are required");
+        if (intervalWeeks < 1 || intervalWeeks > MAX_INTERVAL_WEEKS) {
+            throw new IllegalArgumentException("intervalWeeks must be between 1 and " + MAX_INTERVAL_WEEKS);
+        }
+        if (last.isBefore(first)) throw new IllegalArgumentException("last must not be before first");
+        if ((last.toEpochDay() - first.toEpochDay()) % (7L * intervalWeeks) != 0) {
+            throw new IllegalArgumentException("last must be an occurrence of the series");
+        }
+    }
+
+    /**
+     * Series starting on {@code first} that ends after {@code count} occurrences or on the last occurrence not
+     * after {@code until}, whichever comes first; at least one of the two is required.
+     */
+    public static SeriesPattern of(LocalDate first, int intervalWeeks, LocalDate until, Integer count) {
+        if (until == null && count == null) throw new IllegalArgumentException("until or count is required");
+        long period = 7L * intervalWeeks;
+        long n = Long.MAX_VALUE;
+        if (count != null) {
+            if (count < 1) throw new IllegalArgumentException("count must be positive");
+            n = count;
+        }
+        if (until != null) {
+            if (until.isBefore(first)) throw new IllegalArgumentException("until must not be before the first date");
+            n = Math.min(n, (until.toEpochDay() - first.toEpochDay()) / period + 1);
+        }
+        return new SeriesPattern(first, first.plusDays((n - 1) * period), intervalWeeks);
+    }
+
+    public long periodDays() {
+        return 7L * intervalWeeks;
+    }
+
+    public int count() {
+        return (int) ((last.toEpochDay() - first.toEpochDay()) / periodDays() + 1);
+    }
+
+    public boolean occursOn(LocalDate date) {
+        long d = date.toEpochDay() - first.toEpochDay();
+        return d >= 0 && date.compareTo(last) <= 0 && d % periodDays() == 0;
+    }
+
+    // First occurrence on or after the date, or null if the series has ended by then
+    public LocalDate firstOnOrAfter(LocalDate date) {
+        long d = date.toEpochDay() - first.toEpochDay();
+        if (d <= 0) return first;
+        long steps = (d + periodDays() - 1) / periodDays();
+        LocalDate next = first.plusDays(steps * periodDays());
+        return next.isAfter(last) ? null : next;
+    }
+
+    // Occurrences within [from, to]; callers keep the window small (a page of days, not the whole series)
+    public List<LocalDate> occurrencesBetween(LocalDate from, LocalDate to) {
+        List<LocalDate> out = new ArrayList<>();
+        LocalDate end = to.isBefore(last) ? to : last;
+        for (LocalDate d = firstOnOrAfter(from); d != null && !d.isAfter(end); d = d.plusDays(periodDays())) {
+            out.add(d);
+        }
+        return out;
+    }
+
+    /**
+     * Earliest date on which both series occur, or null if they never meet. Both periods are whole weeks, so
+     * the series meet at most once per lcm of the periods and at most {@code other.intervalWeeks} candidate
+     * occurrences of this series need a look.
+     */
+    public LocalDate firstCommon(SeriesPattern other) {
+        LocalDate from = first.isAfter(other.first) ? first : other.first;
+        LocalDate to = last.isBefore(other.last) ? last : other.last;
+        if (from.isAfter(to)) return null;
+        LocalDate d = firstOnOrAfter(from);
+        for (int i = 0; d != null && !d.isAfter(to) && i < other.intervalWeeks; i++, d = d.plusDays(periodDays())) {
+            if (other.occursOn(d)) return d;
+        }
+        return null;
+    }
+}
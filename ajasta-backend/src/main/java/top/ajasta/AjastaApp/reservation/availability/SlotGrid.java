@@ -0,0 +1,109 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import java.time.LocalTime;
+
+/**
+ * Fixed 30-minute booking grid aligned to midnight.
+ * <p>
+ * A day has 48 slots, so the occupancy of one unit for one day fits into the low 48 bits of a {@code long}:
+ * bit {@code i} stands for the slot starting at {@code i * 30} minutes past midnight.
+ */
+public final class SlotGrid {
+
+    public static final int SLOT_MINUTES = 30;
+    public static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    public static final long FULL_DAY_MASK = (1L << SLOTS_PER_DAY) - 1;
+
+    // Same defaults the booking page uses when a resource has no working hours configured
+    public static final LocalTime DEFAULT_OPEN = LocalTime.of(8, 0);
+    public static final LocalTime DEFAULT_CLOSE = LocalTime.of(20, 0);
+
+    private SlotGrid() {
+    }
+
+    // Slot containing the given HH:mm time (rounded down to the grid)
+    public static int startSlotOf(String hhmm) {
+        return minutesOf(hhmm) / SLOT_MINUTES;
+    }
+
+    // Exclusive end slot for the given HH:mm time (rounded up to the grid); "00:00" is treated as midnight at day end
+    public static int endSlotOf(String hhmm) {
+        int minutes = minutesOf(hhmm);
+        if (minutes == 0) return SLOTS_PER_DAY;
+        return (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    }
+
+    // First slot starting at or after the given HH:mm time
+    public static int ceilSlotOf(String hhmm) {
+        return (minutesOf(hhmm) + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    }
+
+    public static int startSlotOf(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / SLOT_MINUTES;
+    }
+
+    public static int endSlotOf(LocalTime time) {
+        int minutes = time.getHour() * 60 + time.getMinute();
+        if (minutes == 0) return SLOTS_PER_DAY;
+        return (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    }
+
+    // Bit mask covering slots [startSlot, endSlot)
+    public static long rangeMask(int startSlot, int endSlot) {
+        int from = Math.max(0, startSlot);
+        int to = Math.min(SLOTS_PER_DAY, endSlot);
+        if (to <= from) return 0L;
+        return ((1L << (to - from)) - 1) << from;
+    }
+
+    // Mask of the slots that lie fully inside opening hours; missing hours fall back to the booking page defaults
+    public static long openMask(LocalTime openTime, LocalTime closeTime) {
+        LocalTime open = openTime != null ? openTime : DEFAULT_OPEN;
+        LocalTime close = closeTime != null ? closeTime : DEFAULT_CLOSE;
+        int from = ceilSlot(open);
+        int to = close.equals(LocalTime.MIDNIGHT) ? SLOTS_PER_DAY : startSlotOf(close);
+        return rangeMask(from, to);
+    }
+
+    public static String timeOf(int slot) {
+        int minutes = slot * SLOT_MINUTES;
+        if (minutes >= 24 * 60) return "00:00";
+        return String.format("%02d:%02d", minutes / 60, minutes % 60);
+    }
+
+    // Expands a mask into ascending slot indexes
+    public static int[] slotsOf(long mask) {
+        int[] out = new int[Long.bitCount(mask)];
+        int i = 0;
+        long m = mask;
+        while (m != 0) {
+            out[i++] = Long.numberOfTrailingZeros(m);
+            m &= m - 1;
+        }
+        return out;
+    }
+
+    private static int ceilSlot(LocalTime time) {
+        int minutes = time.getHour() * 60 + time.getMinute();
+        return (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    }
+
+    private static int minutesOf(String hhmm) {
+        if (hhmm == null) throw new IllegalArgumentException("time is required");
+        String t = hhmm.trim();
+        int colon = t.indexOf(':');
+        if (colon <= 0 || colon == t.length() - 1) {
+            throw new IllegalArgumentException("time must be HH:mm: " + hhmm);
+        }
+        try {
+            int h = Integer.parseInt(t.substring(0, colon));
+            int m = Integer.parseInt(t.substring(colon + 1));
+            if (h < 0 || h > 23 || m < 0 || m > 59) {
+                throw new IllegalArgumentException("time must be HH:mm: " + hhmm);
+            }
+            return h * 60 + m;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("time must be HH:mm: " + hhmm);
+        }
+    }
+}
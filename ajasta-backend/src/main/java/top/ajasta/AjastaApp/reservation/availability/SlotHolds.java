@@ -0,0 +1,270 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Temporary slot holds kept next to the booked-slot bitmaps.
+ * <p>
+ * Held slots of a (resource, date, unit) are one 48-bit word, so availability checks OR it into the booked
+ * mask at the cost of a single map lookup. Expiry runs on a {@link HashedTimingWheel}; a hold is one map entry
+ * plus one wheel entry, whatever the number of concurrent holds. The wheel thread only frees the slots; expiry
+ * listeners (waitlist promotion, live streams) read the database, so they run on their own threads.
+ * <p>
+ * Placing a hold must happen under the reservation stripe lock of each of its dates (see ReservationService),
+ * which keeps it atomic against bookings of the same day.
+ */
+@Component
+@Slf4j
+public class SlotHolds {
+
+    private final ConcurrentMap<HeldKey, Long> held = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Entry> byId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Set<String>> byOwner = new ConcurrentHashMap<>();
+    private final List<Consumer<Hold>> expiryListeners = new CopyOnWriteArrayList<>();
+    private final HashedTimingWheel<String> wheel;
+    private final Executor listenerExecutor;
+    private final LongSupplier clock;
+
+    @Autowired
+    public SlotHolds(@Value("${app.reservation.hold-tick-millis:1000}") long tickMillis,
+                     @Value("${app.reservation.hold-wheel-size:512}") int wheelSize) {
+        this(tickMillis, wheelSize, System::currentTimeMillis, Executors.newVirtualThreadPerTaskExecutor());
+        wheel.start("slot-hold-expiry");
+    }
+
+    // Without a worker thread, listeners called inline; tests drive expiry through advanceTo()
+    SlotHolds(long tickMillis, int wheelSize, LongSupplier clock) {
+        this(tickMillis, wheelSize, clock, Runnable::run);
+    }
+
+    private SlotHolds(long tickMillis, int wheelSize, LongSupplier clock, Executor listenerExecutor) {
+        this.clock = clock;
+        this.listenerExecutor = listenerExecutor;
+        this.wheel = new HashedTimingWheel<>(tickMillis, wheelSize, this::expire, clock);
+    }
+
+    void advanceTo(long nowMillis) {
+        wheel.advanceTo(nowMillis);
+    }
+
+    public boolean isEmpty() {
+        return byId.isEmpty();
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    // Slots of a unit held by anyone
+    public long heldMask(long resourceId, LocalDate date, int unit) {
+        if (byId.isEmpty()) return 0L;
+        Long mask = held.get(new HeldKey(resourceId, date.toEpochDay(), unit));
+        return mask == null ? 0L : mask;
+    }
+
+    // Slots of a unit held by the given user; these do not block that user's own booking
+    public long ownMask(long resourceId, LocalDate date, int unit, Long ownerId) {
+        if (ownerId == null) return 0L;
+        Set<String> ids = byOwner.get(ownerId);
+        if (ids == null) return 0L;
+        long mask = 0L;
+        for (String id : ids) {
+            Entry e = byId.get(id);
+            if (e == null || e.hold.resourceId() != resourceId) continue;
+            for (SlotRange r : e.hold.ranges()) {
+                if (r.unit() == unit && r.date().equals(date)) mask |= r.mask();
+            }
+        }
+        return mask;
+    }
+
+    // All held ranges on a resource except those of the given user
+    public List<SlotRange> heldRanges(long resourceId, Long exceptOwnerId) {
+        List<SlotRange> out = new ArrayList<>();
+        for (Entry e : byId.values()) {
+            if (e.hold.resourceId() == resourceId && (exceptOwnerId == null || !exceptOwnerId.equals(e.hold.ownerId()))) {
+                out.addAll(e.hold.ranges());
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Holds the ranges for the owner, or returns null if any of them is already held.
+     * The caller has already checked the ranges against bookings.
+     */
+    public Hold place(long resourceId, Long ownerId, List<SlotRange> ranges, Duration ttl) {
+        List<SlotRange> taken = new ArrayList<>(ranges.size());
+        for (SlotRange r : ranges) {
+            if (!tryHold(resourceId, r)) {
+                taken.forEach(t -> unhold(resourceId, t));
+                return null;
+            }
+            taken.add(r);
+        }
+        Hold hold = new Hold(UUID.randomUUID().toString(), resourceId, ownerId, List.copyOf(ranges),
+                Instant.ofEpochMilli(clock.getAsLong()).plus(ttl));
+        Entry entry = new Entry(hold);
+        byId.put(hold.id(), entry);
+        if (ownerId != null) {
+            byOwner.computeIfAbsent(ownerId, k -> ConcurrentHashMap.newKeySet()).add(hold.id());
+        }
+        entry.timeout = wheel.schedule(hold.id(), ttl.toMillis(), TimeUnit.MILLISECONDS);
+        return hold;
+    }
+
+    public Hold get(String holdId) {
+        Entry e = holdId == null ? null : byId.get(holdId);
+        return e == null ? null : e.hold;
+    }
+
+    // Live holds of a user across all resources
+    public int countOf(Long ownerId) {
+        Set<String> ids = ownerId == null ? null : byOwner.get(ownerId);
+        return ids == null ? 0 : ids.size();
+    }
+
+    // Live holds of a user on a resource
+    public List<Hold> holdsOf(long resourceId, Long ownerId) {
+        List<Hold> out = new ArrayList<>();
+        Set<String> ids = ownerId == null ? null : byOwner.get(ownerId);
+        if (ids == null) return out;
+        for (String id : ids) {
+            Entry e = byId.get(id);
+            if (e != null && e.hold.resourceId() == resourceId) out.add(e.hold);
+        }
+        return out;
+    }
+
+    public boolean release(String holdId) {
+        Entry e = remove(holdId);
+        if (e == null) return false;
+        if (e.timeout != null) e.timeout.cancel();
+        return true;
+    }
+
+    // Drops the owner's holds on the resource that overlap any of the booked ranges
+    public void consume(long resourceId, Long ownerId, List<SlotRange> booked) {
+        for (Hold h : holdsOf(resourceId, ownerId)) {
+            if (overlaps(h.ranges(), booked)) {
+                release(h.id());
+            }
+        }
+    }
+
+    // Called off the expiry thread, after the slots are freed, for every hold that runs out (not for released or
+    // consumed ones)
+    public void onExpiry(Consumer<Hold> listener) {
+        expiryListeners.add(listener);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wheel.close();
+        if (listenerExecutor instanceof ExecutorService executor) executor.shutdown();
+    }
+
+    private void expire(String holdId) {
+        Entry e = remove(holdId);
+        if (e == null) return;
+        log.debug("Hold {} expired", holdId);
+        for (Consumer<Hold> listener : expiryListeners) {
+            try {
+                listenerExecutor.execute(() -> notify(listener, e.hold));
+            } catch (RejectedExecutionException ex) {
+                log.debug("Hold {} expired during shutdown, listeners skipped", holdId);
+                return;
+            }
+        }
+    }
+
+    private static void notify(Consumer<Hold> listener, Hold hold) {
+        try {
+            listener.accept(hold);
+        } catch (RuntimeException ex) {
+            log.warn("Hold expiry listener failed for {}: {}", hold.id(), ex.getMessage());
+        }
+    }
+
+    private Entry remove(String holdId) {
+        Entry e = holdId == null ? null : byId.remove(holdId);
+        if (e == null) return null;
+        for (SlotRange r : e.hold.ranges()) {
+            unhold(e.hold.resourceId(), r);
+        }
+        if (e.hold.ownerId() != null) {
+            byOwner.computeIfPresent(e.hold.ownerId(), (k, ids) -> {
+                ids.remove(holdId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+        return e;
+    }
+
+    private boolean tryHold(long resourceId, SlotRange r) {
+        boolean[] ok = {false};
+        held.compute(new HeldKey(resourceId, r.date().toEpochDay(), r.unit()), (k, cur) -> {
+            long current = cur == null ? 0L : cur;
+            if ((current & r.mask()) != 0) return cur;
+            ok[0] = true;
+            return current | r.mask();
+        });
+        return ok[0];
+    }
+
+    private void unhold(long resourceId, SlotRange r) {
+        held.computeIfPresent(new HeldKey(resourceId, r.date().toEpochDay(), r.unit()), (k, cur) -> {
+            long next = cur & ~r.mask();
+            return next == 0 ? null : next;
+        });
+    }
+
+    private static boolean overlaps(List<SlotRange> a, List<SlotRange> b) {
+        for (SlotRange x : a) {
+            for (SlotRange y : b) {
+                if (x.unit() == y.unit() && Objects.equals(x.date(), y.date()) && (x.mask() & y.mask()) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public record Hold(String id, long resourceId, Long ownerId, List<SlotRange> ranges, Instant expiresAt) {
+    }
+
+    private static final class Entry {
+        private final Hold hold;
+        private volatile HashedTimingWheel<String>.Timeout timeout;
+
+        private Entry(Hold hold) {
+            this.hold = hold;
+        }
+    }
+
+    private record HeldKey(long resourceId, long epochDay, int unit) {
+    }
+}
@@ -0,0 +1,32 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import java.util.Base64;
+
+/**
+ * Wire format for a day's slot mask: the 48 slot bits as 6 little-endian bytes, base64 encoded (8 characters).
+ * Byte 0 bit 0 is the 00:00 slot, byte 5 bit 7 the 23:30 slot.
+ */
+public final class SlotMaskCodec {
+
+    private static final int BYTES = SlotGrid.SLOTS_PER_DAY / 8;
+
+    private SlotMaskCodec() {
+    }
+
+    public static String encode(long mask) {
+        byte[] bytes = new byte[BYTES];
+        for (int i = 0; i < BYTES; i++) {
+            bytes[i] = (byte) (mask >>> (8 * i));
+        }
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    public static long decode(String encoded) {
+        byte[] bytes = Base64.getDecoder().decode(encoded);
+        long mask = 0L;
+        for (int i = 0; i < Math.min(BYTES, bytes.length); i++) {
+            mask |= (bytes[i] & 0xFFL) << (8 * i);
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,36 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import java.time.LocalDate;
+
+/**
+ * A contiguous run of grid slots [startSlot, endSlot) on one unit (1-based) of a resource for one day.
+ * Unit {@link #AUTO_UNIT} means "any unit" and is resolved by {@link UnitAllocator} before booking.
+ */
+public record SlotRange(LocalDate date, int unit, int startSlot, int endSlot) {
+
+    public static final int AUTO_UNIT = 0;
+
+    public SlotRange {
+        if (date == null) throw new IllegalArgumentException("date is required");
+        if (unit < AUTO_UNIT) throw new IllegalArgumentException("unit must be positive");
+        if (startSlot < 0 || endSlot > SlotGrid.SLOTS_PER_DAY || endSlot <= startSlot) {
+            throw new IllegalArgumentException("Invalid slot range " + startSlot + "-" + endSlot);
+        }
+    }
+
+    public long mask() {
+        return SlotGrid.rangeMask(startSlot, endSlot);
+    }
+
+    public int length() {
+        return endSlot - startSlot;
+    }
+
+    public boolean isAuto() {
+        return unit == AUTO_UNIT;
+    }
+
+    public SlotRange withUnit(int newUnit) {
+        return new SlotRange(date, newUnit, startSlot, endSlot);
+    }
+}
@@ -0,0 +1,123 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import top.ajasta.AjastaApp.exceptions.BadRequestException;
+import top.ajasta.AjastaApp.reservation.dtos.BookBatchRequest;
+import top.ajasta.AjastaApp.reservation.dtos.BookMultiRequest;
+import top.ajasta.AjastaApp.reservation.dtos.BookRequest;
+import top.ajasta.AjastaApp.reservation.dtos.BookSeriesRequest;
+import top.ajasta.AjastaApp.reservation.dtos.HoldRequest;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts booking requests into grid slot ranges.
+ */
+public final class SlotRanges {
+
+    private SlotRanges() {
+    }
+
+    public static List<SlotRange> of(BookRequest request) {
+        List<SlotRange> out = new ArrayList<>(1);
+        out.add(range(parseDate(request.getDate()), request.getStartTime(), request.getEndTime(), request.getUnit()));
+        return out;
+    }
+
+    public static List<SlotRange> of(BookBatchRequest request) {
+        LocalDate date = parseDate(request.getDate());
+        List<SlotRange> out = new ArrayList<>();
+        if (request.getSlots() != null) {
+            for (BookBatchRequest.Slot s : request.getSlots()) {
+                out.add(range(date, s.getStartTime(), s.getEndTime(), s.getUnit()));
+            }
+        }
+        return out;
+    }
+
+    public static List<SlotRange> of(BookMultiRequest request) {
+        return ofDays(request.getDays());
+    }
+
+    public static List<SlotRange> of(HoldRequest request) {
+        return ofDays(request.getDays());
+    }
+
+    // First occurrence of a series; the rest follow from patternOf()
+    public static SlotRange firstOf(BookSeriesRequest request) {
+        return range(parseDate(request.getStartDate()), request.getStartTime(), request.getEndTime(), request.getUnit());
+    }
+
+    public static SeriesPattern patternOf(BookSeriesRequest request) {
+        LocalDate first = parseDate(request.getStartDate());
+        LocalDate until = request.getUntilDate() == null || request.getUntilDate().isBlank() ? null : parseDate(request.getUntilDate());
+        int interval = request.getIntervalWeeks() == null ? 1 : request.getIntervalWeeks();
+        try {
+            return SeriesPattern.of(first, interval, until, request.getCount());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    // Writes the units chosen at booking time back into the request; ranges are in the order of() returned them
+    public static void applyUnits(BookRequest request, List<SlotRange> booked) {
+        if (!booked.isEmpty()) request.setUnit(booked.get(0).unit());
+    }
+
+    public static void applyUnits(BookBatchRequest request, List<SlotRange> booked) {
+        if (request.getSlots() == null) return;
+        for (int i = 0; i < request.getSlots().size() && i < booked.size(); i++) {
+            request.getSlots().get(i).setUnit(booked.get(i).unit());
+        }
+    }
+
+    public static void applyUnits(BookMultiRequest request, List<SlotRange> booked) {
+        if (request.getDays() == null) return;
+        int i = 0;
+        for (BookMultiRequest.Day day : request.getDays()) {
+            if (day.getSlots() == null) continue;
+            for (BookBatchRequest.Slot s : day.getSlots()) {
+                if (i < booked.size()) s.setUnit(booked.get(i++).unit());
+            }
+        }
+    }
+
+    private static List<SlotRange> ofDays(List<BookMultiRequest.Day> days) {
+        List<SlotRange> out = new ArrayList<>();
+        if (days != null) {
+            for (BookMultiRequest.Day day : days) {
+                LocalDate date = parseDate(day.getDate());
+                if (day.getSlots() == null) continue;
+                for (BookBatchRequest.Slot s : day.getSlots()) {
+                    out.add(range(date, s.getStartTime(), s.getEndTime(), s.getUnit()));
+                }
+            }
+        }
+        return out;
+    }
+
+    private static SlotRange range(LocalDate date, String startTime, String endTime, Integer unit) {
+        int start;
+        int end;
+        try {
+            start = SlotGrid.startSlotOf(startTime);
+            end = SlotGrid.endSlotOf(endTime);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+        if (end <= start) {
+            throw new BadRequestException("endTime must be after startTime: " + startTime + " - " + endTime);
+        }
+        return new SlotRange(date, unit == null ? SlotRange.AUTO_UNIT : unit, start, end);
+    }
+
+    private static LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException | NullPointerException e) {
+            throw new BadRequestException("date must be yyyy-MM-dd");
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed pool of locks addressed by (resourceId, date).
+ * <p>
+ * Requests touching different days of a resource (or different resources) almost always land on different
+ * stripes and proceed in parallel; only requests sharing a stripe serialize. Stripes of one request are
+ * always taken in ascending order, so multi-day requests cannot deadlock each other.
+ */
+public final class StripedLocks {
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public StripedLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public int stripes() {
+        return locks.length;
+    }
+
+    public int stripeOf(long resourceId, long epochDay) {
+        long h = resourceId * 0x9E3779B97F4A7C15L ^ epochDay * 0xC2B2AE3D27D4EB4FL;
+        h ^= h >>> 31;
+        return (int) h & mask;
+    }
+
+    public Held lockAll(long resourceId, Collection<LocalDate> dates) {
+        int[] stripes = dates.stream()
+                .mapToInt(d -> stripeOf(resourceId, d.toEpochDay()))
+                .distinct()
+                .sorted()
+                .toArray();
+        int acquired = 0;
+        try {
+            for (int stripe : stripes) {
+                locks[stripe].lock();
+                acquired++;
+            }
+        } catch (RuntimeException | Error e) {
+            unlock(stripes, acquired);
+            throw e;
+        }
+        return new Held(stripes);
+    }
+
+    private void unlock(int[] stripes, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            locks[stripes[i]].unlock();
+        }
+    }
+
+    public final class Held implements AutoCloseable {
+        private final int[] stripes;
+        private boolean released;
+
+        private Held(int[] stripes) {
+            this.stripes = stripes;
+        }
+
+        public int[] stripes() {
+            return Arrays.copyOf(stripes, stripes.length);
+        }
+
+        @Override
+        public void close() {
+            if (released) return;
+            released = true;
+            unlock(stripes, stripes.length);
+        }
+    }
+}
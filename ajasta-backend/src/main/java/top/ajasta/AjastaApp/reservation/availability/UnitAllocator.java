@@ -0,0 +1,137 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Picks units for requested slot runs that did not name one.
+ * <p>
+ * Best fit: among the units where a run is free, take the one whose free gap around the run is smallest, so
+ * long free windows on other units stay intact for long bookings. Adjacent requested slots of a day are placed
+ * as one run (a 2-hour booking sent as four half-hour slots stays on one unit), longest runs first.
+ */
+public final class UnitAllocator {
+
+    private UnitAllocator() {
+    }
+
+    /**
+     * Resolves every {@link SlotRange#AUTO_UNIT} range against {@code freeOfDay} (free slots per unit, index
+     * {@code unit - 1}, already excluding closed hours, bookings and other users' holds). Explicit units are kept
+     * and taken out of the free masks first. Ranges that fit nowhere stay on AUTO_UNIT so the conflict check
+     * rejects them. The result has the same order as the input.
+     */
+    public static List<SlotRange> resolve(List<SlotRange> ranges, Function<LocalDate, long[]> freeOfDay) {
+        List<SlotRange> out = new ArrayList<>(ranges);
+        Map<LocalDate, List<Integer>> autoByDate = new TreeMap<>();
+        for (int i = 0; i < ranges.size(); i++) {
+            if (ranges.get(i).isAuto()) {
+                autoByDate.computeIfAbsent(ranges.get(i).date(), d -> new ArrayList<>()).add(i);
+            }
+        }
+        for (Map.Entry<LocalDate, List<Integer>> day : autoByDate.entrySet()) {
+            long[] free = freeOfDay.apply(day.getKey()).clone();
+            for (SlotRange r : ranges) {
+                if (!r.isAuto() && r.date().equals(day.getKey()) && r.unit() <= free.length) {
+                    free[r.unit() - 1] &= ~r.mask();
+                }
+            }
+            for (List<Integer> run : runsLongestFirst(ranges, day.getValue())) {
+                long mask = 0L;
+                for (int i : run) mask |= ranges.get(i).mask();
+                int unit = bestFit(free, mask);
+                if (unit > 0) {
+                    for (int i : run) out.set(i, ranges.get(i).withUnit(unit));
+                } else if (run.size() > 1) {
+                    // The run does not fit on one unit as a whole; place its pieces separately
+                    for (int i : run) {
+                        int u = bestFit(free, ranges.get(i).mask());
+                        if (u > 0) out.set(i, ranges.get(i).withUnit(u));
+                    }
+                }
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Unit (1-based) whose free gap containing {@code mask} is the smallest, lowest unit on ties, or 0 if the mask
+     * is free nowhere. The chosen unit's slots are removed from {@code free}.
+     */
+    public static int bestFit(long[] free, long mask) {
+        if (mask == 0) return 0;
+        int best = 0;
+        int bestGap = Integer.MAX_VALUE;
+        for (int u = 0; u < free.length; u++) {
+            if ((free[u] & mask) != mask) continue;
+            int gap = gapAround(free[u], mask);
+            if (gap < bestGap) {
+                bestGap = gap;
+                best = u + 1;
+            }
+        }
+        if (best > 0) free[best - 1] &= ~mask;
+        return best;
+    }
+
+    // Length of the maximal run of free slots that contains the (contiguous, free) mask
+    static int gapAround(long free, long mask) {
+        int lo = Long.numberOfTrailingZeros(mask);
+        int hi = 63 - Long.numberOfLeadingZeros(mask);
+        int up = Long.numberOfTrailingZeros(~(free >>> hi));        // free slots from hi upwards, hi included
+        int down = Long.numberOfLeadingZeros(~(free << (63 - lo))); // free slots from lo downwards, lo included
+        return (hi - lo + 1) + (up - 1) + (down - 1);
+    }
+
+    public static int largestRun(long mask) {
+        int best = 0;
+        long m = mask;
+        while (m != 0) {
+            int start = Long.numberOfTrailingZeros(m);
+            int len = Long.numberOfTrailingZeros(~(m >>> start));
+            best = Math.max(best, len);
+            m &= ~(len == 64 ? -1L : ((1L << len) - 1) << start);
+        }
+        return best;
+    }
+
+    /**
+     * Fragmentation of a day's free time, 0 to 1: the share of free slots that lie outside the largest free run
+     * of their unit. 0 means every unit's free time is one block (or nothing is free).
+     */
+    public static double fragmentation(long[] free) {
+        int total = 0;
+        int largest = 0;
+        for (long f : free) {
+            total += Long.bitCount(f);
+            largest += largestRun(f);
+        }
+        return total == 0 ? 0.0 : 1.0 - (double) largest / total;
+    }
+
+    // Groups auto ranges of one day into runs of back-to-back slots, longest run first
+    private static List<List<Integer>> runsLongestFirst(List<SlotRange> ranges, List<Integer> indexes) {
+        List<Integer> sorted = new ArrayList<>(indexes);
+        sorted.sort(Comparator.comparingInt(i -> ranges.get(i).startSlot()));
+        List<List<Integer>> runs = new ArrayList<>();
+        List<Integer> current = null;
+        int currentEnd = -1;
+        for (int i : sorted) {
+            SlotRange r = ranges.get(i);
+            if (current == null || r.startSlot() != currentEnd) {
+                current = new ArrayList<>();
+                runs.add(current);
+            }
+            current.add(i);
+            currentEnd = r.endSlot();
+        }
+        runs.sort(Comparator.comparingInt((List<Integer> run) ->
+                ranges.get(run.get(run.size() - 1)).endSlot() - ranges.get(run.get(0)).startSlot()).reversed());
+        return runs;
+    }
+}
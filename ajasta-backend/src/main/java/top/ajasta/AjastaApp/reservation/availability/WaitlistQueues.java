@@ -0,0 +1,87 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory waitlist queues, one per (resource, date, slot).
+ * <p>
+ * A waiter for [startSlot, endSlot) is queued under each slot of its range, ordered by entry id (join order).
+ * When a slot frees up its queue is walked from the head in join order, each step costing O(log n) no matter
+ * how many users wait; adding or removing a waiter is O(k log n) for a k-slot range.
+ */
+public final class WaitlistQueues {
+
+    private static final Comparator<Waiter> ORDER = Comparator.comparingLong(Waiter::entryId);
+
+    private final ConcurrentMap<SlotKey, NavigableSet<Waiter>> queues = new ConcurrentHashMap<>();
+
+    public void add(Waiter waiter) {
+        for (int s = waiter.startSlot(); s < waiter.endSlot(); s++) {
+            queues.compute(key(waiter, s), (k, queue) -> {
+                NavigableSet<Waiter> q = queue != null ? queue : new ConcurrentSkipListSet<>(ORDER);
+                q.add(waiter);
+                return q;
+            });
+        }
+    }
+
+    public boolean remove(Waiter waiter) {
+        boolean[] removed = {false};
+        for (int s = waiter.startSlot(); s < waiter.endSlot(); s++) {
+            // Empty queues are dropped under the map's per-key lock, so a concurrent add() cannot be lost
+            queues.computeIfPresent(key(waiter, s), (k, queue) -> {
+                removed[0] |= queue.remove(waiter);
+                return queue.isEmpty() ? null : queue;
+            });
+        }
+        return removed[0];
+    }
+
+    // Earliest waiter whose range covers the slot, or null
+    public Waiter head(long resourceId, LocalDate date, int slot) {
+        return next(resourceId, date, slot, null);
+    }
+
+    // Earliest waiter covering the slot that joined after the given one (the head for null), or null
+    public Waiter next(long resourceId, LocalDate date, int slot, Waiter after) {
+        NavigableSet<Waiter> queue = queues.get(new SlotKey(resourceId, date.toEpochDay(), slot));
+        if (queue == null) return null;
+        if (after != null) return queue.higher(after);
+        try {
+            return queue.first();
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+
+    // Number of waiters queued under the slot
+    public int size(long resourceId, LocalDate date, int slot) {
+        NavigableSet<Waiter> queue = queues.get(new SlotKey(resourceId, date.toEpochDay(), slot));
+        return queue == null ? 0 : queue.size();
+    }
+
+    public void clear() {
+        queues.clear();
+    }
+
+    private static SlotKey key(Waiter w, int slot) {
+        return new SlotKey(w.resourceId(), w.date().toEpochDay(), slot);
+    }
+
+    // unit is 1-based, or SlotRange.AUTO_UNIT for any unit
+    public record Waiter(long entryId, long resourceId, long userId, LocalDate date, int unit, int startSlot, int endSlot) {
+
+        public SlotRange range() {
+            return new SlotRange(date, unit, startSlot, endSlot);
+        }
+    }
+
+    private record SlotKey(long resourceId, long epochDay, int slot) {
+    }
+}
@@ -0,0 +1,10 @@
+package top.ajasta.AjastaApp.reservation.calendar;
+
+import top.ajasta.AjastaApp.enums.OrderStatus;
+
+import java.time.LocalDateTime;
+
+// The columns of a booking order a calendar feed needs, read as a projection so no Order entity is loaded
+public record CalendarEntry(Long orderId, OrderStatus status, String title, String details,
+                            LocalDateTime orderDate, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,36 @@
+package top.ajasta.AjastaApp.reservation.calendar;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An .ics feed whose ETag is known before any event is read: {@link #send} answers a matching If-None-Match
+ * with 304 and only otherwise streams the body. There is no Last-Modified, as cancelled and deleted orders
+ * leave no timestamp behind; only the ETag notices them.
+ */
+public record CalendarFeed(String etag, String fileName, boolean personal, Body body) {
+
+    @FunctionalInterface
+    public interface Body {
+        void writeTo(Writer out) throws IOException;
+    }
+
+    public void send(WebRequest request, HttpServletResponse response) throws IOException {
+        // Calendar apps poll; they must revalidate every time, but a 304 costs one aggregate query
+        response.setHeader("Cache-Control", (personal ? "private, " : "") + "no-cache");
+        if (request.checkNotModified(etag)) {
+            return;
+        }
+        response.setContentType("text/calendar;charset=UTF-8");
+        response.setHeader("Content-Disposition", "inline; filename=\"" + fileName + "\"");
+        Writer out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        body.writeTo(out);
+        out.flush();
+    }
+}
@@ -0,0 +1,96 @@
+package top.ajasta.AjastaApp.reservation.calendar;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Minimal RFC 5545 writer: events go straight to the underlying writer as they come, nothing is buffered.
+ * Text values are escaped and lines folded at 75 octets; times are floating local times, as the slot grid is.
+ */
+public final class IcsWriter {
+
+    private static final DateTimeFormatter LOCAL = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter UTC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private final Writer out;
+
+    public IcsWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void begin(String calendarName) throws IOException {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//Ajasta//Bookings//EN");
+        line("CALSCALE:GREGORIAN");
+        line("METHOD:PUBLISH");
+        if (calendarName != null) line("X-WR-CALNAME:" + escape(calendarName));
+    }
+
+    /**
+     * One VEVENT. {@code rrule} is the recurrence rule value without the "RRULE:" prefix, or null;
+     * {@code status} is TENTATIVE, CONFIRMED or CANCELLED, or null to leave it out.
+     */
+    public void event(String uid, Instant stamp, LocalDateTime start, LocalDateTime end, String summary,
+                      String description, String status, String rrule) throws IOException {
+        line("BEGIN:VEVENT");
+        line("UID:" + uid);
+        line("DTSTAMP:" + UTC.format(stamp));
+        line("DTSTART:" + LOCAL.format(start));
+        line("DTEND:" + LOCAL.format(end));
+        if (rrule != null) line("RRULE:" + rrule);
+        if (summary != null) line("SUMMARY:" + escape(summary));
+        if (description != null) line("DESCRIPTION:" + escape(description));
+        if (status != null) line("STATUS:" + status);
+        line("END:VEVENT");
+    }
+
+    public void end() throws IOException {
+        line("END:VCALENDAR");
+        out.flush();
+    }
+
+    // Weekly recurrence ending on the given date (inclusive); UNTIL is floating like DTSTART
+    public static String weeklyRule(int intervalWeeks, LocalDate until) {
+        return "FREQ=WEEKLY;INTERVAL=" + intervalWeeks + ";UNTIL=" + LOCAL.format(until.atTime(23, 59, 59));
+    }
+
+    static String escape(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case ';' -> sb.append("\\;");
+                case ',' -> sb.append("\\,");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> { }
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    // Folds after 75 octets of UTF-8, never inside a character; continuation lines start with a space
+    private void line(String content) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < content.length(); ) {
+            int cp = content.codePointAt(i);
+            int len = cp < 0x80 ? 1 : cp < 0x800 ? 2 : cp < 0x10000 ? 3 : 4;
+            if (octets + len > MAX_LINE_OCTETS) {
+                out.write("\r\n ");
+                octets = 1;
+            }
+            out.write(Character.toChars(cp));
+            octets += len;
+            i += Character.charCount(cp);
+        }
+        out.write("\r\n");
+    }
+}
@@ -0,0 +1,77 @@
+package top.ajasta.AjastaApp.reservation.catalog;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Least-recently-used map with a size bound and a time to live, counting hits, misses and evictions.
+ * <p>
+ * One monitor guards the map: every operation is a hash lookup plus a link move, so it is held for nanoseconds and
+ * values are always computed outside of it by the caller.
+ */
+public final class BoundedCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    public record Stats(int size, int maxSize, long hits, long misses, long evictions) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    public BoundedCache(int maxEntries, long ttlMillis, LongSupplier clock) {
+        if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be positive");
+        if (ttlMillis < 1) throw new IllegalArgumentException("ttlMillis must be positive");
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    // The live value for the key or null; expired entries count as misses and are dropped
+    public synchronized V get(K key) {
+        Entry<V> e = entries.get(key);
+        if (e != null && e.expiresAt() - clock.getAsLong() > 0) {
+            hits++;
+            return e.value();
+        }
+        if (e != null) entries.remove(key);
+        misses++;
+        return null;
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, new Entry<>(value, clock.getAsLong() + ttlMillis));
+        if (entries.size() <= maxEntries) return;
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries) {
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(entries.size(), maxEntries, hits, misses, evictions);
+    }
+}
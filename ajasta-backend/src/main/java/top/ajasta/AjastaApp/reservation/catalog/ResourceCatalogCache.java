@@ -0,0 +1,225 @@
+package top.ajasta.AjastaApp.reservation.catalog;
+
+import top.ajasta.AjastaApp.reservation.dtos.CacheStatsDTO;
+import top.ajasta.AjastaApp.reservation.dtos.ResourceDTO;
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+import top.ajasta.AjastaApp.reservation.repository.ResourceFacetCount;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+import top.ajasta.AjastaApp.review.repository.ReviewRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of the public resource catalog: single {@link ResourceDTO}s by id, listing results by query
+ * and facet counts by search, each bounded in size and time.
+ * <p>
+ * Every resource write bumps the catalog version, drops the written id and all listings (any of them may gain or
+ * lose the resource). A value is only stored if the version did not move while it was loaded, so a read racing a
+ * write cannot put the pre-write state back. Cached DTOs are shared between requests and must not be modified.
+ * <p>
+ * The ETag of the catalog and review endpoints comes from the database (count, highest id and latest change of the
+ * resources, count and highest id of the reviews), so every replica hands out the same tag for the same content. It
+ * is re-read at most once per version check interval and right after a local write. When it moves without a local
+ * write, another replica wrote: everything cached here is dropped before the new tag is handed out, so no tag is
+ * ever served with a body cached before its change.
+ */
+@Component
+@Slf4j
+public class ResourceCatalogCache {
+
+    private final BoundedCache<Long, ResourceDTO> byId;
+    private final BoundedCache<ListKey, List<ResourceDTO>> lists;
+    private final BoundedCache<String, List<ResourceFacetCount>> facets;
+
+    private final Supplier<String> storedVersion;
+    private final long versionCheckMillis;
+    private final LongSupplier clock;
+    private final ReentrantLock versionCheck = new ReentrantLock();
+
+    private long version;
+    // Last stored version read and when; written under versionCheck
+    private volatile String stored;
+    private volatile long storedCheckedAt;
+    private volatile boolean storedStale;
+
+    // Listing parameters with the search text normalized the way the query treats it
+    public record ListKey(ResourceType type, String search, Boolean active, boolean summary) {
+        public static ListKey of(ResourceType type, String search, Boolean active) {
+            return of(type, search, active, false);
+        }
+
+        public static ListKey of(ResourceType type, String search, Boolean active, boolean summary) {
+            String s = search == null || search.isBlank() ? null : search.trim().toLowerCase(Locale.ROOT);
+            return new ListKey(type, s, active, summary);
+        }
+    }
+
+    @Autowired
+    public ResourceCatalogCache(ResourceRepository resourceRepository, ReviewRepository reviewRepository,
+                                @Value("${app.catalog-cache.max-resources:10000}") int maxResources,
+                                @Value("${app.catalog-cache.max-lists:256}") int maxLists,
+                                @Value("${app.catalog-cache.ttl-seconds:300}") long ttlSeconds,
+                                @Value("${app.catalog-cache.version-check-millis:1000}") long versionCheckMillis) {
+        this(maxResources, maxLists, ttlSeconds * 1000, System::currentTimeMillis,
+                () -> storedVersion(first(resourceRepository.catalogVersion()), first(reviewRepository.catalogVersion())),
+                versionCheckMillis);
+    }
+
+    // With a fixed stored version, for tests that do not look at the ETag
+    ResourceCatalogCache(int maxResources, int maxLists, long ttlMillis, LongSupplier clock) {
+        this(maxResources, maxLists, ttlMillis, clock, () -> "0", ttlMillis);
+    }
+
+    ResourceCatalogCache(int maxResources, int maxLists, long ttlMillis, LongSupplier clock,
+                         Supplier<String> storedVersion, long versionCheckMillis) {
+        this.storedVersion = storedVersion;
+        this.versionCheckMillis = versionCheckMillis;
+        this.clock = clock;
+        this.byId = new BoundedCache<>(maxResources, ttlMillis, clock);
+        this.lists = new BoundedCache<>(maxLists, ttlMillis, clock);
+        this.facets = new BoundedCache<>(maxLists, ttlMillis, clock);
+    }
+
+    public ResourceDTO get(Long id, Supplier<ResourceDTO> loader) {
+        ResourceDTO cached = byId.get(id);
+        if (cached != null) return cached;
+        long seen = version();
+        ResourceDTO loaded = loader.get();
+        synchronized (this) {
+            if (version == seen) byId.put(id, loaded);
+        }
+        return loaded;
+    }
+
+    public List<ResourceDTO> list(ListKey key, Supplier<List<ResourceDTO>> loader) {
+        List<ResourceDTO> cached = lists.get(key);
+        if (cached != null) return cached;
+        long seen = version();
+        List<ResourceDTO> loaded = List.copyOf(loader.get());
+        synchronized (this) {
+            if (version == seen) lists.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    // Facet counts keyed by the normalized search only; type and active are applied to the cached counts
+    public List<ResourceFacetCount> facets(String search, Supplier<List<ResourceFacetCount>> loader) {
+        String key = search == null || search.isBlank() ? "" : search.trim().toLowerCase(Locale.ROOT);
+        List<ResourceFacetCount> cached = facets.get(key);
+        if (cached != null) return cached;
+        long seen = version();
+        List<ResourceFacetCount> loaded = List.copyOf(loader.get());
+        synchronized (this) {
+            if (version == seen) facets.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    // Call after the write committed
+    public synchronized void resourceChanged(Long id) {
+        version++;
+        storedStale = true;
+        if (id != null) byId.invalidate(id);
+        lists.invalidateAll();
+        facets.invalidateAll();
+    }
+
+    // Reviews are not cached here, but they share the catalog ETag
+    public synchronized void reviewsChanged() {
+        version++;
+        storedStale = true;
+    }
+
+    public synchronized long version() {
+        return version;
+    }
+
+    // Strong validator for every catalog and review response; read it before loading the body
+    public String etag() {
+        String tag = stored;
+        boolean due = tag == null || storedStale || clock.getAsLong() - storedCheckedAt >= versionCheckMillis;
+        // While another request re-reads it the previous tag is still safe to hand out: the body is at least as new
+        if (due && (tag == null ? lockVersionCheck() : versionCheck.tryLock())) {
+            try {
+                tag = checkStoredVersion();
+            } finally {
+                versionCheck.unlock();
+            }
+        }
+        return "\"" + tag + "\"";
+    }
+
+    private boolean lockVersionCheck() {
+        versionCheck.lock();
+        return true;
+    }
+
+    private String checkStoredVersion() {
+        String previous = stored;
+        if (previous != null && !storedStale && clock.getAsLong() - storedCheckedAt < versionCheckMillis) return previous;
+        // Cleared before the read, so a write committing meanwhile forces another one
+        storedStale = false;
+        long checkedAt = clock.getAsLong();
+        String current;
+        try {
+            current = storedVersion.get();
+        } catch (RuntimeException e) {
+            if (previous == null) throw e;
+            log.warn("Catalog version check failed, keeping the current ETag: {}", e.getMessage());
+            storedCheckedAt = checkedAt;
+            return previous;
+        }
+        if (previous != null && !previous.equals(current)) {
+            // Another replica wrote (or this one did): nothing cached before the change may go out under the new tag
+            synchronized (this) {
+                version++;
+                byId.invalidateAll();
+                lists.invalidateAll();
+                facets.invalidateAll();
+            }
+        }
+        stored = current;
+        storedCheckedAt = checkedAt;
+        return current;
+    }
+
+    private static Object[] first(List<Object[]> rows) {
+        return rows.isEmpty() ? new Object[3] : rows.get(0);
+    }
+
+    static String storedVersion(Object[] resources, Object[] reviews) {
+        return "c" + resources[0] + "-" + resources[1] + "-" + millis((LocalDateTime) resources[2])
+                + "-" + reviews[0] + "-" + reviews[1];
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time == null ? 0 : time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    public List<CacheStatsDTO> stats() {
+        return List.of(toDTO("resourcesById", byId.stats()), toDTO("resourceLists", lists.stats()),
+                toDTO("resourceFacets", facets.stats()));
+    }
+
+    private static CacheStatsDTO toDTO(String name, BoundedCache.Stats s) {
+        return CacheStatsDTO.builder()
+                .name(name)
+                .size(s.size())
+                .maxSize(s.maxSize())
+                .hits(s.hits())
+                .misses(s.misses())
+                .evictions(s.evictions())
+                .hitRate(Math.round(s.hitRate() * 1000.0) / 1000.0)
+                .build();
+    }
+}
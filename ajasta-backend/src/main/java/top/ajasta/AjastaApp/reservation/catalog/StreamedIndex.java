@@ -0,0 +1,123 @@
+package top.ajasta.AjastaApp.reservation.catalog;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * An in-memory index of all resources, streamed from the database on first use and then kept current by the resource
+ * service, which hands over every saved or deleted resource after its write has committed.
+ * <p>
+ * Writes committed on other nodes never reach this one, so once the index is older than its time to live the next
+ * reader streams a fresh one and swaps it in; other readers keep using the old index meanwhile, and writes handed
+ * over during the rebuild are replayed onto the fresh index before the swap.
+ */
+@Slf4j
+public final class StreamedIndex<I, R> {
+
+    private final String name;
+    private final Supplier<I> empty;
+    private final Supplier<Stream<R>> rows;
+    private final BiConsumer<I, R> put;
+    private final BiConsumer<I, Long> remove;
+    private final TransactionOperations readOnlyTransaction;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    private volatile Built<I> current;
+    // Writes handed over while a rebuild streams; non-null only then. Guarded by this
+    private List<Consumer<I>> pending;
+
+    private record Built<I>(I index, long builtAt) {
+    }
+
+    public StreamedIndex(String name, Supplier<I> empty, Supplier<Stream<R>> rows, BiConsumer<I, R> put,
+                         BiConsumer<I, Long> remove, TransactionOperations readOnlyTransaction, long ttlMillis,
+                         LongSupplier clock) {
+        if (ttlMillis < 1) throw new IllegalArgumentException("ttlMillis must be positive");
+        this.name = name;
+        this.empty = empty;
+        this.rows = rows;
+        this.put = put;
+        this.remove = remove;
+        this.readOnlyTransaction = readOnlyTransaction;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    // The index, built on first use and rebuilt by the first reader after the time to live
+    public I get() {
+        Built<I> built = current;
+        if (built == null) return first();
+        if (clock.getAsLong() - built.builtAt() >= ttlMillis) rebuild(built);
+        return current.index();
+    }
+
+    public void put(R row) {
+        write(index -> put.accept(index, row));
+    }
+
+    public void remove(Long id) {
+        write(index -> remove.accept(index, id));
+    }
+
+    // Waits for a first build in progress; dropped when none was built, the first build reads the write
+    private void write(Consumer<I> change) {
+        Built<I> built;
+        synchronized (this) {
+            if (pending != null) pending.add(change);
+            built = current;
+        }
+        if (built != null) change.accept(built.index());
+    }
+
+    private synchronized I first() {
+        if (current == null) current = new Built<>(stream(), clock.getAsLong());
+        return current.index();
+    }
+
+    private void rebuild(Built<I> stale) {
+        synchronized (this) {
+            // Another reader is streaming, or has already swapped
+            if (pending != null || current != stale) return;
+            pending = new ArrayList<>();
+        }
+        I fresh = null;
+        try {
+            fresh = stream();
+        } catch (RuntimeException e) {
+            log.warn("{} index rebuild failed, keeping the current one: {}", name, e.getMessage());
+        } finally {
+            synchronized (this) {
+                I next = fresh != null ? fresh : stale.index();
+                if (fresh != null) pending.forEach(change -> change.accept(next));
+                // A failed rebuild is retried after another time to live
+                current = new Built<>(next, clock.getAsLong());
+                pending = null;
+            }
+        }
+    }
+
+    private I stream() {
+        long started = System.currentTimeMillis();
+        I built = empty.get();
+        int[] count = {0};
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<R> stream = rows.get()) {
+                stream.forEach(row -> {
+                    put.accept(built, row);
+                    count[0]++;
+                });
+            }
+        });
+        log.info("{} index built for {} resource(s) in {} ms", name, count[0], System.currentTimeMillis() - started);
+        return built;
+    }
+}
@@ -0,0 +1,24 @@
+package top.ajasta.AjastaApp.reservation.controller;
+
+import top.ajasta.AjastaApp.reservation.services.AvailabilityStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Live counterpart of GET /api/resources/{id}/availability: one "availability" event per changed day
+@RestController
+@RequestMapping("/api/resources/{id}/availability/stream")
+@RequiredArgsConstructor
+public class AvailabilityStreamController {
+
+    private final AvailabilityStreamService availabilityStreamService;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@PathVariable Long id) {
+        return availabilityStreamService.subscribe(id);
+    }
+}
@@ -0,0 +1,40 @@
+package top.ajasta.AjastaApp.reservation.controller;
+
+import top.ajasta.AjastaApp.reservation.dtos.HoldDTO;
+import top.ajasta.AjastaApp.reservation.dtos.HoldRequest;
+import top.ajasta.AjastaApp.reservation.services.HoldService;
+import top.ajasta.AjastaApp.response.Response;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Temporary holds that keep slots away from other users while the holder completes the booking
+@RestController
+@RequestMapping("/api/resources/{id}/holds")
+@RequiredArgsConstructor
+public class HoldController {
+
+    private final HoldService holdService;
+
+    @PostMapping
+    @PreAuthorize("hasAnyAuthority('CUSTOMER','ADMIN')")
+    public ResponseEntity<Response<HoldDTO>> create(@PathVariable Long id, @RequestBody @Valid HoldRequest request) {
+        return ResponseEntity.ok(holdService.createHold(id, request));
+    }
+
+    @GetMapping
+    @PreAuthorize("hasAnyAuthority('CUSTOMER','ADMIN')")
+    public ResponseEntity<Response<List<HoldDTO>>> mine(@PathVariable Long id) {
+        return ResponseEntity.ok(holdService.getMyHolds(id));
+    }
+
+    @DeleteMapping("/{holdId}")
+    @PreAuthorize("hasAnyAuthority('CUSTOMER','ADMIN')")
+    public ResponseEntity<Response<?>> release(@PathVariable Long id, @PathVariable String holdId) {
+        return ResponseEntity.ok(holdService.releaseHold(id, holdId));
+    }
+}
@@ -0,0 +1,36 @@
+package top.ajasta.AjastaApp.reservation.controller;
+
+import top.ajasta.AjastaApp.reservation.dtos.OccupancyDTO;
+import top.ajasta.AjastaApp.reservation.services.OccupancyService;
+import top.ajasta.AjastaApp.response.Response;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+// Busiest hours of a resource, e.g. /api/resources/1/occupancy?from=2025-01-01&to=2025-01-31 (rollup defaults to the last 30 days)
+@RestController
+@RequestMapping("/api/resources/{id}/occupancy")
+@RequiredArgsConstructor
+public class OccupancyController {
+
+    private final OccupancyService occupancyService;
+
+    @GetMapping
+    @PreAuthorize("hasAnyAuthority('ADMIN','RESOURCE_MANAGER')")
+    public ResponseEntity<Response<OccupancyDTO>> occupancy(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(occupancyService.getOccupancy(id, from, to));
+    }
+
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response<?>> rebuild(@PathVariable Long id) {
+        return ResponseEntity.ok(occupancyService.rebuild(id));
+    }
+}
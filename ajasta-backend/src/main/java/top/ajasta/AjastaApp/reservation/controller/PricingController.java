@@ -0,0 +1,46 @@
+package top.ajasta.AjastaApp.reservation.controller;
+
+import top.ajasta.AjastaApp.reservation.dtos.BookMultiRequest;
+import top.ajasta.AjastaApp.reservation.dtos.PriceQuoteDTO;
+import top.ajasta.AjastaApp.reservation.dtos.PriceRuleDTO;
+import top.ajasta.AjastaApp.reservation.services.PricingService;
+import top.ajasta.AjastaApp.response.Response;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/resources/{id}")
+@RequiredArgsConstructor
+public class PricingController {
+
+    private final PricingService pricingService;
+
+    // Price breakdown of a basket, same body as book-multi; unit-specific prices apply only to slots with a unit
+    @PostMapping("/quote")
+    public ResponseEntity<Response<PriceQuoteDTO>> quote(@PathVariable Long id, @RequestBody @Valid BookMultiRequest request) {
+        return ResponseEntity.ok(pricingService.getQuote(id, request));
+    }
+
+    @GetMapping("/price-rules")
+    @PreAuthorize("hasAnyAuthority('ADMIN','RESOURCE_MANAGER')")
+    public ResponseEntity<Response<List<PriceRuleDTO>>> rules(@PathVariable Long id) {
+        return ResponseEntity.ok(pricingService.getRules(id));
+    }
+
+    @PostMapping("/price-rules")
+    @PreAuthorize("hasAnyAuthority('ADMIN','RESOURCE_MANAGER')")
+    public ResponseEntity<Response<PriceRuleDTO>> saveRule(@PathVariable Long id, @RequestBody @Valid PriceRuleDTO dto) {
+        return ResponseEntity.ok(pricingService.saveRule(id, dto));
+    }
+
+    @DeleteMapping("/price-rules/{ruleId}")
+    @PreAuthorize("hasAnyAuthority('ADMIN','RESOURCE_MANAGER')")
+    public ResponseEntity<Response<?>> deleteRule(@PathVariable Long id, @PathVariable Long ruleId) {
+        return ResponseEntity.ok(pricingService.deleteRule(id, ruleId));
+    }
+}
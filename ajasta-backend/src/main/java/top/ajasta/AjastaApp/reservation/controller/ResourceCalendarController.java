@@ -0,0 +1,26 @@
+package top.ajasta.AjastaApp.reservation.controller;
+
+import top.ajasta.AjastaApp.reservation.services.CalendarService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+
+// Subscribable calendar of a resource's bookings; polls with a matching ETag get a 304
+@RestController
+@RequestMapping("/api/resources/{id}/calendar.ics")
+@RequiredArgsConstructor
+public class ResourceCalendarController {
+
+    private final CalendarService calendarService;
+
+    @GetMapping
+    public void calendar(@PathVariable Long id, WebRequest request, HttpServletResponse response) throws IOException {
+        calendarService.resourceFeed(id).send(request, response);
+    }
+}
@@ -4,22 +4,41 @@ import top.ajasta.AjastaApp.auth_users.entity.User;
 import top.ajasta.AjastaApp.auth_users.services.UserService;
 import top.ajasta.AjastaApp.email_notification.dtos.NotificationDTO;
 import top.ajasta.AjastaApp.email_notification.services.NotificationService;
+import top.ajasta.AjastaApp.money.Money;
+import top.ajasta.AjastaApp.reservation.availability.SeriesPattern;
+import top.ajasta.AjastaApp.reservation.availability.SlotGrid;
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+import top.ajasta.AjastaApp.reservation.availability.SlotRanges;
+import top.ajasta.AjastaApp.reservation.catalog.ResourceCatalogCache;
+import top.ajasta.AjastaApp.reservation.dtos.AvailabilityDTO;
+import top.ajasta.AjastaApp.reservation.dtos.CacheStatsDTO;
+import top.ajasta.AjastaApp.reservation.dtos.FreeResourceDTO;
 import top.ajasta.AjastaApp.reservation.dtos.ResourceDTO;
+import top.ajasta.AjastaApp.reservation.dtos.ResourceFacetsDTO;
+import top.ajasta.AjastaApp.reservation.dtos.ResourcePageDTO;
 import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+import top.ajasta.AjastaApp.reservation.pricing.PriceQuote;
+import top.ajasta.AjastaApp.reservation.services.AvailabilityService;
+import top.ajasta.AjastaApp.reservation.services.PricingService;
+import top.ajasta.AjastaApp.reservation.services.ReservationService;
 import top.ajasta.AjastaApp.reservation.services.ResourceService;
 import top.ajasta.AjastaApp.response.Response;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import top.ajasta.AjastaApp.exceptions.UnauthorizedAccessException;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -32,6 +51,10 @@ public class ResourceController {
     private final UserService userService;
     private final TemplateEngine templateEngine;
     private final top.ajasta.AjastaApp.order.services.OrderService orderService;
+    private final ReservationService reservationService;
+    private final AvailabilityService availabilityService;
+    private final PricingService pricingService;
+    private final ResourceCatalogCache catalogCache;
 
     @Value("${base.payment.link}")
     private String basePaymentLink;
@@ -83,18 +106,103 @@ public class ResourceController {
         return ResponseEntity.ok(resourceService.deleteResource(id));
     }
 
+    // A matching If-None-Match gets a 304 before the cache or the database is consulted
     @GetMapping("/{id}")
-    public ResponseEntity<Response<ResourceDTO>> getById(@PathVariable Long id) {
-        return ResponseEntity.ok(resourceService.getResourceById(id));
+    public ResponseEntity<Response<ResourceDTO>> getById(@PathVariable Long id, WebRequest request) {
+        String etag = catalogCache.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(resourceService.getResourceById(id));
     }
 
+    // fields=summary returns card fields only, e.g. /api/resources?type=TURF_COURT&fields=summary;
+    // near=lat,lon lists those within radiusKm nearest first, e.g. /api/resources?near=59.437,24.7536&radiusKm=5
     @GetMapping
     public ResponseEntity<Response<List<ResourceDTO>>> list(
             @RequestParam(required = false) ResourceType type,
             @RequestParam(required = false) String search,
-            @RequestParam(required = false) Boolean active
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String near,
+            @RequestParam(required = false) Double radiusKm,
+            WebRequest request
+    ) {
+        String etag = catalogCache.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        Response<List<ResourceDTO>> body = near != null
+                ? resourceService.getResourcesNear(near, radiusKm, type, search, active, fields)
+                : resourceService.getResources(type, search, active, fields);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(body);
+    }
+
+    // Keyset-paged listing, e.g. /api/resources/page?type=PADEL&search=north&size=20&cursor=<nextCursor of the previous page>
+    @GetMapping("/page")
+    public ResponseEntity<Response<ResourcePageDTO>> page(
+            @RequestParam(required = false) ResourceType type,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(resourceService.getResourcePage(type, search, active, sort, cursor, size));
+    }
+
+    // Filter chip counts, e.g. /api/resources/facets?search=north&active=true
+    @GetMapping("/facets")
+    public ResponseEntity<Response<ResourceFacetsDTO>> facets(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) ResourceType type,
+            @RequestParam(required = false) Boolean active,
+            WebRequest request
+    ) {
+        String etag = catalogCache.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(resourceService.getFacets(search, type, active));
+    }
+
+    // Best matches first, e.g. /api/resources/search?q=padle kalamaja&limit=10 also finds "Padel court, Kalamaja"
+    @GetMapping("/search")
+    public ResponseEntity<Response<List<ResourceDTO>>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) ResourceType type,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(resourceService.searchResources(q, type, active, limit));
+    }
+
+    // Hit/miss counters of the catalog cache behind GET /api/resources and /api/resources/{id}
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response<List<CacheStatsDTO>>> cacheStats() {
+        return ResponseEntity.ok(resourceService.getCacheStats());
+    }
+
+    // Resources of a type with a unit free for the whole window, e.g. /api/resources/free?type=PADEL&date=2025-06-07&startTime=18:00&endTime=20:00
+    @GetMapping("/free")
+    public ResponseEntity<Response<List<FreeResourceDTO>>> free(
+            @RequestParam ResourceType type,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam String startTime,
+            @RequestParam String endTime
+    ) {
+        return ResponseEntity.ok(availabilityService.findFreeResources(type, date, startTime, endTime));
+    }
+
+    // Free slots per day and unit as compact masks, e.g. /api/resources/1/availability?from=2025-01-01&to=2025-01-31
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<Response<AvailabilityDTO>> availability(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
     ) {
-        return ResponseEntity.ok(resourceService.getResources(type, search, active));
+        return ResponseEntity.ok(availabilityService.getAvailability(id, from, to));
     }
 
     @PostMapping("/{id}/book")
@@ -106,11 +214,28 @@ public class ResourceController {
 
         String subject = "Booking Confirmation - " + (resource != null ? resource.getName() : ("Resource #" + id));
 
-        String totalAmount = resource != null && resource.getPricePerSlot() != null
-                ? resource.getPricePerSlot().toString()
-                : "0.00";
-        // single 30-min slot
+        // Record booking as an order entry in user's history (single slot)
+        PriceQuote[] quote = new PriceQuote[1];
+        String bookingTitle = "Booking: " + (resource != null ? resource.getName() : ("Resource #" + id));
+        // Take the slot and write the order atomically; a conflicting request fails here, before any email is sent
+        reservationService.reserveBooking(id, SlotRanges.of(request), user.getId(), booked -> {
+            // The unit may have been picked by the server; price once it is known, unit prices may differ
+            SlotRanges.applyUnits(request, booked);
+            quote[0] = pricingService.quote(id, booked);
+            String bookingDetails = new StringBuilder()
+                    .append("Date: ").append(safe(request.getDate())).append("\n")
+                    .append("Time: ").append(safe(request.getStartTime())).append(" - ").append(safe(request.getEndTime())).append("\n")
+                    .append("Unit: ").append(request.getUnit() != null ? request.getUnit() : 1).append("\n")
+                    .append("Price per slot: ").append(pricePerSlotOf(quote[0])).append("\n")
+                    .append("Total: ").append(quote[0].total())
+                    .toString();
+            // Bind resource context so the order is associated to this resource
+            orderService.setCurrentBookingResourceId(id);
+            return orderService.createBookingOrder(quote[0].total(), bookingTitle, bookingDetails);
+        });
 
+        String pricePerSlot = pricePerSlotOf(quote[0]);
+        String totalAmount = quote[0].total().toString();
         String paymentLink = basePaymentLink + "B" + id + "&amount=" + totalAmount;
 
         Context context = new Context();
@@ -120,7 +245,7 @@ public class ResourceController {
         context.setVariable("date", safe(request.getDate()));
         context.setVariable("timeRange", safe(request.getStartTime()) + " - " + safe(request.getEndTime()));
         context.setVariable("unit", request.getUnit() != null ? request.getUnit() : 1);
-        context.setVariable("pricePerSlot", totalAmount);
+        context.setVariable("pricePerSlot", pricePerSlot);
         context.setVariable("totalAmount", totalAmount);
         context.setVariable("paymentLink", paymentLink);
         context.setVariable("currentYear", java.time.Year.now());
@@ -134,24 +259,6 @@ public class ResourceController {
                 .isHtml(true)
                 .build());
 
-        // Record booking as an order entry in user's history (single slot)
-        java.math.BigDecimal perSlot = resource != null && resource.getPricePerSlot() != null
-                ? resource.getPricePerSlot()
-                : java.math.BigDecimal.ZERO;
-        try {
-            String bookingTitle = "Booking: " + (resource != null ? resource.getName() : ("Resource #" + id));
-            String bookingDetails = new StringBuilder()
-                    .append("Date: ").append(safe(request.getDate())).append("\n")
-                    .append("Time: ").append(safe(request.getStartTime())).append(" - ").append(safe(request.getEndTime())).append("\n")
-                    .append("Unit: ").append(request.getUnit() != null ? request.getUnit() : 1).append("\n")
-                    .append("Price per slot: ").append(totalAmount).append("\n")
-                    .append("Total: ").append(totalAmount)
-                    .toString();
-            // Bind resource context so the order is associated to this resource
-            orderService.setCurrentBookingResourceId(id);
-            orderService.createBookingOrder(perSlot, bookingTitle, bookingDetails);
-        } catch (Exception ignored) {}
-
         return ResponseEntity.ok(Response.builder()
                 .statusCode(200)
                 .message("Your booking has been received. We've sent a secure payment link to your email.")
@@ -167,15 +274,35 @@ public class ResourceController {
 
         String subject = "Booking Confirmation - " + (resource != null ? resource.getName() : ("Resource #" + id));
 
-        // Determine pricing
-        java.math.BigDecimal perSlot = resource != null && resource.getPricePerSlot() != null
-                ? resource.getPricePerSlot()
-                : java.math.BigDecimal.ZERO;
         int totalSlots = request.getSlots() != null ? request.getSlots().size() : 0;
-        java.math.BigDecimal totalAmountBD = perSlot.multiply(java.math.BigDecimal.valueOf(totalSlots));
 
-        String pricePerSlot = perSlot.toString();
-        String totalAmount = totalAmountBD.toString();
+        // Record booking as an order entry in user's history (batch slots)
+        String bookingTitle = "Booking: " + (resource != null ? resource.getName() : ("Resource #" + id)) + " (" + totalSlots + " slot(s))";
+        PriceQuote[] quote = new PriceQuote[1];
+        reservationService.reserveBooking(id, SlotRanges.of(request), user.getId(), booked -> {
+            SlotRanges.applyUnits(request, booked);
+            quote[0] = pricingService.quote(id, booked);
+            StringBuilder textSlots = new StringBuilder();
+            if (request.getSlots() != null) {
+                for (top.ajasta.AjastaApp.reservation.dtos.BookBatchRequest.Slot s : request.getSlots()) {
+                    textSlots.append("- ")
+                            .append(s.getStartTime()).append(" - ").append(s.getEndTime())
+                            .append(" | Unit ").append(s.getUnit() == null ? 1 : s.getUnit())
+                            .append("\n");
+                }
+            }
+            String bookingDetails = new StringBuilder()
+                    .append("Date: ").append(safe(request.getDate())).append("\n")
+                    .append("Total slots: ").append(totalSlots).append("\n")
+                    .append(textSlots)
+                    .append("Price per slot: ").append(pricePerSlotOf(quote[0])).append("\n")
+                    .append("Total: ").append(quote[0].total())
+                    .toString();
+            orderService.setCurrentBookingResourceId(id);
+            return orderService.createBookingOrder(quote[0].total(), bookingTitle, bookingDetails);
+        });
+        String pricePerSlot = pricePerSlotOf(quote[0]);
+        String totalAmount = quote[0].total().toString();
 
         // Build HTML list of slots
         StringBuilder slotsHtml = new StringBuilder();
@@ -217,29 +344,6 @@ public class ResourceController {
                 .isHtml(true)
                 .build());
 
-        // Record booking as an order entry in user's history (batch slots)
-        try {
-            String bookingTitle = "Booking: " + (resource != null ? resource.getName() : ("Resource #" + id)) + " (" + totalSlots + " slot(s))";
-            StringBuilder textSlots = new StringBuilder();
-            if (request.getSlots() != null) {
-                for (top.ajasta.AjastaApp.reservation.dtos.BookBatchRequest.Slot s : request.getSlots()) {
-                    textSlots.append("- ")
-                            .append(s.getStartTime()).append(" - ").append(s.getEndTime())
-                            .append(" | Unit ").append(s.getUnit() == null ? 1 : s.getUnit())
-                            .append("\n");
-                }
-            }
-            String bookingDetails = new StringBuilder()
-                    .append("Date: ").append(safe(request.getDate())).append("\n")
-                    .append("Total slots: ").append(totalSlots).append("\n")
-                    .append(textSlots)
-                    .append("Price per slot: ").append(pricePerSlot).append("\n")
-                    .append("Total: ").append(totalAmount)
-                    .toString();
-            orderService.setCurrentBookingResourceId(id);
-            orderService.createBookingOrder(totalAmountBD, bookingTitle, bookingDetails);
-        } catch (Exception ignored) {}
-
         return ResponseEntity.ok(Response.builder()
                 .statusCode(200)
                 .message("Your booking has been received for " + totalSlots + " slot(s). We've sent a secure payment link to your email.")
@@ -259,12 +363,45 @@ public class ResourceController {
 
         String subject = "Booking Confirmation - " + (resource != null ? resource.getName() : ("Resource #" + id));
 
-        // Determine pricing
-        java.math.BigDecimal perSlot = resource != null && resource.getPricePerSlot() != null
-                ? resource.getPricePerSlot()
-                : java.math.BigDecimal.ZERO;
-
         int totalSlots = 0;
+        if (request.getDays() != null) {
+            for (top.ajasta.AjastaApp.reservation.dtos.BookMultiRequest.Day day : request.getDays()) {
+                if (day.getSlots() != null) totalSlots += day.getSlots().size();
+            }
+        }
+
+        // Record booking as an order entry in user's history (multi-day)
+        int totalDays = request.getDays() == null ? 0 : request.getDays().size();
+        String bookingTitle = "Booking: " + (resource != null ? resource.getName() : ("Resource #" + id)) +
+                " (" + totalSlots + " slot(s) across " + totalDays + " day(s))";
+        int slotCount = totalSlots;
+        PriceQuote[] quote = new PriceQuote[1];
+        reservationService.reserveBooking(id, SlotRanges.of(request), user.getId(), booked -> {
+            SlotRanges.applyUnits(request, booked);
+            quote[0] = pricingService.quote(id, booked);
+            StringBuilder details = new StringBuilder();
+            if (request.getDays() != null) {
+                for (top.ajasta.AjastaApp.reservation.dtos.BookMultiRequest.Day day : request.getDays()) {
+                    details.append("Date: ").append(safe(day.getDate())).append("\n");
+                    if (day.getSlots() != null) {
+                        for (top.ajasta.AjastaApp.reservation.dtos.BookBatchRequest.Slot s : day.getSlots()) {
+                            details.append("- ")
+                                    .append(s.getStartTime()).append(" - ").append(s.getEndTime())
+                                    .append(" | Unit ").append(s.getUnit() == null ? 1 : s.getUnit())
+                                    .append("\n");
+                        }
+                    }
+                }
+            }
+            details.append("Total slots: ").append(slotCount).append("\n")
+                    .append("Price per slot: ").append(pricePerSlotOf(quote[0])).append("\n")
+                    .append("Total: ").append(quote[0].total());
+            orderService.setCurrentBookingResourceId(id);
+            return orderService.createBookingOrder(quote[0].total(), bookingTitle, details.toString());
+        });
+        String pricePerSlot = pricePerSlotOf(quote[0]);
+        String totalAmount = quote[0].total().toString();
+
         StringBuilder slotsHtml = new StringBuilder();
         if (request.getDays() != null) {
             for (top.ajasta.AjastaApp.reservation.dtos.BookMultiRequest.Day day : request.getDays()) {
@@ -274,7 +411,6 @@ public class ResourceController {
                         .append("</span></div>");
                 if (day.getSlots() != null) {
                     for (top.ajasta.AjastaApp.reservation.dtos.BookBatchRequest.Slot s : day.getSlots()) {
-                        totalSlots++;
                         slotsHtml.append("<div class=\"row\">")
                                 .append("<span>")
                                 .append(s.getStartTime()).append(" - ").append(s.getEndTime())
@@ -286,9 +422,6 @@ public class ResourceController {
             }
         }
 
-        java.math.BigDecimal totalAmountBD = perSlot.multiply(java.math.BigDecimal.valueOf(totalSlots));
-        String pricePerSlot = perSlot.toString();
-        String totalAmount = totalAmountBD.toString();
 
         String paymentLink = basePaymentLink + "B" + id + "&amount=" + totalAmount;
 
@@ -314,36 +447,91 @@ public class ResourceController {
                 .isHtml(true)
                 .build());
 
-        // Record booking as an order entry in user's history (multi-day)
-        try {
-            int totalDays = request.getDays() == null ? 0 : request.getDays().size();
-            String bookingTitle = "Booking: " + (resource != null ? resource.getName() : ("Resource #" + id)) +
-                    " (" + totalSlots + " slot(s) across " + totalDays + " day(s))";
-            StringBuilder details = new StringBuilder();
-            if (request.getDays() != null) {
-                for (top.ajasta.AjastaApp.reservation.dtos.BookMultiRequest.Day day : request.getDays()) {
-                    details.append("Date: ").append(safe(day.getDate())).append("\n");
-                    if (day.getSlots() != null) {
-                        for (top.ajasta.AjastaApp.reservation.dtos.BookBatchRequest.Slot s : day.getSlots()) {
-                            details.append("- ")
-                                    .append(s.getStartTime()).append(" - ").append(s.getEndTime())
-                                    .append(" | Unit ").append(s.getUnit() == null ? 1 : s.getUnit())
-                                    .append("\n");
-                        }
-                    }
-                }
-            }
-            details.append("Total slots: ").append(totalSlots).append("\n")
-                    .append("Price per slot: ").append(pricePerSlot).append("\n")
-                    .append("Total: ").append(totalAmount);
+        return ResponseEntity.ok(Response.builder()
+                .statusCode(200)
+                .message("Your booking has been received for " + totalSlots + " slot(s) across " + totalDays + " day(s). We've sent a secure payment link to your email.")
+                .build());
+    }
+
+    // Weekly (or every n weeks) booking of the same time and unit, stored as one series
+    @PostMapping("/{id}/book-series")
+    @PreAuthorize("hasAnyAuthority('CUSTOMER','ADMIN')")
+    public ResponseEntity<Response<?>> bookSeries(@PathVariable Long id, @RequestBody @Valid top.ajasta.AjastaApp.reservation.dtos.BookSeriesRequest request) {
+        ResourceDTO resource = resourceService.getResourceById(id).getData();
+        User user = userService.getCurrentLoggedInUser();
+
+        SlotRange first = SlotRanges.firstOf(request);
+        SeriesPattern pattern = SlotRanges.patternOf(request);
+
+        String subject = "Booking Confirmation - " + (resource != null ? resource.getName() : ("Resource #" + id));
+
+        int occurrences = pattern.count();
+        int totalSlots = first.length() * occurrences;
+
+        String recurrence = (pattern.intervalWeeks() == 1 ? "Every week" : "Every " + pattern.intervalWeeks() + " weeks")
+                + " on " + capitalize(pattern.first().getDayOfWeek().toString());
+        String timeRange = SlotGrid.timeOf(first.startSlot()) + " - " + SlotGrid.timeOf(first.endSlot());
+        String bookingTitle = "Booking: " + (resource != null ? resource.getName() : ("Resource #" + id))
+                + " (" + occurrences + " occurrence(s))";
+        int[] unit = new int[1];
+        PriceQuote[] quote = new PriceQuote[1];
+        reservationService.reserveSeries(id, first, pattern, user.getId(), booked -> {
+            unit[0] = booked.unit();
+            quote[0] = pricingService.quoteSeries(id, booked, pattern);
+            // No "Date:" lines here: the occurrences live in the series row, not in the order text
+            String bookingDetails = new StringBuilder()
+                    .append("Series: ").append(recurrence).append("\n")
+                    .append("From: ").append(pattern.first()).append("\n")
+                    .append("Until: ").append(pattern.last()).append("\n")
+                    .append("Time: ").append(timeRange).append("\n")
+                    .append("Unit: ").append(booked.unit()).append("\n")
+                    .append("Occurrences: ").append(occurrences).append("\n")
+                    .append("Price per slot: ").append(pricePerSlotOf(quote[0])).append("\n")
+                    .append("Total: ").append(quote[0].total())
+                    .toString();
             orderService.setCurrentBookingResourceId(id);
-            orderService.createBookingOrder(totalAmountBD, bookingTitle, details.toString());
-        } catch (Exception ignored) {}
+            return orderService.createBookingOrder(quote[0].total(), bookingTitle, bookingDetails);
+        });
+        String pricePerSlot = pricePerSlotOf(quote[0]);
+        String totalAmount = quote[0].total().toString();
+
+        String paymentLink = basePaymentLink + "B" + id + "&amount=" + totalAmount;
+
+        Context context = new Context();
+        context.setVariable("customerName", user.getName() != null ? user.getName() : "Customer");
+        context.setVariable("resourceName", resource != null ? resource.getName() : ("#" + id));
+        context.setVariable("resourceLocation", resource != null ? resource.getLocation() : "");
+        context.setVariable("date", recurrence + ", " + pattern.first() + " to " + pattern.last());
+        context.setVariable("timeRange", timeRange);
+        context.setVariable("unit", unit[0]);
+        context.setVariable("totalSlots", totalSlots);
+        context.setVariable("pricePerSlot", pricePerSlot);
+        context.setVariable("totalAmount", totalAmount);
+        context.setVariable("paymentLink", paymentLink);
+        context.setVariable("currentYear", java.time.Year.now());
+
+        String emailBody = templateEngine.process("booking-confirmation", context);
+
+        notificationService.sendEmail(NotificationDTO.builder()
+                .recipient(user.getEmail())
+                .subject(subject)
+                .body(emailBody)
+                .isHtml(true)
+                .build());
 
-        int totalDays = request.getDays() == null ? 0 : request.getDays().size();
         return ResponseEntity.ok(Response.builder()
                 .statusCode(200)
-                .message("Your booking has been received for " + totalSlots + " slot(s) across " + totalDays + " day(s). We've sent a secure payment link to your email.")
+                .message("Your booking has been received for " + occurrences + " occurrence(s). We've sent a secure payment link to your email.")
                 .build());
     }
+
+    // Shown as "varies" when the slots fall into different price bands
+    private static String pricePerSlotOf(PriceQuote quote) {
+        Money uniform = quote.uniformSlotPrice();
+        return uniform != null ? uniform.toString() : "varies";
+    }
+
+    private static String capitalize(String v) {
+        return v.isEmpty() ? v : v.charAt(0) + v.substring(1).toLowerCase(java.util.Locale.ROOT);
+    }
 }
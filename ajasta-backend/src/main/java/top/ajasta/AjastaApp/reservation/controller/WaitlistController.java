@@ -0,0 +1,40 @@
+package top.ajasta.AjastaApp.reservation.controller;
+
+import top.ajasta.AjastaApp.reservation.dtos.BookRequest;
+import top.ajasta.AjastaApp.reservation.dtos.WaitlistEntryDTO;
+import top.ajasta.AjastaApp.reservation.services.WaitlistService;
+import top.ajasta.AjastaApp.response.Response;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Queue for slots that are fully booked; freed slots are offered to the first waiter as a temporary hold
+@RestController
+@RequestMapping("/api/resources/{id}/waitlist")
+@RequiredArgsConstructor
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    @PostMapping
+    @PreAuthorize("hasAnyAuthority('CUSTOMER','ADMIN')")
+    public ResponseEntity<Response<WaitlistEntryDTO>> join(@PathVariable Long id, @RequestBody @Valid BookRequest request) {
+        return ResponseEntity.ok(waitlistService.join(id, request));
+    }
+
+    @GetMapping
+    @PreAuthorize("hasAnyAuthority('CUSTOMER','ADMIN')")
+    public ResponseEntity<Response<List<WaitlistEntryDTO>>> mine(@PathVariable Long id) {
+        return ResponseEntity.ok(waitlistService.getMyEntries(id));
+    }
+
+    @DeleteMapping("/{entryId}")
+    @PreAuthorize("hasAnyAuthority('CUSTOMER','ADMIN')")
+    public ResponseEntity<Response<?>> leave(@PathVariable Long id, @PathVariable Long entryId) {
+        return ResponseEntity.ok(waitlistService.leave(id, entryId));
+    }
+}
@@ -0,0 +1,23 @@
+package top.ajasta.AjastaApp.reservation.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One day of a resource whose free slots changed, pushed on the availability stream; same mask encoding as AvailabilityDTO
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AvailabilityChangeDTO {
+
+    private Long seq; // increases with every change; a client keeps the highest one it has seen per date
+    private Long resourceId;
+    private String date; // yyyy-MM-dd
+    private List<String> free; // current free-slot mask per unit, unit 1 first
+}
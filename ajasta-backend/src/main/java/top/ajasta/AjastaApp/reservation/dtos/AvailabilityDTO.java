@@ -0,0 +1,40 @@
+package top.ajasta.AjastaApp.reservation.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Free slots of a resource for a range of days; see SlotMaskCodec for the mask encoding
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AvailabilityDTO {
+
+    private Long resourceId;
+    private String from; // yyyy-MM-dd
+    private String to; // yyyy-MM-dd, inclusive
+    private Integer slotMinutes;
+    private Integer unitsCount;
+    private String encoding; // e.g. "base64-le48"
+
+    private List<Day> days;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Day {
+        private String date; // yyyy-MM-dd
+        private Boolean closed; // only set for fully closed days; free is omitted then
+        private List<String> free; // one encoded free-slot mask per unit, unit 1 first
+        private Integer largestFreeRun; // longest bookable stretch on any unit, in slots
+        private Double fragmentation; // 0..1, share of free slots outside their unit's largest free run
+    }
+}
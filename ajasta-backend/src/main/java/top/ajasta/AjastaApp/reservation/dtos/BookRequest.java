@@ -22,6 +22,7 @@ public class BookRequest {
     @Pattern(regexp = "^([01]\\d|2[0-3]):[0-5]\\d$", message = "endTime must be HH:mm")
     private String endTime;
 
+    // Omit to let the server pick the best-fitting free unit
     @Positive(message = "unit must be positive")
-    private Integer unit = 1;
+    private Integer unit;
 }
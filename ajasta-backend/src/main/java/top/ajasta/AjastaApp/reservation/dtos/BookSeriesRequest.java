@@ -0,0 +1,43 @@
+package top.ajasta.AjastaApp.reservation.dtos;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+// Weekly recurring booking; give untilDate, count or both (the series stops at whichever comes first)
+@Data
+public class BookSeriesRequest {
+    @NotBlank(message = "startDate is required")
+    // yyyy-MM-dd, the first occurrence; later ones fall on the same weekday
+    @Pattern(regexp = "\\d{4}-\\d{2}-\\d{2}", message = "startDate must be yyyy-MM-dd")
+    private String startDate;
+
+    @NotBlank(message = "startTime is required")
+    // HH:mm 24h
+    @Pattern(regexp = "^([01]\\d|2[0-3]):[0-5]\\d$", message = "startTime must be HH:mm")
+    private String startTime;
+
+    @NotBlank(message = "endTime is required")
+    // HH:mm 24h
+    @Pattern(regexp = "^([01]\\d|2[0-3]):[0-5]\\d$", message = "endTime must be HH:mm")
+    private String endTime;
+
+    // Omit to take the lowest unit that is free on every occurrence
+    @Positive(message = "unit must be positive")
+    private Integer unit;
+
+    // 1 = weekly, 2 = every other week
+    @Min(value = 1, message = "intervalWeeks must be between 1 and 4")
+    @Max(value = 4, message = "intervalWeeks must be between 1 and 4")
+    private Integer intervalWeeks = 1;
+
+    // yyyy-MM-dd, last day the series may occur on
+    @Pattern(regexp = "\\d{4}-\\d{2}-\\d{2}", message = "untilDate must be yyyy-MM-dd")
+    private String untilDate;
+
+    @Positive(message = "count must be positive")
+    private Integer count;
+}
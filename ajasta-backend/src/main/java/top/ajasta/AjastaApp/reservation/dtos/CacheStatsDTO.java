@@ -0,0 +1,22 @@
+package top.ajasta.AjastaApp.reservation.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Counters of one in-process cache since startup
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDTO {
+
+    private String name;
+    private Integer size;
+    private Integer maxSize;
+    private Long hits;
+    private Long misses;
+    private Long evictions;
+    private Double hitRate; // hits / (hits + misses), 0 before the first lookup
+}
@@ -0,0 +1,27 @@
+package top.ajasta.AjastaApp.reservation.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// A resource with at least one unit free for a whole requested window
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FreeResourceDTO {
+
+    private Long id;
+    private String name;
+    private String location;
+    private String imageUrl;
+    private BigDecimal pricePerSlot;
+
+    private List<Integer> freeUnits; // 1-based
+}
@@ -0,0 +1,33 @@
+package top.ajasta.AjastaApp.reservation.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class HoldDTO {
+
+    private String id;
+    private Long resourceId;
+    private String expiresAt; // ISO-8601 instant
+    private List<Slot> slots;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Slot {
+        private String date; // yyyy-MM-dd
+        private String startTime; // HH:mm
+        private String endTime; // HH:mm
+        private Integer unit;
+    }
+}
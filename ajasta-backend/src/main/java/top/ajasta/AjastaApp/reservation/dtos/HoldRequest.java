@@ -0,0 +1,22 @@
+package top.ajasta.AjastaApp.reservation.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class HoldRequest {
+
+    @NotNull(message = "days is required")
+    @Size(min = 1, message = "days must contain at least one item")
+    @Valid
+    private List<BookMultiRequest.Day> days;
+
+    // Hold duration; defaults to app.reservation.hold-minutes and is capped at app.reservation.hold-max-minutes
+    @Positive(message = "minutes must be positive")
+    private Integer minutes;
+}
@@ -0,0 +1,50 @@
+package top.ajasta.AjastaApp.reservation.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Occupancy heatmap of a resource: booked unit-slots per weekday and slot over all live bookings, plus a daily rollup
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OccupancyDTO {
+
+    private Long resourceId;
+    private Integer slotMinutes;
+    private Integer unitsCount;
+    private String from; // yyyy-MM-dd, first day of the rollup
+    private String to; // yyyy-MM-dd, inclusive
+
+    private List<Weekday> weekdays; // Monday first
+
+    private List<Day> days; // every day of [from, to], including ones without bookings
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Weekday {
+        private String weekday; // MONDAY ... SUNDAY
+        private List<Long> slots; // one count per slot of the day (48), slot 0 = 00:00
+        private Long total;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Day {
+        private String date; // yyyy-MM-dd
+        private Long bookedSlots;
+        private Integer capacitySlots; // bookable slots of the day times units; 0 when closed
+        private Double utilization; // bookedSlots / capacitySlots, omitted when closed
+    }
+}
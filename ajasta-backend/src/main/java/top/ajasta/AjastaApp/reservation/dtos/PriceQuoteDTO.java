@@ -0,0 +1,39 @@
+package top.ajasta.AjastaApp.reservation.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Price of a basket before booking it, one line per requested range
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PriceQuoteDTO {
+
+    private Long resourceId;
+    private Integer slots;
+    private BigDecimal pricePerSlot; // only when every slot costs the same
+    private BigDecimal total;
+    private List<Line> lines;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Line {
+        private String date; // yyyy-MM-dd
+        private String startTime; // HH:mm
+        private String endTime;
+        private Integer unit; // missing while the server is to pick the unit
+        private Integer slots;
+        private BigDecimal amount;
+    }
+}
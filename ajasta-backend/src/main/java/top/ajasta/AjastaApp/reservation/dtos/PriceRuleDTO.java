@@ -0,0 +1,47 @@
+package top.ajasta.AjastaApp.reservation.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// A pricing rule of a resource; every condition left out matches everything
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PriceRuleDTO {
+
+    private Long id;
+
+    private List<String> weekdays; // MONDAY ... SUNDAY; empty or missing = every day
+
+    @Pattern(regexp = "^([01]\\d|2[0-3]):[0-5]\\d$", message = "startTime must be HH:mm")
+    private String startTime;
+
+    @Pattern(regexp = "^([01]\\d|2[0-3]):[0-5]\\d$", message = "endTime must be HH:mm")
+    private String endTime; // exclusive; "00:00" = end of day
+
+    @Pattern(regexp = "\\d{4}-\\d{2}-\\d{2}", message = "date must be yyyy-MM-dd")
+    private String date;
+
+    @Min(value = 1, message = "unit must be positive")
+    private Integer unit;
+
+    @NotNull(message = "pricePerSlot is required")
+    @DecimalMin(value = "0.00", message = "pricePerSlot must not be negative")
+    @Digits(integer = 8, fraction = 2, message = "pricePerSlot must be a whole number of cents")
+    private BigDecimal pricePerSlot;
+
+    private Integer priority;
+}
@@ -28,6 +28,9 @@ public class ResourceDTO {
     private ResourceType type;
 
     private String location;
+    private Double latitude; // degrees, -90..90
+    private Double longitude; // degrees, -180..180
+    private Double distanceKm; // only on near= listings
     private String description;
     private String imageUrl;
     private MultipartFile imageFile;
@@ -0,0 +1,22 @@
+package top.ajasta.AjastaApp.reservation.dtos;
+
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+// Counts for catalog filter chips; each facet honours the other filters but not its own
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourceFacetsDTO {
+
+    private Long total; // matching search, type and active
+    private Map<ResourceType, Long> types; // every type, zero included; narrowed by search and active
+    private Long active; // narrowed by search and type
+    private Long inactive;
+}
@@ -0,0 +1,23 @@
+package top.ajasta.AjastaApp.reservation.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One page of the resource listing; pass nextCursor back as cursor for the following page
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResourcePageDTO {
+
+    private List<ResourceDTO> items;
+    private String nextCursor; // missing on the last page
+    private Integer size;
+    private String sort; // name or -name
+}
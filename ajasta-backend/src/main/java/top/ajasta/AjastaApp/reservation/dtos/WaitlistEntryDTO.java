@@ -0,0 +1,26 @@
+package top.ajasta.AjastaApp.reservation.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import top.ajasta.AjastaApp.reservation.enums.WaitlistStatus;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WaitlistEntryDTO {
+
+    private Long id;
+    private Long resourceId;
+    private String date; // yyyy-MM-dd
+    private String startTime; // HH:mm
+    private String endTime; // HH:mm
+    private Integer unit; // null = any unit
+    private WaitlistStatus status;
+    private String holdId; // set while OFFERED: book the slots before offerExpiresAt
+    private String offerExpiresAt; // ISO-8601 instant
+}
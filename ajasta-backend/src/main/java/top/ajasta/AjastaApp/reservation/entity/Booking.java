@@ -0,0 +1,47 @@
+package top.ajasta.AjastaApp.reservation.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One booked slot run of an order: [startSlot, endSlot) on one unit of a resource for one day,
+ * slots being the 30-minute grid of SlotGrid. Order.bookingDetails keeps the human-readable copy.
+ */
+@Entity
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_resource_date", columnList = "resource_id, booking_date"),
+        @Index(name = "idx_bookings_order", columnList = "order_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Booking {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "resource_id", nullable = false)
+    private Long resourceId;
+
+    @Column(name = "booking_date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "start_slot", nullable = false)
+    private int startSlot;
+
+    @Column(name = "end_slot", nullable = false)
+    private int endSlot;
+
+    @Column(nullable = false)
+    private int unit;
+}
@@ -0,0 +1,65 @@
+package top.ajasta.AjastaApp.reservation.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import top.ajasta.AjastaApp.reservation.availability.SeriesPattern;
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+
+import java.time.LocalDate;
+
+/**
+ * A recurring booking of an order: the same slot run on the same unit every {@code intervalWeeks} weeks from
+ * {@code firstDate} through {@code lastDate}. Stored as one row; occurrences are expanded only for the days
+ * being looked at (see SeriesPattern).
+ */
+@Entity
+@Table(name = "booking_series", indexes = {
+        @Index(name = "idx_booking_series_resource_dates", columnList = "resource_id, first_date, last_date"),
+        @Index(name = "idx_booking_series_order", columnList = "order_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSeries {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "resource_id", nullable = false)
+    private Long resourceId;
+
+    @Column(name = "first_date", nullable = false)
+    private LocalDate firstDate;
+
+    @Column(name = "last_date", nullable = false)
+    private LocalDate lastDate;
+
+    @Column(name = "interval_weeks", nullable = false)
+    private int intervalWeeks;
+
+    @Column(name = "start_slot", nullable = false)
+    private int startSlot;
+
+    @Column(name = "end_slot", nullable = false)
+    private int endSlot;
+
+    @Column(nullable = false)
+    private int unit;
+
+    public SeriesPattern pattern() {
+        return new SeriesPattern(firstDate, lastDate, intervalWeeks);
+    }
+
+    // The occurrence on the given date
+    public SlotRange rangeOn(LocalDate date) {
+        return new SlotRange(date, unit, startSlot, endSlot);
+    }
+}
@@ -0,0 +1,34 @@
+package top.ajasta.AjastaApp.reservation.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Daily rollup next to OccupancySlot: booked unit-slots of a resource on one date
+@Entity
+@Table(name = "occupancy_days", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_occupancy_days_resource_date", columnNames = {"resource_id", "occupancy_date"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccupancyDay {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "resource_id", nullable = false)
+    private Long resourceId;
+
+    @Column(name = "occupancy_date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "booked_slots", nullable = false)
+    private long bookedSlots;
+}
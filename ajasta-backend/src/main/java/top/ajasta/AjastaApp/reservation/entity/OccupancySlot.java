@@ -0,0 +1,38 @@
+package top.ajasta.AjastaApp.reservation.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Booked unit-slots of a resource at one 30-minute slot of one weekday, summed over all live bookings.
+ * Kept up to date by OccupancyService on every booking and cancellation; at most 7 x 48 rows per resource.
+ */
+@Entity
+@Table(name = "occupancy_slots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_occupancy_slots_resource_weekday_slot", columnNames = {"resource_id", "weekday", "slot"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccupancySlot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "resource_id", nullable = false)
+    private Long resourceId;
+
+    @Column(nullable = false)
+    private int weekday; // 1 = Monday ... 7 = Sunday
+
+    @Column(nullable = false)
+    private int slot;
+
+    @Column(name = "booked_slots", nullable = false)
+    private long bookedSlots;
+}
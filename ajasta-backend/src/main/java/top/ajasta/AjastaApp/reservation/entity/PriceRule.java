@@ -0,0 +1,61 @@
+package top.ajasta.AjastaApp.reservation.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Price per slot that replaces the resource's base price wherever the rule matches: on the given weekdays
+ * (all when none), inside the [startTime, endTime) band (whole day when unset), on one date and/or one unit.
+ * Rules are compiled into a per-slot price table (see PriceTable); where several match, the higher priority
+ * wins, then the more specific rule.
+ */
+@Entity
+@Table(name = "price_rules", indexes = {
+        @Index(name = "idx_price_rules_resource", columnList = "resource_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "resource_id", nullable = false)
+    private Long resourceId;
+
+    // bit d-1 set => applies on DayOfWeek d (bit 0 = Monday); 0 = every day
+    @Column(nullable = false)
+    private int weekdays;
+
+    private LocalTime startTime;
+
+    private LocalTime endTime;
+
+    // Date override; null = every matching weekday
+    @Column(name = "rule_date")
+    private LocalDate date;
+
+    // Unit override; null = all units
+    private Integer unit;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal pricePerSlot;
+
+    @Column(nullable = false)
+    private int priority;
+
+    public boolean appliesOn(DayOfWeek weekday) {
+        return weekdays == 0 || (weekdays & (1 << (weekday.getValue() - 1))) != 0;
+    }
+}
@@ -31,6 +31,10 @@ public class Resource {
 
     private String location;
 
+    // WGS84 position in degrees, both set or both null
+    private Double latitude;
+    private Double longitude;
+
     @Column(length = 2000)
     private String description;
 
@@ -0,0 +1,62 @@
+package top.ajasta.AjastaApp.reservation.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import top.ajasta.AjastaApp.reservation.enums.WaitlistStatus;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A user waiting for [startSlot, endSlot) of a fully booked day. Unit 0 means any unit.
+ * When the slots free up the entry is OFFERED: the slots are held for the user until offerExpiresAt.
+ */
+@Entity
+@Table(name = "waitlist_entries", indexes = {
+        @Index(name = "idx_waitlist_resource_date", columnList = "resource_id, wait_date"),
+        @Index(name = "idx_waitlist_user", columnList = "user_id"),
+        @Index(name = "idx_waitlist_hold", columnList = "hold_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "resource_id", nullable = false)
+    private Long resourceId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "wait_date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "start_slot", nullable = false)
+    private int startSlot;
+
+    @Column(name = "end_slot", nullable = false)
+    private int endSlot;
+
+    @Column(nullable = false)
+    private int unit;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WaitlistStatus status;
+
+    @Column(name = "hold_id")
+    private String holdId;
+
+    private Instant offerExpiresAt;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,8 @@
+package top.ajasta.AjastaApp.reservation.enums;
+
+public enum WaitlistStatus {
+    WAITING,
+    OFFERED,
+    EXPIRED,
+    CANCELLED
+}
@@ -0,0 +1,9 @@
+package top.ajasta.AjastaApp.reservation.events;
+
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+
+import java.util.List;
+
+// Slots of a resource became free again (booking cancelled, deleted or its payment failed, or a hold released)
+public record SlotsReleasedEvent(Long resourceId, List<SlotRange> ranges) {
+}
@@ -0,0 +1,9 @@
+package top.ajasta.AjastaApp.reservation.events;
+
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+
+import java.util.List;
+
+// Slots of a resource were booked or put on hold (published once the booking has committed)
+public record SlotsTakenEvent(Long resourceId, List<SlotRange> ranges) {
+}
@@ -0,0 +1,135 @@
+package top.ajasta.AjastaApp.reservation.geo;
+
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Resources bucketed into 0.1-degree latitude/longitude cells, answering "within r km of a point, nearest first"
+ * from memory.
+ * <p>
+ * A query scans only the cells of the bounding box of its circle (a few dozen for city-sized radii, widened towards
+ * the poles and wrapped across the antimeridian), then keeps the points whose great-circle (haversine) distance is
+ * within the radius. Only non-empty cells are stored. Reads and writes are guarded by a read-write lock.
+ */
+public final class GeoGrid {
+
+    static final double CELL_DEGREES = 0.1;
+    static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final int LAT_CELLS = (int) Math.round(180 / CELL_DEGREES);
+    private static final int LON_CELLS = (int) Math.round(360 / CELL_DEGREES);
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, GeoPoint> points = new HashMap<>();
+    private final Map<Integer, List<GeoPoint>> cells = new HashMap<>();
+
+    public record Hit(long id, double distanceKm) {
+    }
+
+    // Replaces the resource's previous position; a point without coordinates only removes it
+    public void put(GeoPoint p) {
+        if (p == null || p.id() == null) return;
+        lock.writeLock().lock();
+        try {
+            unlink(p.id());
+            if (!p.located()) return;
+            points.put(p.id(), p);
+            cells.computeIfAbsent(cellOf(p.latitude(), p.longitude()), k -> new ArrayList<>()).add(p);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        if (id == null) return;
+        lock.writeLock().lock();
+        try {
+            unlink(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return points.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Resources within radiusKm, nearest first (ties by id); null type or activeOnly does not filter
+    public List<Hit> near(double latitude, double longitude, double radiusKm, ResourceType type, Boolean activeOnly, int limit) {
+        double dLat = radiusKm / KM_PER_DEGREE;
+        double latMin = Math.max(-90, latitude - dLat);
+        double latMax = Math.min(90, latitude + dLat);
+        int rowFrom = row(latMin);
+        int rowTo = row(latMax);
+
+        // Longitude degrees shrink with cos(latitude); use the box edge closest to a pole
+        double edge = Math.toRadians(Math.max(Math.abs(latMin), Math.abs(latMax)));
+        double dLon = Math.cos(edge) < 1e-9 ? 360 : radiusKm / (KM_PER_DEGREE * Math.cos(edge));
+        int colFrom;
+        int colCount;
+        if (dLon >= 180) {
+            colFrom = 0;
+            colCount = LON_CELLS;
+        } else {
+            colFrom = (int) Math.floor((longitude - dLon + 180) / CELL_DEGREES);
+            colCount = Math.min(LON_CELLS, (int) Math.floor((longitude + dLon + 180) / CELL_DEGREES) - colFrom + 1);
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int r = rowFrom; r <= rowTo; r++) {
+                for (int c = 0; c < colCount; c++) {
+                    List<GeoPoint> cell = cells.get(r * LON_CELLS + Math.floorMod(colFrom + c, LON_CELLS));
+                    if (cell == null) continue;
+                    for (GeoPoint p : cell) {
+                        if (type != null && type != p.type()) continue;
+                        if (activeOnly != null && activeOnly != p.active()) continue;
+                        double d = distanceKm(latitude, longitude, p.latitude(), p.longitude());
+                        if (d <= radiusKm) hits.add(new Hit(p.id(), d));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm).thenComparingLong(Hit::id));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double sinLat = Math.sin(Math.toRadians(lat2 - lat1) / 2);
+        double sinLon = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+        double a = sinLat * sinLat + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinLon * sinLon;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private void unlink(Long id) {
+        GeoPoint old = points.remove(id);
+        if (old == null) return;
+        int key = cellOf(old.latitude(), old.longitude());
+        List<GeoPoint> cell = cells.get(key);
+        cell.removeIf(p -> p.id().equals(id));
+        if (cell.isEmpty()) cells.remove(key);
+    }
+
+    private static int cellOf(double latitude, double longitude) {
+        return row(latitude) * LON_CELLS + Math.floorMod((int) Math.floor((longitude + 180) / CELL_DEGREES), LON_CELLS);
+    }
+
+    private static int row(double latitude) {
+        return Math.min(LAT_CELLS - 1, Math.max(0, (int) Math.floor((latitude + 90) / CELL_DEGREES)));
+    }
+}
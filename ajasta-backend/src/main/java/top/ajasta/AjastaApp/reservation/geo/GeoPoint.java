@@ -0,0 +1,16 @@
+package top.ajasta.AjastaApp.reservation.geo;
+
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+
+// Position and filter columns of a resource, read by a constructor expression so the index is built without entities
+public record GeoPoint(Long id, Double latitude, Double longitude, ResourceType type, boolean active) {
+
+    public static GeoPoint of(Resource r) {
+        return new GeoPoint(r.getId(), r.getLatitude(), r.getLongitude(), r.getType(), r.isActive());
+    }
+
+    public boolean located() {
+        return latitude != null && longitude != null;
+    }
+}
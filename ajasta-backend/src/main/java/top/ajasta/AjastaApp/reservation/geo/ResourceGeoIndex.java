@@ -0,0 +1,42 @@
+package top.ajasta.AjastaApp.reservation.geo;
+
+import top.ajasta.AjastaApp.reservation.catalog.StreamedIndex;
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * The {@link GeoGrid} of all located resources, held by a {@link StreamedIndex}: streamed from the database on first
+ * lookup, written through by the resource service and rebuilt after the catalog cache's time to live.
+ */
+@Component
+public class ResourceGeoIndex {
+
+    private final StreamedIndex<GeoGrid, GeoPoint> grid;
+
+    public ResourceGeoIndex(ResourceRepository resourceRepository, PlatformTransactionManager transactionManager,
+                            @Value("${app.catalog-cache.ttl-seconds:300}") long ttlSeconds) {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        this.grid = new StreamedIndex<>("Geo", GeoGrid::new, resourceRepository::streamGeoPoints,
+                GeoGrid::put, GeoGrid::remove, readOnlyTransaction, ttlSeconds * 1000, System::currentTimeMillis);
+    }
+
+    public List<GeoGrid.Hit> near(double latitude, double longitude, double radiusKm, ResourceType type, Boolean active, int limit) {
+        return grid.get().near(latitude, longitude, radiusKm, type, active, limit);
+    }
+
+    public void put(Resource resource) {
+        grid.put(GeoPoint.of(resource));
+    }
+
+    public void remove(Long id) {
+        grid.remove(id);
+    }
+}
@@ -0,0 +1,24 @@
+package top.ajasta.AjastaApp.reservation.pricing;
+
+import top.ajasta.AjastaApp.money.Money;
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+
+import java.util.List;
+
+/**
+ * Price of a basket: one line per requested range, or one line for a whole series.
+ * {@code minSlot}/{@code maxSlot} are the cheapest and dearest single slot in the basket.
+ */
+public record PriceQuote(List<Line> lines, Money total, int slots, Money minSlot, Money maxSlot) {
+
+    /**
+     * @param occurrences 1 for a plain range, the occurrence count for a series line
+     */
+    public record Line(SlotRange range, int occurrences, int slots, Money amount) {
+    }
+
+    // Price every slot shares, or null when the basket mixes prices
+    public Money uniformSlotPrice() {
+        return slots > 0 && minSlot.equals(maxSlot) ? minSlot : null;
+    }
+}
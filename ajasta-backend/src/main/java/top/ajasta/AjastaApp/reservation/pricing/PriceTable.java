@@ -0,0 +1,212 @@
+package top.ajasta.AjastaApp.reservation.pricing;
+
+import top.ajasta.AjastaApp.money.Money;
+import top.ajasta.AjastaApp.reservation.availability.SeriesPattern;
+import top.ajasta.AjastaApp.reservation.availability.SlotGrid;
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+import top.ajasta.AjastaApp.reservation.entity.PriceRule;
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Price of every slot of a resource in cents, compiled from its base price and its {@link PriceRule}s.
+ * <p>
+ * The week is one {@code long[7 x 48]} row set, plus one per unit that has unit rules; dates with overrides get
+ * their own 48-slot rows. Looking up a range picks its row once and sums the slots, so quoting a basket is array
+ * reads and long additions; amounts become {@link Money} once per line. Rules are applied in (priority, specificity, id) order, later ones overwriting
+ * earlier ones; specificity ranks a date over a unit over a weekday set over a time band.
+ * <p>
+ * Instances are immutable.
+ */
+public final class PriceTable {
+
+    private static final int DAY = SlotGrid.SLOTS_PER_DAY;
+    private static final Comparator<PriceRule> ORDER = Comparator.comparingInt(PriceRule::getPriority)
+            .thenComparingInt(PriceTable::specificity)
+            .thenComparing(PriceRule::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final LocalDateTime version;
+    // [unit][(weekday - 1) * 48 + slot]; index 0 holds the prices of units without unit rules
+    private final long[][] weekly;
+    // epoch day -> [unit][slot], same fallback to index 0
+    private final Map<Long, long[][]> dated;
+
+    private PriceTable(LocalDateTime version, long[][] weekly, Map<Long, long[][]> dated) {
+        this.version = version;
+        this.weekly = weekly;
+        this.dated = dated;
+    }
+
+    public static PriceTable compile(Resource resource, List<PriceRule> rules) {
+        return compile(resource.getUpdatedAt(), Money.of(resource.getPricePerSlot()).cents(), rules);
+    }
+
+    // Every slot at the same price
+    public static PriceTable flat(Money perSlot) {
+        return compile(null, perSlot.cents(), List.of());
+    }
+
+    static PriceTable compile(LocalDateTime version, long baseCents, List<PriceRule> rules) {
+        List<PriceRule> ordered = new ArrayList<>(rules);
+        ordered.sort(ORDER);
+        int maxUnit = 0;
+        TreeSet<LocalDate> dates = new TreeSet<>();
+        for (PriceRule r : ordered) {
+            if (r.getUnit() != null && r.getUnit() > 0) maxUnit = Math.max(maxUnit, r.getUnit());
+            if (r.getDate() != null) dates.add(r.getDate());
+        }
+        boolean[] unitRules = new boolean[maxUnit + 1];
+        for (PriceRule r : ordered) {
+            if (r.getUnit() != null && r.getUnit() > 0) unitRules[r.getUnit()] = true;
+        }
+
+        long[][] weekly = new long[maxUnit + 1][];
+        for (int u = 0; u <= maxUnit; u++) {
+            if (u > 0 && !unitRules[u]) continue;
+            long[] week = new long[7 * DAY];
+            for (DayOfWeek weekday : DayOfWeek.values()) {
+                System.arraycopy(row(ordered, baseCents, weekday, null, u), 0, week, (weekday.getValue() - 1) * DAY, DAY);
+            }
+            weekly[u] = week;
+        }
+
+        Map<Long, long[][]> dated = new HashMap<>();
+        for (LocalDate date : dates) {
+            long[][] rows = new long[maxUnit + 1][];
+            for (int u = 0; u <= maxUnit; u++) {
+                if (u == 0 || unitRules[u]) rows[u] = row(ordered, baseCents, date.getDayOfWeek(), date, u);
+            }
+            dated.put(date.toEpochDay(), rows);
+        }
+        return new PriceTable(version, weekly, dated);
+    }
+
+    // One day's prices: the base price overwritten by every matching rule in order
+    private static long[] row(List<PriceRule> ordered, long baseCents, DayOfWeek weekday, LocalDate date, int unit) {
+        long[] row = new long[DAY];
+        Arrays.fill(row, baseCents);
+        for (PriceRule r : ordered) {
+            if (r.getDate() != null && !r.getDate().equals(date)) continue;
+            if (r.getUnit() != null && r.getUnit() != unit) continue;
+            if (!r.appliesOn(weekday)) continue;
+            long cents = Money.of(r.getPricePerSlot()).cents();
+            int from = r.getStartTime() == null ? 0 : firstSlotFrom(r.getStartTime().getHour() * 60 + r.getStartTime().getMinute());
+            int to = r.getEndTime() == null ? DAY : SlotGrid.endSlotOf(r.getEndTime());
+            for (int s = from; s < to; s++) {
+                row[s] = cents;
+            }
+        }
+        return row;
+    }
+
+    // A band covers the slots that start inside it
+    private static int firstSlotFrom(int minutes) {
+        return (minutes + SlotGrid.SLOT_MINUTES - 1) / SlotGrid.SLOT_MINUTES;
+    }
+
+    private static int specificity(PriceRule r) {
+        return (r.getDate() != null ? 8 : 0)
+                + (r.getUnit() != null ? 4 : 0)
+                + (r.getWeekdays() != 0 ? 2 : 0)
+                + (r.getStartTime() != null || r.getEndTime() != null ? 1 : 0);
+    }
+
+    // updatedAt of the resource this table was compiled from
+    public LocalDateTime version() {
+        return version;
+    }
+
+    public long slotCents(LocalDate date, int unit, int slot) {
+        long[] row = rowOf(date, unit);
+        return row == null ? weekRow(unit)[(date.getDayOfWeek().getValue() - 1) * DAY + slot] : row[slot];
+    }
+
+    // Ranges with the auto unit are priced like units without unit rules
+    public PriceQuote quote(List<SlotRange> ranges) {
+        List<PriceQuote.Line> lines = new ArrayList<>(ranges.size());
+        long total = 0;
+        int slots = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (SlotRange r : ranges) {
+            long[] row = rowOf(r.date(), r.unit());
+            int offset = 0;
+            if (row == null) {
+                row = weekRow(r.unit());
+                offset = (r.date().getDayOfWeek().getValue() - 1) * DAY;
+            }
+            long cents = 0;
+            for (int s = offset + r.startSlot(); s < offset + r.endSlot(); s++) {
+                long p = row[s];
+                cents += p;
+                if (p < min) min = p;
+                if (p > max) max = p;
+            }
+            lines.add(new PriceQuote.Line(r, 1, r.length(), Money.ofCents(cents)));
+            total += cents;
+            slots += r.length();
+        }
+        if (slots == 0) return new PriceQuote(lines, Money.ZERO, 0, Money.ZERO, Money.ZERO);
+        return new PriceQuote(lines, Money.ofCents(total), slots, Money.ofCents(min), Money.ofCents(max));
+    }
+
+    /**
+     * Every occurrence of a series, without expanding it: the weekly price times the count, corrected for the
+     * override dates the series hits.
+     */
+    public PriceQuote quoteSeries(SlotRange first, SeriesPattern pattern) {
+        long[] week = weekRow(first.unit());
+        int offset = (first.date().getDayOfWeek().getValue() - 1) * DAY;
+        long weekCents = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int s = first.startSlot(); s < first.endSlot(); s++) {
+            long p = week[offset + s];
+            weekCents += p;
+            if (p < min) min = p;
+            if (p > max) max = p;
+        }
+        int count = pattern.count();
+        long total = weekCents * count;
+        for (Map.Entry<Long, long[][]> e : dated.entrySet()) {
+            LocalDate date = LocalDate.ofEpochDay(e.getKey());
+            if (!pattern.occursOn(date)) continue;
+            long[][] rows = e.getValue();
+            long[] row = first.unit() < rows.length && rows[first.unit()] != null ? rows[first.unit()] : rows[0];
+            for (int s = first.startSlot(); s < first.endSlot(); s++) {
+                long p = row[s];
+                total += p - week[offset + s];
+                if (p < min) min = p;
+                if (p > max) max = p;
+            }
+        }
+        int slots = first.length() * count;
+        if (slots == 0) {
+            return new PriceQuote(List.of(new PriceQuote.Line(first, count, 0, Money.ZERO)), Money.ZERO, 0, Money.ZERO, Money.ZERO);
+        }
+        Money amount = Money.ofCents(total);
+        return new PriceQuote(List.of(new PriceQuote.Line(first, count, slots, amount)), amount, slots, Money.ofCents(min), Money.ofCents(max));
+    }
+
+    private long[] weekRow(int unit) {
+        return unit > 0 && unit < weekly.length && weekly[unit] != null ? weekly[unit] : weekly[0];
+    }
+
+    // The override row of the date, or null when the weekly prices apply
+    private long[] rowOf(LocalDate date, int unit) {
+        if (dated.isEmpty()) return null;
+        long[][] rows = dated.get(date.toEpochDay());
+        if (rows == null) return null;
+        return unit > 0 && unit < rows.length && rows[unit] != null ? rows[unit] : rows[0];
+    }
+}
@@ -0,0 +1,48 @@
+package top.ajasta.AjastaApp.reservation.pricing;
+
+import top.ajasta.AjastaApp.exceptions.NotFoundException;
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.repository.PriceRuleRepository;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-resource cache of {@link PriceTable}s. Evicted when the resource (its base price) or one of its price
+ * rules changes; the resource and its rules are only read from the database on a miss.
+ * <p>
+ * A table is only stored if no {@link #evict} happened since its rows were read, so a quote racing a price change
+ * cannot put the old table back.
+ */
+@Component
+@RequiredArgsConstructor
+public class PriceTableCache {
+
+    private final ResourceRepository resourceRepository;
+    private final PriceRuleRepository priceRuleRepository;
+
+    private final ConcurrentMap<Long, PriceTable> tables = new ConcurrentHashMap<>();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PriceTable get(Long resourceId) {
+        PriceTable cached = tables.get(resourceId);
+        if (cached != null) return cached;
+        long seen = evictions.get();
+        Resource resource = resourceRepository.findById(resourceId)
+                .orElseThrow(() -> new NotFoundException("Resource not found"));
+        PriceTable compiled = PriceTable.compile(resource, priceRuleRepository.findByResourceIdOrderByIdAsc(resourceId));
+        tables.compute(resourceId, (k, current) -> evictions.get() != seen || current != null ? current : compiled);
+        return compiled;
+    }
+
+    // Call after the write committed
+    public void evict(Long resourceId) {
+        if (resourceId == null) return;
+        evictions.incrementAndGet();
+        tables.remove(resourceId);
+    }
+}
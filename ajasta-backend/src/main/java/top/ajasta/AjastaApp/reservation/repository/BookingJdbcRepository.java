@@ -0,0 +1,32 @@
+package top.ajasta.AjastaApp.reservation.repository;
+
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.util.List;
+
+// Write side of the bookings table: all rows of one booking request go out as a single JDBC batch
+@Repository
+@RequiredArgsConstructor
+public class BookingJdbcRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO bookings (order_id, resource_id, booking_date, start_slot, end_slot, unit) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(Long orderId, Long resourceId, List<SlotRange> ranges) {
+        if (orderId == null || resourceId == null || ranges == null || ranges.isEmpty()) return;
+        jdbcTemplate.batchUpdate(INSERT_SQL, ranges, ranges.size(), (ps, r) -> {
+            ps.setLong(1, orderId);
+            ps.setLong(2, resourceId);
+            ps.setDate(3, Date.valueOf(r.date()));
+            ps.setInt(4, r.startSlot());
+            ps.setInt(5, r.endSlot());
+            ps.setInt(6, r.unit());
+        });
+    }
+}
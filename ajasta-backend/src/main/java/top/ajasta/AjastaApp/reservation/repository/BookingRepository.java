@@ -0,0 +1,63 @@
+package top.ajasta.AjastaApp.reservation.repository;
+
+import top.ajasta.AjastaApp.enums.OrderStatus;
+import top.ajasta.AjastaApp.reservation.entity.Booking;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingRepository extends JpaRepository<Booking, Long> {
+
+    List<Booking> findByOrderId(Long orderId);
+
+    // Bookings of live orders; all of these go through idx_bookings_resource_date and the orders primary key
+    @Query("SELECT b FROM Booking b, Order o WHERE o.id = b.orderId " +
+           "AND b.resourceId = :resourceId AND b.date = :date " +
+           "AND (o.orderStatus IS NULL OR o.orderStatus NOT IN :inactive)")
+    List<Booking> findActiveOnDay(@Param("resourceId") Long resourceId,
+                                  @Param("date") LocalDate date,
+                                  @Param("inactive") List<OrderStatus> inactive);
+
+    @Query("SELECT b FROM Booking b, Order o WHERE o.id = b.orderId " +
+           "AND b.resourceId = :resourceId AND b.date BETWEEN :from AND :to " +
+           "AND (o.orderStatus IS NULL OR o.orderStatus NOT IN :inactive)")
+    List<Booking> findActiveBetween(@Param("resourceId") Long resourceId,
+                                    @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to,
+                                    @Param("inactive") List<OrderStatus> inactive);
+
+    @Query("SELECT b FROM Booking b, Order o WHERE o.id = b.orderId " +
+           "AND b.resourceId IN :resourceIds AND b.date = :date " +
+           "AND (o.orderStatus IS NULL OR o.orderStatus NOT IN :inactive)")
+    List<Booking> findActiveOnDayForResources(@Param("resourceIds") Collection<Long> resourceIds,
+                                              @Param("date") LocalDate date,
+                                              @Param("inactive") List<OrderStatus> inactive);
+
+    // Bookings overlapping [startSlot, endSlot) on any day of the span, for checking a series without expanding it
+    @Query("SELECT b FROM Booking b, Order o WHERE o.id = b.orderId " +
+           "AND b.resourceId = :resourceId AND b.date BETWEEN :from AND :to " +
+           "AND b.startSlot < :endSlot AND b.endSlot > :startSlot " +
+           "AND (o.orderStatus IS NULL OR o.orderStatus NOT IN :inactive)")
+    List<Booking> findActiveOverlappingSlots(@Param("resourceId") Long resourceId,
+                                             @Param("from") LocalDate from,
+                                             @Param("to") LocalDate to,
+                                             @Param("startSlot") int startSlot,
+                                             @Param("endSlot") int endSlot,
+                                             @Param("inactive") List<OrderStatus> inactive);
+
+    // Every live booking of a resource, for recounting its occupancy
+    @Query("SELECT b FROM Booking b, Order o WHERE o.id = b.orderId " +
+           "AND b.resourceId = :resourceId " +
+           "AND (o.orderStatus IS NULL OR o.orderStatus NOT IN :inactive)")
+    List<Booking> findActiveByResource(@Param("resourceId") Long resourceId,
+                                       @Param("inactive") List<OrderStatus> inactive);
+
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.orderId = :orderId")
+    int deleteByOrderId(@Param("orderId") Long orderId);
+}
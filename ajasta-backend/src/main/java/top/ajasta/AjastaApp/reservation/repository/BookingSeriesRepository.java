@@ -0,0 +1,43 @@
+package top.ajasta.AjastaApp.reservation.repository;
+
+import top.ajasta.AjastaApp.enums.OrderStatus;
+import top.ajasta.AjastaApp.reservation.entity.BookingSeries;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingSeriesRepository extends JpaRepository<BookingSeries, Long> {
+
+    List<BookingSeries> findByOrderId(Long orderId);
+
+    // Series of live orders whose date span overlaps [from, to]; whether they occur on a given day is up to the caller
+    @Query("SELECT s FROM BookingSeries s, Order o WHERE o.id = s.orderId " +
+           "AND s.resourceId = :resourceId AND s.firstDate <= :to AND s.lastDate >= :from " +
+           "AND (o.orderStatus IS NULL OR o.orderStatus NOT IN :inactive)")
+    List<BookingSeries> findActiveOverlapping(@Param("resourceId") Long resourceId,
+                                              @Param("from") LocalDate from,
+                                              @Param("to") LocalDate to,
+                                              @Param("inactive") List<OrderStatus> inactive);
+
+    @Query("SELECT s FROM BookingSeries s, Order o WHERE o.id = s.orderId " +
+           "AND s.resourceId IN :resourceIds AND s.firstDate <= :date AND s.lastDate >= :date " +
+           "AND (o.orderStatus IS NULL OR o.orderStatus NOT IN :inactive)")
+    List<BookingSeries> findActiveSpanningForResources(@Param("resourceIds") Collection<Long> resourceIds,
+                                                       @Param("date") LocalDate date,
+                                                       @Param("inactive") List<OrderStatus> inactive);
+
+    @Query("SELECT s FROM BookingSeries s, Order o WHERE o.id = s.orderId " +
+           "AND s.resourceId = :resourceId " +
+           "AND (o.orderStatus IS NULL OR o.orderStatus NOT IN :inactive)")
+    List<BookingSeries> findActiveByResource(@Param("resourceId") Long resourceId,
+                                             @Param("inactive") List<OrderStatus> inactive);
+
+    @Modifying
+    @Query("DELETE FROM BookingSeries s WHERE s.orderId = :orderId")
+    int deleteByOrderId(@Param("orderId") Long orderId);
+}
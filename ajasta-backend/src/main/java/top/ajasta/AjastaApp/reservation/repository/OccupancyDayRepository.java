@@ -0,0 +1,13 @@
+package top.ajasta.AjastaApp.reservation.repository;
+
+import top.ajasta.AjastaApp.reservation.entity.OccupancyDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Writes go through OccupancyJdbcRepository
+public interface OccupancyDayRepository extends JpaRepository<OccupancyDay, Long> {
+
+    List<OccupancyDay> findByResourceIdAndDateBetweenOrderByDateAsc(Long resourceId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,142 @@
+package top.ajasta.AjastaApp.reservation.repository;
+
+import top.ajasta.AjastaApp.reservation.availability.OccupancyTally;
+import top.ajasta.AjastaApp.reservation.availability.SlotGrid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Write side of occupancy_slots / occupancy_days: counters are incremented in place, one JDBC batch per table.
+ * On Postgres each cell is a single upsert; elsewhere missing rows are inserted after an update that found none.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OccupancyJdbcRepository {
+
+    private static final String UPSERT_SLOT_PG =
+            "INSERT INTO occupancy_slots (resource_id, weekday, slot, booked_slots) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (resource_id, weekday, slot) DO UPDATE SET booked_slots = occupancy_slots.booked_slots + EXCLUDED.booked_slots";
+    private static final String UPSERT_DAY_PG =
+            "INSERT INTO occupancy_days (resource_id, occupancy_date, booked_slots) VALUES (?, ?, ?) " +
+            "ON CONFLICT (resource_id, occupancy_date) DO UPDATE SET booked_slots = occupancy_days.booked_slots + EXCLUDED.booked_slots";
+    private static final String UPDATE_SLOT =
+            "UPDATE occupancy_slots SET booked_slots = booked_slots + ? WHERE resource_id = ? AND weekday = ? AND slot = ?";
+    private static final String INSERT_SLOT =
+            "INSERT INTO occupancy_slots (resource_id, weekday, slot, booked_slots) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE_DAY =
+            "UPDATE occupancy_days SET booked_slots = booked_slots + ? WHERE resource_id = ? AND occupancy_date = ?";
+    private static final String INSERT_DAY =
+            "INSERT INTO occupancy_days (resource_id, occupancy_date, booked_slots) VALUES (?, ?, ?)";
+
+    // Advisory key of the initial recount; single-bigint keys never clash with the (resource, day) pairs of bookings
+    private static final long RECOUNT_LOCK_KEY = 0x6f63637570616e63L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    private record SlotCell(int weekday, int slot, long delta) {
+    }
+
+    public void apply(Long resourceId, OccupancyTally tally) {
+        if (resourceId == null || tally == null || tally.isEmpty()) return;
+
+        List<SlotCell> cells = new ArrayList<>();
+        for (DayOfWeek weekday : DayOfWeek.values()) {
+            for (int s = 0; s < SlotGrid.SLOTS_PER_DAY; s++) {
+                long delta = tally.slot(weekday, s);
+                if (delta != 0) cells.add(new SlotCell(weekday.getValue(), s, delta));
+            }
+        }
+        List<Map.Entry<LocalDate, Long>> days = new ArrayList<>(tally.days().entrySet());
+
+        if (isPostgres()) {
+            jdbcTemplate.batchUpdate(UPSERT_SLOT_PG, cells, cells.size(), (ps, c) -> {
+                ps.setLong(1, resourceId);
+                ps.setInt(2, c.weekday());
+                ps.setInt(3, c.slot());
+                ps.setLong(4, c.delta());
+            });
+            jdbcTemplate.batchUpdate(UPSERT_DAY_PG, days, days.size(), (ps, d) -> {
+                ps.setLong(1, resourceId);
+                ps.setDate(2, Date.valueOf(d.getKey()));
+                ps.setLong(3, d.getValue());
+            });
+            return;
+        }
+
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_SLOT, cells, cells.size(), (ps, c) -> {
+            ps.setLong(1, c.delta());
+            ps.setLong(2, resourceId);
+            ps.setInt(3, c.weekday());
+            ps.setInt(4, c.slot());
+        });
+        List<SlotCell> missingCells = new ArrayList<>();
+        for (int i = 0; i < cells.size(); i++) {
+            if (updated[0][i] == 0) missingCells.add(cells.get(i));
+        }
+        jdbcTemplate.batchUpdate(INSERT_SLOT, missingCells, missingCells.size(), (ps, c) -> {
+            ps.setLong(1, resourceId);
+            ps.setInt(2, c.weekday());
+            ps.setInt(3, c.slot());
+            ps.setLong(4, c.delta());
+        });
+
+        updated = jdbcTemplate.batchUpdate(UPDATE_DAY, days, days.size(), (ps, d) -> {
+            ps.setLong(1, d.getValue());
+            ps.setLong(2, resourceId);
+            ps.setDate(3, Date.valueOf(d.getKey()));
+        });
+        List<Map.Entry<LocalDate, Long>> missingDays = new ArrayList<>();
+        for (int i = 0; i < days.size(); i++) {
+            if (updated[0][i] == 0) missingDays.add(days.get(i));
+        }
+        jdbcTemplate.batchUpdate(INSERT_DAY, missingDays, missingDays.size(), (ps, d) -> {
+            ps.setLong(1, resourceId);
+            ps.setDate(2, Date.valueOf(d.getKey()));
+            ps.setLong(3, d.getValue());
+        });
+    }
+
+    public void deleteResource(Long resourceId) {
+        jdbcTemplate.update("DELETE FROM occupancy_slots WHERE resource_id = ?", resourceId);
+        jdbcTemplate.update("DELETE FROM occupancy_days WHERE resource_id = ?", resourceId);
+    }
+
+    public boolean isEmpty() {
+        Boolean any = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM occupancy_days)", Boolean.class);
+        return !Boolean.TRUE.equals(any);
+    }
+
+    // Held until the surrounding transaction ends, so only one node at a time runs the initial recount; Postgres only
+    public void lockRecount() {
+        if (!isPostgres()) return;
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (var ps = con.prepareStatement("SELECT pg_advisory_xact_lock(?)")) {
+                ps.setLong(1, RECOUNT_LOCK_KEY);
+                ps.execute();
+            }
+            return null;
+        });
+    }
+
+    private boolean isPostgres() {
+        Boolean pg = postgres;
+        if (pg == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+            pg = product != null && product.toLowerCase(Locale.ROOT).contains("postgres");
+            postgres = pg;
+        }
+        return pg;
+    }
+}
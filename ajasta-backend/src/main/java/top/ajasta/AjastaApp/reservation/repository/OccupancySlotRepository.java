@@ -0,0 +1,12 @@
+package top.ajasta.AjastaApp.reservation.repository;
+
+import top.ajasta.AjastaApp.reservation.entity.OccupancySlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+// Writes go through OccupancyJdbcRepository
+public interface OccupancySlotRepository extends JpaRepository<OccupancySlot, Long> {
+
+    List<OccupancySlot> findByResourceId(Long resourceId);
+}
@@ -0,0 +1,11 @@
+package top.ajasta.AjastaApp.reservation.repository;
+
+import top.ajasta.AjastaApp.reservation.entity.PriceRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface PriceRuleRepository extends JpaRepository<PriceRule, Long> {
+
+    List<PriceRule> findByResourceIdOrderByIdAsc(Long resourceId);
+}
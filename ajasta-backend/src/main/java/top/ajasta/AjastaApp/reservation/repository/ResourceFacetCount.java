@@ -0,0 +1,7 @@
+package top.ajasta.AjastaApp.reservation.repository;
+
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+
+// Number of resources with one (type, active) combination
+public record ResourceFacetCount(ResourceType type, boolean active, long count) {
+}
@@ -0,0 +1,37 @@
+package top.ajasta.AjastaApp.reservation.repository;
+
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Catalog facet counts as one GROUP BY type, active: at most types x 2 rows, from which every combination of the
+ * type and active filters can be counted without another query.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ResourceFacetRepository {
+
+    private final EntityManager entityManager;
+
+    public List<ResourceFacetCount> countByTypeAndActive(Specification<Resource> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ResourceFacetCount> query = cb.createQuery(ResourceFacetCount.class);
+        Root<Resource> root = query.from(Resource.class);
+        query.select(cb.construct(ResourceFacetCount.class, root.get("type"), root.get("active"), cb.count(root)));
+        Predicate where = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        query.groupBy(root.get("type"), root.get("active"));
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -0,0 +1,5 @@
+package top.ajasta.AjastaApp.reservation.repository;
+
+// One row of resource_managers, read without loading either side
+public record ResourceManagerLink(Long resourceId, Long managerId) {
+}
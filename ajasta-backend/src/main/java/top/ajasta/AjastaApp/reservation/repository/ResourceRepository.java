@@ -2,15 +2,47 @@ package top.ajasta.AjastaApp.reservation.repository;
 
 import top.ajasta.AjastaApp.reservation.entity.Resource;
 import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+import top.ajasta.AjastaApp.reservation.geo.GeoPoint;
+import top.ajasta.AjastaApp.reservation.search.SearchDocument;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface ResourceRepository extends JpaRepository<Resource, Long> {
+public interface ResourceRepository extends JpaRepository<Resource, Long>, JpaSpecificationExecutor<Resource> {
     List<Resource> findByActiveTrue();
     List<Resource> findByType(ResourceType type);
     List<Resource> findByNameContainingIgnoreCase(String name);
 
     // Find resources managed by a specific user
     List<Resource> findByManagers_Id(Long userId);
+
+    // Searchable columns of every resource, streamed to build the text index
+    // Catalog ETag: (count, highest id, latest change) of all resources, the same on every node
+    @Query("SELECT COUNT(r), MAX(r.id), MAX(r.updatedAt) FROM Resource r")
+    List<Object[]> catalogVersion();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new top.ajasta.AjastaApp.reservation.search.SearchDocument(" +
+           "r.id, r.name, r.location, r.description, r.type, r.active) FROM Resource r")
+    Stream<SearchDocument> streamSearchDocuments();
+
+    // Located resources, streamed to build the geo index
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new top.ajasta.AjastaApp.reservation.geo.GeoPoint(" +
+           "r.id, r.latitude, r.longitude, r.type, r.active) FROM Resource r " +
+           "WHERE r.latitude IS NOT NULL AND r.longitude IS NOT NULL")
+    Stream<GeoPoint> streamGeoPoints();
+
+    // Manager ids of many resources in one statement, instead of initializing each lazy managers list
+    @Query("SELECT new top.ajasta.AjastaApp.reservation.repository.ResourceManagerLink(r.id, m.id) " +
+           "FROM Resource r JOIN r.managers m WHERE r.id IN :ids ORDER BY r.id, m.id")
+    List<ResourceManagerLink> findManagerLinks(@Param("ids") Collection<Long> ids);
 }
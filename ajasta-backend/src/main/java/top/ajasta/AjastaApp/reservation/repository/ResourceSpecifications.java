@@ -0,0 +1,64 @@
+package top.ajasta.AjastaApp.reservation.repository;
+
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Listing filters as SQL predicates, so the catalog is filtered and paged by the database.
+ */
+public final class ResourceSpecifications {
+
+    private ResourceSpecifications() {
+    }
+
+    // Any argument left null (or a blank search) does not filter
+    public static Specification<Resource> filtered(ResourceType type, String search, Boolean active) {
+        return Specification.allOf(ofType(type), activeIs(active), matching(search));
+    }
+
+    public static Specification<Resource> ofType(ResourceType type) {
+        return (root, query, cb) -> type == null ? null : cb.equal(root.get("type"), type);
+    }
+
+    public static Specification<Resource> activeIs(Boolean active) {
+        return (root, query, cb) -> active == null ? null : cb.equal(root.get("active"), active);
+    }
+
+    // Case-insensitive substring of name or location
+    public static Specification<Resource> matching(String search) {
+        return (root, query, cb) -> {
+            if (search == null || search.isBlank()) return null;
+            String pattern = "%" + escapeLike(search.trim().toLowerCase(Locale.ROOT)) + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get("name")), pattern, '\\'),
+                    cb.like(cb.lower(root.get("location")), pattern, '\\'));
+        };
+    }
+
+    public static Specification<Resource> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    // Resources after the cursor in (name, id) order, or before it when descending
+    public static Specification<Resource> after(ResourceCursor cursor, boolean descending) {
+        return (root, query, cb) -> {
+            if (cursor == null) return null;
+            if (descending) {
+                return cb.or(
+                        cb.lessThan(root.get("name"), cursor.name()),
+                        cb.and(cb.equal(root.get("name"), cursor.name()), cb.lessThan(root.get("id"), cursor.id())));
+            }
+            return cb.or(
+                    cb.greaterThan(root.get("name"), cursor.name()),
+                    cb.and(cb.equal(root.get("name"), cursor.name()), cb.greaterThan(root.get("id"), cursor.id())));
+        };
+    }
+
+    public static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,10 @@
+package top.ajasta.AjastaApp.reservation.repository;
+
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+
+import java.math.BigDecimal;
+
+// The columns a resource card shows; description, schedule rules and managers are never read
+public record ResourceSummary(Long id, String name, ResourceType type, String location, Double latitude, Double longitude,
+                              String imageUrl, BigDecimal pricePerSlot, boolean active, Integer unitsCount) {
+}
@@ -0,0 +1,42 @@
+package top.ajasta.AjastaApp.reservation.repository;
+
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Listing filters applied to a constructor projection: the select list holds only the {@link ResourceSummary}
+ * columns and the rows come back as records, so nothing enters the persistence context (no snapshots for dirty
+ * checking, no lazy collection wrappers).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ResourceSummaryRepository {
+
+    private final EntityManager entityManager;
+
+    // Rows matching spec in id order, like the full listing
+    public List<ResourceSummary> findAll(Specification<Resource> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ResourceSummary> query = cb.createQuery(ResourceSummary.class);
+        Root<Resource> root = query.from(Resource.class);
+        query.select(cb.construct(ResourceSummary.class,
+                root.get("id"), root.get("name"), root.get("type"), root.get("location"),
+                root.get("latitude"), root.get("longitude"), root.get("imageUrl"),
+                root.get("pricePerSlot"), root.get("active"), root.get("unitsCount")));
+        Predicate where = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        query.orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -0,0 +1,22 @@
+package top.ajasta.AjastaApp.reservation.repository;
+
+import top.ajasta.AjastaApp.reservation.entity.WaitlistEntry;
+import top.ajasta.AjastaApp.reservation.enums.WaitlistStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    List<WaitlistEntry> findByResourceIdAndUserIdOrderByDateAscStartSlotAsc(Long resourceId, Long userId);
+
+    // Entries still waiting for a day that has not passed, in queue order (used to rebuild the in-memory queues)
+    List<WaitlistEntry> findByStatusAndDateGreaterThanEqualOrderByIdAsc(WaitlistStatus status, LocalDate from);
+
+    boolean existsByResourceIdAndUserIdAndDateAndStartSlotAndEndSlotAndStatus(Long resourceId, Long userId, LocalDate date,
+                                                                               int startSlot, int endSlot, WaitlistStatus status);
+
+    Optional<WaitlistEntry> findByHoldId(String holdId);
+}
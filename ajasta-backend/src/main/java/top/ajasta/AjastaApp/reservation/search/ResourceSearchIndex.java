@@ -0,0 +1,43 @@
+package top.ajasta.AjastaApp.reservation.search;
+
+import top.ajasta.AjastaApp.reservation.catalog.StreamedIndex;
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * The {@link ResourceTextIndex} of all resources, held by a {@link StreamedIndex}: streamed from the database on first
+ * search, written through by the resource service and rebuilt after the catalog cache's time to live.
+ */
+@Component
+public class ResourceSearchIndex {
+
+    private final StreamedIndex<ResourceTextIndex, SearchDocument> index;
+
+    public ResourceSearchIndex(ResourceRepository resourceRepository, PlatformTransactionManager transactionManager,
+                               @Value("${app.catalog-cache.ttl-seconds:300}") long ttlSeconds) {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        this.index = new StreamedIndex<>("Search", ResourceTextIndex::new, resourceRepository::streamSearchDocuments,
+                ResourceTextIndex::put, ResourceTextIndex::remove, readOnlyTransaction, ttlSeconds * 1000,
+                System::currentTimeMillis);
+    }
+
+    public List<ResourceTextIndex.Hit> search(String query, ResourceType type, Boolean active, int limit) {
+        return index.get().search(query, type, active, limit);
+    }
+
+    public void put(Resource resource) {
+        index.put(SearchDocument.of(resource));
+    }
+
+    public void remove(Long id) {
+        index.remove(id);
+    }
+}
@@ -0,0 +1,360 @@
+package top.ajasta.AjastaApp.reservation.search;
+
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over the name, location and description of resources, answering ranked prefix and typo-tolerant
+ * queries from memory.
+ * <p>
+ * Text is folded to lowercase without accents and split into words. Each word of the vocabulary has a postings list
+ * of (document, fields) ints, and the vocabulary itself is indexed by padded trigrams, so a query word expands to the
+ * exact word, the words it is a prefix of, and the words sharing enough trigrams with it (Jaccard similarity, as
+ * pg_trgm does) before any document is touched. Every query word must match; a document scores the sum over the
+ * query words of its best expansion quality times the weight of the best field it was found in.
+ * <p>
+ * Documents are replaced by appending a new ordinal and marking the old one dead; postings are compacted once half
+ * of them are dead. Reads and writes are guarded by a read-write lock.
+ */
+public final class ResourceTextIndex {
+
+    static final int NAME = 1;
+    static final int LOCATION = 2;
+    static final int DESCRIPTION = 4;
+
+    private static final int FIELD_BITS = 3;
+    private static final int MAX_QUERY_WORDS = 8;
+    private static final int MAX_WORD_LENGTH = 40;
+    private static final int MAX_PREFIX_TERMS = 64;
+    private static final int MAX_FUZZY_TERMS = 16;
+    private static final double MIN_SIMILARITY = 0.3;
+    private static final int MIN_DEAD_TO_COMPACT = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Per document ordinal
+    private long[] ids = new long[16];
+    private byte[] types = new byte[16]; // type ordinal + 1, 0 when untyped
+    private boolean[] active = new boolean[16];
+    private boolean[] live = new boolean[16];
+    private int size;
+    private int dead;
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+
+    // Vocabulary: word -> term id, per term id its postings and trigram count, trigram -> term ids
+    private final TreeMap<String, Integer> terms = new TreeMap<>();
+    private IntList[] postings = new IntList[16];
+    private int[] termGrams = new int[16];
+    private final Map<Long, IntList> gramTerms = new HashMap<>();
+
+    public record Hit(long id, double score) {
+    }
+
+    public void put(SearchDocument doc) {
+        if (doc == null || doc.id() == null) return;
+        lock.writeLock().lock();
+        try {
+            kill(doc.id());
+            Map<String, Integer> fields = new LinkedHashMap<>();
+            for (String w : words(doc.name())) fields.merge(w, NAME, (a, b) -> a | b);
+            for (String w : words(doc.location())) fields.merge(w, LOCATION, (a, b) -> a | b);
+            for (String w : words(doc.description())) fields.merge(w, DESCRIPTION, (a, b) -> a | b);
+
+            int ord = size++;
+            if (ord == ids.length) grow();
+            ids[ord] = doc.id();
+            types[ord] = (byte) (doc.type() == null ? 0 : doc.type().ordinal() + 1);
+            active[ord] = doc.active();
+            live[ord] = true;
+            ordinals.put(doc.id(), ord);
+            for (Map.Entry<String, Integer> e : fields.entrySet()) {
+                int term = termOf(e.getKey()); // may grow postings, so not inlined into the index expression
+                postings[term].add(ord << FIELD_BITS | e.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        if (id == null) return;
+        lock.writeLock().lock();
+        try {
+            kill(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best matches first, ties by id. {@code type} and {@code active} narrow the results when not null.
+     */
+    public List<Hit> search(String query, ResourceType type, Boolean activeOnly, int limit) {
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(words(query)));
+        if (words.isEmpty() || limit <= 0) return List.of();
+        if (words.size() > MAX_QUERY_WORDS) words = words.subList(0, MAX_QUERY_WORDS);
+        byte wantedType = (byte) (type == null ? -1 : type.ordinal() + 1);
+
+        lock.readLock().lock();
+        try {
+            int n = size;
+            float[] total = new float[n];
+            int[] matched = new int[n];
+            float[] best = new float[n];
+            IntList touched = new IntList();
+            for (int k = 0; k < words.size(); k++) {
+                touched.n = 0;
+                for (Map.Entry<Integer, Double> x : expand(words.get(k)).entrySet()) {
+                    IntList list = postings[x.getKey()];
+                    double quality = x.getValue();
+                    for (int i = 0; i < list.n; i++) {
+                        int p = list.a[i];
+                        int ord = p >>> FIELD_BITS;
+                        // Only documents that matched every earlier word stay candidates
+                        if (matched[ord] != k || !live[ord]) continue;
+                        if (wantedType >= 0 && types[ord] != wantedType) continue;
+                        if (activeOnly != null && active[ord] != activeOnly) continue;
+                        float w = (float) (quality * weight(p & ((1 << FIELD_BITS) - 1)));
+                        if (best[ord] == 0) touched.add(ord);
+                        if (w > best[ord]) best[ord] = w;
+                    }
+                }
+                if (touched.n == 0) return List.of();
+                for (int i = 0; i < touched.n; i++) {
+                    int ord = touched.a[i];
+                    total[ord] += best[ord];
+                    matched[ord] = k + 1;
+                    best[ord] = 0;
+                }
+            }
+
+            return top(touched, total, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Term id -> quality in (0, 1]: 1 for the word itself, less for longer completions, less again for near misses
+    private Map<Integer, Double> expand(String word) {
+        Map<Integer, Double> out = new HashMap<>();
+        Integer exact = terms.get(word);
+        if (exact != null) out.put(exact, 1.0);
+
+        if (word.length() >= 2) {
+            NavigableMap<String, Integer> completions = terms.subMap(word, false, word + Character.MAX_VALUE, false);
+            int taken = 0;
+            for (Map.Entry<String, Integer> e : completions.entrySet()) {
+                if (taken++ == MAX_PREFIX_TERMS) break;
+                out.putIfAbsent(e.getValue(), 0.5 + 0.4 * word.length() / e.getKey().length());
+            }
+        }
+
+        if (word.length() >= 3) {
+            Set<Long> grams = grams(word);
+            Map<Integer, Integer> shared = new HashMap<>();
+            for (long g : grams) {
+                IntList list = gramTerms.get(g);
+                if (list == null) continue;
+                for (int i = 0; i < list.n; i++) shared.merge(list.a[i], 1, Integer::sum);
+            }
+            List<double[]> similar = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> e : shared.entrySet()) {
+                int common = e.getValue();
+                double similarity = (double) common / (grams.size() + termGrams[e.getKey()] - common);
+                if (similarity >= MIN_SIMILARITY) similar.add(new double[]{similarity, e.getKey()});
+            }
+            similar.sort((a, b) -> Double.compare(b[0], a[0]));
+            for (int i = 0; i < similar.size() && i < MAX_FUZZY_TERMS; i++) {
+                out.putIfAbsent((int) similar.get(i)[1], 0.6 * similar.get(i)[0]);
+            }
+        }
+        return out;
+    }
+
+    // The best `limit` candidates through a min-heap of ordinals, so a word matching every document is not fully sorted
+    private List<Hit> top(IntList candidates, float[] total, int limit) {
+        int k = Math.min(limit, candidates.n);
+        int[] heap = new int[k];
+        int filled = 0;
+        for (int i = 0; i < candidates.n; i++) {
+            int ord = candidates.a[i];
+            if (filled < k) {
+                heap[filled] = ord;
+                siftUp(heap, filled++, total);
+            } else if (better(ord, heap[0], total)) {
+                heap[0] = ord;
+                siftDown(heap, k, total);
+            }
+        }
+        List<Hit> out = new ArrayList<>(k);
+        for (int n = k; n > 0; n--) {
+            int worst = heap[0];
+            out.add(new Hit(ids[worst], Math.round(total[worst] * 1000.0) / 1000.0));
+            heap[0] = heap[n - 1];
+            siftDown(heap, n - 1, total);
+        }
+        Collections.reverse(out);
+        return out;
+    }
+
+    private boolean better(int a, int b, float[] total) {
+        return total[a] != total[b] ? total[a] > total[b] : ids[a] < ids[b];
+    }
+
+    private void siftUp(int[] heap, int i, float[] total) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!better(heap[parent], heap[i], total)) break;
+            int t = heap[parent];
+            heap[parent] = heap[i];
+            heap[i] = t;
+            i = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int n, float[] total) {
+        int i = 0;
+        while (true) {
+            int worst = i;
+            int l = 2 * i + 1;
+            int r = l + 1;
+            if (l < n && better(heap[worst], heap[l], total)) worst = l;
+            if (r < n && better(heap[worst], heap[r], total)) worst = r;
+            if (worst == i) return;
+            int t = heap[worst];
+            heap[worst] = heap[i];
+            heap[i] = t;
+            i = worst;
+        }
+    }
+
+    private static double weight(int fields) {
+        if ((fields & NAME) != 0) return 3;
+        if ((fields & LOCATION) != 0) return 2;
+        return 1;
+    }
+
+    private int termOf(String word) {
+        Integer id = terms.get(word);
+        if (id != null) return id;
+        int t = terms.size();
+        terms.put(word, t);
+        if (t == postings.length) {
+            postings = Arrays.copyOf(postings, t * 2);
+            termGrams = Arrays.copyOf(termGrams, t * 2);
+        }
+        postings[t] = new IntList();
+        Set<Long> grams = grams(word);
+        termGrams[t] = grams.size();
+        for (long g : grams) gramTerms.computeIfAbsent(g, k -> new IntList()).add(t);
+        return t;
+    }
+
+    private void kill(Long id) {
+        Integer old = ordinals.remove(id);
+        if (old == null) return;
+        live[old] = false;
+        dead++;
+        if (dead >= MIN_DEAD_TO_COMPACT && dead * 2 >= size) compact();
+    }
+
+    // Drops dead ordinals from every postings list and renumbers the live ones in order
+    private void compact() {
+        int[] remap = new int[size];
+        int next = 0;
+        for (int ord = 0; ord < size; ord++) {
+            if (!live[ord]) {
+                remap[ord] = -1;
+                continue;
+            }
+            remap[ord] = next;
+            ids[next] = ids[ord];
+            types[next] = types[ord];
+            active[next] = active[ord];
+            live[next] = true;
+            ordinals.put(ids[next], next);
+            next++;
+        }
+        Arrays.fill(live, next, size, false);
+        for (int t = 0; t < terms.size(); t++) {
+            IntList list = postings[t];
+            int kept = 0;
+            for (int i = 0; i < list.n; i++) {
+                int to = remap[list.a[i] >>> FIELD_BITS];
+                if (to >= 0) list.a[kept++] = to << FIELD_BITS | list.a[i] & ((1 << FIELD_BITS) - 1);
+            }
+            list.n = kept;
+        }
+        size = next;
+        dead = 0;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        types = Arrays.copyOf(types, capacity);
+        active = Arrays.copyOf(active, capacity);
+        live = Arrays.copyOf(live, capacity);
+    }
+
+    // Lowercase words without diacritics; anything but letters and digits separates words
+    static List<String> words(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD);
+        List<String> out = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= folded.length(); i++) {
+            char c = i < folded.length() ? folded.charAt(i) : ' ';
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            if (Character.isLetterOrDigit(c)) {
+                if (word.length() < MAX_WORD_LENGTH) word.append(Character.toLowerCase(c));
+            } else if (word.length() > 0) {
+                out.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        return out;
+    }
+
+    // Trigrams of the word padded with two spaces in front and one behind, packed three chars to a long
+    static Set<Long> grams(String word) {
+        String padded = "  " + word + " ";
+        Set<Long> out = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            out.add((long) padded.charAt(i) << 32 | (long) padded.charAt(i + 1) << 16 | padded.charAt(i + 2));
+        }
+        return out;
+    }
+
+    private static final class IntList {
+        int[] a = new int[4];
+        int n;
+
+        void add(int v) {
+            if (n == a.length) a = Arrays.copyOf(a, n * 2);
+            a[n++] = v;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package top.ajasta.AjastaApp.reservation.search;
+
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+
+// The searchable columns of a resource, read by a constructor expression so the index is built without entities
+public record SearchDocument(Long id, String name, String location, String description, ResourceType type, boolean active) {
+
+    public static SearchDocument of(Resource r) {
+        return new SearchDocument(r.getId(), r.getName(), r.getLocation(), r.getDescription(), r.getType(), r.isActive());
+    }
+}
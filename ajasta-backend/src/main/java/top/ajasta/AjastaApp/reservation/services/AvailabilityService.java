@@ -0,0 +1,77 @@
+package top.ajasta.AjastaApp.reservation.services;
+
+import top.ajasta.AjastaApp.order.entity.Order;
+import top.ajasta.AjastaApp.reservation.availability.SeriesPattern;
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+import top.ajasta.AjastaApp.reservation.dtos.AvailabilityDTO;
+import top.ajasta.AjastaApp.reservation.dtos.FreeResourceDTO;
+import top.ajasta.AjastaApp.reservation.entity.BookingSeries;
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+import top.ajasta.AjastaApp.response.Response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AvailabilityService {
+
+    // Slot indexes follow SlotGrid (30-minute slots from midnight); units are 1-based.
+    // Unless stated otherwise, slots under an active hold count as taken.
+    boolean isSlotFree(Long resourceId, LocalDate date, int unit, int slot);
+
+    boolean isRangeFree(Long resourceId, LocalDate date, int unit, int startSlot, int endSlot);
+
+    // Free-slot bit mask per unit (index 0 = unit 1) for the given day
+    long[] freeSlotMasks(Long resourceId, LocalDate date);
+
+    // Free-slot masks for every day in [from, to] (outer index = day offset, inner = unit - 1)
+    long[][] freeSlotMasks(Long resourceId, LocalDate from, LocalDate to);
+
+    // Encoded free slots per day and unit for [from, to]
+    Response<AvailabilityDTO> getAvailability(Long resourceId, LocalDate from, LocalDate to);
+
+    // Active resources of a type with at least one unit free for the whole [startTime, endTime) window on the date
+    Response<List<FreeResourceDTO>> findFreeResources(ResourceType type, LocalDate date, String startTime, String endTime);
+
+    // Free slot indexes of one unit for the given day
+    int[] freeSlots(Long resourceId, LocalDate date, int unit);
+
+    // Requested ranges that cannot be booked: unknown unit, outside opening hours, already taken or repeated in the request
+    List<SlotRange> conflicts(Long resourceId, List<SlotRange> ranges);
+
+    // Same, but slots held by holderId do not count as taken
+    List<SlotRange> conflicts(Long resourceId, List<SlotRange> ranges, Long holderId);
+
+    // Ranges with SlotRange.AUTO_UNIT placed on a unit by best fit (see UnitAllocator); unplaceable ones stay AUTO_UNIT
+    List<SlotRange> assignUnits(Long resourceId, List<SlotRange> ranges, Long holderId);
+
+    // Earliest occurrence of the series (slots and unit of first) that cannot be booked, or null if all of them can.
+    // Reads the database directly and only looks at bookings, series and holds that can overlap the series.
+    LocalDate seriesConflict(Long resourceId, SlotRange first, SeriesPattern pattern, Long holderId);
+
+    // first on the lowest unit that is free on every occurrence; stays AUTO_UNIT if there is none
+    SlotRange assignSeriesUnit(Long resourceId, SlotRange first, SeriesPattern pattern, Long holderId);
+
+    // Marks freshly booked ranges as taken
+
+    void recordBooking(Long resourceId, List<SlotRange> ranges);
+
+    // Frees ranges recorded by a booking that did not commit
+    void releaseBooking(Long resourceId, List<SlotRange> ranges);
+
+    // Marks the occurrences of a freshly booked series as taken on days already in memory
+    void recordSeries(BookingSeries series);
+
+    // Drops cached days of a series that did not commit
+    void releaseSeries(BookingSeries series);
+
+    // Rebuilds a cached day from the database (picks up bookings committed by other nodes)
+    void reload(Long resourceId, LocalDate date);
+
+    // Drops cached days touched by a booking order (its booking rows, legacy text or series) so they are rebuilt from
+    // the database. The days are looked up at once but dropped after the current transaction commits, or at once
+    // outside of one.
+    void invalidate(Order order);
+
+    // Single-day ranges booked by an order (booking rows, or the order text for legacy orders); series are not included
+    List<SlotRange> bookedRanges(Order order);
+}
@@ -0,0 +1,622 @@
+package top.ajasta.AjastaApp.reservation.services;
+
+import top.ajasta.AjastaApp.enums.OrderStatus;
+import top.ajasta.AjastaApp.exceptions.BadRequestException;
+import top.ajasta.AjastaApp.exceptions.NotFoundException;
+import top.ajasta.AjastaApp.order.entity.Order;
+import top.ajasta.AjastaApp.order.repository.OrderRepository;
+import top.ajasta.AjastaApp.reservation.availability.AvailabilityRulesCache;
+import top.ajasta.AjastaApp.reservation.availability.BookingDetailsParser;
+import top.ajasta.AjastaApp.reservation.availability.CompiledAvailabilityRules;
+import top.ajasta.AjastaApp.reservation.availability.DayOccupancy;
+import top.ajasta.AjastaApp.reservation.availability.DayOccupancyCache;
+import top.ajasta.AjastaApp.reservation.availability.ResourceTypeIndex;
+import top.ajasta.AjastaApp.reservation.availability.SeriesPattern;
+import top.ajasta.AjastaApp.reservation.availability.SlotGrid;
+import top.ajasta.AjastaApp.reservation.availability.SlotHolds;
+import top.ajasta.AjastaApp.reservation.availability.SlotMaskCodec;
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+import top.ajasta.AjastaApp.reservation.availability.UnitAllocator;
+import top.ajasta.AjastaApp.reservation.dtos.AvailabilityDTO;
+import top.ajasta.AjastaApp.reservation.dtos.FreeResourceDTO;
+import top.ajasta.AjastaApp.reservation.entity.Booking;
+import top.ajasta.AjastaApp.reservation.entity.BookingSeries;
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+import top.ajasta.AjastaApp.reservation.repository.BookingRepository;
+import top.ajasta.AjastaApp.reservation.repository.BookingSeriesRepository;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+import top.ajasta.AjastaApp.response.Response;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory availability engine: each (resource, date) is kept as a {@link DayOccupancy} bitmap that is
+ * built from stored bookings and then updated in place as bookings come in, until the {@link DayOccupancyCache}
+ * expires or evicts it. Opening hours and unavailability come from the resource's {@link CompiledAvailabilityRules}.
+ * Recurring series are stored once and only expanded for the days being built.
+ * <p>
+ * Bookings recorded by a transaction that has not completed yet are laid over every day built meanwhile, since the
+ * database does not show them to other connections; a day can therefore be dropped at any time without losing them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AvailabilityServiceImpl implements AvailabilityService {
+
+    private static final List<OrderStatus> INACTIVE_STATUSES = List.of(OrderStatus.CANCELLED, OrderStatus.FAILED);
+
+    // Upper bound for one range request (a quarter of a year)
+    private static final int MAX_RANGE_DAYS = 92;
+
+    private final ResourceRepository resourceRepository;
+    private final OrderRepository orderRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingSeriesRepository bookingSeriesRepository;
+    private final AvailabilityRulesCache rulesCache;
+    private final ResourceTypeIndex resourceTypeIndex;
+    private final SlotHolds slotHolds;
+    private final DayOccupancyCache days;
+
+    // Ranges of bookings and series whose transaction is still open, by day
+    private final ConcurrentMap<DayKey, List<SlotRange>> uncommitted = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean isSlotFree(Long resourceId, LocalDate date, int unit, int slot) {
+        if (slot < 0 || slot >= SlotGrid.SLOTS_PER_DAY) return false;
+        CompiledAvailabilityRules rules = rulesCache.get(resourceId);
+        return (rules.bookableMask(date) & (1L << slot)) != 0
+                && (busy(rules, date, day(rules, date), unit) & (1L << slot)) == 0;
+    }
+
+    @Override
+    public boolean isRangeFree(Long resourceId, LocalDate date, int unit, int startSlot, int endSlot) {
+        CompiledAvailabilityRules rules = rulesCache.get(resourceId);
+        long mask = SlotGrid.rangeMask(startSlot, endSlot);
+        if (mask == 0 || (rules.bookableMask(date) & mask) != mask) return false;
+        return (busy(rules, date, day(rules, date), unit) & mask) == 0;
+    }
+
+    @Override
+    public long[] freeSlotMasks(Long resourceId, LocalDate date) {
+        CompiledAvailabilityRules rules = rulesCache.get(resourceId);
+        long bookable = rules.bookableMask(date);
+        long[] out = new long[rules.unitsCount()];
+        if (bookable == 0) return out;
+        DayOccupancy occupancy = day(rules, date);
+        for (int u = 1; u <= out.length; u++) {
+            out[u - 1] = bookable & ~busy(rules, date, occupancy, u);
+        }
+        return out;
+    }
+
+    @Override
+    public long[][] freeSlotMasks(Long resourceId, LocalDate from, LocalDate to) {
+        CompiledAvailabilityRules rules = rulesCache.get(resourceId);
+        int count = (int) (to.toEpochDay() - from.toEpochDay() + 1);
+        preload(rules, from, count);
+        long[][] out = new long[count][];
+        for (int i = 0; i < count; i++) {
+            LocalDate date = from.plusDays(i);
+            long bookable = rules.bookableMask(date);
+            long[] units = new long[rules.unitsCount()];
+            if (bookable != 0) {
+                DayOccupancy occupancy = day(rules, date);
+                for (int u = 1; u <= units.length; u++) {
+                    units[u - 1] = bookable & ~busy(rules, date, occupancy, u);
+                }
+            }
+            out[i] = units;
+        }
+        return out;
+    }
+
+    @Override
+    public Response<AvailabilityDTO> getAvailability(Long resourceId, LocalDate from, LocalDate to) {
+        if (from == null) {
+            throw new BadRequestException("from is required");
+        }
+        LocalDate end = to != null ? to : from;
+        if (end.isBefore(from)) {
+            throw new BadRequestException("to must not be before from");
+        }
+        if (end.toEpochDay() - from.toEpochDay() + 1 > MAX_RANGE_DAYS) {
+            throw new BadRequestException("Date range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+
+        CompiledAvailabilityRules rules = rulesCache.get(resourceId);
+        long[][] masks = freeSlotMasks(resourceId, from, end);
+        List<AvailabilityDTO.Day> dayList = new ArrayList<>(masks.length);
+        for (int i = 0; i < masks.length; i++) {
+            LocalDate date = from.plusDays(i);
+            AvailabilityDTO.Day.DayBuilder day = AvailabilityDTO.Day.builder().date(date.toString());
+            if (rules.isClosed(date)) {
+                day.closed(true);
+            } else {
+                List<String> free = new ArrayList<>(masks[i].length);
+                int largestRun = 0;
+                for (long unitMask : masks[i]) {
+                    free.add(SlotMaskCodec.encode(unitMask));
+                    largestRun = Math.max(largestRun, UnitAllocator.largestRun(unitMask));
+                }
+                day.free(free)
+                        .largestFreeRun(largestRun)
+                        .fragmentation(Math.round(UnitAllocator.fragmentation(masks[i]) * 1000) / 1000.0);
+            }
+            dayList.add(day.build());
+        }
+
+        AvailabilityDTO dto = AvailabilityDTO.builder()
+                .resourceId(resourceId)
+                .from(from.toString())
+                .to(end.toString())
+                .slotMinutes(SlotGrid.SLOT_MINUTES)
+                .unitsCount(rules.unitsCount())
+                .encoding("base64-le48")
+                .days(dayList)
+                .build();
+        return Response.<AvailabilityDTO>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Availability fetched successfully")
+                .data(dto)
+                .build();
+    }
+
+    @Override
+    public Response<List<FreeResourceDTO>> findFreeResources(ResourceType type, LocalDate date, String startTime, String endTime) {
+        if (type == null) {
+            throw new BadRequestException("type is required");
+        }
+        if (date == null) {
+            throw new BadRequestException("date is required");
+        }
+        long window;
+        try {
+            window = SlotGrid.rangeMask(SlotGrid.startSlotOf(startTime), SlotGrid.endSlotOf(endTime));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+        if (window == 0) {
+            throw new BadRequestException("endTime must be after startTime");
+        }
+
+        // Pass 1: drop resources that are closed for the window, purely from compiled rules
+        List<ResourceTypeIndex.Entry> open = new ArrayList<>();
+        Map<Long, CompiledAvailabilityRules> rulesById = new HashMap<>();
+        for (ResourceTypeIndex.Entry entry : resourceTypeIndex.resourcesOf(type)) {
+            CompiledAvailabilityRules rules = rulesCache.get(entry.id());
+            if ((rules.bookableMask(date) & window) == window) {
+                open.add(entry);
+                rulesById.put(entry.id(), rules);
+            }
+        }
+        preloadDay(rulesById.values(), date);
+
+        // Pass 2: any unit whose busy word does not intersect the window
+        List<FreeResourceDTO> data = new ArrayList<>();
+        for (ResourceTypeIndex.Entry entry : open) {
+            CompiledAvailabilityRules rules = rulesById.get(entry.id());
+            DayOccupancy occupancy = day(rules, date);
+            List<Integer> freeUnits = new ArrayList<>();
+            for (int u = 1; u <= rules.unitsCount(); u++) {
+                if ((busy(rules, date, occupancy, u) & window) == 0) freeUnits.add(u);
+            }
+            if (!freeUnits.isEmpty()) {
+                data.add(FreeResourceDTO.builder()
+                        .id(entry.id())
+                        .name(entry.name())
+                        .location(entry.location())
+                        .imageUrl(entry.imageUrl())
+                        .pricePerSlot(entry.pricePerSlot())
+                        .freeUnits(freeUnits)
+                        .build());
+            }
+        }
+        return Response.<List<FreeResourceDTO>>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Free resources fetched successfully")
+                .data(data)
+                .build();
+    }
+
+    @Override
+    public int[] freeSlots(Long resourceId, LocalDate date, int unit) {
+        CompiledAvailabilityRules rules = rulesCache.get(resourceId);
+        if (unit < 1 || unit > rules.unitsCount()) return new int[0];
+        long bookable = rules.bookableMask(date);
+        if (bookable == 0) return new int[0];
+        return SlotGrid.slotsOf(bookable & ~busy(rules, date, day(rules, date), unit));
+    }
+
+    @Override
+    public List<SlotRange> conflicts(Long resourceId, List<SlotRange> ranges) {
+        return conflicts(resourceId, ranges, null);
+    }
+
+    @Override
+    public List<SlotRange> conflicts(Long resourceId, List<SlotRange> ranges, Long holderId) {
+        List<SlotRange> out = new ArrayList<>();
+        if (ranges == null || ranges.isEmpty()) return out;
+        // Commit path: validate against the current row so a just-edited schedule is honoured
+        Resource resource = resourceRepository.findById(resourceId)
+                .orElseThrow(() -> new NotFoundException("Resource not found"));
+        CompiledAvailabilityRules rules = rulesCache.get(resource);
+        // Masks already claimed by earlier ranges of the same request, keyed by (date, unit)
+        Map<Long, Long> claimed = new HashMap<>();
+        for (SlotRange range : ranges) {
+            long mask = range.mask();
+            long claimKey = range.date().toEpochDay() * 1024 + range.unit();
+            long prior = claimed.getOrDefault(claimKey, 0L);
+            if (range.unit() > rules.unitsCount()
+                    || (rules.bookableMask(range.date()) & mask) != mask
+                    || (day(rules, range.date()).busyMask(range.unit()) & mask) != 0
+                    || (foreignHolds(resourceId, range.date(), range.unit(), holderId) & mask) != 0
+                    || (prior & mask) != 0) {
+                out.add(range);
+            }
+            claimed.put(claimKey, prior | mask);
+        }
+        return out;
+    }
+
+    @Override
+    public List<SlotRange> assignUnits(Long resourceId, List<SlotRange> ranges, Long holderId) {
+        if (ranges == null || ranges.stream().noneMatch(SlotRange::isAuto)) return ranges;
+        CompiledAvailabilityRules rules = rulesCache.get(resourceId);
+        return UnitAllocator.resolve(ranges, date -> {
+            long bookable = rules.bookableMask(date);
+            DayOccupancy occupancy = day(rules, date);
+            long[] free = new long[rules.unitsCount()];
+            for (int u = 1; u <= free.length; u++) {
+                free[u - 1] = bookable & ~occupancy.busyMask(u) & ~foreignHolds(resourceId, date, u, holderId);
+            }
+            return free;
+        });
+    }
+
+    @Override
+    public LocalDate seriesConflict(Long resourceId, SlotRange first, SeriesPattern pattern, Long holderId) {
+        Resource resource = resourceRepository.findById(resourceId)
+                .orElseThrow(() -> new NotFoundException("Resource not found"));
+        CompiledAvailabilityRules rules = rulesCache.get(resource);
+        LocalDate[] byUnit = firstSeriesConflicts(rules, first, pattern, holderId);
+        if (!first.isAuto()) {
+            return first.unit() > byUnit.length ? pattern.first() : byUnit[first.unit() - 1];
+        }
+        LocalDate earliest = null;
+        for (LocalDate d : byUnit) {
+            if (d == null) return null;
+            if (earliest == null || d.isBefore(earliest)) earliest = d;
+        }
+        return earliest;
+    }
+
+    @Override
+    public SlotRange assignSeriesUnit(Long resourceId, SlotRange first, SeriesPattern pattern, Long holderId) {
+        if (!first.isAuto()) return first;
+        CompiledAvailabilityRules rules = rulesCache.get(resourceId);
+        LocalDate[] byUnit = firstSeriesConflicts(rules, first, pattern, holderId);
+        for (int u = 1; u <= byUnit.length; u++) {
+            if (byUnit[u - 1] == null) return first.withUnit(u);
+        }
+        return first;
+    }
+
+    @Override
+    public void recordBooking(Long resourceId, List<SlotRange> ranges) {
+        if (resourceId == null || ranges == null || ranges.isEmpty()) return;
+        CompiledAvailabilityRules rules = rulesCache.get(resourceId);
+        trackUncommitted(resourceId, ranges);
+        for (SlotRange range : ranges) {
+            day(rules, range.date()).occupy(range);
+        }
+    }
+
+    @Override
+    public void releaseBooking(Long resourceId, List<SlotRange> ranges) {
+        if (resourceId == null || ranges == null) return;
+        for (SlotRange range : ranges) {
+            DayOccupancy occupancy = days.get(resourceId, range.date());
+            if (occupancy != null) occupancy.release(range);
+        }
+    }
+
+    @Override
+    public void recordSeries(BookingSeries series) {
+        SeriesPattern pattern = series.pattern();
+        List<SlotRange> ranges = new ArrayList<>();
+        for (LocalDate d = pattern.first(); !d.isAfter(pattern.last()); d = d.plusDays(pattern.periodDays())) {
+            ranges.add(series.rangeOn(d));
+        }
+        trackUncommitted(series.getResourceId(), ranges);
+        for (SlotRange range : ranges) {
+            // Days not in memory pick the series up when they are first built
+            DayOccupancy occupancy = days.get(series.getResourceId(), range.date());
+            if (occupancy != null) occupancy.occupy(range);
+        }
+    }
+
+    @Override
+    public void releaseSeries(BookingSeries series) {
+        SeriesPattern pattern = series.pattern();
+        for (LocalDate d = pattern.first(); !d.isAfter(pattern.last()); d = d.plusDays(pattern.periodDays())) {
+            days.remove(series.getResourceId(), d);
+        }
+    }
+
+    @Override
+    public void reload(Long resourceId, LocalDate date) {
+        CompiledAvailabilityRules rules = rulesCache.get(resourceId);
+        days.put(resourceId, date, loadDay(rules, date));
+    }
+
+    @Override
+    public void invalidate(Order order) {
+        if (order == null || order.getResourceId() == null || !Boolean.TRUE.equals(order.getBooking())) return;
+        Long resourceId = order.getResourceId();
+        // Looked up now: a deleted order's booking and series rows are gone by the time it commits
+        List<SlotRange> ranges = bookedRanges(order);
+        List<BookingSeries> series = order.getId() != null ? bookingSeriesRepository.findByOrderId(order.getId()) : List.of();
+        afterCommit(() -> {
+            ranges.forEach(range -> days.remove(resourceId, range.date()));
+            series.forEach(this::releaseSeries);
+        });
+    }
+
+    @Override
+    public List<SlotRange> bookedRanges(Order order) {
+        if (order == null || !Boolean.TRUE.equals(order.getBooking())) return List.of();
+        if (order.getId() != null) {
+            List<Booking> rows = bookingRepository.findByOrderId(order.getId());
+            if (!rows.isEmpty()) return rows.stream().map(AvailabilityServiceImpl::toRange).toList();
+        }
+        return BookingDetailsParser.parse(order.getBookingDetails());
+    }
+
+    /**
+     * Earliest conflicting occurrence of the series per unit (index unit - 1), null where every occurrence is free.
+     * Closed days are a bit test per occurrence; stored bookings, series and holds are fetched only where their
+     * slots overlap the series and then matched by date congruence, so the series itself is never expanded
+     * against them.
+     */
+    private LocalDate[] firstSeriesConflicts(CompiledAvailabilityRules rules, SlotRange first, SeriesPattern pattern, Long holderId) {
+        Long resourceId = rules.resourceId();
+        long mask = first.mask();
+        LocalDate[] byUnit = new LocalDate[rules.unitsCount()];
+
+        // Outside opening hours: blocks every unit
+        for (LocalDate d = pattern.first(); !d.isAfter(pattern.last()); d = d.plusDays(pattern.periodDays())) {
+            if ((rules.bookableMask(d) & mask) != mask) {
+                Arrays.fill(byUnit, d);
+                break;
+            }
+        }
+        for (Booking b : bookingRepository.findActiveOverlappingSlots(resourceId, pattern.first(), pattern.last(),
+                first.startSlot(), first.endSlot(), INACTIVE_STATUSES)) {
+            if (pattern.occursOn(b.getDate())) markConflict(byUnit, b.getUnit(), b.getDate());
+        }
+        for (String d : legacyBookingDetailsBetween(resourceId, pattern.first(), pattern.last())) {
+            for (SlotRange range : BookingDetailsParser.parse(d)) {
+                if ((range.mask() & mask) != 0 && pattern.occursOn(range.date())) {
+                    markConflict(byUnit, range.unit(), range.date());
+                }
+            }
+        }
+        for (BookingSeries other : bookingSeriesRepository.findActiveOverlapping(resourceId, pattern.first(), pattern.last(), INACTIVE_STATUSES)) {
+            if ((SlotGrid.rangeMask(other.getStartSlot(), other.getEndSlot()) & mask) == 0) continue;
+            LocalDate common = pattern.firstCommon(other.pattern());
+            if (common != null) markConflict(byUnit, other.getUnit(), common);
+        }
+        for (SlotRange held : slotHolds.heldRanges(resourceId, holderId)) {
+            if ((held.mask() & mask) != 0 && pattern.occursOn(held.date())) {
+                markConflict(byUnit, held.unit(), held.date());
+            }
+        }
+        return byUnit;
+    }
+
+    // Live legacy orders that may mention a date in [from, to]: the LIKE uses the longest "Date: " marker prefix both
+    // ends share, so callers still filter the parsed ranges by date
+    private List<String> legacyBookingDetailsBetween(Long resourceId, LocalDate from, LocalDate to) {
+        String low = "Date: " + from;
+        String high = "Date: " + to;
+        int shared = 0;
+        while (shared < Math.min(low.length(), high.length()) && low.charAt(shared) == high.charAt(shared)) shared++;
+        return orderRepository.findLegacyBookingDetailsForDay(resourceId, low.substring(0, shared), INACTIVE_STATUSES);
+    }
+
+    // Dropping a day before the commit would let a concurrent read rebuild it from the old rows. Runs ahead of the
+    // after-commit event listeners (waitlist promotion, live streams), which read the rebuilt days.
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Until the transaction completes (after which the rows are visible, or the ranges released)
+    private void trackUncommitted(Long resourceId, List<SlotRange> ranges) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || ranges.isEmpty()) return;
+        for (SlotRange range : ranges) {
+            uncommitted.merge(new DayKey(resourceId, range.date().toEpochDay()), List.of(range), AvailabilityServiceImpl::concat);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                for (SlotRange range : ranges) {
+                    uncommitted.computeIfPresent(new DayKey(resourceId, range.date().toEpochDay()),
+                            (k, list) -> without(list, range));
+                }
+            }
+        });
+    }
+
+    private void applyUncommitted(Long resourceId, LocalDate date, DayOccupancy occupancy) {
+        List<SlotRange> open = uncommitted.get(new DayKey(resourceId, date.toEpochDay()));
+        if (open != null) open.forEach(occupancy::occupy);
+    }
+
+    private static List<SlotRange> concat(List<SlotRange> a, List<SlotRange> b) {
+        List<SlotRange> out = new ArrayList<>(a.size() + b.size());
+        out.addAll(a);
+        out.addAll(b);
+        return out;
+    }
+
+    // One occurrence removed; null (drops the key) once empty
+    private static List<SlotRange> without(List<SlotRange> list, SlotRange range) {
+        List<SlotRange> out = new ArrayList<>(list);
+        out.remove(range);
+        return out.isEmpty() ? null : out;
+    }
+
+    private static void markConflict(LocalDate[] byUnit, int unit, LocalDate date) {
+        if (unit < 1 || unit > byUnit.length) return;
+        if (byUnit[unit - 1] == null || date.isBefore(byUnit[unit - 1])) byUnit[unit - 1] = date;
+    }
+
+    // Booked plus held slots of a unit
+    private long busy(CompiledAvailabilityRules rules, LocalDate date, DayOccupancy occupancy, int unit) {
+        return occupancy.busyMask(unit) | slotHolds.heldMask(rules.resourceId(), date, unit);
+    }
+
+    // Held slots that block the given user (holds of other users)
+    private long foreignHolds(Long resourceId, LocalDate date, int unit, Long holderId) {
+        long held = slotHolds.heldMask(resourceId, date, unit);
+        if (held == 0) return 0L;
+        return held & ~slotHolds.ownMask(resourceId, date, unit, holderId);
+    }
+
+    private DayOccupancy day(CompiledAvailabilityRules rules, LocalDate date) {
+        DayOccupancy occupancy = days.get(rules.resourceId(), date, () -> loadDay(rules, date));
+        if (occupancy.unitsCount() != rules.unitsCount()) {
+            // unitsCount was edited since the day was cached
+            occupancy = loadDay(rules, date);
+            days.put(rules.resourceId(), date, occupancy);
+        }
+        return occupancy;
+    }
+
+    // Builds all uncached open days of a range from a single query instead of one query per day
+    private void preload(CompiledAvailabilityRules rules, LocalDate from, int count) {
+        Map<LocalDate, DayOccupancy> missing = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            LocalDate date = from.plusDays(i);
+            if (rules.bookableMask(date) != 0 && !days.contains(rules.resourceId(), date)) {
+                missing.put(date, new DayOccupancy(rules.unitsCount()));
+            }
+        }
+        if (missing.size() < 2) return;
+
+        LocalDate to = from.plusDays(count - 1);
+        for (Booking b : bookingRepository.findActiveBetween(rules.resourceId(), from, to, INACTIVE_STATUSES)) {
+            DayOccupancy occupancy = missing.get(b.getDate());
+            if (occupancy != null) occupancy.occupy(toRange(b));
+        }
+        for (String d : legacyBookingDetailsBetween(rules.resourceId(), from, to)) {
+            for (SlotRange range : BookingDetailsParser.parse(d)) {
+                DayOccupancy occupancy = missing.get(range.date());
+                if (occupancy != null) occupancy.occupy(range);
+            }
+        }
+        for (BookingSeries s : bookingSeriesRepository.findActiveOverlapping(rules.resourceId(), from, to, INACTIVE_STATUSES)) {
+            for (LocalDate date : s.pattern().occurrencesBetween(from, to)) {
+                DayOccupancy occupancy = missing.get(date);
+                if (occupancy != null) occupancy.occupy(s.rangeOn(date));
+            }
+        }
+        // Keep whatever a concurrent booking already put in place
+        missing.forEach((date, occupancy) -> {
+            applyUncommitted(rules.resourceId(), date, occupancy);
+            days.putIfAbsent(rules.resourceId(), date, occupancy);
+        });
+    }
+
+    // Builds one uncached day for many resources from a single query
+    private void preloadDay(Collection<CompiledAvailabilityRules> rules, LocalDate date) {
+        Map<Long, DayOccupancy> missing = new HashMap<>();
+        for (CompiledAvailabilityRules r : rules) {
+            if (!days.contains(r.resourceId(), date)) {
+                missing.put(r.resourceId(), new DayOccupancy(r.unitsCount()));
+            }
+        }
+        if (missing.size() < 2) return;
+
+        for (Booking b : bookingRepository.findActiveOnDayForResources(missing.keySet(), date, INACTIVE_STATUSES)) {
+            DayOccupancy occupancy = missing.get(b.getResourceId());
+            if (occupancy != null) occupancy.occupy(toRange(b));
+        }
+        for (Object[] row : orderRepository.findLegacyBookingDetailsForResourcesOnDay(missing.keySet(), "Date: " + date, INACTIVE_STATUSES)) {
+            DayOccupancy occupancy = missing.get((Long) row[0]);
+            if (occupancy == null) continue;
+            for (SlotRange range : BookingDetailsParser.parse((String) row[1], date)) {
+                occupancy.occupy(range);
+            }
+        }
+        for (BookingSeries s : bookingSeriesRepository.findActiveSpanningForResources(missing.keySet(), date, INACTIVE_STATUSES)) {
+            DayOccupancy occupancy = missing.get(s.getResourceId());
+            if (occupancy != null && s.pattern().occursOn(date)) occupancy.occupy(s.rangeOn(date));
+        }
+        missing.forEach((resourceId, occupancy) -> {
+            applyUncommitted(resourceId, date, occupancy);
+            days.putIfAbsent(resourceId, date, occupancy);
+        });
+    }
+
+    // Replays stored bookings of a single day: indexed booking rows, series spanning the date and legacy orders mentioning it
+    private DayOccupancy loadDay(CompiledAvailabilityRules rules, LocalDate date) {
+        DayOccupancy occupancy = new DayOccupancy(rules.unitsCount());
+        List<Booking> bookings = bookingRepository.findActiveOnDay(rules.resourceId(), date, INACTIVE_STATUSES);
+        for (Booking b : bookings) {
+            occupancy.occupy(toRange(b));
+        }
+        List<String> details = orderRepository.findLegacyBookingDetailsForDay(
+                rules.resourceId(), "Date: " + date, INACTIVE_STATUSES);
+        for (String d : details) {
+            for (SlotRange range : BookingDetailsParser.parse(d, date)) {
+                occupancy.occupy(range);
+            }
+        }
+        List<BookingSeries> series = bookingSeriesRepository.findActiveOverlapping(rules.resourceId(), date, date, INACTIVE_STATUSES);
+        for (BookingSeries s : series) {
+            if (s.pattern().occursOn(date)) occupancy.occupy(s.rangeOn(date));
+        }
+        applyUncommitted(rules.resourceId(), date, occupancy);
+        log.debug("Loaded availability of resource {} on {} from {} booking(s), {} series and {} legacy order(s)",
+                rules.resourceId(), date, bookings.size(), series.size(), details.size());
+        return occupancy;
+    }
+
+    private static SlotRange toRange(Booking b) {
+        return new SlotRange(b.getDate(), b.getUnit(), b.getStartSlot(), b.getEndSlot());
+    }
+
+    private record DayKey(long resourceId, long epochDay) {
+    }
+}
@@ -0,0 +1,12 @@
+package top.ajasta.AjastaApp.reservation.services;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface AvailabilityStreamService {
+
+    // Server-Sent Events feed of the resource's changed days (see AvailabilityChangeDTO)
+    SseEmitter subscribe(Long resourceId);
+
+    // Open streams on the resource
+    int subscriberCount(Long resourceId);
+}
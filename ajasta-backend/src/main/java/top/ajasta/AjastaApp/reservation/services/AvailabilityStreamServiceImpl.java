@@ -0,0 +1,214 @@
+package top.ajasta.AjastaApp.reservation.services;
+
+import top.ajasta.AjastaApp.exceptions.NotFoundException;
+import top.ajasta.AjastaApp.reservation.availability.SlotHolds;
+import top.ajasta.AjastaApp.reservation.availability.SlotMaskCodec;
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+import top.ajasta.AjastaApp.reservation.availability.StripedLocks;
+import top.ajasta.AjastaApp.reservation.dtos.AvailabilityChangeDTO;
+import top.ajasta.AjastaApp.reservation.events.SlotsReleasedEvent;
+import top.ajasta.AjastaApp.reservation.events.SlotsTakenEvent;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live availability over Server-Sent Events.
+ * <p>
+ * Bookings, cancellations and holds reach this service as {@link SlotsTakenEvent} / {@link SlotsReleasedEvent}
+ * (and hold expiry from {@link SlotHolds}). For every affected day the current free masks are read once and
+ * serialized once, then written to each open stream of the resource. An idle stream is only an async request and
+ * an emitter in a set; writes run on virtual threads so a slow client never blocks the booking thread or other
+ * subscribers. Events may arrive out of order, which is why each carries a sequence number: a day's masks are
+ * read and numbered under one stripe lock, so a higher number never carries an older picture of that day.
+ */
+@Service
+@Slf4j
+public class AvailabilityStreamServiceImpl implements AvailabilityStreamService {
+
+    static final String EVENT_NAME = "availability";
+
+    private final AvailabilityService availabilityService;
+    private final ResourceRepository resourceRepository;
+    private final SlotHolds slotHolds;
+    private final ObjectMapper objectMapper;
+
+    private final ConcurrentMap<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final StripedLocks snapshotLocks = new StripedLocks(64);
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "availability-stream-heartbeat");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Value("${app.availability.stream-timeout-minutes:30}")
+    private long timeoutMinutes = 30;
+
+    @Value("${app.availability.stream-heartbeat-seconds:25}")
+    private long heartbeatSeconds = 25;
+
+    public AvailabilityStreamServiceImpl(AvailabilityService availabilityService,
+                                         ResourceRepository resourceRepository,
+                                         SlotHolds slotHolds,
+                                         ObjectMapper objectMapper) {
+        this.availabilityService = availabilityService;
+        this.resourceRepository = resourceRepository;
+        this.slotHolds = slotHolds;
+        this.objectMapper = objectMapper;
+    }
+
+    // Separate so tests can record what is sent
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    // Proxies drop connections that stay silent, so every stream gets a comment line now and then
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        slotHolds.onExpiry(hold -> changed(hold.resourceId(), hold.ranges()));
+        heartbeat.scheduleAtFixedRate(this::ping, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public SseEmitter subscribe(Long resourceId) {
+        if (resourceId == null || !resourceRepository.existsById(resourceId)) {
+            throw new NotFoundException("Resource not found");
+        }
+        // The browser reconnects by itself when the stream times out
+        SseEmitter emitter = newEmitter(Duration.ofMinutes(timeoutMinutes).toMillis());
+        // Added inside compute so a concurrent remove cannot drop the set this emitter goes into
+        subscribers.compute(resourceId, (k, set) -> {
+            Set<SseEmitter> s = set != null ? set : new CopyOnWriteArraySet<>();
+            s.add(emitter);
+            return s;
+        });
+        emitter.onCompletion(() -> remove(resourceId, emitter));
+        emitter.onTimeout(() -> remove(resourceId, emitter));
+        emitter.onError(ex -> remove(resourceId, emitter));
+        send(resourceId, emitter, SseEmitter.event().reconnectTime(5_000).comment("subscribed"));
+        return emitter;
+    }
+
+    @Override
+    public int subscriberCount(Long resourceId) {
+        Set<SseEmitter> set = subscribers.get(resourceId);
+        return set == null ? 0 : set.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotsTaken(SlotsTakenEvent event) {
+        changed(event.resourceId(), event.ranges());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotsReleased(SlotsReleasedEvent event) {
+        changed(event.resourceId(), event.ranges());
+    }
+
+    // Pushes the current free masks of every day the ranges touch; nothing is read when nobody listens
+    void changed(Long resourceId, List<SlotRange> ranges) {
+        Set<SseEmitter> set = subscribers.get(resourceId);
+        if (set == null || set.isEmpty() || ranges == null || ranges.isEmpty()) return;
+
+        TreeSet<LocalDate> dates = new TreeSet<>();
+        ranges.forEach(r -> dates.add(r.date()));
+        List<String> payloads = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            long[] masks;
+            long seq;
+            StripedLocks.Held held = snapshotLocks.lockAll(resourceId, List.of(date));
+            try {
+                masks = availabilityService.freeSlotMasks(resourceId, date);
+                seq = sequence.incrementAndGet();
+            } finally {
+                held.close();
+            }
+            List<String> free = new ArrayList<>(masks.length);
+            for (long mask : masks) {
+                free.add(SlotMaskCodec.encode(mask));
+            }
+            AvailabilityChangeDTO change = AvailabilityChangeDTO.builder()
+                    .seq(seq)
+                    .resourceId(resourceId)
+                    .date(date.toString())
+                    .free(free)
+                    .build();
+            try {
+                payloads.add(objectMapper.writeValueAsString(change));
+            } catch (JsonProcessingException e) {
+                log.warn("Could not serialize availability change for resource {}: {}", resourceId, e.getMessage());
+            }
+        }
+
+        for (SseEmitter emitter : set) {
+            senders.execute(() -> {
+                for (String payload : payloads) {
+                    if (!send(resourceId, emitter, SseEmitter.event().name(EVENT_NAME).data(payload, MediaType.APPLICATION_JSON))) {
+                        return;
+                    }
+                }
+            });
+        }
+    }
+
+    private void ping() {
+        subscribers.forEach((resourceId, set) -> {
+            for (SseEmitter emitter : set) {
+                senders.execute(() -> send(resourceId, emitter, SseEmitter.event().comment("ping")));
+            }
+        });
+    }
+
+    // A failed write means the client is gone; the emitter is dropped instead of retried
+    private boolean send(Long resourceId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            remove(resourceId, emitter);
+            return false;
+        }
+    }
+
+    private void remove(Long resourceId, SseEmitter emitter) {
+        subscribers.computeIfPresent(resourceId, (k, set) -> {
+            set.remove(emitter);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        senders.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(SseEmitter::complete));
+        subscribers.clear();
+    }
+}
@@ -0,0 +1,12 @@
+package top.ajasta.AjastaApp.reservation.services;
+
+import top.ajasta.AjastaApp.reservation.calendar.CalendarFeed;
+
+public interface CalendarService {
+
+    // Live bookings of a resource as an .ics feed, without customer details
+    CalendarFeed resourceFeed(Long resourceId);
+
+    // The logged-in user's bookings, cancelled and failed ones marked STATUS:CANCELLED
+    CalendarFeed myFeed();
+}
@@ -0,0 +1,171 @@
+package top.ajasta.AjastaApp.reservation.services;
+
+import top.ajasta.AjastaApp.auth_users.entity.User;
+import top.ajasta.AjastaApp.auth_users.services.UserService;
+import top.ajasta.AjastaApp.enums.OrderStatus;
+import top.ajasta.AjastaApp.exceptions.NotFoundException;
+import top.ajasta.AjastaApp.order.repository.OrderRepository;
+import top.ajasta.AjastaApp.reservation.availability.BookingDetailsParser;
+import top.ajasta.AjastaApp.reservation.availability.SlotGrid;
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+import top.ajasta.AjastaApp.reservation.calendar.CalendarEntry;
+import top.ajasta.AjastaApp.reservation.calendar.CalendarFeed;
+import top.ajasta.AjastaApp.reservation.calendar.IcsWriter;
+import top.ajasta.AjastaApp.reservation.entity.BookingSeries;
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.repository.BookingSeriesRepository;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * iCalendar feeds built from the booking orders.
+ * <p>
+ * The ETag of a feed comes from one aggregate query (row count, highest id, latest change), so a poll that
+ * matches it is answered before any order is read. Deleting an order, or cancelling one out of a resource
+ * feed, lowers the count. Otherwise orders are read as projections through a
+ * database cursor inside a read-only transaction and each one is written out as VEVENTs before the next is
+ * fetched; a series becomes a single VEVENT with a weekly RRULE.
+ */
+@Service
+public class CalendarServiceImpl implements CalendarService {
+
+    private static final List<OrderStatus> INACTIVE_STATUSES = List.of(OrderStatus.CANCELLED, OrderStatus.FAILED);
+    private static final String UID_DOMAIN = "@ajasta";
+
+    private final OrderRepository orderRepository;
+    private final BookingSeriesRepository bookingSeriesRepository;
+    private final ResourceRepository resourceRepository;
+    private final UserService userService;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public CalendarServiceImpl(OrderRepository orderRepository,
+                               BookingSeriesRepository bookingSeriesRepository,
+                               ResourceRepository resourceRepository,
+                               UserService userService,
+                               PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.bookingSeriesRepository = bookingSeriesRepository;
+        this.resourceRepository = resourceRepository;
+        this.userService = userService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public CalendarFeed resourceFeed(Long resourceId) {
+        Resource resource = resourceRepository.findById(resourceId)
+                .orElseThrow(() -> new NotFoundException("Resource not found"));
+        Object[] version = first(orderRepository.calendarVersionOfResource(resourceId, INACTIVE_STATUSES));
+        // Renaming the resource changes every SUMMARY, so it counts as a change too
+        LocalDateTime changed = latest((LocalDateTime) version[2], resource.getUpdatedAt());
+        String etag = "r" + resourceId + "-" + version[0] + "-" + version[1] + "-" + millis(changed)
+                + "-" + millis(resource.getUpdatedAt());
+        String name = resource.getName();
+        return new CalendarFeed(etag, "resource-" + resourceId + ".ics", false,
+                out -> write(out, name, () -> orderRepository.streamCalendarOfResource(resourceId, INACTIVE_STATUSES),
+                        false, "Booked: " + name));
+    }
+
+    @Override
+    public CalendarFeed myFeed() {
+        User user = userService.getCurrentLoggedInUser();
+        Long userId = user.getId();
+        Object[] version = first(orderRepository.calendarVersionOfUser(userId));
+        LocalDateTime changed = (LocalDateTime) version[2];
+        String etag = "u" + userId + "-" + version[0] + "-" + version[1] + "-" + millis(changed);
+        return new CalendarFeed(etag, "my-bookings.ics", true,
+                out -> write(out, "My bookings", () -> orderRepository.streamCalendarOfUser(userId), true, null));
+    }
+
+    private void write(Writer out, String calendarName, Supplier<Stream<CalendarEntry>> rows,
+                       boolean personal, String publicSummary) throws IOException {
+        IcsWriter ics = new IcsWriter(out);
+        ics.begin(calendarName);
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<CalendarEntry> stream = rows.get()) {
+                    Iterator<CalendarEntry> it = stream.iterator();
+                    while (it.hasNext()) {
+                        writeEntry(ics, it.next(), personal, publicSummary);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        ics.end();
+    }
+
+    private void writeEntry(IcsWriter ics, CalendarEntry entry, boolean personal, String publicSummary) throws IOException {
+        Instant stamp = instant(latest(entry.updatedAt(), entry.orderDate()));
+        String summary = personal ? entry.title() : publicSummary;
+        String description = personal ? entry.details() : null;
+        String status = personal ? statusOf(entry.status()) : null;
+
+        // Series orders carry no "Date:" lines; their occurrences live in the series row
+        if (entry.details() != null && entry.details().startsWith("Series:")) {
+            for (BookingSeries s : bookingSeriesRepository.findByOrderId(entry.orderId())) {
+                ics.event("series-" + s.getId() + UID_DOMAIN, stamp,
+                        at(s.getFirstDate(), s.getStartSlot()), at(s.getFirstDate(), s.getEndSlot()),
+                        summary, description, status, IcsWriter.weeklyRule(s.getIntervalWeeks(), s.getLastDate()));
+            }
+            return;
+        }
+        List<SlotRange> ranges = BookingDetailsParser.parse(entry.details());
+        for (int i = 0; i < ranges.size(); i++) {
+            SlotRange r = ranges.get(i);
+            ics.event("order-" + entry.orderId() + "-" + i + UID_DOMAIN, stamp,
+                    at(r.date(), r.startSlot()), at(r.date(), r.endSlot()),
+                    summary, description, status, null);
+        }
+    }
+
+    private static String statusOf(OrderStatus status) {
+        if (status == null) return null;
+        return switch (status) {
+            case INITIALIZED -> "TENTATIVE";
+            case CONFIRMED -> "CONFIRMED";
+            case CANCELLED, FAILED -> "CANCELLED";
+        };
+    }
+
+    // Slot 48 (end of day) is midnight of the next day
+    private static LocalDateTime at(LocalDate date, int slot) {
+        return date.atStartOfDay().plusMinutes((long) slot * SlotGrid.SLOT_MINUTES);
+    }
+
+    private static Object[] first(List<Object[]> rows) {
+        return rows.isEmpty() ? new Object[]{0L, null, null} : rows.get(0);
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static Instant instant(LocalDateTime time) {
+        return time == null ? Instant.EPOCH : time.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    // -1 for no change time at all
+    private static long millis(LocalDateTime time) {
+        return time == null ? -1 : instant(time).toEpochMilli();
+    }
+}
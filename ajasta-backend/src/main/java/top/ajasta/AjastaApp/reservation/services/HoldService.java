@@ -0,0 +1,13 @@
+package top.ajasta.AjastaApp.reservation.services;
+
+import top.ajasta.AjastaApp.reservation.dtos.HoldDTO;
+import top.ajasta.AjastaApp.reservation.dtos.HoldRequest;
+import top.ajasta.AjastaApp.response.Response;
+
+import java.util.List;
+
+public interface HoldService {
+    Response<HoldDTO> createHold(Long resourceId, HoldRequest request);
+    Response<List<HoldDTO>> getMyHolds(Long resourceId);
+    Response<?> releaseHold(Long resourceId, String holdId);
+}
@@ -0,0 +1,116 @@
+package top.ajasta.AjastaApp.reservation.services;
+
+import top.ajasta.AjastaApp.auth_users.entity.User;
+import top.ajasta.AjastaApp.auth_users.services.UserService;
+import top.ajasta.AjastaApp.exceptions.BadRequestException;
+import top.ajasta.AjastaApp.exceptions.NotFoundException;
+import top.ajasta.AjastaApp.exceptions.UnauthorizedAccessException;
+import top.ajasta.AjastaApp.reservation.availability.SlotGrid;
+import top.ajasta.AjastaApp.reservation.availability.SlotHolds;
+import top.ajasta.AjastaApp.reservation.availability.SlotRanges;
+import top.ajasta.AjastaApp.reservation.dtos.HoldDTO;
+import top.ajasta.AjastaApp.reservation.dtos.HoldRequest;
+import top.ajasta.AjastaApp.reservation.events.SlotsReleasedEvent;
+import top.ajasta.AjastaApp.response.Response;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+public class HoldServiceImpl implements HoldService {
+
+    private final ReservationService reservationService;
+    private final SlotHolds slotHolds;
+    private final UserService userService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.reservation.hold-minutes:10}")
+    private int defaultHoldMinutes;
+
+    @Value("${app.reservation.hold-max-minutes:30}")
+    private int maxHoldMinutes;
+
+    @Value("${app.reservation.hold-max-per-user:5}")
+    private int maxHoldsPerUser = 5;
+
+    @Override
+    public Response<HoldDTO> createHold(Long resourceId, HoldRequest request) {
+        User user = userService.getCurrentLoggedInUser();
+        int minutes = request.getMinutes() != null ? Math.min(request.getMinutes(), maxHoldMinutes) : defaultHoldMinutes;
+        if (slotHolds.countOf(user.getId()) >= maxHoldsPerUser) {
+            throw tooManyHolds();
+        }
+        SlotHolds.Hold hold = reservationService.hold(resourceId, SlotRanges.of(request), user.getId(), Duration.ofMinutes(minutes));
+        // Concurrent requests of the same user may all have passed the check above; the ones over the cap give back
+        if (slotHolds.countOf(user.getId()) > maxHoldsPerUser && slotHolds.release(hold.id())) {
+            eventPublisher.publishEvent(new SlotsReleasedEvent(resourceId, hold.ranges()));
+            throw tooManyHolds();
+        }
+        return Response.<HoldDTO>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Slots held successfully")
+                .data(toDTO(hold))
+                .build();
+    }
+
+    @Override
+    public Response<List<HoldDTO>> getMyHolds(Long resourceId) {
+        User user = userService.getCurrentLoggedInUser();
+        List<HoldDTO> data = slotHolds.holdsOf(resourceId, user.getId()).stream()
+                .sorted(Comparator.comparing(SlotHolds.Hold::expiresAt))
+                .map(this::toDTO)
+                .toList();
+        return Response.<List<HoldDTO>>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Holds fetched successfully")
+                .data(data)
+                .build();
+    }
+
+    @Override
+    public Response<?> releaseHold(Long resourceId, String holdId) {
+        User user = userService.getCurrentLoggedInUser();
+        SlotHolds.Hold hold = slotHolds.get(holdId);
+        if (hold == null || !Objects.equals(hold.resourceId(), resourceId)) {
+            throw new NotFoundException("Hold not found or already expired");
+        }
+        if (!Objects.equals(hold.ownerId(), user.getId())) {
+            throw new UnauthorizedAccessException("You can release only your own holds");
+        }
+        slotHolds.release(holdId);
+        eventPublisher.publishEvent(new SlotsReleasedEvent(resourceId, hold.ranges()));
+        return Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Hold released successfully")
+                .build();
+    }
+
+    private BadRequestException tooManyHolds() {
+        return new BadRequestException("You may hold at most " + maxHoldsPerUser
+                + " slot selection(s) at a time; book or release one first");
+    }
+
+    private HoldDTO toDTO(SlotHolds.Hold hold) {
+        return HoldDTO.builder()
+                .id(hold.id())
+                .resourceId(hold.resourceId())
+                .expiresAt(hold.expiresAt().toString())
+                .slots(hold.ranges().stream()
+                        .map(r -> HoldDTO.Slot.builder()
+                                .date(r.date().toString())
+                                .startTime(SlotGrid.timeOf(r.startSlot()))
+                                .endTime(SlotGrid.timeOf(r.endSlot()))
+                                .unit(r.unit())
+                                .build())
+                        .toList())
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+package top.ajasta.AjastaApp.reservation.services;
+
+import top.ajasta.AjastaApp.order.entity.Order;
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+import top.ajasta.AjastaApp.reservation.dtos.OccupancyDTO;
+import top.ajasta.AjastaApp.reservation.entity.BookingSeries;
+import top.ajasta.AjastaApp.response.Response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface OccupancyService {
+
+    // Counts the ranges of a booking being committed; call in the transaction that writes its booking rows
+    void recordBooking(Long resourceId, List<SlotRange> ranges);
+
+    // Counts every occurrence of a series being committed
+    void recordSeries(BookingSeries series);
+
+    // The order stopped holding its slots (cancelled, failed or about to be deleted); call before its rows go
+    void orderReleased(Order order);
+
+    // A cancelled or failed order holds its slots again
+    void orderReinstated(Order order);
+
+    // Heatmap plus the daily rollup for [from, to]; reads only the counter rows, never the bookings
+    Response<OccupancyDTO> getOccupancy(Long resourceId, LocalDate from, LocalDate to);
+
+    // Recounts one resource from its live bookings, series and legacy order texts
+    Response<?> rebuild(Long resourceId);
+}
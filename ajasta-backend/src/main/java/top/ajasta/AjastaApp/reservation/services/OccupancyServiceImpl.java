@@ -0,0 +1,229 @@
+package top.ajasta.AjastaApp.reservation.services;
+
+import top.ajasta.AjastaApp.auth_users.entity.User;
+import top.ajasta.AjastaApp.auth_users.services.UserService;
+import top.ajasta.AjastaApp.enums.OrderStatus;
+import top.ajasta.AjastaApp.exceptions.BadRequestException;
+import top.ajasta.AjastaApp.exceptions.UnauthorizedAccessException;
+import top.ajasta.AjastaApp.order.entity.Order;
+import top.ajasta.AjastaApp.order.repository.OrderRepository;
+import top.ajasta.AjastaApp.reservation.availability.AvailabilityRulesCache;
+import top.ajasta.AjastaApp.reservation.availability.BookingDetailsParser;
+import top.ajasta.AjastaApp.reservation.availability.CompiledAvailabilityRules;
+import top.ajasta.AjastaApp.reservation.availability.OccupancyTally;
+import top.ajasta.AjastaApp.reservation.availability.SlotGrid;
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+import top.ajasta.AjastaApp.reservation.dtos.OccupancyDTO;
+import top.ajasta.AjastaApp.reservation.entity.Booking;
+import top.ajasta.AjastaApp.reservation.entity.BookingSeries;
+import top.ajasta.AjastaApp.reservation.entity.OccupancyDay;
+import top.ajasta.AjastaApp.reservation.entity.OccupancySlot;
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.repository.BookingRepository;
+import top.ajasta.AjastaApp.reservation.repository.BookingSeriesRepository;
+import top.ajasta.AjastaApp.reservation.repository.OccupancyDayRepository;
+import top.ajasta.AjastaApp.reservation.repository.OccupancyJdbcRepository;
+import top.ajasta.AjastaApp.reservation.repository.OccupancySlotRepository;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+import top.ajasta.AjastaApp.response.Response;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Occupancy heatmaps kept as counters instead of being computed from the bookings.
+ * <p>
+ * Every booking, series, cancellation and reinstatement adds or subtracts its slots in occupancy_slots
+ * (resource x weekday x slot) and occupancy_days (resource x date) within the transaction that changes the
+ * booking, so a heatmap is 7 x 48 rows plus one row per requested day however many bookings there are.
+ * Counters are recounted from the bookings once when the tables are still empty, or on demand per resource. The
+ * initial recount is one transaction under an advisory lock, so nodes starting together do not count twice.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OccupancyServiceImpl implements OccupancyService {
+
+    private static final List<OrderStatus> INACTIVE_STATUSES = List.of(OrderStatus.CANCELLED, OrderStatus.FAILED);
+    private static final int DEFAULT_RANGE_DAYS = 30;
+    private static final int MAX_RANGE_DAYS = 92;
+
+    private final OccupancyJdbcRepository occupancyJdbcRepository;
+    private final OccupancySlotRepository occupancySlotRepository;
+    private final OccupancyDayRepository occupancyDayRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingSeriesRepository bookingSeriesRepository;
+    private final OrderRepository orderRepository;
+    private final ResourceRepository resourceRepository;
+    private final AvailabilityService availabilityService;
+    private final AvailabilityRulesCache rulesCache;
+    private final UserService userService;
+    private final TransactionTemplate transactionTemplate;
+
+    // Counts bookings made before the counters existed
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!occupancyJdbcRepository.isEmpty()) return;
+        long started = System.currentTimeMillis();
+        Integer counted = transactionTemplate.execute(status -> {
+            // A node starting alongside waits here, then finds the counters this one committed
+            occupancyJdbcRepository.lockRecount();
+            if (!occupancyJdbcRepository.isEmpty()) return null;
+            List<Resource> resources = resourceRepository.findAll();
+            for (Resource resource : resources) {
+                recount(resource.getId());
+            }
+            return resources.size();
+        });
+        if (counted != null) {
+            log.info("Occupancy counted for {} resource(s) in {} ms", counted, System.currentTimeMillis() - started);
+        }
+    }
+
+    @Override
+    public void recordBooking(Long resourceId, List<SlotRange> ranges) {
+        OccupancyTally tally = new OccupancyTally();
+        ranges.forEach(r -> tally.add(r, 1));
+        occupancyJdbcRepository.apply(resourceId, tally);
+    }
+
+    @Override
+    public void recordSeries(BookingSeries series) {
+        occupancyJdbcRepository.apply(series.getResourceId(),
+                new OccupancyTally().addSeries(series.rangeOn(series.getFirstDate()), series.pattern(), 1));
+    }
+
+    @Override
+    public void orderReleased(Order order) {
+        occupancyJdbcRepository.apply(order.getResourceId(), tallyOf(order, -1));
+    }
+
+    @Override
+    public void orderReinstated(Order order) {
+        occupancyJdbcRepository.apply(order.getResourceId(), tallyOf(order, 1));
+    }
+
+    @Override
+    public Response<OccupancyDTO> getOccupancy(Long resourceId, LocalDate from, LocalDate to) {
+        checkAccess(resourceId);
+        LocalDate end = to != null ? to : (from != null ? from.plusDays(DEFAULT_RANGE_DAYS - 1) : LocalDate.now());
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        if (end.isBefore(start)) {
+            throw new BadRequestException("to must not be before from");
+        }
+        if (end.toEpochDay() - start.toEpochDay() + 1 > MAX_RANGE_DAYS) {
+            throw new BadRequestException("Date range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+
+        long[][] counts = new long[7][SlotGrid.SLOTS_PER_DAY];
+        for (OccupancySlot cell : occupancySlotRepository.findByResourceId(resourceId)) {
+            counts[cell.getWeekday() - 1][cell.getSlot()] = cell.getBookedSlots();
+        }
+        List<OccupancyDTO.Weekday> weekdays = new ArrayList<>(7);
+        for (DayOfWeek weekday : DayOfWeek.values()) {
+            List<Long> slots = new ArrayList<>(SlotGrid.SLOTS_PER_DAY);
+            long total = 0;
+            for (long c : counts[weekday.getValue() - 1]) {
+                slots.add(c);
+                total += c;
+            }
+            weekdays.add(OccupancyDTO.Weekday.builder().weekday(weekday.name()).slots(slots).total(total).build());
+        }
+
+        Map<LocalDate, Long> booked = new HashMap<>();
+        for (OccupancyDay day : occupancyDayRepository.findByResourceIdAndDateBetweenOrderByDateAsc(resourceId, start, end)) {
+            booked.put(day.getDate(), day.getBookedSlots());
+        }
+        CompiledAvailabilityRules rules = rulesCache.get(resourceId);
+        List<OccupancyDTO.Day> days = new ArrayList<>();
+        for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
+            long count = booked.getOrDefault(d, 0L);
+            int capacity = Long.bitCount(rules.bookableMask(d)) * rules.unitsCount();
+            days.add(OccupancyDTO.Day.builder()
+                    .date(d.toString())
+                    .bookedSlots(count)
+                    .capacitySlots(capacity)
+                    .utilization(capacity > 0 ? Math.round(count * 1000.0 / capacity) / 1000.0 : null)
+                    .build());
+        }
+
+        OccupancyDTO dto = OccupancyDTO.builder()
+                .resourceId(resourceId)
+                .slotMinutes(SlotGrid.SLOT_MINUTES)
+                .unitsCount(rules.unitsCount())
+                .from(start.toString())
+                .to(end.toString())
+                .weekdays(weekdays)
+                .days(days)
+                .build();
+        return Response.<OccupancyDTO>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Occupancy fetched successfully")
+                .data(dto)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public Response<?> rebuild(Long resourceId) {
+        rulesCache.get(resourceId); // 404 for unknown resources
+        recount(resourceId);
+        return Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Occupancy recounted successfully")
+                .build();
+    }
+
+    // Bookings committed while this runs may be counted twice or not at all; meant for quiet times. Callers run it in
+    // a transaction so the delete and the new counts commit together
+    private void recount(Long resourceId) {
+        OccupancyTally tally = new OccupancyTally();
+        for (Booking b : bookingRepository.findActiveByResource(resourceId, INACTIVE_STATUSES)) {
+            tally.add(new SlotRange(b.getDate(), b.getUnit(), b.getStartSlot(), b.getEndSlot()), 1);
+        }
+        for (BookingSeries s : bookingSeriesRepository.findActiveByResource(resourceId, INACTIVE_STATUSES)) {
+            tally.addSeries(s.rangeOn(s.getFirstDate()), s.pattern(), 1);
+        }
+        for (String details : orderRepository.findLegacyBookingDetailsForResource(resourceId, INACTIVE_STATUSES)) {
+            BookingDetailsParser.parse(details).forEach(r -> tally.add(r, 1));
+        }
+        occupancyJdbcRepository.deleteResource(resourceId);
+        occupancyJdbcRepository.apply(resourceId, tally);
+    }
+
+    private OccupancyTally tallyOf(Order order, int sign) {
+        OccupancyTally tally = new OccupancyTally();
+        if (order == null || order.getResourceId() == null) return tally;
+        availabilityService.bookedRanges(order).forEach(r -> tally.add(r, sign));
+        if (order.getId() != null) {
+            for (BookingSeries s : bookingSeriesRepository.findByOrderId(order.getId())) {
+                tally.addSeries(s.rangeOn(s.getFirstDate()), s.pattern(), sign);
+            }
+        }
+        return tally;
+    }
+
+    // Admins see every resource, resource managers only the ones they manage
+    private void checkAccess(Long resourceId) {
+        User current = userService.getCurrentLoggedInUser();
+        boolean isAdmin = current.getRoles() != null && current.getRoles().stream().anyMatch(r -> "ADMIN".equalsIgnoreCase(r.getName()));
+        if (isAdmin) return;
+        boolean manages = resourceRepository.findByManagers_Id(current.getId()).stream()
+                .anyMatch(r -> resourceId.equals(r.getId()));
+        if (!manages) {
+            throw new UnauthorizedAccessException("Not allowed to view occupancy of this resource");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package top.ajasta.AjastaApp.reservation.services;
+
+import top.ajasta.AjastaApp.reservation.availability.SeriesPattern;
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+import top.ajasta.AjastaApp.reservation.dtos.BookMultiRequest;
+import top.ajasta.AjastaApp.reservation.dtos.PriceQuoteDTO;
+import top.ajasta.AjastaApp.reservation.dtos.PriceRuleDTO;
+import top.ajasta.AjastaApp.reservation.pricing.PriceQuote;
+import top.ajasta.AjastaApp.response.Response;
+
+import java.util.List;
+
+public interface PricingService {
+
+    // Price of the ranges from the resource's compiled price table; price after units are assigned for unit rules
+    PriceQuote quote(Long resourceId, List<SlotRange> ranges);
+
+    // Price of every occurrence of a series
+    PriceQuote quoteSeries(Long resourceId, SlotRange first, SeriesPattern pattern);
+
+    // Breakdown of a multi-day basket before it is booked
+    Response<PriceQuoteDTO> getQuote(Long resourceId, BookMultiRequest request);
+
+    Response<List<PriceRuleDTO>> getRules(Long resourceId);
+
+    // Creates the rule, or replaces it when the DTO carries the id of an existing rule of the resource
+    Response<PriceRuleDTO> saveRule(Long resourceId, PriceRuleDTO dto);
+
+    Response<?> deleteRule(Long resourceId, Long ruleId);
+}
@@ -0,0 +1,217 @@
+package top.ajasta.AjastaApp.reservation.services;
+
+import top.ajasta.AjastaApp.auth_users.entity.User;
+import top.ajasta.AjastaApp.auth_users.services.UserService;
+import top.ajasta.AjastaApp.exceptions.BadRequestException;
+import top.ajasta.AjastaApp.exceptions.NotFoundException;
+import top.ajasta.AjastaApp.exceptions.UnauthorizedAccessException;
+import top.ajasta.AjastaApp.money.Money;
+import top.ajasta.AjastaApp.reservation.availability.SeriesPattern;
+import top.ajasta.AjastaApp.reservation.availability.SlotGrid;
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+import top.ajasta.AjastaApp.reservation.availability.SlotRanges;
+import top.ajasta.AjastaApp.reservation.dtos.BookMultiRequest;
+import top.ajasta.AjastaApp.reservation.dtos.PriceQuoteDTO;
+import top.ajasta.AjastaApp.reservation.dtos.PriceRuleDTO;
+import top.ajasta.AjastaApp.reservation.entity.PriceRule;
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.pricing.PriceQuote;
+import top.ajasta.AjastaApp.reservation.pricing.PriceTableCache;
+import top.ajasta.AjastaApp.reservation.repository.PriceRuleRepository;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+import top.ajasta.AjastaApp.response.Response;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Rule-based prices: rules are stored per resource and compiled into a {@link PriceTable} on first use, so
+ * quotes and booking totals never touch the rules or BigDecimal arithmetic.
+ */
+@Service
+@RequiredArgsConstructor
+public class PricingServiceImpl implements PricingService {
+
+    private final PriceRuleRepository priceRuleRepository;
+    private final ResourceRepository resourceRepository;
+    private final PriceTableCache priceTableCache;
+    private final UserService userService;
+
+    @Override
+    public PriceQuote quote(Long resourceId, List<SlotRange> ranges) {
+        return priceTableCache.get(resourceId).quote(ranges);
+    }
+
+    @Override
+    public PriceQuote quoteSeries(Long resourceId, SlotRange first, SeriesPattern pattern) {
+        return priceTableCache.get(resourceId).quoteSeries(first, pattern);
+    }
+
+    @Override
+    public Response<PriceQuoteDTO> getQuote(Long resourceId, BookMultiRequest request) {
+        PriceQuote quote = quote(resourceId, SlotRanges.of(request));
+        List<PriceQuoteDTO.Line> lines = new ArrayList<>(quote.lines().size());
+        for (PriceQuote.Line line : quote.lines()) {
+            SlotRange r = line.range();
+            lines.add(PriceQuoteDTO.Line.builder()
+                    .date(r.date().toString())
+                    .startTime(SlotGrid.timeOf(r.startSlot()))
+                    .endTime(SlotGrid.timeOf(r.endSlot()))
+                    .unit(r.isAuto() ? null : r.unit())
+                    .slots(line.slots())
+                    .amount(line.amount().toBigDecimal())
+                    .build());
+        }
+        Money uniform = quote.uniformSlotPrice();
+        PriceQuoteDTO dto = PriceQuoteDTO.builder()
+                .resourceId(resourceId)
+                .slots(quote.slots())
+                .pricePerSlot(uniform != null ? uniform.toBigDecimal() : null)
+                .total(quote.total().toBigDecimal())
+                .lines(lines)
+                .build();
+        return Response.<PriceQuoteDTO>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Price quoted successfully")
+                .data(dto)
+                .build();
+    }
+
+    @Override
+    public Response<List<PriceRuleDTO>> getRules(Long resourceId) {
+        checkAccess(resourceId);
+        List<PriceRuleDTO> rules = priceRuleRepository.findByResourceIdOrderByIdAsc(resourceId).stream()
+                .map(this::toDTO)
+                .toList();
+        return Response.<List<PriceRuleDTO>>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Price rules fetched successfully")
+                .data(rules)
+                .build();
+    }
+
+    @Override
+    public Response<PriceRuleDTO> saveRule(Long resourceId, PriceRuleDTO dto) {
+        checkAccess(resourceId);
+        Resource resource = resourceRepository.findById(resourceId)
+                .orElseThrow(() -> new NotFoundException("Resource not found"));
+        PriceRule rule = new PriceRule();
+        if (dto.getId() != null) {
+            rule = priceRuleRepository.findById(dto.getId())
+                    .filter(r -> resourceId.equals(r.getResourceId()))
+                    .orElseThrow(() -> new NotFoundException("Price rule not found"));
+        }
+        rule.setResourceId(resourceId);
+        rule.setWeekdays(parseWeekdays(dto.getWeekdays()));
+        rule.setStartTime(parseTime(dto.getStartTime(), "startTime"));
+        rule.setEndTime(parseTime(dto.getEndTime(), "endTime"));
+        if (rule.getStartTime() != null && rule.getEndTime() != null && !LocalTime.MIDNIGHT.equals(rule.getEndTime())
+                && !rule.getEndTime().isAfter(rule.getStartTime())) {
+            throw new BadRequestException("endTime must be after startTime");
+        }
+        rule.setDate(parseDate(dto.getDate()));
+        int units = resource.getUnitsCount() == null || resource.getUnitsCount() < 1 ? 1 : resource.getUnitsCount();
+        if (dto.getUnit() != null && dto.getUnit() > units) {
+            throw new BadRequestException("unit must be between 1 and " + units);
+        }
+        rule.setUnit(dto.getUnit());
+        if (dto.getPricePerSlot() == null || dto.getPricePerSlot().signum() < 0) {
+            throw new BadRequestException("pricePerSlot must not be negative");
+        }
+        rule.setPricePerSlot(dto.getPricePerSlot());
+        rule.setPriority(dto.getPriority() == null ? 0 : dto.getPriority());
+
+        PriceRule saved = priceRuleRepository.save(rule);
+        priceTableCache.evict(resourceId);
+        return Response.<PriceRuleDTO>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Price rule saved successfully")
+                .data(toDTO(saved))
+                .build();
+    }
+
+    @Override
+    public Response<?> deleteRule(Long resourceId, Long ruleId) {
+        checkAccess(resourceId);
+        PriceRule rule = priceRuleRepository.findById(ruleId)
+                .filter(r -> resourceId.equals(r.getResourceId()))
+                .orElseThrow(() -> new NotFoundException("Price rule not found"));
+        priceRuleRepository.delete(rule);
+        priceTableCache.evict(resourceId);
+        return Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Price rule deleted successfully")
+                .build();
+    }
+
+    private PriceRuleDTO toDTO(PriceRule rule) {
+        List<String> weekdays = null;
+        if (rule.getWeekdays() != 0) {
+            weekdays = new ArrayList<>();
+            for (DayOfWeek d : DayOfWeek.values()) {
+                if (rule.appliesOn(d)) weekdays.add(d.name());
+            }
+        }
+        return PriceRuleDTO.builder()
+                .id(rule.getId())
+                .weekdays(weekdays)
+                .startTime(rule.getStartTime() != null ? rule.getStartTime().toString() : null)
+                .endTime(rule.getEndTime() != null ? rule.getEndTime().toString() : null)
+                .date(rule.getDate() != null ? rule.getDate().toString() : null)
+                .unit(rule.getUnit())
+                .pricePerSlot(rule.getPricePerSlot())
+                .priority(rule.getPriority())
+                .build();
+    }
+
+    private static int parseWeekdays(List<String> names) {
+        int mask = 0;
+        if (names == null) return mask;
+        for (String name : names) {
+            try {
+                mask |= 1 << (DayOfWeek.valueOf(name.trim().toUpperCase(Locale.ROOT)).getValue() - 1);
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new BadRequestException("Invalid weekday: " + name);
+            }
+        }
+        return mask;
+    }
+
+    private static LocalTime parseTime(String hhmm, String field) {
+        if (hhmm == null || hhmm.isBlank()) return null;
+        try {
+            return LocalTime.parse(hhmm);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException(field + " must be HH:mm");
+        }
+    }
+
+    private static LocalDate parseDate(String date) {
+        if (date == null || date.isBlank()) return null;
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("date must be yyyy-MM-dd");
+        }
+    }
+
+    // Admins price every resource, resource managers only the ones they manage
+    private void checkAccess(Long resourceId) {
+        User current = userService.getCurrentLoggedInUser();
+        boolean isAdmin = current.getRoles() != null && current.getRoles().stream().anyMatch(r -> "ADMIN".equalsIgnoreCase(r.getName()));
+        if (isAdmin) return;
+        boolean manages = resourceRepository.findByManagers_Id(current.getId()).stream()
+                .anyMatch(r -> resourceId.equals(r.getId()));
+        if (!manages) {
+            throw new UnauthorizedAccessException("Not allowed to manage pricing of this resource");
+        }
+    }
+}
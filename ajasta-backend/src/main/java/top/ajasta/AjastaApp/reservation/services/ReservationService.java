@@ -0,0 +1,45 @@
+package top.ajasta.AjastaApp.reservation.services;
+
+import top.ajasta.AjastaApp.reservation.availability.SeriesPattern;
+import top.ajasta.AjastaApp.reservation.availability.SlotHolds;
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public interface ReservationService {
+
+    /**
+     * Takes the requested ranges and runs {@code commit} (typically the order insert) in the same transaction.
+     * Only requests touching the same (resource, date) are serialized; a conflicting request fails with
+     * {@link top.ajasta.AjastaApp.exceptions.SlotUnavailableException} and nothing is written.
+     */
+    <T> T reserve(Long resourceId, List<SlotRange> ranges, Supplier<T> commit);
+
+    /**
+     * Same as {@link #reserve(Long, List, Supplier)} on behalf of a user: slots held by that user are bookable,
+     * and the user's holds covering the booked slots are dropped once the transaction commits.
+     */
+    <T> T reserve(Long resourceId, List<SlotRange> ranges, Long holderId, Supplier<T> commit);
+
+    /**
+     * {@link #reserve(Long, List, Long, Supplier)} for a booking order: {@code createOrder} inserts the order and
+     * returns its id, and one bookings row per range is then written in the same transaction as a single batch.
+     * Ranges on {@link SlotRange#AUTO_UNIT} get a unit first; {@code createOrder} receives the ranges as booked,
+     * in request order.
+     */
+    Long reserveBooking(Long resourceId, List<SlotRange> ranges, Long holderId, Function<List<SlotRange>, Long> createOrder);
+
+    /**
+     * Books {@code first} on every occurrence of {@code pattern} as one series row. {@code createOrder} receives
+     * {@code first} with its unit resolved and returns the order id. The series is all or nothing: if any occurrence
+     * is taken, closed or held by someone else it fails with
+     * {@link top.ajasta.AjastaApp.exceptions.SlotUnavailableException} naming the first such date.
+     */
+    Long reserveSeries(Long resourceId, SlotRange first, SeriesPattern pattern, Long holderId, Function<SlotRange, Long> createOrder);
+
+    // Holds free ranges for the user for the given time; fails with SlotUnavailableException like reserve()
+    SlotHolds.Hold hold(Long resourceId, List<SlotRange> ranges, Long holderId, Duration ttl);
+}
@@ -0,0 +1,291 @@
+package top.ajasta.AjastaApp.reservation.services;
+
+import top.ajasta.AjastaApp.exceptions.BadRequestException;
+import top.ajasta.AjastaApp.exceptions.SlotUnavailableException;
+import top.ajasta.AjastaApp.reservation.availability.SeriesPattern;
+import top.ajasta.AjastaApp.reservation.availability.SlotGrid;
+import top.ajasta.AjastaApp.reservation.availability.SlotHolds;
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+import top.ajasta.AjastaApp.reservation.availability.StripedLocks;
+import top.ajasta.AjastaApp.reservation.entity.BookingSeries;
+import top.ajasta.AjastaApp.reservation.events.SlotsTakenEvent;
+import top.ajasta.AjastaApp.reservation.repository.BookingJdbcRepository;
+import top.ajasta.AjastaApp.reservation.repository.BookingSeriesRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Booking commit path.
+ * <p>
+ * Within a node, requests are serialized per (resource, date) stripe. Across replicas the same keys are taken
+ * as Postgres transaction-scoped advisory locks, and the affected days are re-read from the database while the
+ * lock is held so bookings committed by another node are seen before the conflict check.
+ * <p>
+ * Every successful booking or hold is announced as a {@link SlotsTakenEvent} (after the commit when no outer
+ * transaction is running, otherwise the listeners wait for that one).
+ */
+@Service
+@Slf4j
+public class ReservationServiceImpl implements ReservationService {
+
+    private final AvailabilityService availabilityService;
+    private final SlotHolds slotHolds;
+    private final BookingJdbcRepository bookingJdbcRepository;
+    private final BookingSeriesRepository bookingSeriesRepository;
+    private final OccupancyService occupancyService;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final StripedLocks locks;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.reservation.advisory-locks:true}")
+    private boolean advisoryLocks;
+
+    @Value("${app.reservation.series-max-occurrences:104}")
+    private int seriesMaxOccurrences = 104;
+
+    private volatile Boolean postgres;
+
+    public ReservationServiceImpl(AvailabilityService availabilityService,
+                                  SlotHolds slotHolds,
+                                  BookingJdbcRepository bookingJdbcRepository,
+                                  BookingSeriesRepository bookingSeriesRepository,
+                                  OccupancyService occupancyService,
+                                  PlatformTransactionManager transactionManager,
+                                  JdbcTemplate jdbcTemplate,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${app.reservation.lock-stripes:1024}") int lockStripes) {
+        this.availabilityService = availabilityService;
+        this.slotHolds = slotHolds;
+        this.bookingJdbcRepository = bookingJdbcRepository;
+        this.bookingSeriesRepository = bookingSeriesRepository;
+        this.occupancyService = occupancyService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+        this.locks = new StripedLocks(lockStripes);
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public <T> T reserve(Long resourceId, List<SlotRange> ranges, Supplier<T> commit) {
+        return reserve(resourceId, ranges, null, commit);
+    }
+
+    @Override
+    public <T> T reserve(Long resourceId, List<SlotRange> ranges, Long holderId, Supplier<T> commit) {
+        return doReserve(resourceId, ranges, holderId, resolved -> commit.get());
+    }
+
+    @Override
+    public Long reserveBooking(Long resourceId, List<SlotRange> ranges, Long holderId,
+                               Function<List<SlotRange>, Long> createOrder) {
+        return doReserve(resourceId, ranges, holderId, resolved -> {
+            Long orderId = createOrder.apply(resolved);
+            bookingJdbcRepository.insertAll(orderId, resourceId, resolved);
+            occupancyService.recordBooking(resourceId, resolved);
+            return orderId;
+        });
+    }
+
+    private <T> T doReserve(Long resourceId, List<SlotRange> requested, Long holderId, Function<List<SlotRange>, T> commit) {
+        TreeSet<LocalDate> dates = validate(resourceId, requested);
+
+        List<SlotRange> booked = new ArrayList<>();
+        T committed;
+        StripedLocks.Held held = locks.lockAll(resourceId, dates);
+        try {
+            committed = transactionTemplate.execute(status -> {
+                if (useAdvisoryLocks()) {
+                    for (LocalDate date : dates) {
+                        advisoryLock(resourceId, date);
+                        availabilityService.reload(resourceId, date);
+                    }
+                }
+
+                // Units left open by the caller are chosen here, against the state the conflict check will see
+                List<SlotRange> ranges = availabilityService.assignUnits(resourceId, requested, holderId);
+                List<SlotRange> conflicts = availabilityService.conflicts(resourceId, ranges, holderId);
+                if (!conflicts.isEmpty()) {
+                    throw new SlotUnavailableException("Requested slot(s) are no longer available: " + describe(conflicts));
+                }
+
+                T result = commit.apply(ranges);
+
+                // Visible to other threads as soon as the stripe is released; undone if the transaction rolls back
+                availabilityService.recordBooking(resourceId, ranges);
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int completionStatus) {
+                            if (completionStatus != STATUS_COMMITTED) {
+                                availabilityService.releaseBooking(resourceId, ranges);
+                            } else if (holderId != null) {
+                                slotHolds.consume(resourceId, holderId, ranges);
+                            }
+                        }
+                    });
+                } else if (holderId != null) {
+                    slotHolds.consume(resourceId, holderId, ranges);
+                }
+                booked.addAll(ranges);
+                return result;
+            });
+        } finally {
+            held.close();
+        }
+        eventPublisher.publishEvent(new SlotsTakenEvent(resourceId, booked));
+        return committed;
+    }
+
+    @Override
+    public Long reserveSeries(Long resourceId, SlotRange first, SeriesPattern pattern, Long holderId,
+                              Function<SlotRange, Long> createOrder) {
+        if (resourceId == null) {
+            throw new BadRequestException("Resource id is required");
+        }
+        if (first == null || pattern == null) {
+            throw new BadRequestException("A series needs a start date and a recurrence");
+        }
+        if (pattern.count() > seriesMaxOccurrences) {
+            throw new BadRequestException("A series may have at most " + seriesMaxOccurrences + " occurrences");
+        }
+        // The stripes of every occurrence date, so one-off bookings of those days and the series exclude each other
+        List<LocalDate> dates = pattern.occurrencesBetween(pattern.first(), pattern.last());
+
+        SlotRange[] recorded = new SlotRange[1];
+        Long created;
+        StripedLocks.Held held = locks.lockAll(resourceId, dates);
+        try {
+            created = transactionTemplate.execute(status -> {
+                if (useAdvisoryLocks()) {
+                    // The conflict check below reads the database, so no day needs reloading
+                    dates.forEach(date -> advisoryLock(resourceId, date));
+                }
+
+                SlotRange booked = availabilityService.assignSeriesUnit(resourceId, first, pattern, holderId);
+                LocalDate conflict = availabilityService.seriesConflict(resourceId, booked, pattern, holderId);
+                if (conflict != null) {
+                    throw new SlotUnavailableException("Requested series is not available on " + conflict + " "
+                            + SlotGrid.timeOf(booked.startSlot()) + "-" + SlotGrid.timeOf(booked.endSlot())
+                            + (booked.isAuto() ? " (no unit is free on every date)" : " unit " + booked.unit()));
+                }
+
+                Long orderId = createOrder.apply(booked);
+                BookingSeries series = bookingSeriesRepository.save(BookingSeries.builder()
+                        .orderId(orderId)
+                        .resourceId(resourceId)
+                        .firstDate(pattern.first())
+                        .lastDate(pattern.last())
+                        .intervalWeeks(pattern.intervalWeeks())
+                        .startSlot(booked.startSlot())
+                        .endSlot(booked.endSlot())
+                        .unit(booked.unit())
+                        .build());
+                occupancyService.recordSeries(series);
+
+                availabilityService.recordSeries(series);
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int completionStatus) {
+                            if (completionStatus != STATUS_COMMITTED) {
+                                availabilityService.releaseSeries(series);
+                            }
+                        }
+                    });
+                }
+                recorded[0] = booked;
+                return orderId;
+            });
+        } finally {
+            held.close();
+        }
+        SlotRange r = recorded[0];
+        eventPublisher.publishEvent(new SlotsTakenEvent(resourceId,
+                dates.stream().map(d -> new SlotRange(d, r.unit(), r.startSlot(), r.endSlot())).toList()));
+        return created;
+    }
+
+    @Override
+    public SlotHolds.Hold hold(Long resourceId, List<SlotRange> requested, Long holderId, Duration ttl) {
+        TreeSet<LocalDate> dates = validate(resourceId, requested);
+        // Holds live in this node's memory only, so the local stripe lock is enough
+        SlotHolds.Hold hold;
+        StripedLocks.Held held = locks.lockAll(resourceId, dates);
+        try {
+            List<SlotRange> ranges = availabilityService.assignUnits(resourceId, requested, null);
+            List<SlotRange> conflicts = availabilityService.conflicts(resourceId, ranges);
+            if (!conflicts.isEmpty()) {
+                throw new SlotUnavailableException("Requested slot(s) are not available: " + describe(conflicts));
+            }
+            hold = slotHolds.place(resourceId, holderId, ranges, ttl);
+            if (hold == null) {
+                throw new SlotUnavailableException("Requested slot(s) are already held");
+            }
+        } finally {
+            held.close();
+        }
+        eventPublisher.publishEvent(new SlotsTakenEvent(resourceId, hold.ranges()));
+        return hold;
+    }
+
+    private static TreeSet<LocalDate> validate(Long resourceId, List<SlotRange> ranges) {
+        if (resourceId == null) {
+            throw new BadRequestException("Resource id is required");
+        }
+        if (ranges == null || ranges.isEmpty()) {
+            throw new BadRequestException("At least one slot is required");
+        }
+        return ranges.stream()
+                .map(SlotRange::date)
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private void advisoryLock(Long resourceId, LocalDate date) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (var ps = con.prepareStatement("SELECT pg_advisory_xact_lock(?, ?)")) {
+                ps.setInt(1, (int) (long) resourceId);
+                ps.setInt(2, (int) date.toEpochDay());
+                ps.execute();
+            }
+            return null;
+        });
+    }
+
+    private boolean useAdvisoryLocks() {
+        if (!advisoryLocks || jdbcTemplate == null) return false;
+        Boolean pg = postgres;
+        if (pg == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+            pg = product != null && product.toLowerCase(Locale.ROOT).contains("postgres");
+            postgres = pg;
+            log.info("Reservation advisory locks {}", pg ? "enabled" : "disabled (database is " + product + ")");
+        }
+        return pg;
+    }
+
+    private static String describe(List<SlotRange> ranges) {
+        return ranges.stream()
+                .map(r -> r.date() + " " + SlotGrid.timeOf(r.startSlot()) + "-" + SlotGrid.timeOf(r.endSlot())
+                        + (r.isAuto() ? " (no free unit)" : " unit " + r.unit()))
+                .collect(Collectors.joining(", "));
+    }
+}
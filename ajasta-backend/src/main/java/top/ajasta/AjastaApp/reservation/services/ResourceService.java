@@ -1,6 +1,9 @@
 package top.ajasta.AjastaApp.reservation.services;
 
+import top.ajasta.AjastaApp.reservation.dtos.CacheStatsDTO;
 import top.ajasta.AjastaApp.reservation.dtos.ResourceDTO;
+import top.ajasta.AjastaApp.reservation.dtos.ResourceFacetsDTO;
+import top.ajasta.AjastaApp.reservation.dtos.ResourcePageDTO;
 import top.ajasta.AjastaApp.reservation.enums.ResourceType;
 import top.ajasta.AjastaApp.response.Response;
 
@@ -12,4 +15,22 @@ public interface ResourceService {
     Response<ResourceDTO> getResourceById(Long id);
     Response<?> deleteResource(Long id);
     Response<List<ResourceDTO>> getResources(ResourceType type, String search, Boolean active);
+
+    // fields is "full" (default) or "summary": only id, name, type, location, image, price, active and units, read as a projection
+    Response<List<ResourceDTO>> getResources(ResourceType type, String search, Boolean active, String fields);
+
+    // Resources within radiusKm (default 10, at most 200) of near = "lat,lon", nearest first, with distanceKm set
+    Response<List<ResourceDTO>> getResourcesNear(String near, Double radiusKm, ResourceType type, String search, Boolean active, String fields);
+
+    // Keyset-paged listing in (name, id) order; sort is "name" (default) or "-name", cursor the previous page's nextCursor
+    Response<ResourcePageDTO> getResourcePage(ResourceType type, String search, Boolean active, String sort, String cursor, int size);
+
+    // Ranked full-text search over name, location and description, tolerant of typos and unfinished words
+    Response<List<ResourceDTO>> searchResources(String query, ResourceType type, Boolean active, int limit);
+
+    // Counts per type and per active flag for the given search; type and active narrow the other facet
+    Response<ResourceFacetsDTO> getFacets(String search, ResourceType type, Boolean active);
+
+    // Hit and miss counters of the catalog cache behind getResourceById and getResources
+    Response<List<CacheStatsDTO>> getCacheStats();
 }
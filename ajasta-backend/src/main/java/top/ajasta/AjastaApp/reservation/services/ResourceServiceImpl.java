@@ -3,15 +3,35 @@ package top.ajasta.AjastaApp.reservation.services;
 import top.ajasta.AjastaApp.aws.AWSS3Service;
 import top.ajasta.AjastaApp.exceptions.BadRequestException;
 import top.ajasta.AjastaApp.exceptions.NotFoundException;
+import top.ajasta.AjastaApp.reservation.availability.AvailabilityRulesCache;
+import top.ajasta.AjastaApp.reservation.availability.ResourceTypeIndex;
+import top.ajasta.AjastaApp.reservation.catalog.ResourceCatalogCache;
+import top.ajasta.AjastaApp.reservation.dtos.CacheStatsDTO;
 import top.ajasta.AjastaApp.reservation.dtos.ResourceDTO;
+import top.ajasta.AjastaApp.reservation.dtos.ResourceFacetsDTO;
+import top.ajasta.AjastaApp.reservation.dtos.ResourcePageDTO;
 import top.ajasta.AjastaApp.reservation.entity.Resource;
 import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+import top.ajasta.AjastaApp.reservation.geo.GeoGrid;
+import top.ajasta.AjastaApp.reservation.geo.ResourceGeoIndex;
+import top.ajasta.AjastaApp.reservation.pricing.PriceTableCache;
+import top.ajasta.AjastaApp.reservation.repository.ResourceCursor;
+import top.ajasta.AjastaApp.reservation.repository.ResourceFacetCount;
+import top.ajasta.AjastaApp.reservation.repository.ResourceFacetRepository;
+import top.ajasta.AjastaApp.reservation.repository.ResourceManagerLink;
 import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+import top.ajasta.AjastaApp.reservation.repository.ResourceSpecifications;
+import top.ajasta.AjastaApp.reservation.repository.ResourceSummary;
+import top.ajasta.AjastaApp.reservation.repository.ResourceSummaryRepository;
+import top.ajasta.AjastaApp.reservation.search.ResourceSearchIndex;
+import top.ajasta.AjastaApp.reservation.search.ResourceTextIndex;
 import top.ajasta.AjastaApp.response.Response;
 import top.ajasta.AjastaApp.auth_users.repository.UserRepository;
 import top.ajasta.AjastaApp.auth_users.entity.User;
 import top.ajasta.AjastaApp.role.entity.Role;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -19,17 +39,34 @@ import org.springframework.web.multipart.MultipartFile;
 import java.net.URL;
 import java.time.LocalTime;
 import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ResourceServiceImpl implements ResourceService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final double DEFAULT_RADIUS_KM = 10;
+    private static final double MAX_RADIUS_KM = 200;
+    // Nearest resources considered for a near= listing, before the search filter
+    private static final int MAX_NEAR_RESULTS = 500;
+
     private final ResourceRepository resourceRepository;
     private final AWSS3Service awss3Service;
     private final UserRepository userRepository;
+    private final AvailabilityRulesCache availabilityRulesCache;
+    private final ResourceTypeIndex resourceTypeIndex;
+    private final PriceTableCache priceTableCache;
+    private final ResourceSearchIndex resourceSearchIndex;
+    private final ResourceCatalogCache catalogCache;
+    private final ResourceSummaryRepository resourceSummaryRepository;
+    private final ResourceFacetRepository resourceFacetRepository;
+    private final ResourceGeoIndex resourceGeoIndex;
 
     @Override
     public Response<ResourceDTO> createResource(ResourceDTO dto) {
@@ -49,6 +86,7 @@ public class ResourceServiceImpl implements ResourceService {
         imageUrl = s3Url.toString();
 
         Resource entity = toEntity(dto);
+        validatePosition(entity);
         entity.setId(null);
         entity.setImageUrl(imageUrl);
         // Set managers if provided
@@ -56,6 +94,10 @@ public class ResourceServiceImpl implements ResourceService {
             entity.setManagers(resolveManagers(dto.getManagerIds()));
         }
         Resource saved = resourceRepository.save(entity);
+        resourceTypeIndex.invalidate();
+        resourceSearchIndex.put(saved);
+        resourceGeoIndex.put(saved);
+        catalogCache.resourceChanged(saved.getId());
         return Response.<ResourceDTO>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Resource created successfully")
@@ -87,6 +129,9 @@ public class ResourceServiceImpl implements ResourceService {
         if (dto.getName() != null) existing.setName(dto.getName());
         if (dto.getType() != null) existing.setType(dto.getType());
         if (dto.getLocation() != null) existing.setLocation(dto.getLocation());
+        if (dto.getLatitude() != null) existing.setLatitude(dto.getLatitude());
+        if (dto.getLongitude() != null) existing.setLongitude(dto.getLongitude());
+        validatePosition(existing);
         if (dto.getDescription() != null) existing.setDescription(dto.getDescription());
         if (dto.getPricePerSlot() != null) existing.setPricePerSlot(dto.getPricePerSlot());
         if (dto.getActive() != null) existing.setActive(dto.getActive());
@@ -108,6 +153,13 @@ public class ResourceServiceImpl implements ResourceService {
         }
 
         Resource saved = resourceRepository.save(existing);
+        // Schedule columns or the base price may have changed; recompile on next lookup
+        availabilityRulesCache.evict(saved.getId());
+        priceTableCache.evict(saved.getId());
+        resourceTypeIndex.invalidate();
+        resourceSearchIndex.put(saved);
+        resourceGeoIndex.put(saved);
+        catalogCache.resourceChanged(saved.getId());
         return Response.<ResourceDTO>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Resource updated successfully")
@@ -117,12 +169,12 @@ public class ResourceServiceImpl implements ResourceService {
 
     @Override
     public Response<ResourceDTO> getResourceById(Long id) {
-        Resource res = resourceRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Resource not found"));
+        ResourceDTO dto = catalogCache.get(id, () -> toDTO(resourceRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Resource not found"))));
         return Response.<ResourceDTO>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Resource fetched successfully")
-                .data(toDTO(res))
+                .data(dto)
                 .build();
     }
 
@@ -136,6 +188,12 @@ public class ResourceServiceImpl implements ResourceService {
             awss3Service.deleteFile("resources/" + keyName);
         }
         resourceRepository.delete(res);
+        availabilityRulesCache.evict(id);
+        priceTableCache.evict(id);
+        resourceTypeIndex.invalidate();
+        resourceSearchIndex.remove(id);
+        resourceGeoIndex.remove(id);
+        catalogCache.resourceChanged(id);
         return Response.builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Resource deleted successfully")
@@ -144,15 +202,121 @@ public class ResourceServiceImpl implements ResourceService {
 
     @Override
     public Response<List<ResourceDTO>> getResources(ResourceType type, String search, Boolean active) {
-        List<Resource> all = resourceRepository.findAll();
-        List<ResourceDTO> data = all.stream()
-                .filter(r -> type == null || r.getType() == type)
-                .filter(r -> active == null || r.isActive() == active)
-                .filter(r -> search == null || search.isBlank() ||
-                        (r.getName() != null && r.getName().toLowerCase().contains(search.toLowerCase())) ||
-                        (r.getLocation() != null && r.getLocation().toLowerCase().contains(search.toLowerCase())))
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return getResources(type, search, active, null);
+    }
+
+    @Override
+    public Response<List<ResourceDTO>> getResources(ResourceType type, String search, Boolean active, String fields) {
+        boolean summary = isSummary(fields);
+        Specification<Resource> spec = ResourceSpecifications.filtered(type, search, active);
+        List<ResourceDTO> data = catalogCache.list(ResourceCatalogCache.ListKey.of(type, search, active, summary), () -> summary
+                ? resourceSummaryRepository.findAll(spec).stream().map(this::toDTO).toList()
+                : toDTOs(resourceRepository.findAll(spec, Sort.by("id"))));
+        return Response.<List<ResourceDTO>>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Resources fetched successfully")
+                .data(data)
+                .build();
+    }
+
+    @Override
+    public Response<List<ResourceDTO>> getResourcesNear(String near, Double radiusKm, ResourceType type, String search, Boolean active, String fields) {
+        double[] point = parsePoint(near);
+        double radius = radiusKm == null ? DEFAULT_RADIUS_KM : radiusKm;
+        if (!(radius > 0) || radius > MAX_RADIUS_KM) {
+            throw new BadRequestException("radiusKm must be greater than 0 and at most " + (int) MAX_RADIUS_KM);
+        }
+        boolean summary = isSummary(fields);
+
+        // Position, type and active are answered by the in-memory grid; only the text filter and the rows need SQL
+        List<GeoGrid.Hit> hits = resourceGeoIndex.near(point[0], point[1], radius, type, active, MAX_NEAR_RESULTS);
+        List<ResourceDTO> data = List.of();
+        if (!hits.isEmpty()) {
+            Specification<Resource> spec = ResourceSpecifications.matching(search)
+                    .and(ResourceSpecifications.idIn(hits.stream().map(GeoGrid.Hit::id).toList()));
+            Map<Long, ResourceDTO> byId = (summary
+                    ? resourceSummaryRepository.findAll(spec).stream().map(this::toDTO).toList()
+                    : toDTOs(resourceRepository.findAll(spec)))
+                    .stream()
+                    .collect(Collectors.toMap(ResourceDTO::getId, Function.identity()));
+            // Nearest first; a hit deleted or filtered out by the search is skipped
+            data = hits.stream()
+                    .map(h -> {
+                        ResourceDTO dto = byId.get(h.id());
+                        if (dto != null) dto.setDistanceKm(Math.round(h.distanceKm() * 1000.0) / 1000.0);
+                        return dto;
+                    })
+                    .filter(java.util.Objects::nonNull)
+                    .toList();
+        }
+        return Response.<List<ResourceDTO>>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Resources fetched successfully")
+                .data(data)
+                .build();
+    }
+
+    @Override
+    public Response<ResourcePageDTO> getResourcePage(ResourceType type, String search, Boolean active, String sort, String cursor, int size) {
+        if (size < 1) {
+            throw new BadRequestException("size must be positive");
+        }
+        int limit = Math.min(size, MAX_PAGE_SIZE);
+        boolean descending;
+        if (sort == null || sort.isBlank() || "name".equalsIgnoreCase(sort)) {
+            descending = false;
+        } else if ("-name".equalsIgnoreCase(sort)) {
+            descending = true;
+        } else {
+            throw new BadRequestException("sort must be name or -name");
+        }
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Specification<Resource> spec = ResourceSpecifications.filtered(type, search, active)
+                .and(ResourceSpecifications.after(ResourceCursor.decode(cursor), descending));
+
+        // One row past the page tells whether there is a next page, without a count query
+        List<Resource> rows = resourceRepository.findBy(spec, q -> q
+                .sortBy(Sort.by(direction, "name").and(Sort.by(direction, "id")))
+                .limit(limit + 1)
+                .all());
+        boolean more = rows.size() > limit;
+        List<Resource> page = more ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (more) {
+            Resource last = page.get(page.size() - 1);
+            nextCursor = new ResourceCursor(last.getName(), last.getId()).encode();
+        }
+
+        ResourcePageDTO dto = ResourcePageDTO.builder()
+                .items(toDTOs(page))
+                .nextCursor(nextCursor)
+                .size(page.size())
+                .sort(descending ? "-name" : "name")
+                .build();
+        return Response.<ResourcePageDTO>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Resources fetched successfully")
+                .data(dto)
+                .build();
+    }
+
+    @Override
+    public Response<List<ResourceDTO>> searchResources(String query, ResourceType type, Boolean active, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("q is required");
+        }
+        if (limit < 1) {
+            throw new BadRequestException("limit must be positive");
+        }
+        List<ResourceTextIndex.Hit> hits = resourceSearchIndex.search(query, type, active, Math.min(limit, MAX_PAGE_SIZE));
+        Map<Long, Resource> byId = resourceRepository.findAllById(hits.stream().map(ResourceTextIndex.Hit::id).toList())
+                .stream()
+                .collect(Collectors.toMap(Resource::getId, Function.identity()));
+        // Keep the ranking; a hit deleted since the lookup is skipped
+        List<ResourceDTO> data = toDTOs(hits.stream()
+                .map(h -> byId.get(h.id()))
+                .filter(java.util.Objects::nonNull)
+                .toList());
         return Response.<List<ResourceDTO>>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Resources fetched successfully")
@@ -160,12 +324,70 @@ public class ResourceServiceImpl implements ResourceService {
                 .build();
     }
 
+    @Override
+    public Response<ResourceFacetsDTO> getFacets(String search, ResourceType type, Boolean active) {
+        List<ResourceFacetCount> counts = catalogCache.facets(search, () ->
+                resourceFacetRepository.countByTypeAndActive(ResourceSpecifications.matching(search)));
+        Map<ResourceType, Long> types = new EnumMap<>(ResourceType.class);
+        for (ResourceType t : ResourceType.values()) {
+            types.put(t, 0L);
+        }
+        long total = 0, activeCount = 0, inactiveCount = 0;
+        for (ResourceFacetCount c : counts) {
+            boolean typeMatches = type == null || type == c.type();
+            boolean activeMatches = active == null || active == c.active();
+            if (activeMatches) types.merge(c.type(), c.count(), Long::sum);
+            if (typeMatches && c.active()) activeCount += c.count();
+            if (typeMatches && !c.active()) inactiveCount += c.count();
+            if (typeMatches && activeMatches) total += c.count();
+        }
+        return Response.<ResourceFacetsDTO>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Resource facets fetched successfully")
+                .data(ResourceFacetsDTO.builder()
+                        .total(total)
+                        .types(types)
+                        .active(activeCount)
+                        .inactive(inactiveCount)
+                        .build())
+                .build();
+    }
+
+    @Override
+    public Response<List<CacheStatsDTO>> getCacheStats() {
+        return Response.<List<CacheStatsDTO>>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Cache statistics fetched successfully")
+                .data(catalogCache.stats())
+                .build();
+    }
+
     private ResourceDTO toDTO(Resource r) {
+        return toDTOs(List.of(r)).get(0);
+    }
+
+    // Manager ids of all rows come from one query, whatever the number of rows
+    private List<ResourceDTO> toDTOs(List<Resource> resources) {
+        if (resources.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<Long>> managerIds = resourceRepository.findManagerLinks(resources.stream().map(Resource::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(ResourceManagerLink::resourceId,
+                        Collectors.mapping(ResourceManagerLink::managerId, Collectors.toList())));
+        return resources.stream()
+                .map(r -> toDTO(r, managerIds.getOrDefault(r.getId(), List.of())))
+                .toList();
+    }
+
+    private ResourceDTO toDTO(Resource r, List<Long> managerIds) {
         return ResourceDTO.builder()
                 .id(r.getId())
                 .name(r.getName())
                 .type(r.getType())
                 .location(r.getLocation())
+                .latitude(r.getLatitude())
+                .longitude(r.getLongitude())
                 .description(r.getDescription())
                 .imageUrl(r.getImageUrl())
                 .pricePerSlot(r.getPricePerSlot())
@@ -176,7 +398,23 @@ public class ResourceServiceImpl implements ResourceService {
                 .unavailableWeekdays(r.getUnavailableWeekdays())
                 .unavailableDates(r.getUnavailableDates())
                 .dailyUnavailableRanges(r.getDailyUnavailableRanges())
-                .managerIds(r.getManagers() == null ? null : r.getManagers().stream().map(User::getId).toList())
+                .managerIds(managerIds)
+                .build();
+    }
+
+    // Card fields only; the rest stays null and is left out of the JSON
+    private ResourceDTO toDTO(ResourceSummary r) {
+        return ResourceDTO.builder()
+                .id(r.id())
+                .name(r.name())
+                .type(r.type())
+                .location(r.location())
+                .latitude(r.latitude())
+                .longitude(r.longitude())
+                .imageUrl(r.imageUrl())
+                .pricePerSlot(r.pricePerSlot())
+                .active(r.active())
+                .unitsCount(r.unitsCount())
                 .build();
     }
 
@@ -186,6 +424,8 @@ public class ResourceServiceImpl implements ResourceService {
                 .name(dto.getName())
                 .type(dto.getType())
                 .location(dto.getLocation())
+                .latitude(dto.getLatitude())
+                .longitude(dto.getLongitude())
                 .description(dto.getDescription())
                 .pricePerSlot(dto.getPricePerSlot());
         if (dto.getActive() != null) b.active(dto.getActive());
@@ -202,6 +442,45 @@ public class ResourceServiceImpl implements ResourceService {
         return b.build();
     }
 
+    // "full" (or none) or "summary"
+    private static boolean isSummary(String fields) {
+        if (fields == null || fields.isBlank() || "full".equalsIgnoreCase(fields)) {
+            return false;
+        }
+        if ("summary".equalsIgnoreCase(fields)) {
+            return true;
+        }
+        throw new BadRequestException("fields must be summary or full");
+    }
+
+    // "lat,lon" in degrees
+    private static double[] parsePoint(String near) {
+        String[] parts = near == null ? new String[0] : near.split(",");
+        if (parts.length != 2) {
+            throw new BadRequestException("near must be lat,lon");
+        }
+        try {
+            double lat = Double.parseDouble(parts[0].trim());
+            double lon = Double.parseDouble(parts[1].trim());
+            if (!(lat >= -90 && lat <= 90) || !(lon >= -180 && lon <= 180)) {
+                throw new BadRequestException("near is out of range: latitude -90..90, longitude -180..180");
+            }
+            return new double[]{lat, lon};
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("near must be lat,lon");
+        }
+    }
+
+    private static void validatePosition(Resource r) {
+        if ((r.getLatitude() == null) != (r.getLongitude() == null)) {
+            throw new BadRequestException("latitude and longitude must be set together");
+        }
+        if (r.getLatitude() != null && (!(r.getLatitude() >= -90 && r.getLatitude() <= 90)
+                || !(r.getLongitude() >= -180 && r.getLongitude() <= 180))) {
+            throw new BadRequestException("latitude must be within -90..90 and longitude within -180..180");
+        }
+    }
+
     private List<User> resolveManagers(List<Long> ids) {
         if (ids == null) return null;
         // normalize: unique, non-null
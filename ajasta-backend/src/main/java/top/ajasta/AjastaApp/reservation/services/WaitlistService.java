@@ -0,0 +1,21 @@
+package top.ajasta.AjastaApp.reservation.services;
+
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+import top.ajasta.AjastaApp.reservation.dtos.BookRequest;
+import top.ajasta.AjastaApp.reservation.dtos.WaitlistEntryDTO;
+import top.ajasta.AjastaApp.response.Response;
+
+import java.util.List;
+
+public interface WaitlistService {
+
+    // Queues the current user for a slot range that is fully booked right now
+    Response<WaitlistEntryDTO> join(Long resourceId, BookRequest request);
+
+    Response<List<WaitlistEntryDTO>> getMyEntries(Long resourceId);
+
+    Response<?> leave(Long resourceId, Long entryId);
+
+    // Offers freed slots to the first waiter of each freed slot
+    void promote(Long resourceId, List<SlotRange> freed);
+}
@@ -0,0 +1,285 @@
+package top.ajasta.AjastaApp.reservation.services;
+
+import top.ajasta.AjastaApp.auth_users.entity.User;
+import top.ajasta.AjastaApp.auth_users.repository.UserRepository;
+import top.ajasta.AjastaApp.auth_users.services.UserService;
+import top.ajasta.AjastaApp.email_notification.dtos.NotificationDTO;
+import top.ajasta.AjastaApp.email_notification.services.NotificationService;
+import top.ajasta.AjastaApp.exceptions.BadRequestException;
+import top.ajasta.AjastaApp.exceptions.NotFoundException;
+import top.ajasta.AjastaApp.exceptions.SlotUnavailableException;
+import top.ajasta.AjastaApp.exceptions.UnauthorizedAccessException;
+import top.ajasta.AjastaApp.reservation.availability.AvailabilityRulesCache;
+import top.ajasta.AjastaApp.reservation.availability.CompiledAvailabilityRules;
+import top.ajasta.AjastaApp.reservation.availability.SlotGrid;
+import top.ajasta.AjastaApp.reservation.availability.SlotHolds;
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+import top.ajasta.AjastaApp.reservation.availability.SlotRanges;
+import top.ajasta.AjastaApp.reservation.availability.WaitlistQueues;
+import top.ajasta.AjastaApp.reservation.dtos.BookRequest;
+import top.ajasta.AjastaApp.reservation.dtos.WaitlistEntryDTO;
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.entity.WaitlistEntry;
+import top.ajasta.AjastaApp.reservation.enums.WaitlistStatus;
+import top.ajasta.AjastaApp.reservation.events.SlotsReleasedEvent;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+import top.ajasta.AjastaApp.reservation.repository.WaitlistEntryRepository;
+import top.ajasta.AjastaApp.response.Response;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Waitlist for fully booked slots.
+ * <p>
+ * Entries are stored in waitlist_entries and queued in memory per (resource, date, slot) (see {@link WaitlistQueues}).
+ * When booked slots are released, or a hold on them runs out, the earliest waiter of each freed slot whose whole
+ * range is free gets the slots as a hold of {@code app.reservation.waitlist-offer-minutes} and an email; waiters
+ * whose range is still partly taken keep their place. Only slots that could be booked at all are waitlisted.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final AvailabilityService availabilityService;
+    private final AvailabilityRulesCache rulesCache;
+    private final ReservationService reservationService;
+    private final SlotHolds slotHolds;
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final ResourceRepository resourceRepository;
+    private final NotificationService notificationService;
+    private final TemplateEngine templateEngine;
+
+    private final WaitlistQueues queues = new WaitlistQueues();
+
+    @Value("${app.reservation.waitlist-offer-minutes:15}")
+    private int offerMinutes = 15;
+
+    @Value("${frontend.base.url:}")
+    private String frontendBaseUrl;
+
+    // Rebuilds the queues from the table and starts reacting to expired holds
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        queues.clear();
+        List<WaitlistEntry> waiting = waitlistEntryRepository.findByStatusAndDateGreaterThanEqualOrderByIdAsc(
+                WaitlistStatus.WAITING, LocalDate.now());
+        waiting.forEach(e -> queues.add(toWaiter(e)));
+        slotHolds.onExpiry(this::onHoldExpired);
+        log.info("Waitlist started with {} waiting entr(ies)", waiting.size());
+    }
+
+    @Override
+    public Response<WaitlistEntryDTO> join(Long resourceId, BookRequest request) {
+        User user = userService.getCurrentLoggedInUser();
+        SlotRange range = SlotRanges.of(request).get(0);
+        if (range.date().isBefore(LocalDate.now())) {
+            throw new BadRequestException("Cannot join the waitlist for a past date");
+        }
+        if (waitlistEntryRepository.existsByResourceIdAndUserIdAndDateAndStartSlotAndEndSlotAndStatus(
+                resourceId, user.getId(), range.date(), range.startSlot(), range.endSlot(), WaitlistStatus.WAITING)) {
+            throw new BadRequestException("You are already on the waitlist for these slots");
+        }
+        // Closed days, out-of-hours slots and unknown units never free up and would block the queue
+        CompiledAvailabilityRules rules = rulesCache.get(resourceId);
+        if (range.unit() > rules.unitsCount()) {
+            throw new BadRequestException("Unit " + range.unit() + " does not exist on this resource");
+        }
+        if ((rules.bookableMask(range.date()) & range.mask()) != range.mask()) {
+            throw new BadRequestException("These slots cannot be booked");
+        }
+        List<SlotRange> placed = availabilityService.assignUnits(resourceId, List.of(range), user.getId());
+        if (!placed.get(0).isAuto() && availabilityService.conflicts(resourceId, placed, user.getId()).isEmpty()) {
+            throw new BadRequestException("These slots are available, book them directly");
+        }
+
+        WaitlistEntry entry = waitlistEntryRepository.save(WaitlistEntry.builder()
+                .resourceId(resourceId)
+                .userId(user.getId())
+                .date(range.date())
+                .startSlot(range.startSlot())
+                .endSlot(range.endSlot())
+                .unit(range.unit())
+                .status(WaitlistStatus.WAITING)
+                .createdAt(LocalDateTime.now())
+                .build());
+        queues.add(toWaiter(entry));
+
+        return Response.<WaitlistEntryDTO>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("You have been added to the waitlist")
+                .data(toDTO(entry))
+                .build();
+    }
+
+    @Override
+    public Response<List<WaitlistEntryDTO>> getMyEntries(Long resourceId) {
+        User user = userService.getCurrentLoggedInUser();
+        List<WaitlistEntryDTO> data = waitlistEntryRepository
+                .findByResourceIdAndUserIdOrderByDateAscStartSlotAsc(resourceId, user.getId()).stream()
+                .map(this::toDTO)
+                .toList();
+        return Response.<List<WaitlistEntryDTO>>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Waitlist entries fetched successfully")
+                .data(data)
+                .build();
+    }
+
+    @Override
+    public Response<?> leave(Long resourceId, Long entryId) {
+        User user = userService.getCurrentLoggedInUser();
+        WaitlistEntry entry = waitlistEntryRepository.findById(entryId)
+                .filter(e -> Objects.equals(e.getResourceId(), resourceId))
+                .orElseThrow(() -> new NotFoundException("Waitlist entry not found"));
+        if (!Objects.equals(entry.getUserId(), user.getId())) {
+            throw new UnauthorizedAccessException("You can leave only your own waitlist entries");
+        }
+
+        WaitlistStatus previous = entry.getStatus();
+        queues.remove(toWaiter(entry));
+        entry.setStatus(WaitlistStatus.CANCELLED);
+        waitlistEntryRepository.save(entry);
+        // A declined offer goes to the next in line
+        if (previous == WaitlistStatus.OFFERED && entry.getHoldId() != null) {
+            SlotHolds.Hold hold = slotHolds.get(entry.getHoldId());
+            if (hold != null && slotHolds.release(hold.id())) {
+                promote(resourceId, hold.ranges());
+            }
+        }
+        return Response.builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("You have left the waitlist")
+                .build();
+    }
+
+    // After the releasing transaction commits, so the freed slots are visible to the availability check
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotsReleased(SlotsReleasedEvent event) {
+        promote(event.resourceId(), event.ranges());
+    }
+
+    @Override
+    public void promote(Long resourceId, List<SlotRange> freed) {
+        if (resourceId == null || freed == null) return;
+        for (SlotRange range : freed) {
+            for (int slot = range.startSlot(); slot < range.endSlot(); slot++) {
+                // Skip waiters whose range is still partly taken, until the slot is gone again
+                WaitlistQueues.Waiter waiter = queues.head(resourceId, range.date(), slot);
+                while (waiter != null && !offer(waiter) && stillFree(resourceId, range, slot)) {
+                    waiter = queues.next(resourceId, range.date(), slot, waiter);
+                }
+            }
+        }
+    }
+
+    private boolean stillFree(Long resourceId, SlotRange freed, int slot) {
+        return freed.isAuto() || availabilityService.isSlotFree(resourceId, freed.date(), freed.unit(), slot);
+    }
+
+    private void onHoldExpired(SlotHolds.Hold hold) {
+        waitlistEntryRepository.findByHoldId(hold.id())
+                .filter(e -> e.getStatus() == WaitlistStatus.OFFERED)
+                .ifPresent(e -> {
+                    e.setStatus(WaitlistStatus.EXPIRED);
+                    waitlistEntryRepository.save(e);
+                });
+        // Whoever held them, the slots are free again
+        promote(hold.resourceId(), hold.ranges());
+    }
+
+    private boolean offer(WaitlistQueues.Waiter waiter) {
+        if (waiter.date().isBefore(LocalDate.now())) {
+            queues.remove(waiter);
+            return false;
+        }
+        SlotHolds.Hold hold;
+        try {
+            hold = reservationService.hold(waiter.resourceId(), List.of(waiter.range()), waiter.userId(),
+                    Duration.ofMinutes(offerMinutes));
+        } catch (SlotUnavailableException e) {
+            // Still partly taken; the waiter keeps its place
+            return false;
+        }
+        WaitlistEntry entry = waitlistEntryRepository.findById(waiter.entryId()).orElse(null);
+        if (!queues.remove(waiter) || entry == null || entry.getStatus() != WaitlistStatus.WAITING) {
+            // Promoted by a concurrent release, or the user left meanwhile
+            slotHolds.release(hold.id());
+            return false;
+        }
+        entry.setStatus(WaitlistStatus.OFFERED);
+        entry.setHoldId(hold.id());
+        entry.setOfferExpiresAt(hold.expiresAt());
+        waitlistEntryRepository.save(entry);
+        log.info("Offered waitlist entry {} on resource {} until {}", entry.getId(), entry.getResourceId(), hold.expiresAt());
+
+        try {
+            sendOffer(entry, hold);
+        } catch (RuntimeException e) {
+            log.warn("Failed to send waitlist offer for entry {}: {}", entry.getId(), e.getMessage());
+        }
+        return true;
+    }
+
+    private void sendOffer(WaitlistEntry entry, SlotHolds.Hold hold) {
+        User user = userRepository.findById(entry.getUserId()).orElse(null);
+        if (user == null || user.getEmail() == null) return;
+        Resource resource = resourceRepository.findById(entry.getResourceId()).orElse(null);
+        String resourceName = resource != null ? resource.getName() : ("#" + entry.getResourceId());
+        SlotRange held = hold.ranges().get(0);
+
+        Context context = new Context();
+        context.setVariable("customerName", user.getName() != null ? user.getName() : "Customer");
+        context.setVariable("resourceName", resourceName);
+        context.setVariable("resourceLocation", resource != null ? resource.getLocation() : "");
+        context.setVariable("date", held.date().toString());
+        context.setVariable("timeRange", SlotGrid.timeOf(held.startSlot()) + " - " + SlotGrid.timeOf(held.endSlot()));
+        context.setVariable("unit", held.unit());
+        context.setVariable("offerMinutes", offerMinutes);
+        context.setVariable("bookingLink", frontendBaseUrl + "/resources/" + entry.getResourceId() + "/book");
+        context.setVariable("currentYear", java.time.Year.now());
+
+        notificationService.sendEmail(NotificationDTO.builder()
+                .recipient(user.getEmail())
+                .subject("A slot you wanted is free - " + resourceName)
+                .body(templateEngine.process("waitlist-offer", context))
+                .isHtml(true)
+                .build());
+    }
+
+    private static WaitlistQueues.Waiter toWaiter(WaitlistEntry e) {
+        return new WaitlistQueues.Waiter(e.getId(), e.getResourceId(), e.getUserId(), e.getDate(),
+                e.getUnit(), e.getStartSlot(), e.getEndSlot());
+    }
+
+    private WaitlistEntryDTO toDTO(WaitlistEntry e) {
+        return WaitlistEntryDTO.builder()
+                .id(e.getId())
+                .resourceId(e.getResourceId())
+                .date(e.getDate().toString())
+                .startTime(SlotGrid.timeOf(e.getStartSlot()))
+                .endTime(SlotGrid.timeOf(e.getEndSlot()))
+                .unit(e.getUnit() == SlotRange.AUTO_UNIT ? null : e.getUnit())
+                .status(e.getStatus())
+                .holdId(e.getStatus() == WaitlistStatus.OFFERED ? e.getHoldId() : null)
+                .offerExpiresAt(e.getStatus() == WaitlistStatus.OFFERED && e.getOfferExpiresAt() != null
+                        ? e.getOfferExpiresAt().toString() : null)
+                .build();
+    }
+}
@@ -1,14 +1,17 @@
 package top.ajasta.AjastaApp.review.controller;
 
 
+import top.ajasta.AjastaApp.reservation.catalog.ResourceCatalogCache;
 import top.ajasta.AjastaApp.response.Response;
 import top.ajasta.AjastaApp.review.dtos.ReviewDTO;
 import top.ajasta.AjastaApp.review.services.ReviewService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -20,6 +23,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 public class ReviewController {
 
     private final ReviewService reviewService;
+    private final ResourceCatalogCache catalogCache;
 
     @PostMapping
     @PreAuthorize("isAuthenticated()")
@@ -29,16 +33,25 @@ public class ReviewController {
         return ResponseEntity.ok(reviewService.createReview(reviewDTO));
     }
 
+    // Revalidated against the catalog ETag; a match is answered with 304 without a query
     @GetMapping("/resource/{resourceId}")
     public ResponseEntity<Response<List<ReviewDTO>>> getReviewsForResource(
-            @PathVariable Long resourceId) {
-        return ResponseEntity.ok(reviewService.getReviewsForResource(resourceId));
+            @PathVariable Long resourceId, WebRequest request) {
+        String etag = catalogCache.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(reviewService.getReviewsForResource(resourceId));
     }
 
     @GetMapping("/resource/average/{resourceId}")
     public ResponseEntity<Response<Double>> getAverageRating(
-            @PathVariable Long resourceId) {
-        return ResponseEntity.ok(reviewService.getAverageRating(resourceId));
+            @PathVariable Long resourceId, WebRequest request) {
+        String etag = catalogCache.etag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(reviewService.getAverageRating(resourceId));
     }
 
     @GetMapping("/resource/eligibility/{resourceId}")
@@ -24,4 +24,8 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Review r WHERE r.user.id = :userId AND r.resource.id = :resourceId")
     boolean existsByUserIdAndResourceId(@Param("userId") Long userId, @Param("resourceId") Long resourceId);
+
+    // Catalog ETag: reviews are only ever added, so (count, highest id) identifies the set
+    @Query("SELECT COUNT(r), MAX(r.id) FROM Review r")
+    List<Object[]> catalogVersion();
 }
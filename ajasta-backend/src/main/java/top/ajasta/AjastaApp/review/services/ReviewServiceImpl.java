@@ -6,6 +6,7 @@ import top.ajasta.AjastaApp.auth_users.services.UserService;
 import top.ajasta.AjastaApp.exceptions.BadRequestException;
 import top.ajasta.AjastaApp.exceptions.NotFoundException;
 import top.ajasta.AjastaApp.order.repository.OrderRepository;
+import top.ajasta.AjastaApp.reservation.catalog.ResourceCatalogCache;
 import top.ajasta.AjastaApp.reservation.entity.Resource;
 import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
 import top.ajasta.AjastaApp.response.Response;
@@ -15,9 +16,12 @@ import top.ajasta.AjastaApp.review.repository.ReviewRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -32,6 +36,10 @@ public class ReviewServiceImpl implements ReviewService {
     private final ModelMapper modelMapper;
     private final UserService userService;
     private final OrderRepository orderRepository;
+    private final ResourceCatalogCache catalogCache;
+
+    @Value("${app.orders.legacy-title-match:true}")
+    private boolean legacyTitleMatch;
 
 
     @Override
@@ -53,7 +61,7 @@ public class ReviewServiceImpl implements ReviewService {
                 .orElseThrow(() -> new NotFoundException("Resource not found"));
 
         // Ensure the user has booked this resource
-        boolean eligible = orderRepository.userHasBookingWithTitleLike(user.getId(), resource.getName());
+        boolean eligible = orderRepository.userHasBookingOfResource(user.getId(), resource.getId(), resource.getName(), legacyTitleMatch);
         if (!eligible) {
             throw new BadRequestException("You can only review resources you've booked");
         }
@@ -83,6 +91,17 @@ public class ReviewServiceImpl implements ReviewService {
                 .build();
 
         Review savedReview = reviewRepository.save(review);
+        // New ETag only once the review is visible, or a reader could pin the old list under it
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    catalogCache.reviewsChanged();
+                }
+            });
+        } else {
+            catalogCache.reviewsChanged();
+        }
 
         // Return response with review data
         ReviewDTO responseDto = modelMapper.map(savedReview, ReviewDTO.class);
@@ -139,7 +158,7 @@ public class ReviewServiceImpl implements ReviewService {
         User user = userService.getCurrentLoggedInUser();
         Resource resource = resourceRepository.findById(resourceId)
                 .orElseThrow(() -> new NotFoundException("Resource not found"));
-        boolean eligible = orderRepository.userHasBookingWithTitleLike(user.getId(), resource.getName());
+        boolean eligible = orderRepository.userHasBookingOfResource(user.getId(), resource.getId(), resource.getName(), legacyTitleMatch);
         return Response.<Boolean>builder()
                 .statusCode(HttpStatus.OK.value())
                 .message("Eligibility retrieved successfully")
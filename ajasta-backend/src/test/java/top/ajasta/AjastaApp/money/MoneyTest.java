@@ -0,0 +1,48 @@
+package top.ajasta.AjastaApp.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void fromBigDecimal_roundsHalfUpToCents() {
+        assertEquals(1999, Money.of(new BigDecimal("19.99")).cents());
+        assertEquals(1000, Money.of(new BigDecimal("10")).cents());
+        assertEquals(501, Money.of(new BigDecimal("5.005")).cents());
+        assertEquals(-250, Money.of(new BigDecimal("-2.50")).cents());
+        assertSame(Money.ZERO, Money.of(null));
+    }
+
+    @Test
+    void toString_matchesBigDecimalAtScaleTwo() {
+        long[] samples = {0, 5, 10, 99, 100, 101, 1500, 3000, 123456789, -1, -50, -1999, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (long cents : samples) {
+            Money m = Money.ofCents(cents);
+            System.out.println("[DEBUG_LOG] " + cents + " -> " + m);
+            assertEquals(BigDecimal.valueOf(cents, 2).toPlainString(), m.toString());
+        }
+        assertEquals("30.00", Money.ofCents(3000).toString());
+        assertEquals("0.05", Money.ofCents(5).toString());
+    }
+
+    @Test
+    void toBigDecimal_keepsScaleTwo() {
+        assertEquals(new BigDecimal("30.00"), Money.ofCents(3000).toBigDecimal());
+        assertEquals(new BigDecimal("0.00"), Money.ZERO.toBigDecimal());
+    }
+
+    @Test
+    void arithmetic_isExact() {
+        Money perSlot = Money.of(new BigDecimal("15.00"));
+        assertEquals(Money.ofCents(4500), perSlot.times(3));
+        assertEquals(Money.ofCents(1510), perSlot.plus(Money.ofCents(10)));
+        assertEquals(Money.ofCents(-10), Money.ofCents(0).minus(Money.ofCents(10)));
+        assertTrue(perSlot.compareTo(Money.ofCents(1499)) > 0);
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MAX_VALUE).plus(Money.ofCents(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MAX_VALUE / 2 + 1).times(2));
+    }
+}
@@ -0,0 +1,123 @@
+package top.ajasta.AjastaApp.order.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import top.ajasta.AjastaApp.auth_users.entity.User;
+import top.ajasta.AjastaApp.auth_users.repository.UserRepository;
+import top.ajasta.AjastaApp.enums.OrderStatus;
+import top.ajasta.AjastaApp.order.entity.Order;
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.config.import=",
+    "DB_URL=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "DB_USERNAME=sa",
+    "DB_PASSWORD="
+})
+@Transactional
+class OrderSpecificationsTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long managerId;
+    private final Set<Long> visible = new LinkedHashSet<>();
+
+    @BeforeEach
+    void seed() {
+        User manager = userRepository.save(User.builder().name("Manager").email("manager@orderscope").password("x").build());
+        managerId = manager.getId();
+        Resource north = resourceRepository.save(Resource.builder()
+                .name("North Scope Court").type(ResourceType.TURF_COURT).managers(new ArrayList<>(List.of(manager))).build());
+        Resource south = resourceRepository.save(Resource.builder()
+                .name("South Scope Court").type(ResourceType.TURF_COURT).build());
+
+        // Interleaved, so scoped and legacy rows alternate in id order
+        for (int i = 0; i < 7; i++) {
+            visible.add(save(north.getId(), "Booking: North Scope Court", i % 2 == 0 ? OrderStatus.CONFIRMED : OrderStatus.INITIALIZED));
+            save(south.getId(), "Booking: South Scope Court", OrderStatus.CONFIRMED);
+            if (i < 4) visible.add(save(null, "Booking: north scope court (2 slot(s))", OrderStatus.CONFIRMED));
+            if (i < 2) save(null, "Booking: South Scope Court", OrderStatus.CONFIRMED);
+        }
+    }
+
+    private Long save(Long resourceId, String title, OrderStatus status) {
+        return orderRepository.save(Order.builder()
+                .resourceId(resourceId)
+                .booking(true)
+                .bookingTitle(title)
+                .orderStatus(status)
+                .build()).getId();
+    }
+
+    private Page<Order> page(Specification<Order> spec, int page, int size) {
+        return orderRepository.findAll(spec, PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "id")));
+    }
+
+    @Test
+    void managerPages_areCountedAndOrderedAcrossScopedAndLegacyOrders() {
+        Specification<Order> spec = OrderSpecifications.visibleToManager(managerId);
+        List<Long> seen = new ArrayList<>();
+        for (int p = 0; p < 3; p++) {
+            Page<Order> page = page(spec, p, 4);
+            assertEquals(11, page.getTotalElements());
+            assertEquals(3, page.getTotalPages());
+            page.getContent().forEach(o -> seen.add(o.getId()));
+        }
+
+        List<Long> expected = new ArrayList<>(visible);
+        expected.sort((a, b) -> Long.compare(b, a));
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void statusAndTitleFilters_narrowTheCount() {
+        Specification<Order> confirmed = OrderSpecifications.visibleToManager(managerId)
+                .and(OrderSpecifications.statusIs(OrderStatus.CONFIRMED));
+        assertEquals(8, page(confirmed, 0, 2).getTotalElements());
+
+        Specification<Order> legacy = OrderSpecifications.visibleToManager(managerId)
+                .and(OrderSpecifications.bookingTitleContains("slot(s)"));
+        assertEquals(4, page(legacy, 1, 2).getTotalElements());
+        assertEquals(0, page(OrderSpecifications.visibleToManager(managerId)
+                .and(OrderSpecifications.bookingTitleContains("100%")), 0, 2).getTotalElements());
+    }
+
+    @Test
+    void managerOfNothing_seesNoOrders() {
+        User other = userRepository.save(User.builder().name("Other").email("other@orderscope").password("x").build());
+
+        assertEquals(0, page(OrderSpecifications.visibleToManager(other.getId()), 0, 10).getTotalElements());
+    }
+}
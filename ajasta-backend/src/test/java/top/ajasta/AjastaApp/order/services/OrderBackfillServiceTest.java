@@ -0,0 +1,124 @@
+package top.ajasta.AjastaApp.order.services;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import top.ajasta.AjastaApp.enums.OrderStatus;
+import top.ajasta.AjastaApp.order.dtos.BackfillStatusDTO;
+import top.ajasta.AjastaApp.order.entity.Order;
+import top.ajasta.AjastaApp.order.repository.OrderRepository;
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.config.import=",
+    "app.orders.backfill-chunk-size=2",
+    "DB_URL=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "DB_USERNAME=sa",
+    "DB_PASSWORD="
+})
+@Transactional
+class OrderBackfillServiceTest {
+
+    @Autowired
+    private OrderBackfillServiceImpl backfillService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long courtA;
+    private Long courtB;
+    private final List<Long> orders = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        courtA = resource("Backfill Court A");
+        courtB = resource("Backfill Court B");
+        resource("Backfill Twin");
+        resource("Backfill Twin");
+
+        orders.add(save(null, true, "Booking: Backfill Court A (2 slot(s))", OrderStatus.CONFIRMED));
+        orders.add(save(null, true, "Booking: backfill court b", OrderStatus.CANCELLED));
+        orders.add(save(null, true, "Booking: Resource #" + courtA, OrderStatus.INITIALIZED));
+        orders.add(save(null, true, "Booking: Backfill Twin", OrderStatus.CONFIRMED));
+        orders.add(save(null, true, "Booking: Backfill Nowhere", OrderStatus.CONFIRMED));
+        orders.add(save(null, false, "Booking: Backfill Court A", OrderStatus.CONFIRMED));
+        orders.add(save(courtB, true, "Booking: Backfill Court A", OrderStatus.CONFIRMED));
+        entityManager.flush();
+    }
+
+    private Long resource(String name) {
+        return resourceRepository.save(Resource.builder().name(name).type(ResourceType.TURF_COURT).build()).getId();
+    }
+
+    private Long save(Long resourceId, boolean booking, String title, OrderStatus status) {
+        return orderRepository.save(Order.builder()
+                .resourceId(resourceId)
+                .booking(booking)
+                .bookingTitle(title)
+                .orderStatus(status)
+                .build()).getId();
+    }
+
+    private List<Long> resourceIds() {
+        entityManager.clear();
+        return orders.stream().map(id -> orderRepository.findById(id).orElseThrow().getResourceId()).toList();
+    }
+
+    @Test
+    void run_linksResolvableLegacyOrdersAndLeavesTheRestAlone() {
+        backfillService.runChunks();
+
+        assertEquals(Arrays.asList(courtA, courtB, courtA, null, null, null, courtB), resourceIds());
+
+        BackfillStatusDTO status = backfillService.status().getData();
+        System.out.println("[DEBUG_LOG] " + status);
+        assertTrue(status.getFinished());
+        assertFalse(status.getRunning());
+        assertTrue(status.getLastId() >= orders.get(4));
+        assertTrue(status.getScanned() >= 5);
+        assertTrue(status.getLinked() >= 3);
+    }
+
+    @Test
+    void rerun_resumesAfterTheCheckpoint() {
+        backfillService.runChunks();
+        BackfillStatusDTO first = backfillService.status().getData();
+
+        Long later = save(null, true, "Booking: Backfill Court B (1 slot(s))", OrderStatus.CONFIRMED);
+        entityManager.flush();
+        backfillService.runChunks();
+        BackfillStatusDTO second = backfillService.status().getData();
+
+        // Only the new order is scanned; the two unmatched ones before the checkpoint are not read again
+        assertEquals(first.getScanned() + 1, second.getScanned());
+        assertEquals(first.getLinked() + 1, second.getLinked());
+        entityManager.clear();
+        assertEquals(courtB, orderRepository.findById(later).orElseThrow().getResourceId());
+    }
+}
@@ -0,0 +1,44 @@
+package top.ajasta.AjastaApp.order.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceTitleIndexTest {
+
+    private static ResourceTitleIndex sample() {
+        ResourceTitleIndex index = new ResourceTitleIndex();
+        index.put(1L, "City Turf Court A");
+        index.put(2L, "Salon (Chair 2)");
+        index.put(3L, "Twin Court");
+        index.put(4L, "twin court ");
+        index.put(5L, null);
+        return index;
+    }
+
+    @Test
+    void resolve_matchesTheTitlesBookingsWereWrittenWith() {
+        ResourceTitleIndex index = sample();
+
+        assertEquals(1L, index.resolve("Booking: City Turf Court A"));
+        assertEquals(1L, index.resolve("booking: city turf court a (3 slot(s))"));
+        assertEquals(1L, index.resolve("Booking: City Turf Court A (4 slot(s) across 2 day(s))"));
+        assertEquals(1L, index.resolve("Booking: City Turf Court A (10 occurrence(s))"));
+        assertEquals(2L, index.resolve("Booking: Salon (Chair 2)"));
+        assertEquals(2L, index.resolve("Booking: Salon (Chair 2) (1 slot(s))"));
+        assertEquals(5L, index.resolve("Booking: Resource #5 (2 slot(s))"));
+    }
+
+    @Test
+    void resolve_leavesAmbiguousAndUnknownTitlesUnmatched() {
+        ResourceTitleIndex index = sample();
+
+        assertNull(index.resolve("Booking: Twin Court"));
+        assertNull(index.resolve("Booking: City Turf Court"));
+        assertNull(index.resolve("City Turf Court A"));
+        assertNull(index.resolve("Booking: Resource #99"));
+        assertNull(index.resolve("Booking: Resource #x"));
+        assertNull(index.resolve(null));
+        assertEquals(5, index.size());
+    }
+}
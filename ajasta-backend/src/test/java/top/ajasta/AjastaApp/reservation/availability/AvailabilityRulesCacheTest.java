@@ -0,0 +1,56 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import org.junit.jupiter.api.Test;
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AvailabilityRulesCacheTest {
+
+    private static final LocalDateTime BEFORE = LocalDateTime.of(2025, 1, 10, 9, 0);
+    private static final LocalDateTime AFTER = BEFORE.plusMinutes(5);
+
+    private final ResourceRepository resourceRepository = mock(ResourceRepository.class);
+    private final AvailabilityRulesCache cache = new AvailabilityRulesCache(resourceRepository);
+
+    private static Resource resource(LocalDateTime updatedAt, int closeHour) {
+        return Resource.builder()
+                .id(7L)
+                .name("Court")
+                .unitsCount(1)
+                .openTime(LocalTime.of(8, 0))
+                .closeTime(LocalTime.of(closeHour, 0))
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    @Test
+    void staleRowReadBeforeAnEvict_isNotCachedAgain() {
+        when(resourceRepository.findById(7L)).thenReturn(Optional.of(resource(AFTER, 22)));
+        long seen = cache.generation();
+        Resource stale = resource(BEFORE, 20);
+
+        // The schedule is edited while the stale row is being read
+        cache.evict(7L);
+        assertEquals(BEFORE, cache.get(stale, seen).version());
+
+        assertEquals(AFTER, cache.get(7L).version());
+        verify(resourceRepository).findById(7L);
+    }
+
+    @Test
+    void olderVersion_neverReplacesNewerRules() {
+        CompiledAvailabilityRules current = cache.get(resource(AFTER, 22));
+
+        assertEquals(BEFORE, cache.get(resource(BEFORE, 20)).version());
+
+        assertSame(current, cache.get(7L));
+        verifyNoInteractions(resourceRepository);
+    }
+}
@@ -0,0 +1,47 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingDetailsParserTest {
+
+    @Test
+    void parsesSingleSlotFormat() {
+        String details = "Date: 2025-01-10\nTime: 09:00 - 09:30\nUnit: 2\nPrice per slot: 15.00\nTotal: 15.00";
+
+        List<SlotRange> ranges = BookingDetailsParser.parse(details);
+
+        assertEquals(List.of(new SlotRange(LocalDate.of(2025, 1, 10), 2, 18, 19)), ranges);
+    }
+
+    @Test
+    void parsesBatchFormat() {
+        String details = "Date: 2025-01-10\nTotal slots: 2\n- 09:00 - 09:30 | Unit 1\n- 09:30 - 10:00 | Unit 3\nPrice per slot: 15.00\nTotal: 30.00";
+
+        List<SlotRange> ranges = BookingDetailsParser.parse(details);
+
+        assertEquals(2, ranges.size());
+        assertEquals(new SlotRange(LocalDate.of(2025, 1, 10), 3, 19, 20), ranges.get(1));
+    }
+
+    @Test
+    void parsesMultiDayFormat_andFiltersByDate() {
+        String details = "Date: 2025-01-10\n- 09:00 - 09:30 | Unit 1\nDate: 2025-01-11\n- 09:30 - 10:00 | Unit 1\n- 10:00 - 10:30 | Unit 2\n"
+                + "Total slots: 3\nPrice per slot: 15.00\nTotal: 45.00";
+
+        assertEquals(3, BookingDetailsParser.parse(details).size());
+        List<SlotRange> second = BookingDetailsParser.parse(details, LocalDate.of(2025, 1, 11));
+        assertEquals(2, second.size());
+        assertTrue(second.stream().allMatch(r -> r.date().equals(LocalDate.of(2025, 1, 11))));
+    }
+
+    @Test
+    void ignoresMalformedText() {
+        assertTrue(BookingDetailsParser.parse(null).isEmpty());
+        assertTrue(BookingDetailsParser.parse("Date: soon\n- whenever").isEmpty());
+    }
+}
@@ -0,0 +1,60 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import org.junit.jupiter.api.Test;
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledAvailabilityRulesTest {
+
+    private Resource resource(String weekdays, String dates, String ranges) {
+        return Resource.builder()
+                .id(7L)
+                .name("Court")
+                .type(ResourceType.TURF_COURT)
+                .unitsCount(2)
+                .openTime(LocalTime.of(8, 0))
+                .closeTime(LocalTime.of(20, 0))
+                .unavailableWeekdays(weekdays)
+                .unavailableDates(dates)
+                .dailyUnavailableRanges(ranges)
+                .build();
+    }
+
+    @Test
+    void weekdayIndex_matchesBookingPageConvention() {
+        // 2025-01-12 is a Sunday, 2025-01-18 a Saturday
+        assertEquals(0, CompiledAvailabilityRules.weekdayOf(LocalDate.of(2025, 1, 12).toEpochDay()));
+        assertEquals(6, CompiledAvailabilityRules.weekdayOf(LocalDate.of(2025, 1, 18).toEpochDay()));
+        assertEquals(4, CompiledAvailabilityRules.weekdayOf(0));
+    }
+
+    @Test
+    void closedWeekdaysAndDates_blockTheWholeDay() {
+        CompiledAvailabilityRules rules = CompiledAvailabilityRules.compile(resource("0, 6,x", "2025-01-14,bad,2025-01-13", null));
+
+        assertTrue(rules.isClosed(LocalDate.of(2025, 1, 12)));
+        assertTrue(rules.isClosed(LocalDate.of(2025, 1, 13)));
+        assertTrue(rules.isClosed(LocalDate.of(2025, 1, 14)));
+        assertFalse(rules.isClosed(LocalDate.of(2025, 1, 15)));
+        assertEquals(0L, rules.bookableMask(LocalDate.of(2025, 1, 18)));
+    }
+
+    @Test
+    void dailyRanges_blockSlotsStartingInside() {
+        CompiledAvailabilityRules rules = CompiledAvailabilityRules.compile(resource(null, null, "12:00-13:30; 16:15-17:00;junk"));
+
+        long bookable = rules.bookableMask(LocalDate.of(2025, 1, 15));
+        assertEquals(0L, bookable & SlotGrid.rangeMask(24, 27));
+        assertNotEquals(0L, bookable & SlotGrid.rangeMask(27, 28));
+        // 16:00 starts before the range, 16:30 starts inside it
+        assertNotEquals(0L, bookable & SlotGrid.rangeMask(32, 33));
+        assertEquals(0L, bookable & SlotGrid.rangeMask(33, 34));
+        assertEquals(24 - 3 - 1, Long.bitCount(bookable));
+        assertEquals(2, rules.unitsCount());
+    }
+}
@@ -0,0 +1,127 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DayOccupancyCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2030, 6, 3);
+
+    private final AtomicLong now = new AtomicLong(TODAY.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    private final AtomicInteger builds = new AtomicInteger();
+
+    private DayOccupancy build() {
+        builds.incrementAndGet();
+        return new DayOccupancy(1);
+    }
+
+    @Test
+    void get_buildsOnceUntilTheDayExpires() {
+        DayOccupancyCache cache = new DayOccupancyCache(10, 60_000, now::get);
+
+        DayOccupancy first = cache.get(1L, TODAY, this::build);
+        assertSame(first, cache.get(1L, TODAY, this::build));
+        assertEquals(1, builds.get());
+
+        now.addAndGet(60_000);
+        assertNull(cache.get(1L, TODAY));
+        assertNotSame(first, cache.get(1L, TODAY, this::build));
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    void dayBeingBuilt_doesNotBlockOtherKeysAndIsBuiltOnce() throws Exception {
+        DayOccupancyCache cache = new DayOccupancyCache(10, 60_000, now::get);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<DayOccupancy> slow = CompletableFuture.supplyAsync(() -> cache.get(1L, TODAY, () -> {
+            loading.countDown();
+            await(release);
+            return build();
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<DayOccupancy> waiter = CompletableFuture.supplyAsync(() -> cache.get(1L, TODAY, this::build));
+
+        // Any other day is built while the slow load is still reading
+        assertNotNull(cache.get(2L, TODAY, this::build));
+        assertEquals(1, builds.get());
+
+        release.countDown();
+        assertSame(slow.get(5, TimeUnit.SECONDS), waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    void dayRemovedWhileBeingBuilt_isNotCached() throws Exception {
+        DayOccupancyCache cache = new DayOccupancyCache(10, 60_000, now::get);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<DayOccupancy> stale = CompletableFuture.supplyAsync(() -> cache.get(1L, TODAY, () -> {
+            loading.countDown();
+            await(release);
+            return build();
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        // A write commits and drops the day while the load above still sees the old rows
+        cache.remove(1L, TODAY);
+        release.countDown();
+
+        assertNotNull(stale.get(5, TimeUnit.SECONDS));
+        assertFalse(cache.contains(1L, TODAY));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void putIfAbsent_keepsALiveDay() {
+        DayOccupancyCache cache = new DayOccupancyCache(10, 60_000, now::get);
+        DayOccupancy live = cache.get(1L, TODAY, this::build);
+
+        cache.putIfAbsent(1L, TODAY, new DayOccupancy(1));
+        assertSame(live, cache.get(1L, TODAY));
+        cache.remove(1L, TODAY);
+        assertFalse(cache.contains(1L, TODAY));
+    }
+
+    @Test
+    void exceedingTheBound_sweepsPastDaysThenTheLeastRecentlyBuilt() {
+        DayOccupancyCache cache = new DayOccupancyCache(10, 60_000, now::get);
+        for (int i = 1; i <= 4; i++) {
+            cache.get(1L, TODAY.minusDays(i), this::build);
+        }
+        for (int i = 0; i < 7; i++) {
+            now.incrementAndGet();
+            cache.get(2L, TODAY.plusDays(i), this::build);
+        }
+
+        // 11 > 10: the four past days go, the seven others fit within 90% of the bound
+        assertEquals(7, cache.size());
+        assertFalse(cache.contains(1L, TODAY.minusDays(1)));
+
+        for (int i = 7; i < 11; i++) {
+            now.incrementAndGet();
+            cache.get(2L, TODAY.plusDays(i), this::build);
+        }
+        assertEquals(9, cache.size());
+        assertFalse(cache.contains(2L, TODAY));
+        assertFalse(cache.contains(2L, TODAY.plusDays(1)));
+        assertTrue(cache.contains(2L, TODAY.plusDays(10)));
+    }
+}
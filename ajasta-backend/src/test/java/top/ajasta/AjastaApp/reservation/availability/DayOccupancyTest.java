@@ -0,0 +1,57 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DayOccupancyTest {
+
+    @Test
+    void slotGrid_mapsTimesToHalfHourSlots() {
+        assertEquals(18, SlotGrid.startSlotOf("09:00"));
+        assertEquals(19, SlotGrid.startSlotOf("09:45"));
+        assertEquals(20, SlotGrid.endSlotOf("09:45"));
+        assertEquals(48, SlotGrid.endSlotOf("00:00"));
+        assertEquals("09:30", SlotGrid.timeOf(19));
+        assertArrayEquals(new int[]{2, 3, 4}, SlotGrid.slotsOf(SlotGrid.rangeMask(2, 5)));
+    }
+
+    @Test
+    void openMask_coversWorkingHoursOnly() {
+        long open = SlotGrid.openMask(LocalTime.of(8, 0), LocalTime.of(22, 0));
+        assertEquals(28, Long.bitCount(open));
+        assertEquals(16, Long.numberOfTrailingZeros(open));
+        // Missing hours fall back to 08:00-20:00 like the booking page
+        assertEquals(SlotGrid.rangeMask(16, 40), SlotGrid.openMask(null, null));
+    }
+
+    @Test
+    void occupyAndRelease_trackEachUnitIndependently() {
+        DayOccupancy day = new DayOccupancy(2);
+        SlotRange morning = new SlotRange(LocalDate.of(2025, 1, 10), 1, 18, 20);
+
+        day.occupy(morning);
+
+        assertFalse(day.isFree(1, 18));
+        assertFalse(day.isRangeFree(1, 17, 19));
+        assertTrue(day.isRangeFree(1, 20, 22));
+        assertTrue(day.isRangeFree(2, 18, 20));
+
+        day.release(morning);
+        assertTrue(day.isRangeFree(1, 18, 20));
+    }
+
+    @Test
+    void tryOccupy_rejectsOverlapAndUnknownUnits() {
+        DayOccupancy day = new DayOccupancy(1);
+
+        assertTrue(day.tryOccupy(1, SlotGrid.rangeMask(18, 20)));
+        assertFalse(day.tryOccupy(1, SlotGrid.rangeMask(19, 21)));
+        assertTrue(day.tryOccupy(1, SlotGrid.rangeMask(20, 21)));
+        assertFalse(day.tryOccupy(2, SlotGrid.rangeMask(0, 1)));
+        assertFalse(day.isFree(3, 0));
+    }
+}
@@ -0,0 +1,76 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final List<String> expired = new ArrayList<>();
+    private final HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 8, expired::add, now::get);
+
+    @Test
+    void timeoutsFireOnTheirTick() {
+        wheel.schedule("a", 250, TimeUnit.MILLISECONDS);
+        wheel.schedule("b", 100, TimeUnit.MILLISECONDS);
+
+        advance(99);
+        assertEquals(List.of(), expired);
+        advance(1);
+        assertEquals(List.of("b"), expired);
+        advance(200);
+        assertEquals(List.of("b", "a"), expired);
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    void timeoutsBeyondOneRevolutionWaitForTheirRound() {
+        // 8 buckets of 100 ms: 2.5 s is three revolutions out
+        wheel.schedule("late", 2_500, TimeUnit.MILLISECONDS);
+        wheel.schedule("early", 500, TimeUnit.MILLISECONDS);
+
+        advance(1_000);
+        assertEquals(List.of("early"), expired);
+        advance(1_400);
+        assertEquals(List.of("early"), expired);
+        advance(100);
+        assertEquals(List.of("early", "late"), expired);
+    }
+
+    @Test
+    void cancelledTimeoutsNeverFire() {
+        HashedTimingWheel<String>.Timeout t = wheel.schedule("x", 200, TimeUnit.MILLISECONDS);
+        wheel.schedule("y", 200, TimeUnit.MILLISECONDS);
+        assertTrue(t.cancel());
+        assertFalse(t.cancel());
+        assertEquals(1, wheel.pending());
+
+        advance(300);
+        assertEquals(List.of("y"), expired);
+        assertEquals(0, wheel.pending());
+    }
+
+    @Test
+    void manyTimeoutsAreCheap() {
+        int n = 50_000;
+        for (int i = 0; i < n; i++) {
+            wheel.schedule("h" + i, 100 + (i % 600_000), TimeUnit.MILLISECONDS);
+        }
+        long t0 = System.nanoTime();
+        advance(600_000);
+        long ms = (System.nanoTime() - t0) / 1_000_000;
+        System.out.println("[DEBUG_LOG] expired " + expired.size() + " timeouts in " + ms + " ms");
+        assertEquals(n, expired.size());
+        assertEquals(0, wheel.pending());
+    }
+
+    private void advance(long millis) {
+        wheel.advanceTo(now.addAndGet(millis));
+    }
+}
@@ -0,0 +1,51 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccupancyTallyTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2030, 3, 4);
+
+    @Test
+    void booking_countsEachSlotOfItsWeekdayAndTheDay() {
+        OccupancyTally tally = new OccupancyTally()
+                .add(new SlotRange(MONDAY, 1, 36, 38), 1)
+                .add(new SlotRange(MONDAY, 2, 37, 39), 1);
+
+        assertEquals(1, tally.slot(DayOfWeek.MONDAY, 36));
+        assertEquals(2, tally.slot(DayOfWeek.MONDAY, 37));
+        assertEquals(1, tally.slot(DayOfWeek.MONDAY, 38));
+        assertEquals(0, tally.slot(DayOfWeek.TUESDAY, 37));
+        assertEquals(Map.of(MONDAY, 4L), tally.days());
+    }
+
+    @Test
+    void cancellation_cancelsTheBookingOut() {
+        SlotRange range = new SlotRange(MONDAY, 1, 16, 20);
+        OccupancyTally tally = new OccupancyTally().add(range, 1).add(range, -1);
+
+        assertTrue(tally.isEmpty());
+        assertTrue(tally.days().isEmpty());
+    }
+
+    @Test
+    void series_countsEveryOccurrence() {
+        SeriesPattern pattern = SeriesPattern.of(MONDAY, 2, null, 3);
+        OccupancyTally tally = new OccupancyTally().addSeries(new SlotRange(MONDAY, 1, 20, 22), pattern, 1);
+        System.out.println("[DEBUG_LOG] series days " + tally.days());
+
+        assertEquals(3, tally.slot(DayOfWeek.MONDAY, 20));
+        assertEquals(3, tally.slot(DayOfWeek.MONDAY, 21));
+        assertEquals(0, tally.slot(DayOfWeek.MONDAY, 22));
+        assertEquals(Map.of(MONDAY, 2L, MONDAY.plusWeeks(2), 2L, MONDAY.plusWeeks(4), 2L), tally.days());
+
+        tally.addSeries(new SlotRange(MONDAY, 1, 20, 22), pattern, -1);
+        assertTrue(tally.isEmpty());
+    }
+}
@@ -0,0 +1,46 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import org.junit.jupiter.api.Test;
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ResourceTypeIndexTest {
+
+    private final ResourceRepository resourceRepository = mock(ResourceRepository.class);
+    private final ResourceTypeIndex index = new ResourceTypeIndex(resourceRepository, new AvailabilityRulesCache(resourceRepository));
+
+    private static Resource court(long id, String name) {
+        return Resource.builder()
+                .id(id)
+                .name(name)
+                .type(ResourceType.TURF_COURT)
+                .unitsCount(1)
+                .openTime(LocalTime.of(8, 0))
+                .closeTime(LocalTime.of(22, 0))
+                .build();
+    }
+
+    @Test
+    void buildOvertakenByAnInvalidate_isNotPublished() {
+        when(resourceRepository.findByActiveTrue())
+                .thenAnswer(inv -> {
+                    // A resource is renamed while the stale rows are being read
+                    index.invalidate();
+                    return List.of(court(1L, "Old name"));
+                })
+                .thenReturn(List.of(court(1L, "New name")));
+
+        assertEquals("Old name", index.resourcesOf(ResourceType.TURF_COURT).get(0).name());
+
+        assertEquals("New name", index.resourcesOf(ResourceType.TURF_COURT).get(0).name());
+        assertEquals("New name", index.resourcesOf(ResourceType.TURF_COURT).get(0).name());
+        verify(resourceRepository, times(2)).findByActiveTrue();
+    }
+}
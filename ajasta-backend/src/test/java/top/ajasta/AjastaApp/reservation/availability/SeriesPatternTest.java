@@ -0,0 +1,63 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeriesPatternTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 6, 2);
+
+    @Test
+    void of_stopsAtCountOrUntilWhicheverComesFirst() {
+        assertEquals(MONDAY.plusWeeks(9), SeriesPattern.of(MONDAY, 1, null, 10).last());
+        // Until falls mid-period: the last occurrence before it
+        assertEquals(MONDAY.plusWeeks(4), SeriesPattern.of(MONDAY, 2, MONDAY.plusWeeks(5), null).last());
+        assertEquals(MONDAY.plusWeeks(2), SeriesPattern.of(MONDAY, 1, MONDAY.plusWeeks(2), 10).last());
+        assertEquals(3, SeriesPattern.of(MONDAY, 2, MONDAY.plusWeeks(5), null).count());
+        assertThrows(IllegalArgumentException.class, () -> SeriesPattern.of(MONDAY, 1, null, null));
+        assertThrows(IllegalArgumentException.class, () -> SeriesPattern.of(MONDAY, 1, MONDAY.minusDays(1), null));
+    }
+
+    @Test
+    void occursOn_isACongruenceWithinTheSpan() {
+        SeriesPattern biweekly = SeriesPattern.of(MONDAY, 2, null, 5);
+        assertTrue(biweekly.occursOn(MONDAY));
+        assertTrue(biweekly.occursOn(MONDAY.plusWeeks(8)));
+        assertFalse(biweekly.occursOn(MONDAY.plusWeeks(1)));
+        assertFalse(biweekly.occursOn(MONDAY.plusDays(14 + 1)));
+        assertFalse(biweekly.occursOn(MONDAY.minusWeeks(2)));
+        assertFalse(biweekly.occursOn(MONDAY.plusWeeks(10)));
+    }
+
+    @Test
+    void occurrencesBetween_onlyExpandsTheWindow() {
+        SeriesPattern weekly = SeriesPattern.of(MONDAY, 1, null, 52);
+        assertEquals(List.of(MONDAY.plusWeeks(1), MONDAY.plusWeeks(2)),
+                weekly.occurrencesBetween(MONDAY.plusDays(1), MONDAY.plusDays(20)));
+        assertEquals(List.of(), weekly.occurrencesBetween(MONDAY.plusWeeks(60), MONDAY.plusWeeks(61)));
+        assertEquals(MONDAY.plusWeeks(51), weekly.firstOnOrAfter(MONDAY.plusWeeks(51)));
+        assertNull(weekly.firstOnOrAfter(MONDAY.plusWeeks(51).plusDays(1)));
+    }
+
+    @Test
+    void firstCommon_findsTheFirstSharedDate() {
+        SeriesPattern weekly = SeriesPattern.of(MONDAY, 1, null, 20);
+        SeriesPattern evenWeeks = SeriesPattern.of(MONDAY.plusWeeks(4), 2, null, 5);
+        SeriesPattern oddWeeks = SeriesPattern.of(MONDAY.plusWeeks(1), 2, null, 10);
+        SeriesPattern tuesdays = SeriesPattern.of(MONDAY.plusDays(1), 1, null, 20);
+
+        assertEquals(MONDAY.plusWeeks(4), weekly.firstCommon(evenWeeks));
+        assertEquals(MONDAY.plusWeeks(4), evenWeeks.firstCommon(weekly));
+        assertNull(evenWeeks.firstCommon(oddWeeks));
+        assertNull(weekly.firstCommon(tuesdays));
+        // Spans do not overlap
+        assertNull(SeriesPattern.of(MONDAY, 1, null, 2).firstCommon(SeriesPattern.of(MONDAY.plusWeeks(5), 1, null, 2)));
+        // Every 3 weeks vs every 2 weeks meets every 6 weeks
+        assertEquals(MONDAY.plusWeeks(6), SeriesPattern.of(MONDAY.plusWeeks(3), 3, null, 10)
+                .firstCommon(SeriesPattern.of(MONDAY.plusWeeks(2), 2, null, 10)));
+    }
+}
@@ -0,0 +1,127 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotHoldsTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 10);
+
+    private final AtomicLong now = new AtomicLong(0);
+    private final SlotHolds holds = new SlotHolds(1000, 64, now::get);
+
+    @Test
+    void place_marksSlotsAndRejectsOverlaps() {
+        SlotHolds.Hold h = holds.place(1L, 7L, List.of(new SlotRange(DAY, 1, 20, 22)), Duration.ofMinutes(5));
+
+        assertNotNull(h);
+        assertEquals(SlotGrid.rangeMask(20, 22), holds.heldMask(1L, DAY, 1));
+        assertEquals(SlotGrid.rangeMask(20, 22), holds.ownMask(1L, DAY, 1, 7L));
+        assertEquals(0L, holds.ownMask(1L, DAY, 1, 8L));
+        assertNull(holds.place(1L, 8L, List.of(new SlotRange(DAY, 1, 21, 23)), Duration.ofMinutes(5)));
+        // A failed multi-range hold leaves nothing behind
+        assertNull(holds.place(1L, 8L, List.of(new SlotRange(DAY, 2, 0, 2), new SlotRange(DAY, 1, 19, 21)), Duration.ofMinutes(5)));
+        assertEquals(0L, holds.heldMask(1L, DAY, 2));
+        assertEquals(1, holds.size());
+    }
+
+    @Test
+    void countOf_countsTheOwnersLiveHoldsOnEveryResource() {
+        SlotHolds.Hold first = holds.place(1L, 7L, List.of(new SlotRange(DAY, 1, 20, 22)), Duration.ofMinutes(5));
+        holds.place(2L, 7L, List.of(new SlotRange(DAY, 1, 20, 22)), Duration.ofMinutes(5));
+        holds.place(1L, 8L, List.of(new SlotRange(DAY, 2, 20, 22)), Duration.ofMinutes(5));
+
+        assertEquals(2, holds.countOf(7L));
+        holds.release(first.id());
+        assertEquals(1, holds.countOf(7L));
+        assertEquals(0, holds.countOf(9L));
+        assertEquals(0, holds.countOf(null));
+    }
+
+    @Test
+    void holdsExpireAfterTheirTtl() {
+        SlotHolds.Hold h = holds.place(1L, 7L, List.of(new SlotRange(DAY, 1, 20, 22)), Duration.ofSeconds(30));
+
+        now.set(29_000);
+        holds.advanceTo(now.get());
+        assertNotNull(holds.get(h.id()));
+
+        now.set(30_000);
+        holds.advanceTo(now.get());
+        assertNull(holds.get(h.id()));
+        assertEquals(0L, holds.heldMask(1L, DAY, 1));
+        assertTrue(holds.holdsOf(1L, 7L).isEmpty());
+    }
+
+    @Test
+    void expiryListeners_seeExpiredHoldsOnly() {
+        List<String> expired = new ArrayList<>();
+        holds.onExpiry(h -> expired.add(h.id()));
+        SlotHolds.Hold released = holds.place(1L, 7L, List.of(new SlotRange(DAY, 1, 20, 22)), Duration.ofSeconds(30));
+        SlotHolds.Hold timedOut = holds.place(1L, 8L, List.of(new SlotRange(DAY, 2, 20, 22)), Duration.ofSeconds(30));
+        holds.release(released.id());
+
+        now.set(30_000);
+        holds.advanceTo(now.get());
+
+        assertEquals(List.of(timedOut.id()), expired);
+        assertTrue(holds.heldRanges(1L, null).isEmpty());
+    }
+
+    @Test
+    void slowExpiryListener_doesNotHoldUpLaterExpiries() throws InterruptedException {
+        SlotHolds live = new SlotHolds(10, 64);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch bothNotified = new CountDownLatch(2);
+        try {
+            live.onExpiry(h -> {
+                bothNotified.countDown();
+                // Stands in for the waitlist's database work
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            live.place(1L, 7L, List.of(new SlotRange(DAY, 1, 20, 22)), Duration.ofMillis(20));
+            live.place(1L, 8L, List.of(new SlotRange(DAY, 2, 20, 22)), Duration.ofMillis(60));
+
+            assertTrue(bothNotified.await(5, TimeUnit.SECONDS), "second expiry waited for the first listener");
+            assertTrue(live.isEmpty());
+        } finally {
+            release.countDown();
+            live.shutdown();
+        }
+    }
+
+    @Test
+    void heldRanges_skipsTheGivenOwner() {
+        holds.place(1L, 7L, List.of(new SlotRange(DAY, 1, 20, 22)), Duration.ofMinutes(5));
+        holds.place(1L, 8L, List.of(new SlotRange(DAY, 2, 30, 32)), Duration.ofMinutes(5));
+        holds.place(2L, 8L, List.of(new SlotRange(DAY, 1, 30, 32)), Duration.ofMinutes(5));
+
+        assertEquals(List.of(new SlotRange(DAY, 2, 30, 32)), holds.heldRanges(1L, 7L));
+        assertEquals(2, holds.heldRanges(1L, null).size());
+    }
+
+    @Test
+    void consume_dropsOnlyOverlappingHoldsOfTheOwner() {
+        SlotHolds.Hold a = holds.place(1L, 7L, List.of(new SlotRange(DAY, 1, 20, 22)), Duration.ofMinutes(5));
+        SlotHolds.Hold b = holds.place(1L, 7L, List.of(new SlotRange(DAY, 1, 30, 32)), Duration.ofMinutes(5));
+
+        holds.consume(1L, 7L, List.of(new SlotRange(DAY, 1, 21, 22)));
+
+        assertNull(holds.get(a.id()));
+        assertNotNull(holds.get(b.id()));
+        assertEquals(SlotGrid.rangeMask(30, 32), holds.heldMask(1L, DAY, 1));
+    }
+}
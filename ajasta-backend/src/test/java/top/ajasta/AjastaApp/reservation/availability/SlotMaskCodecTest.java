@@ -0,0 +1,25 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotMaskCodecTest {
+
+    @Test
+    void encode_isEightCharsAndRoundTrips() {
+        long[] masks = {0L, SlotGrid.FULL_DAY_MASK, SlotGrid.rangeMask(16, 40), 1L, 1L << 47};
+        for (long mask : masks) {
+            String encoded = SlotMaskCodec.encode(mask);
+            assertEquals(8, encoded.length());
+            assertEquals(mask, SlotMaskCodec.decode(encoded));
+        }
+    }
+
+    @Test
+    void encode_isLittleEndian() {
+        // Slot 0 (00:00) lives in bit 0 of the first byte
+        assertEquals("AQAAAAAA", SlotMaskCodec.encode(1L));
+        assertEquals("////////", SlotMaskCodec.encode(SlotGrid.FULL_DAY_MASK));
+    }
+}
@@ -0,0 +1,85 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UnitAllocatorTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 2);
+    private static final long OPEN = SlotGrid.rangeMask(16, 40); // 08:00-20:00
+
+    @Test
+    void bestFit_prefersTheUnitWithTheSmallerGap() {
+        // Unit 1 is fully open, unit 2 only has 10:00-11:00 left
+        long[] free = {OPEN, SlotGrid.rangeMask(20, 22)};
+        assertEquals(2, UnitAllocator.bestFit(free, SlotGrid.rangeMask(20, 22)));
+        assertEquals(0L, free[1]);
+        assertEquals(OPEN, free[0]);
+    }
+
+    @Test
+    void bestFit_returnsZeroWhenNothingFits() {
+        long[] free = {SlotGrid.rangeMask(16, 18), SlotGrid.rangeMask(30, 32)};
+        assertEquals(0, UnitAllocator.bestFit(free, SlotGrid.rangeMask(17, 19)));
+    }
+
+    @Test
+    void resolve_keepsAdjacentSlotsOnOneUnit() {
+        // Unit 1 has a one-slot hole at 10:30 that a piecewise placement would fill first
+        long[] free = {OPEN & ~SlotGrid.rangeMask(22, 23) & ~SlotGrid.rangeMask(20, 21), OPEN};
+        List<SlotRange> requested = List.of(
+                new SlotRange(DAY, SlotRange.AUTO_UNIT, 21, 22),
+                new SlotRange(DAY, SlotRange.AUTO_UNIT, 22, 23));
+        List<SlotRange> resolved = UnitAllocator.resolve(requested, d -> free);
+        System.out.println("[DEBUG_LOG] resolved=" + resolved);
+        assertEquals(2, resolved.get(0).unit());
+        assertEquals(2, resolved.get(1).unit());
+    }
+
+    @Test
+    void resolve_placesAroundExplicitUnitsAndKeepsOrder() {
+        long[] free = {OPEN, OPEN};
+        List<SlotRange> requested = List.of(
+                new SlotRange(DAY, SlotRange.AUTO_UNIT, 20, 22),
+                new SlotRange(DAY, 1, 20, 22));
+        List<SlotRange> resolved = UnitAllocator.resolve(requested, d -> free);
+        assertEquals(2, resolved.get(0).unit());
+        assertEquals(1, resolved.get(1).unit());
+        // The caller's masks are left alone
+        assertEquals(OPEN, free[0]);
+    }
+
+    @Test
+    void resolve_leavesUnplaceableRangesOnAuto() {
+        long[] free = {SlotGrid.rangeMask(16, 18)};
+        List<SlotRange> resolved = UnitAllocator.resolve(
+                List.of(new SlotRange(DAY, SlotRange.AUTO_UNIT, 30, 32)), d -> free);
+        assertTrue(resolved.get(0).isAuto());
+    }
+
+    @Test
+    void gapAround_countsFreeSlotsOnBothSides() {
+        long free = SlotGrid.rangeMask(10, 20);
+        assertEquals(10, UnitAllocator.gapAround(free, SlotGrid.rangeMask(12, 14)));
+        assertEquals(10, UnitAllocator.gapAround(free, SlotGrid.rangeMask(10, 20)));
+        assertEquals(48, UnitAllocator.gapAround(SlotGrid.FULL_DAY_MASK, SlotGrid.rangeMask(47, 48)));
+        assertEquals(48, UnitAllocator.gapAround(SlotGrid.FULL_DAY_MASK, SlotGrid.rangeMask(0, 1)));
+    }
+
+    @Test
+    void largestRunAndFragmentation() {
+        long split = SlotGrid.rangeMask(16, 20) | SlotGrid.rangeMask(24, 26);
+        assertEquals(4, UnitAllocator.largestRun(split));
+        assertEquals(0, UnitAllocator.largestRun(0L));
+        assertEquals(48, UnitAllocator.largestRun(SlotGrid.FULL_DAY_MASK));
+
+        assertEquals(0.0, UnitAllocator.fragmentation(new long[]{OPEN, 0L}));
+        assertEquals(0.0, UnitAllocator.fragmentation(new long[]{0L}));
+        // 6 free slots, 4 of them in the largest run
+        assertEquals(1.0 - 4.0 / 6.0, UnitAllocator.fragmentation(new long[]{split}), 1e-9);
+    }
+}
@@ -0,0 +1,65 @@
+package top.ajasta.AjastaApp.reservation.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaitlistQueuesTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 2);
+
+    @Test
+    void head_isTheEarliestWaiterCoveringTheSlot() {
+        WaitlistQueues queues = new WaitlistQueues();
+        WaitlistQueues.Waiter late = new WaitlistQueues.Waiter(7, 1, 70, DAY, 1, 36, 38);
+        WaitlistQueues.Waiter early = new WaitlistQueues.Waiter(3, 1, 30, DAY, SlotRange.AUTO_UNIT, 37, 40);
+        queues.add(late);
+        queues.add(early);
+
+        assertEquals(late, queues.head(1, DAY, 36));
+        assertEquals(early, queues.head(1, DAY, 37));
+        assertEquals(early, queues.head(1, DAY, 39));
+        assertNull(queues.head(1, DAY, 40));
+        assertNull(queues.head(2, DAY, 37));
+        assertNull(queues.head(1, DAY.plusDays(1), 37));
+        assertEquals(2, queues.size(1, DAY, 37));
+    }
+
+    @Test
+    void next_walksTheSlotsQueueInJoinOrder() {
+        WaitlistQueues queues = new WaitlistQueues();
+        WaitlistQueues.Waiter first = new WaitlistQueues.Waiter(1, 1, 10, DAY, 1, 36, 40);
+        WaitlistQueues.Waiter second = new WaitlistQueues.Waiter(2, 1, 20, DAY, 1, 38, 39);
+        WaitlistQueues.Waiter third = new WaitlistQueues.Waiter(3, 1, 30, DAY, 2, 36, 39);
+        queues.add(third);
+        queues.add(first);
+        queues.add(second);
+
+        assertEquals(first, queues.next(1, DAY, 38, null));
+        assertEquals(second, queues.next(1, DAY, 38, first));
+        assertEquals(third, queues.next(1, DAY, 38, second));
+        assertNull(queues.next(1, DAY, 38, third));
+        assertEquals(third, queues.next(1, DAY, 36, first));
+
+        // A waiter removed meanwhile still marks a position in the queue
+        queues.remove(second);
+        assertEquals(third, queues.next(1, DAY, 38, second));
+    }
+
+    @Test
+    void remove_dropsTheWaiterFromEverySlotOfItsRange() {
+        WaitlistQueues queues = new WaitlistQueues();
+        WaitlistQueues.Waiter first = new WaitlistQueues.Waiter(1, 1, 10, DAY, 1, 36, 38);
+        WaitlistQueues.Waiter second = new WaitlistQueues.Waiter(2, 1, 20, DAY, 1, 37, 38);
+        queues.add(first);
+        queues.add(second);
+
+        assertTrue(queues.remove(first));
+        assertFalse(queues.remove(first));
+        assertNull(queues.head(1, DAY, 36));
+        assertEquals(second, queues.head(1, DAY, 37));
+        assertEquals(new SlotRange(DAY, 1, 37, 38), second.range());
+    }
+}
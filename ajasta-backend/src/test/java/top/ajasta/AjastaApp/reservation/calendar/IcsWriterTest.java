@@ -0,0 +1,56 @@
+package top.ajasta.AjastaApp.reservation.calendar;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IcsWriterTest {
+
+    @Test
+    void event_isWrittenWithEscapedTextAndCrlfLines() throws Exception {
+        StringWriter out = new StringWriter();
+        IcsWriter ics = new IcsWriter(out);
+        ics.begin("Court A");
+        ics.event("order-7-0@ajasta", Instant.parse("2030-03-01T10:15:30Z"),
+                LocalDateTime.of(2030, 3, 4, 18, 0), LocalDateTime.of(2030, 3, 4, 19, 30),
+                "Booking: Court A, indoor", "Date: 2030-03-04\nUnit: 1; paid", "CONFIRMED", null);
+        ics.end();
+        String text = out.toString();
+        System.out.println("[DEBUG_LOG] " + text);
+
+        assertTrue(text.startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n"));
+        assertTrue(text.contains("\r\nUID:order-7-0@ajasta\r\n"));
+        assertTrue(text.contains("\r\nDTSTAMP:20300301T101530Z\r\n"));
+        assertTrue(text.contains("\r\nDTSTART:20300304T180000\r\nDTEND:20300304T193000\r\n"));
+        assertTrue(text.contains("\r\nSUMMARY:Booking: Court A\\, indoor\r\n"));
+        assertTrue(text.contains("\r\nDESCRIPTION:Date: 2030-03-04\\nUnit: 1\\; paid\r\n"));
+        assertTrue(text.endsWith("END:VEVENT\r\nEND:VCALENDAR\r\n"));
+        assertFalse(text.replace("\r\n", "").contains("\n"));
+    }
+
+    @Test
+    void longLines_areFoldedAt75OctetsWithoutSplittingCharacters() throws Exception {
+        StringWriter out = new StringWriter();
+        IcsWriter ics = new IcsWriter(out);
+        String summary = "\u00e4".repeat(100);
+        ics.event("u", Instant.EPOCH, LocalDateTime.of(2030, 1, 1, 8, 0), LocalDateTime.of(2030, 1, 1, 9, 0),
+                summary, null, null, null);
+
+        String summaryLines = out.toString().substring(out.toString().indexOf("SUMMARY:"));
+        summaryLines = summaryLines.substring(0, summaryLines.indexOf("\r\nEND:VEVENT"));
+        for (String line : summaryLines.split("\r\n")) {
+            assertTrue(line.getBytes(java.nio.charset.StandardCharsets.UTF_8).length <= 75, line);
+        }
+        assertEquals("SUMMARY:" + summary, summaryLines.replace("\r\n ", ""));
+    }
+
+    @Test
+    void weeklyRule_endsOnTheLastOccurrenceDay() {
+        assertEquals("FREQ=WEEKLY;INTERVAL=2;UNTIL=20300401T235959", IcsWriter.weeklyRule(2, LocalDate.of(2030, 4, 1)));
+    }
+}
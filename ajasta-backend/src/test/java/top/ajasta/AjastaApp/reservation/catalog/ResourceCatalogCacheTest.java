@@ -0,0 +1,129 @@
+package top.ajasta.AjastaApp.reservation.catalog;
+
+import org.junit.jupiter.api.Test;
+import top.ajasta.AjastaApp.reservation.dtos.CacheStatsDTO;
+import top.ajasta.AjastaApp.reservation.dtos.ResourceDTO;
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceCatalogCacheTest {
+
+    private final AtomicLong now = new AtomicLong(0);
+    private final ResourceCatalogCache cache = new ResourceCatalogCache(2, 2, 60_000, now::get);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ResourceDTO load(long id) {
+        loads.incrementAndGet();
+        return ResourceDTO.builder().id(id).name("Court " + id).build();
+    }
+
+    @Test
+    void get_loadsOnceUntilTheResourceChanges() {
+        ResourceDTO first = cache.get(1L, () -> load(1));
+        assertSame(first, cache.get(1L, () -> load(1)));
+        assertEquals(1, loads.get());
+
+        cache.resourceChanged(1L);
+        assertNotSame(first, cache.get(1L, () -> load(1)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void entriesExpireAndTheLeastRecentlyUsedIsEvicted() {
+        cache.get(1L, () -> load(1));
+        cache.get(2L, () -> load(2));
+        cache.get(1L, () -> load(1));
+        cache.get(3L, () -> load(3)); // evicts 2, the least recently used
+        assertEquals(3, loads.get());
+        cache.get(1L, () -> load(1));
+        cache.get(2L, () -> load(2));
+        assertEquals(4, loads.get());
+
+        now.set(60_000);
+        cache.get(1L, () -> load(1));
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void anyWriteDropsAllListings() {
+        ResourceCatalogCache.ListKey courts = ResourceCatalogCache.ListKey.of(ResourceType.TURF_COURT, null, true);
+        cache.list(courts, () -> List.of(load(1)));
+        // Same query modulo case and blanks
+        assertSame(cache.list(courts, () -> List.of(load(1))),
+                cache.list(ResourceCatalogCache.ListKey.of(ResourceType.TURF_COURT, "  ", true), () -> List.of(load(1))));
+        assertEquals(1, loads.get());
+
+        cache.resourceChanged(99L);
+        cache.list(courts, () -> List.of(load(1)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void loadRacingAWriteIsNotStored() {
+        cache.get(1L, () -> {
+            ResourceDTO stale = load(1);
+            cache.resourceChanged(1L);
+            return stale;
+        });
+        cache.get(1L, () -> load(1));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void etag_followsTheStoredVersion_andAnotherReplicasWriteDropsTheCache() {
+        AtomicReference<String> stored = new AtomicReference<>("c1");
+        AtomicInteger reads = new AtomicInteger();
+        ResourceCatalogCache shared = new ResourceCatalogCache(2, 2, 60_000, now::get,
+                () -> {
+                    reads.incrementAndGet();
+                    return stored.get();
+                }, 1_000);
+        String first = shared.etag();
+        shared.get(1L, () -> load(1));
+
+        // Written on another replica: this node sees it once the check interval has passed
+        stored.set("c2");
+        assertEquals(first, shared.etag());
+        assertEquals(1, reads.get());
+        now.set(1_000);
+        String second = shared.etag();
+        assertNotEquals(first, second);
+        shared.get(1L, () -> load(1));
+        assertEquals(2, loads.get());
+
+        // A local write is checked on the next request, whatever the interval
+        stored.set("c3");
+        shared.reviewsChanged();
+        assertNotEquals(second, shared.etag());
+        assertEquals(3, reads.get());
+    }
+
+    @Test
+    void etag_isTheSameOnEveryNodeForTheSameStoredVersion() {
+        ResourceCatalogCache other = new ResourceCatalogCache(2, 2, 60_000, now::get, () -> "c1", 1_000);
+        ResourceCatalogCache self = new ResourceCatalogCache(2, 2, 60_000, now::get, () -> "c1", 1_000);
+        self.resourceChanged(1L);
+
+        assertEquals(other.etag(), self.etag());
+    }
+
+    @Test
+    void stats_countHitsAndMisses() {
+        cache.get(1L, () -> load(1));
+        cache.get(1L, () -> load(1));
+        cache.get(1L, () -> load(1));
+
+        CacheStatsDTO byId = cache.stats().get(0);
+        assertEquals("resourcesById", byId.getName());
+        assertEquals(2L, byId.getHits());
+        assertEquals(1L, byId.getMisses());
+        assertEquals(1, byId.getSize());
+        assertEquals(0.667, byId.getHitRate());
+    }
+}
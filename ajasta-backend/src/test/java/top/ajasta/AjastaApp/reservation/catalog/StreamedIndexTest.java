@@ -0,0 +1,72 @@
+package top.ajasta.AjastaApp.reservation.catalog;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamedIndexTest {
+
+    private record Row(Long id, String name) {
+    }
+
+    private final AtomicLong now = new AtomicLong(0);
+    private final AtomicInteger streams = new AtomicInteger();
+    // What the database holds, including writes committed on other nodes
+    private final List<Row> table = new CopyOnWriteArrayList<>(List.of(new Row(1L, "Court A")));
+    private Runnable duringStream = () -> { };
+
+    private final StreamedIndex<Map<Long, String>, Row> index = new StreamedIndex<>("Test", ConcurrentHashMap::new,
+            () -> {
+                streams.incrementAndGet();
+                List<Row> snapshot = List.copyOf(table);
+                duringStream.run();
+                return snapshot.stream();
+            },
+            (map, row) -> map.put(row.id(), row.name()), Map::remove,
+            TransactionOperations.withoutTransaction(), 60_000, now::get);
+
+    @Test
+    void writesAreAppliedInPlace_andOtherNodesWritesAppearAfterTheTtl() {
+        assertEquals(Map.of(1L, "Court A"), index.get());
+
+        index.put(new Row(2L, "Court B"));
+        table.add(new Row(3L, "Court C"));
+        assertEquals(Map.of(1L, "Court A", 2L, "Court B"), index.get());
+        assertEquals(1, streams.get());
+
+        table.add(new Row(2L, "Court B"));
+        now.set(60_000);
+        assertEquals(Map.of(1L, "Court A", 2L, "Court B", 3L, "Court C"), index.get());
+        assertEquals(2, streams.get());
+    }
+
+    @Test
+    void writeHandedOverDuringARebuild_isReplayedOntoTheFreshIndex() {
+        index.get();
+        now.set(60_000);
+        // Committed after the rebuild's query started, so its rows miss it
+        duringStream = () -> {
+            index.remove(1L);
+            index.put(new Row(4L, "Court D"));
+        };
+
+        assertEquals(Map.of(4L, "Court D"), index.get());
+    }
+
+    @Test
+    void writesBeforeTheFirstBuild_areLeftToTheBuild() {
+        table.add(new Row(2L, "Court B"));
+        index.put(new Row(2L, "Court B"));
+
+        assertEquals(Map.of(1L, "Court A", 2L, "Court B"), index.get());
+        assertEquals(1, streams.get());
+    }
+}
@@ -2,25 +2,38 @@ package top.ajasta.AjastaApp.reservation.controller;
 
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.thymeleaf.TemplateEngine;
 import top.ajasta.AjastaApp.auth_users.entity.User;
 import top.ajasta.AjastaApp.email_notification.dtos.NotificationDTO;
 import top.ajasta.AjastaApp.email_notification.services.NotificationService;
+import top.ajasta.AjastaApp.money.Money;
 import top.ajasta.AjastaApp.order.services.OrderService;
+import top.ajasta.AjastaApp.reservation.catalog.ResourceCatalogCache;
 import top.ajasta.AjastaApp.reservation.dtos.BookBatchRequest;
 import top.ajasta.AjastaApp.reservation.dtos.BookMultiRequest;
 import top.ajasta.AjastaApp.reservation.dtos.ResourceDTO;
 import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+import top.ajasta.AjastaApp.reservation.pricing.PriceTable;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+import top.ajasta.AjastaApp.reservation.services.AvailabilityService;
+import top.ajasta.AjastaApp.reservation.services.PricingService;
+import top.ajasta.AjastaApp.reservation.services.ReservationService;
 import top.ajasta.AjastaApp.reservation.services.ResourceService;
 import top.ajasta.AjastaApp.response.Response;
+import top.ajasta.AjastaApp.review.repository.ReviewRepository;
 import top.ajasta.AjastaApp.auth_users.services.UserService;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Objects;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -31,9 +44,26 @@ class ResourceControllerTest {
     private final UserService userService = org.mockito.Mockito.mock(UserService.class);
     private final TemplateEngine templateEngine = org.mockito.Mockito.mock(TemplateEngine.class);
     private final OrderService orderService = org.mockito.Mockito.mock(OrderService.class);
+    private final ReservationService reservationService = org.mockito.Mockito.mock(ReservationService.class);
+    private final AvailabilityService availabilityService = org.mockito.Mockito.mock(AvailabilityService.class);
+    private final PricingService pricingService = org.mockito.Mockito.mock(PricingService.class);
+    private final ResourceRepository resourceRepository = org.mockito.Mockito.mock(ResourceRepository.class);
+    private final ReviewRepository reviewRepository = org.mockito.Mockito.mock(ReviewRepository.class);
+    private final ResourceCatalogCache catalogCache = new ResourceCatalogCache(resourceRepository, reviewRepository, 16, 16, 60, 1000);
+
+    private void storedCatalog(long resources, long reviews) {
+        given(resourceRepository.catalogVersion()).willReturn(java.util.List.<Object[]>of(new Object[]{resources, resources, null}));
+        given(reviewRepository.catalogVersion()).willReturn(java.util.List.<Object[]>of(new Object[]{reviews, reviews}));
+    }
 
     private ResourceController controller() throws Exception {
-        ResourceController c = new ResourceController(resourceService, notificationService, userService, templateEngine, orderService);
+        // Reservation succeeds and runs the order commit callback
+        given(reservationService.reserveBooking(anyLong(), anyList(), any(), any()))
+                .willAnswer(inv -> inv.<java.util.function.Function<java.util.List<top.ajasta.AjastaApp.reservation.availability.SlotRange>, Long>>getArgument(3).apply(inv.getArgument(1)));
+        // No price rules: every slot at the resource's 15.00
+        given(pricingService.quote(anyLong(), anyList()))
+                .willAnswer(inv -> PriceTable.flat(Money.ofCents(1500)).quote(inv.getArgument(1)));
+        ResourceController c = new ResourceController(resourceService, notificationService, userService, templateEngine, orderService, reservationService, availabilityService, pricingService, catalogCache);
         java.lang.reflect.Field f = ResourceController.class.getDeclaredField("basePaymentLink");
         f.setAccessible(true);
         f.set(c, "https://pay.example/?order=");
@@ -87,9 +117,9 @@ class ResourceControllerTest {
         verify(notificationService, times(1)).sendEmail(cap.capture());
 
         // Verify booking order created with total amount 30.00
-        ArgumentCaptor<BigDecimal> amountCap = ArgumentCaptor.forClass(BigDecimal.class);
+        ArgumentCaptor<Money> amountCap = ArgumentCaptor.forClass(Money.class);
         verify(orderService, times(1)).createBookingOrder(amountCap.capture(), anyString(), anyString());
-        org.junit.jupiter.api.Assertions.assertEquals(new BigDecimal("30.00"), amountCap.getValue());
+        org.junit.jupiter.api.Assertions.assertEquals(new BigDecimal("30.00"), amountCap.getValue().toBigDecimal());
     }
 
     @Test
@@ -128,8 +158,68 @@ class ResourceControllerTest {
         verify(notificationService, times(1)).sendEmail(any(NotificationDTO.class));
 
         // Verify booking order created with total amount 45.00
-        ArgumentCaptor<BigDecimal> amountCap = ArgumentCaptor.forClass(BigDecimal.class);
+        ArgumentCaptor<Money> amountCap = ArgumentCaptor.forClass(Money.class);
         verify(orderService, times(1)).createBookingOrder(amountCap.capture(), anyString(), anyString());
-        org.junit.jupiter.api.Assertions.assertEquals(new BigDecimal("45.00"), amountCap.getValue());
+        org.junit.jupiter.api.Assertions.assertEquals(new BigDecimal("45.00"), amountCap.getValue().toBigDecimal());
+    }
+
+    @Test
+    void bookBatch_conflictingSlot_failsWithoutEmailOrOrder() throws Exception {
+        given(resourceService.getResourceById(1L))
+                .willReturn(Response.<ResourceDTO>builder().statusCode(200).data(makeResource()).build());
+        given(userService.getCurrentLoggedInUser()).willReturn(makeUser());
+        ResourceController c = controller();
+        given(reservationService.reserveBooking(anyLong(), anyList(), any(), any()))
+                .willThrow(new top.ajasta.AjastaApp.exceptions.SlotUnavailableException("taken"));
+
+        BookBatchRequest req = new BookBatchRequest();
+        req.setDate("2025-01-10");
+        BookBatchRequest.Slot s1 = new BookBatchRequest.Slot();
+        s1.setStartTime("09:00"); s1.setEndTime("09:30"); s1.setUnit(1);
+        req.setSlots(Arrays.asList(s1));
+
+        org.junit.jupiter.api.Assertions.assertThrows(top.ajasta.AjastaApp.exceptions.SlotUnavailableException.class,
+                () -> c.bookBatch(1L, req));
+        verify(notificationService, times(0)).sendEmail(any(NotificationDTO.class));
+        verify(orderService, times(0)).createBookingOrder(any(), anyString(), anyString());
+    }
+
+    @Test
+    void getById_answersMatchingIfNoneMatchWith304_untilTheCatalogChanges() throws Exception {
+        ResourceController c = controller();
+        storedCatalog(1, 0);
+        given(resourceService.getResourceById(1L))
+                .willReturn(Response.<ResourceDTO>builder().statusCode(200).data(makeResource()).build());
+
+        var first = c.getById(1L, new ServletWebRequest(new MockHttpServletRequest("GET", "/api/resources/1")));
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+
+        MockHttpServletRequest revalidate = new MockHttpServletRequest("GET", "/api/resources/1");
+        revalidate.addHeader("If-None-Match", etag);
+        MockHttpServletResponse notModified = new MockHttpServletResponse();
+        assertNull(c.getById(1L, new ServletWebRequest(revalidate, notModified)));
+        assertEquals(304, notModified.getStatus());
+        verify(resourceService, times(1)).getResourceById(1L);
+
+        // A review is committed here
+        storedCatalog(1, 1);
+        catalogCache.reviewsChanged();
+        MockHttpServletRequest stale = new MockHttpServletRequest("GET", "/api/resources/1");
+        stale.addHeader("If-None-Match", etag);
+        var refreshed = c.getById(1L, new ServletWebRequest(stale, new MockHttpServletResponse()));
+        assertNotEquals(etag, refreshed.getHeaders().getETag());
+        verify(resourceService, times(2)).getResourceById(1L);
+    }
+
+    @Test
+    void list_withCurrentETag_doesNotCallTheService() throws Exception {
+        ResourceController c = controller();
+        storedCatalog(1, 0);
+        MockHttpServletRequest req = new MockHttpServletRequest("GET", "/api/resources");
+        req.addHeader("If-None-Match", catalogCache.etag());
+
+        assertNull(c.list(null, null, null, null, null, null, new ServletWebRequest(req, new MockHttpServletResponse())));
+        verify(resourceService, never()).getResources(any(), any(), any(), any());
     }
 }
@@ -0,0 +1,94 @@
+package top.ajasta.AjastaApp.reservation.geo;
+
+import org.junit.jupiter.api.Test;
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoGridTest {
+
+    // Tallinn old town
+    private static final double LAT = 59.4370;
+    private static final double LON = 24.7536;
+
+    private static GeoGrid sample() {
+        GeoGrid grid = new GeoGrid();
+        grid.put(new GeoPoint(1L, 59.4370, 24.7600, ResourceType.TURF_COURT, true)); // ~0.4 km
+        grid.put(new GeoPoint(2L, 59.4500, 24.7000, ResourceType.TURF_COURT, true)); // ~3.4 km
+        grid.put(new GeoPoint(3L, 59.3800, 24.8500, ResourceType.HAIRDRESSING_CHAIR, false)); // ~8.4 km
+        grid.put(new GeoPoint(4L, 58.3800, 26.7200, ResourceType.TURF_COURT, true)); // Tartu, ~160 km
+        grid.put(new GeoPoint(5L, null, null, ResourceType.TURF_COURT, true));
+        return grid;
+    }
+
+    private static List<Long> ids(List<GeoGrid.Hit> hits) {
+        return hits.stream().map(GeoGrid.Hit::id).toList();
+    }
+
+    @Test
+    void near_returnsPointsWithinTheRadius_nearestFirst() {
+        List<GeoGrid.Hit> hits = sample().near(LAT, LON, 10, null, null, 10);
+        System.out.println("[DEBUG_LOG] " + hits);
+
+        assertEquals(List.of(1L, 2L, 3L), ids(hits));
+        assertTrue(hits.get(0).distanceKm() < 0.5);
+        assertEquals(List.of(1L, 2L), ids(sample().near(LAT, LON, 5, null, null, 10)));
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(sample().near(LAT, LON, 200, null, null, 10)));
+        assertEquals(List.of(1L), ids(sample().near(LAT, LON, 200, null, null, 1)));
+    }
+
+    @Test
+    void near_filtersByTypeAndActive() {
+        GeoGrid grid = sample();
+
+        assertEquals(List.of(3L), ids(grid.near(LAT, LON, 10, ResourceType.HAIRDRESSING_CHAIR, null, 10)));
+        assertEquals(List.of(1L, 2L), ids(grid.near(LAT, LON, 10, null, true, 10)));
+    }
+
+    @Test
+    void putMovesAndRemoveDrops() {
+        GeoGrid grid = sample();
+        grid.put(new GeoPoint(1L, 58.3801, 26.7201, ResourceType.TURF_COURT, true));
+        grid.remove(2L);
+
+        assertEquals(List.of(3L), ids(grid.near(LAT, LON, 10, null, null, 10)));
+        assertEquals(List.of(4L, 1L), ids(grid.near(58.38, 26.72, 1, null, null, 10)));
+        grid.put(new GeoPoint(1L, null, null, ResourceType.TURF_COURT, true));
+        assertEquals(2, grid.size());
+    }
+
+    @Test
+    void near_wrapsAcrossTheAntimeridianAndCoversThePoles() {
+        GeoGrid grid = new GeoGrid();
+        grid.put(new GeoPoint(1L, -16.80, 179.98, null, true));
+        grid.put(new GeoPoint(2L, -16.80, -179.98, null, true));
+        grid.put(new GeoPoint(3L, 89.99, 10.0, null, true));
+
+        assertEquals(List.of(1L, 2L), ids(grid.near(-16.80, 179.99, 10, null, null, 10)));
+        assertEquals(List.of(3L), ids(grid.near(89.99, -170.0, 10, null, null, 10)));
+    }
+
+    @Test
+    void near_matchesABruteForceScan() {
+        Random random = new Random(42);
+        GeoGrid grid = new GeoGrid();
+        double[][] points = new double[20_000][];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new double[]{57.5 + random.nextDouble() * 2.2, 21.8 + random.nextDouble() * 6.4};
+            grid.put(new GeoPoint((long) i, points[i][0], points[i][1], null, true));
+        }
+
+        List<GeoGrid.Hit> hits = grid.near(LAT, LON, 25, null, null, Integer.MAX_VALUE);
+        long expected = 0;
+        for (double[] p : points) {
+            if (GeoGrid.distanceKm(LAT, LON, p[0], p[1]) <= 25) expected++;
+        }
+        assertEquals(expected, hits.size());
+        for (int i = 1; i < hits.size(); i++) {
+            assertTrue(hits.get(i - 1).distanceKm() <= hits.get(i).distanceKm());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package top.ajasta.AjastaApp.reservation.pricing;
+
+import org.junit.jupiter.api.Test;
+import top.ajasta.AjastaApp.money.Money;
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.repository.PriceRuleRepository;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PriceTableCacheTest {
+
+    private static final SlotRange ONE_SLOT = new SlotRange(LocalDate.of(2030, 3, 4), 1, 18, 19);
+
+    private final ResourceRepository resourceRepository = mock(ResourceRepository.class);
+    private final PriceRuleRepository priceRuleRepository = mock(PriceRuleRepository.class);
+    private final PriceTableCache cache = new PriceTableCache(resourceRepository, priceRuleRepository);
+
+    private static Resource resource(String price) {
+        return Resource.builder().id(7L).name("Court").pricePerSlot(new BigDecimal(price)).build();
+    }
+
+    @Test
+    void tableReadBeforeAnEvict_isNotCachedAgain() {
+        when(resourceRepository.findById(7L))
+                .thenAnswer(inv -> {
+                    // The base price is changed and evicted while the old row is being compiled
+                    cache.evict(7L);
+                    return Optional.of(resource("15.00"));
+                })
+                .thenReturn(Optional.of(resource("20.00")));
+        when(priceRuleRepository.findByResourceIdOrderByIdAsc(7L)).thenReturn(List.of());
+
+        assertEquals(Money.ofCents(1500), cache.get(7L).quote(List.of(ONE_SLOT)).total());
+
+        assertEquals(Money.ofCents(2000), cache.get(7L).quote(List.of(ONE_SLOT)).total());
+        assertEquals(Money.ofCents(2000), cache.get(7L).quote(List.of(ONE_SLOT)).total());
+        verify(resourceRepository, times(2)).findById(7L);
+    }
+}
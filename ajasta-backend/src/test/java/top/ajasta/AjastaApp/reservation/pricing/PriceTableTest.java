@@ -0,0 +1,113 @@
+package top.ajasta.AjastaApp.reservation.pricing;
+
+import org.junit.jupiter.api.Test;
+import top.ajasta.AjastaApp.money.Money;
+import top.ajasta.AjastaApp.reservation.availability.SeriesPattern;
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+import top.ajasta.AjastaApp.reservation.entity.PriceRule;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceTableTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2030, 3, 4);
+    private static final LocalDate SATURDAY = MONDAY.plusDays(5);
+    private static final int WEEKEND = (1 << (DayOfWeek.SATURDAY.getValue() - 1)) | (1 << (DayOfWeek.SUNDAY.getValue() - 1));
+
+    private static PriceRule.PriceRuleBuilder rule(long id, String price) {
+        return PriceRule.builder().id(id).resourceId(1L).pricePerSlot(new BigDecimal(price));
+    }
+
+    @Test
+    void noRules_everySlotAtTheBasePrice() {
+        PriceTable table = PriceTable.compile(null, 1500, List.of());
+
+        PriceQuote quote = table.quote(List.of(new SlotRange(MONDAY, 1, 18, 20), new SlotRange(SATURDAY, 2, 40, 41)));
+
+        assertEquals(Money.ofCents(4500), quote.total());
+        assertEquals(3, quote.slots());
+        assertEquals(Money.ofCents(1500), quote.uniformSlotPrice());
+        assertEquals(Money.ofCents(3000), quote.lines().get(0).amount());
+    }
+
+    @Test
+    void eveningBand_andWeekend_overrideTheBasePrice() {
+        PriceTable table = PriceTable.compile(null, 1000, List.of(
+                rule(1, "20.00").startTime(LocalTime.of(18, 0)).endTime(LocalTime.of(22, 0)).build(),
+                rule(2, "25.00").weekdays(WEEKEND).build()));
+
+        assertEquals(1000, table.slotCents(MONDAY, 1, 35));
+        assertEquals(2000, table.slotCents(MONDAY, 1, 36));
+        assertEquals(2000, table.slotCents(MONDAY, 1, 43));
+        assertEquals(1000, table.slotCents(MONDAY, 1, 44));
+        // The weekend rule is more specific than the band and wins on Saturday evenings too
+        assertEquals(2500, table.slotCents(SATURDAY, 1, 10));
+        assertEquals(2500, table.slotCents(SATURDAY, 1, 40));
+
+        PriceQuote quote = table.quote(List.of(new SlotRange(MONDAY, 1, 34, 38)));
+        System.out.println("[DEBUG_LOG] band quote " + quote);
+        assertEquals(Money.ofCents(6000), quote.total());
+        assertNull(quote.uniformSlotPrice());
+        assertEquals(Money.ofCents(1000), quote.minSlot());
+        assertEquals(Money.ofCents(2000), quote.maxSlot());
+    }
+
+    @Test
+    void priority_beatsSpecificity() {
+        PriceTable table = PriceTable.compile(null, 1000, List.of(
+                rule(1, "30.00").priority(1).build(),
+                rule(2, "25.00").weekdays(WEEKEND).build()));
+
+        assertEquals(3000, table.slotCents(SATURDAY, 1, 20));
+    }
+
+    @Test
+    void unitRule_onlyPricesThatUnit() {
+        PriceTable table = PriceTable.compile(null, 1000, List.of(rule(1, "12.50").unit(2).build()));
+
+        assertEquals(1000, table.slotCents(MONDAY, 1, 20));
+        assertEquals(1250, table.slotCents(MONDAY, 2, 20));
+        assertEquals(1000, table.slotCents(MONDAY, 3, 20));
+        // Not assigned yet: priced like the units without unit rules
+        assertEquals(1000, table.slotCents(MONDAY, SlotRange.AUTO_UNIT, 20));
+    }
+
+    @Test
+    void dateOverride_appliesOnThatDateOnly() {
+        PriceTable table = PriceTable.compile(null, 1000, List.of(
+                rule(1, "5.00").date(MONDAY).startTime(LocalTime.of(9, 0)).endTime(LocalTime.of(12, 0)).build(),
+                rule(2, "14.00").unit(2).build()));
+
+        assertEquals(500, table.slotCents(MONDAY, 1, 18));
+        assertEquals(500, table.slotCents(MONDAY, 2, 18));
+        assertEquals(1000, table.slotCents(MONDAY, 1, 24));
+        assertEquals(1400, table.slotCents(MONDAY, 2, 24));
+        assertEquals(1000, table.slotCents(MONDAY.plusWeeks(1), 1, 18));
+    }
+
+    @Test
+    void series_matchesTheExpandedQuote() {
+        PriceTable table = PriceTable.compile(null, 1000, List.of(
+                rule(1, "0.00").date(MONDAY.plusWeeks(2)).build(),
+                rule(2, "20.00").startTime(LocalTime.of(10, 0)).build()));
+        SlotRange first = new SlotRange(MONDAY, 1, 19, 21);
+        SeriesPattern pattern = SeriesPattern.of(MONDAY, 1, null, 4);
+
+        PriceQuote series = table.quoteSeries(first, pattern);
+        PriceQuote expanded = table.quote(pattern.occurrencesBetween(MONDAY, pattern.last()).stream()
+                .map(d -> new SlotRange(d, first.unit(), first.startSlot(), first.endSlot()))
+                .toList());
+
+        assertEquals(expanded.total(), series.total());
+        assertEquals(Money.ofCents(9000), series.total());
+        assertEquals(8, series.slots());
+        assertEquals(1, series.lines().size());
+        assertEquals(4, series.lines().get(0).occurrences());
+    }
+}
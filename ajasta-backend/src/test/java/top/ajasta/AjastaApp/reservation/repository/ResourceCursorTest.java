@@ -0,0 +1,32 @@
+package top.ajasta.AjastaApp.reservation.repository;
+
+import org.junit.jupiter.api.Test;
+import top.ajasta.AjastaApp.exceptions.BadRequestException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceCursorTest {
+
+    @Test
+    void roundTrip_keepsNamesWithSeparatorsAndUnicode() {
+        ResourceCursor cursor = new ResourceCursor("Court 3: Padel \u00e9t\u00e9", 42);
+        String token = cursor.encode();
+        System.out.println("[DEBUG_LOG] token " + token);
+
+        assertFalse(token.contains("=") || token.contains("+") || token.contains("/"));
+        assertEquals(cursor, ResourceCursor.decode(token));
+    }
+
+    @Test
+    void missingToken_meansFirstPage() {
+        assertNull(ResourceCursor.decode(null));
+        assertNull(ResourceCursor.decode(" "));
+    }
+
+    @Test
+    void garbage_isABadRequest() {
+        assertThrows(BadRequestException.class, () -> ResourceCursor.decode("not a cursor!"));
+        assertThrows(BadRequestException.class, () -> ResourceCursor.decode("bm9zZXBhcmF0b3I"));
+        assertThrows(BadRequestException.class, () -> ResourceCursor.decode("eDpuYW1l"));
+    }
+}
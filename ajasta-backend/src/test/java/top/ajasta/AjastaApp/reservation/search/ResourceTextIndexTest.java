@@ -0,0 +1,88 @@
+package top.ajasta.AjastaApp.reservation.search;
+
+import org.junit.jupiter.api.Test;
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceTextIndexTest {
+
+    private static ResourceTextIndex sample() {
+        ResourceTextIndex index = new ResourceTextIndex();
+        index.put(new SearchDocument(1L, "Padel Court 1", "Tallinn, Kalamaja", "Glass walls, LED lights", ResourceType.TURF_COURT, true));
+        index.put(new SearchDocument(2L, "Volleyball Court", "P\u00e4rnu beach", "Sand court next to the padel hall", ResourceType.VOLLEYBALL_COURT, true));
+        index.put(new SearchDocument(3L, "Chair 2", "Tartu", "Barber chair with a view of the court", ResourceType.HAIRDRESSING_CHAIR, false));
+        index.put(new SearchDocument(4L, "Kids playground", "Tallinn, Kadriorg", null, ResourceType.PLAYGROUND, true));
+        return index;
+    }
+
+    private static List<Long> ids(List<ResourceTextIndex.Hit> hits) {
+        return hits.stream().map(ResourceTextIndex.Hit::id).toList();
+    }
+
+    @Test
+    void nameMatches_rankAboveDescriptionMatches() {
+        List<ResourceTextIndex.Hit> hits = sample().search("padel", null, null, 10);
+        System.out.println("[DEBUG_LOG] " + hits);
+
+        assertEquals(List.of(1L, 2L), ids(hits));
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    void prefixesAndTypos_match() {
+        ResourceTextIndex index = sample();
+
+        assertEquals(List.of(4L), ids(index.search("playgr", null, null, 10)));
+        assertEquals(List.of(4L), ids(index.search("playgruond", null, null, 10)));
+        assertEquals(List.of(1L, 2L), ids(index.search("padle", null, null, 10)));
+    }
+
+    @Test
+    void everyWordMustMatch_andAccentsAreIgnored() {
+        ResourceTextIndex index = sample();
+
+        assertEquals(List.of(1L, 4L), ids(index.search("tallinn", null, null, 10)));
+        assertEquals(List.of(1L), ids(index.search("tallinn padel", null, null, 10)));
+        assertEquals(List.of(2L), ids(index.search("parnu", null, null, 10)));
+        assertTrue(index.search("tallinn tennis", null, null, 10).isEmpty());
+    }
+
+    @Test
+    void filtersAndLimit_apply() {
+        ResourceTextIndex index = sample();
+
+        assertEquals(List.of(2L), ids(index.search("court", ResourceType.VOLLEYBALL_COURT, null, 10)));
+        assertEquals(List.of(3L), ids(index.search("court", null, false, 10)));
+        assertEquals(2, index.search("court", null, null, 2).size());
+    }
+
+    @Test
+    void replacedAndRemovedDocuments_areNotFound() {
+        ResourceTextIndex index = sample();
+        index.put(new SearchDocument(1L, "Tennis Court 1", "Tallinn", null, ResourceType.TURF_COURT, true));
+        index.remove(4L);
+
+        assertEquals(List.of(2L), ids(index.search("padel", null, null, 10)));
+        assertEquals(List.of(1L), ids(index.search("tennis", null, null, 10)));
+        assertTrue(index.search("playground", null, null, 10).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void compaction_keepsLiveDocuments() {
+        ResourceTextIndex index = new ResourceTextIndex();
+        for (long id = 1; id <= 3000; id++) {
+            index.put(new SearchDocument(id, "Court " + id, "Tallinn", null, ResourceType.TURF_COURT, true));
+        }
+        for (long id = 1; id <= 2000; id++) {
+            index.remove(id);
+        }
+
+        assertEquals(1000, index.size());
+        assertEquals(List.of(2500L), ids(index.search("court 2500", null, null, 1)));
+        assertEquals(1000, index.search("tallinn", null, null, 5000).size());
+    }
+}
@@ -0,0 +1,182 @@
+package top.ajasta.AjastaApp.reservation.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import top.ajasta.AjastaApp.exceptions.NotFoundException;
+import top.ajasta.AjastaApp.reservation.availability.SlotHolds;
+import top.ajasta.AjastaApp.reservation.availability.SlotMaskCodec;
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+import top.ajasta.AjastaApp.reservation.dtos.AvailabilityChangeDTO;
+import top.ajasta.AjastaApp.reservation.events.SlotsReleasedEvent;
+import top.ajasta.AjastaApp.reservation.events.SlotsTakenEvent;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+class AvailabilityStreamServiceImplTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 4);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+    private AvailabilityService availabilityService;
+    private SlotHolds slotHolds;
+    private AvailabilityStreamServiceImpl service;
+    private boolean failingEmitters;
+
+    @BeforeEach
+    void setUp() {
+        availabilityService = mock(AvailabilityService.class);
+        given(availabilityService.freeSlotMasks(anyLong(), any(LocalDate.class))).willReturn(new long[]{0b1111L, 0L});
+        ResourceRepository resourceRepository = mock(ResourceRepository.class);
+        given(resourceRepository.existsById(1L)).willReturn(true);
+        given(resourceRepository.existsById(2L)).willReturn(true);
+        slotHolds = new SlotHolds(1000, 512);
+        service = new AvailabilityStreamServiceImpl(availabilityService, resourceRepository, slotHolds, objectMapper) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                RecordingEmitter e = new RecordingEmitter(failingEmitters);
+                emitters.add(e);
+                return e;
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        slotHolds.shutdown();
+    }
+
+    @Test
+    void changedDay_isPushedOnceToEverySubscriberOfTheResource() throws Exception {
+        service.subscribe(1L);
+        service.subscribe(1L);
+        service.subscribe(2L);
+
+        service.onSlotsTaken(new SlotsTakenEvent(1L, List.of(new SlotRange(DAY, 1, 10, 12), new SlotRange(DAY, 2, 20, 22))));
+
+        RecordingEmitter a = emitters.get(0), b = emitters.get(1), other = emitters.get(2);
+        AvailabilityChangeDTO change = objectMapper.readValue(a.awaitEvent(), AvailabilityChangeDTO.class);
+        System.out.println("[DEBUG_LOG] pushed " + change);
+        assertEquals(1L, change.getResourceId());
+        assertEquals(DAY.toString(), change.getDate());
+        assertEquals(List.of(SlotMaskCodec.encode(0b1111L), SlotMaskCodec.encode(0L)), change.getFree());
+        assertEquals(change.getSeq(), objectMapper.readValue(b.awaitEvent(), AvailabilityChangeDTO.class).getSeq());
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertEquals(1, a.events().size());
+        assertTrue(other.events().isEmpty());
+        verify(availabilityService, times(1)).freeSlotMasks(1L, DAY);
+    }
+
+    @Test
+    void laterPictureOfADay_alwaysGetsTheHigherSeq() throws Exception {
+        CountDownLatch firstRead = new CountDownLatch(1);
+        AtomicInteger reads = new AtomicInteger();
+        given(availabilityService.freeSlotMasks(1L, DAY)).willAnswer(inv -> {
+            if (reads.incrementAndGet() > 1) return new long[]{0L, 0L};
+            firstRead.countDown();
+            // A slow read of the state before the second change
+            TimeUnit.MILLISECONDS.sleep(200);
+            return new long[]{0b1111L, 0L};
+        });
+        service.subscribe(1L);
+
+        Thread first = new Thread(() -> service.changed(1L, List.of(new SlotRange(DAY, 1, 10, 12))));
+        first.start();
+        assertTrue(firstRead.await(5, TimeUnit.SECONDS));
+        service.changed(1L, List.of(new SlotRange(DAY, 1, 0, 4)));
+        first.join();
+
+        AvailabilityChangeDTO newest = emitters.get(0).awaitEvents(2).stream()
+                .map(this::parse)
+                .max(Comparator.comparingLong(AvailabilityChangeDTO::getSeq))
+                .orElseThrow();
+        assertEquals(List.of(SlotMaskCodec.encode(0L), SlotMaskCodec.encode(0L)), newest.getFree());
+    }
+
+    @Test
+    void withoutSubscribers_nothingIsRead() {
+        service.onSlotsReleased(new SlotsReleasedEvent(1L, List.of(new SlotRange(DAY, 1, 10, 12))));
+
+        verifyNoInteractions(availabilityService);
+    }
+
+    @Test
+    void brokenStream_isDropped() {
+        failingEmitters = true;
+        service.subscribe(1L);
+
+        assertEquals(0, service.subscriberCount(1L));
+    }
+
+    @Test
+    void unknownResource_isRejected() {
+        assertThrows(NotFoundException.class, () -> service.subscribe(99L));
+    }
+
+    private AvailabilityChangeDTO parse(String json) {
+        try {
+            return objectMapper.readValue(json, AvailabilityChangeDTO.class);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Collects the "availability" events instead of writing them to a response
+    private static class RecordingEmitter extends SseEmitter {
+        private final boolean failing;
+        private final List<String> events = new CopyOnWriteArrayList<>();
+
+        RecordingEmitter(boolean failing) {
+            this.failing = failing;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) throw new IOException("client gone");
+            StringBuilder text = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType d : builder.build()) {
+                text.append(d.getData());
+            }
+            String raw = text.toString();
+            if (raw.startsWith("event:" + AvailabilityStreamServiceImpl.EVENT_NAME)) {
+                // event:availability\ndata:{json}\n\n
+                events.add(raw.substring(raw.indexOf("data:") + 5).trim());
+            }
+        }
+
+        List<String> events() {
+            return new ArrayList<>(events);
+        }
+
+        String awaitEvent() throws InterruptedException {
+            return awaitEvents(1).get(0);
+        }
+
+        List<String> awaitEvents(int count) throws InterruptedException {
+            for (int i = 0; i < 200 && events.size() < count; i++) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            assertTrue(events.size() >= count, events.size() + " of " + count + " event(s) pushed");
+            return events();
+        }
+    }
+}
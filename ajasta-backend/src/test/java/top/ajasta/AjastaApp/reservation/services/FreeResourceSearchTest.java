@@ -0,0 +1,105 @@
+package top.ajasta.AjastaApp.reservation.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import top.ajasta.AjastaApp.exceptions.BadRequestException;
+import top.ajasta.AjastaApp.order.repository.OrderRepository;
+import top.ajasta.AjastaApp.reservation.availability.AvailabilityRulesCache;
+import top.ajasta.AjastaApp.reservation.availability.DayOccupancyCache;
+import top.ajasta.AjastaApp.reservation.availability.ResourceTypeIndex;
+import top.ajasta.AjastaApp.reservation.availability.SlotHolds;
+import top.ajasta.AjastaApp.reservation.dtos.FreeResourceDTO;
+import top.ajasta.AjastaApp.reservation.entity.Booking;
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+import top.ajasta.AjastaApp.reservation.repository.BookingRepository;
+import top.ajasta.AjastaApp.reservation.repository.BookingSeriesRepository;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+class FreeResourceSearchTest {
+
+    // A Saturday
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 7);
+
+    private ResourceRepository resourceRepository;
+    private OrderRepository orderRepository;
+    private BookingRepository bookingRepository;
+    private AvailabilityServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        resourceRepository = mock(ResourceRepository.class);
+        orderRepository = mock(OrderRepository.class);
+        bookingRepository = mock(BookingRepository.class);
+        given(resourceRepository.findByActiveTrue()).willReturn(List.of(
+                court(1L, "Court A", 1, null),
+                court(2L, "Court B", 2, null),
+                court(3L, "Court C", 1, "6"),
+                Resource.builder().id(4L).name("Chair").type(ResourceType.HAIRDRESSING_CHAIR).unitsCount(1).build()
+        ));
+        // Court A is taken 18:00-19:00 (booking row); unit 1 of Court B is taken 19:00-20:00 (legacy order text)
+        given(bookingRepository.findActiveOnDayForResources(anyCollection(), eq(DAY), anyList()))
+                .willReturn(List.of(Booking.builder().orderId(10L).resourceId(1L).date(DAY).startSlot(36).endSlot(38).unit(1).build()));
+        given(orderRepository.findLegacyBookingDetailsForResourcesOnDay(anyCollection(), eq("Date: " + DAY), anyList()))
+                .willReturn(List.<Object[]>of(
+                        new Object[]{2L, "Date: " + DAY + "\nTime: 19:00 - 20:00\nUnit: 1"}
+                ));
+
+        AvailabilityRulesCache rulesCache = new AvailabilityRulesCache(resourceRepository);
+        service = new AvailabilityServiceImpl(resourceRepository, orderRepository, bookingRepository,
+                mock(BookingSeriesRepository.class), rulesCache,
+                new ResourceTypeIndex(resourceRepository, rulesCache), new SlotHolds(1000, 512),
+                new DayOccupancyCache(1000, 60_000, System::currentTimeMillis));
+    }
+
+    @Test
+    void findFreeResources_returnsOnlyResourcesWithAFreeUnitForTheWholeWindow() {
+        List<FreeResourceDTO> free = service.findFreeResources(ResourceType.TURF_COURT, DAY, "18:00", "20:00").getData();
+
+        System.out.println("[DEBUG_LOG] free resources: " + free);
+        assertEquals(1, free.size());
+        assertEquals(2L, free.get(0).getId());
+        assertEquals(List.of(2), free.get(0).getFreeUnits());
+        // Court C is closed on Saturdays and never reaches the bookings query
+        verify(orderRepository, times(1)).findLegacyBookingDetailsForResourcesOnDay(
+                argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(1L, 2L))), anyString(), anyList());
+        verify(resourceRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void findFreeResources_secondSearchIsServedFromMemory() {
+        service.findFreeResources(ResourceType.TURF_COURT, DAY, "18:00", "20:00");
+        List<FreeResourceDTO> free = service.findFreeResources(ResourceType.TURF_COURT, DAY, "10:00", "11:00").getData();
+
+        assertEquals(List.of(1L, 2L), free.stream().map(FreeResourceDTO::getId).toList());
+        verify(resourceRepository, times(1)).findByActiveTrue();
+        verify(orderRepository, times(1)).findLegacyBookingDetailsForResourcesOnDay(anyCollection(), anyString(), anyList());
+    }
+
+    @Test
+    void findFreeResources_rejectsEmptyWindow() {
+        assertThrows(BadRequestException.class,
+                () -> service.findFreeResources(ResourceType.TURF_COURT, DAY, "20:00", "18:00"));
+    }
+
+    private static Resource court(Long id, String name, int units, String closedWeekdays) {
+        return Resource.builder()
+                .id(id)
+                .name(name)
+                .type(ResourceType.TURF_COURT)
+                .unitsCount(units)
+                .openTime(LocalTime.of(8, 0))
+                .closeTime(LocalTime.of(22, 0))
+                .unavailableWeekdays(closedWeekdays)
+                .build();
+    }
+}
@@ -0,0 +1,439 @@
+package top.ajasta.AjastaApp.reservation.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import top.ajasta.AjastaApp.exceptions.SlotUnavailableException;
+import top.ajasta.AjastaApp.order.entity.Order;
+import top.ajasta.AjastaApp.order.repository.OrderRepository;
+import top.ajasta.AjastaApp.reservation.availability.AvailabilityRulesCache;
+import top.ajasta.AjastaApp.reservation.availability.DayOccupancyCache;
+import top.ajasta.AjastaApp.reservation.availability.ResourceTypeIndex;
+import top.ajasta.AjastaApp.reservation.availability.SeriesPattern;
+import top.ajasta.AjastaApp.reservation.availability.SlotHolds;
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+import top.ajasta.AjastaApp.reservation.entity.Booking;
+import top.ajasta.AjastaApp.reservation.entity.BookingSeries;
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+import top.ajasta.AjastaApp.reservation.repository.BookingJdbcRepository;
+import top.ajasta.AjastaApp.reservation.repository.BookingRepository;
+import top.ajasta.AjastaApp.reservation.repository.BookingSeriesRepository;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hammers the reservation commit path from many threads: no (date, unit, slot) may ever be booked twice,
+ * and bookings on different days must not serialize behind each other.
+ */
+class ReservationServiceConcurrencyTest {
+
+    private static final long RESOURCE_ID = 1L;
+    private static final LocalDate DAY = LocalDate.of(2025, 1, 10);
+
+    private AvailabilityService availabilityService;
+    private ReservationServiceImpl reservationService;
+    private SlotHolds slotHolds;
+    private BookingJdbcRepository bookingJdbcRepository;
+    private BookingRepository bookingRepository;
+    private OrderRepository orderRepository;
+    private final List<BookingSeries> savedSeries = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ResourceRepository resourceRepository = mock(ResourceRepository.class);
+        orderRepository = mock(OrderRepository.class);
+        Resource resource = Resource.builder()
+                .id(RESOURCE_ID)
+                .name("Court A")
+                .type(ResourceType.TURF_COURT)
+                .unitsCount(2)
+                .openTime(LocalTime.of(8, 0))
+                .closeTime(LocalTime.of(22, 0))
+                .build();
+        when(resourceRepository.findById(RESOURCE_ID)).thenReturn(Optional.of(resource));
+        when(orderRepository.findLegacyBookingDetailsForDay(anyLong(), anyString(), anyList())).thenReturn(List.of());
+
+        AvailabilityRulesCache rulesCache = new AvailabilityRulesCache(resourceRepository);
+        slotHolds = new SlotHolds(1000, 512);
+        bookingJdbcRepository = mock(BookingJdbcRepository.class);
+        bookingRepository = mock(BookingRepository.class);
+        // Series rows round-trip through an in-memory list
+        BookingSeriesRepository bookingSeriesRepository = mock(BookingSeriesRepository.class);
+        savedSeries.clear();
+        when(bookingSeriesRepository.save(any(BookingSeries.class))).thenAnswer(inv -> {
+            savedSeries.add(inv.getArgument(0));
+            return inv.getArgument(0);
+        });
+        when(bookingSeriesRepository.findActiveOverlapping(anyLong(), any(), any(), anyList()))
+                .thenAnswer(inv -> List.copyOf(savedSeries));
+        availabilityService = new AvailabilityServiceImpl(resourceRepository, orderRepository, bookingRepository,
+                bookingSeriesRepository, rulesCache, new ResourceTypeIndex(resourceRepository, rulesCache), slotHolds,
+                new DayOccupancyCache(10_000, 600_000, System::currentTimeMillis));
+        reservationService = new ReservationServiceImpl(availabilityService, slotHolds, bookingJdbcRepository,
+                bookingSeriesRepository, mock(OccupancyService.class), new NoOpTransactionManager(), null, event -> { }, 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        slotHolds.shutdown();
+    }
+
+    @Test
+    void concurrentBookingsOfSameSlots_neverOverbook() throws Exception {
+        int threads = 16;
+        int attemptsPerThread = 200;
+        ConcurrentHashMap<String, AtomicInteger> committed = new ConcurrentHashMap<>();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(threads, t -> {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            for (int i = 0; i < attemptsPerThread; i++) {
+                int unit = 1 + rnd.nextInt(2);
+                int start = 16 + rnd.nextInt(27);
+                int length = 1 + rnd.nextInt(2);
+                SlotRange range = new SlotRange(DAY, unit, start, start + length);
+                try {
+                    reservationService.reserve(RESOURCE_ID, List.of(range), () -> {
+                        LockSupport.parkNanos(50_000); // simulated order insert
+                        for (int s = range.startSlot(); s < range.endSlot(); s++) {
+                            committed.computeIfAbsent(unit + ":" + s, k -> new AtomicInteger()).incrementAndGet();
+                        }
+                        return null;
+                    });
+                } catch (SlotUnavailableException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+
+        committed.forEach((cell, count) -> assertEquals(1, count.get(), "slot " + cell + " was booked " + count.get() + " times"));
+        assertTrue(rejected.get() > 0, "contention expected");
+        // Every committed cell is marked busy in the engine, and nothing else is
+        for (int unit = 1; unit <= 2; unit++) {
+            for (int slot = 16; slot < 44; slot++) {
+                boolean booked = committed.containsKey(unit + ":" + slot);
+                assertEquals(!booked, availabilityService.isSlotFree(RESOURCE_ID, DAY, unit, slot), "unit " + unit + " slot " + slot);
+            }
+        }
+        System.out.println("[DEBUG_LOG] committed cells=" + committed.size() + " rejected=" + rejected.get());
+    }
+
+    @Test
+    void failedCommit_releasesSlots() {
+        SlotRange range = new SlotRange(DAY, 1, 20, 22);
+
+        assertThrows(IllegalStateException.class, () -> reservationService.reserve(RESOURCE_ID, List.of(range), () -> {
+            throw new IllegalStateException("insert failed");
+        }));
+
+        assertTrue(availabilityService.isRangeFree(RESOURCE_ID, DAY, 1, 20, 22));
+    }
+
+    @Test
+    void overlappingRangesInOneRequest_areRejected() {
+        List<SlotRange> ranges = List.of(new SlotRange(DAY, 1, 20, 22), new SlotRange(DAY, 1, 21, 23));
+
+        assertThrows(SlotUnavailableException.class, () -> reservationService.reserve(RESOURCE_ID, ranges, () -> null));
+        assertTrue(availabilityService.isRangeFree(RESOURCE_ID, DAY, 1, 20, 23));
+    }
+
+    @Test
+    void reserveBooking_writesBookingRowsForTheNewOrder() {
+        List<SlotRange> ranges = List.of(new SlotRange(DAY, 1, 20, 22), new SlotRange(DAY, 2, 20, 22));
+
+        Long orderId = reservationService.reserveBooking(RESOURCE_ID, ranges, 7L, booked -> 42L);
+
+        assertEquals(42L, orderId);
+        verify(bookingJdbcRepository).insertAll(42L, RESOURCE_ID, ranges);
+        assertFalse(availabilityService.isRangeFree(RESOURCE_ID, DAY, 2, 20, 22));
+    }
+
+    @Test
+    void reserveSeries_takesEveryOccurrenceAndNothingElse() {
+        // Cached before the series is booked: updated in place
+        assertTrue(availabilityService.isRangeFree(RESOURCE_ID, DAY, 1, 36, 38));
+        SeriesPattern weekly = SeriesPattern.of(DAY, 1, null, 4);
+
+        Long orderId = reservationService.reserveSeries(RESOURCE_ID, new SlotRange(DAY, 1, 36, 38), weekly, 7L, booked -> 99L);
+
+        assertEquals(99L, orderId);
+        assertEquals(1, savedSeries.size());
+        assertFalse(availabilityService.isRangeFree(RESOURCE_ID, DAY, 1, 36, 38));
+        // Not cached yet: built from the series row
+        assertFalse(availabilityService.isRangeFree(RESOURCE_ID, DAY.plusWeeks(3), 1, 37, 38));
+        assertTrue(availabilityService.isRangeFree(RESOURCE_ID, DAY.plusWeeks(3), 2, 36, 38));
+        assertTrue(availabilityService.isRangeFree(RESOURCE_ID, DAY.plusDays(1), 1, 36, 38));
+        assertTrue(availabilityService.isRangeFree(RESOURCE_ID, DAY.plusWeeks(4), 1, 36, 38));
+        assertThrows(SlotUnavailableException.class, () -> reservationService.reserve(RESOURCE_ID,
+                List.of(new SlotRange(DAY.plusWeeks(2), 1, 37, 39)), () -> null));
+    }
+
+    @Test
+    void reserveSeries_conflictingOccurrenceFailsTheWholeSeries() {
+        when(bookingRepository.findActiveOverlappingSlots(anyLong(), any(), any(), anyInt(), anyInt(), anyList()))
+                .thenReturn(List.of(Booking.builder().orderId(5L).resourceId(RESOURCE_ID)
+                        .date(DAY.plusWeeks(2)).startSlot(37).endSlot(38).unit(1).build()));
+        SeriesPattern biweekly = SeriesPattern.of(DAY, 2, DAY.plusWeeks(8), null);
+        SeriesPattern oddWeeks = SeriesPattern.of(DAY.plusWeeks(1), 2, DAY.plusWeeks(8), null);
+
+        SlotUnavailableException e = assertThrows(SlotUnavailableException.class, () -> reservationService.reserveSeries(
+                RESOURCE_ID, new SlotRange(DAY, 1, 36, 38), biweekly, 7L, booked -> 99L));
+        System.out.println("[DEBUG_LOG] " + e.getMessage());
+        assertTrue(e.getMessage().contains(DAY.plusWeeks(2).toString()));
+        assertTrue(savedSeries.isEmpty());
+
+        // The booking is not on an occurrence of the odd weeks
+        reservationService.reserveSeries(RESOURCE_ID, new SlotRange(DAY.plusWeeks(1), 1, 36, 38), oddWeeks, 7L, booked -> 99L);
+        // Left open, the unit is the lowest one free on every occurrence
+        Long[] unit = new Long[1];
+        reservationService.reserveSeries(RESOURCE_ID, new SlotRange(DAY, SlotRange.AUTO_UNIT, 36, 38), biweekly, 7L, booked -> {
+            unit[0] = (long) booked.unit();
+            return 100L;
+        });
+        assertEquals(2L, unit[0]);
+    }
+
+    @Test
+    void reserveSeries_readsOnlyLegacyOrdersMentioningTheSeriesWindow() {
+        // Weekly from 2025-01-10 to 2025-01-31: every occurrence shares the "Date: 2025-01-" marker prefix
+        when(orderRepository.findLegacyBookingDetailsForDay(eq(RESOURCE_ID), eq("Date: 2025-01-"), anyList()))
+                .thenReturn(List.of("Date: 2025-01-24\nTime: 18:00 - 19:00\nUnit: 1"));
+        SeriesPattern weekly = SeriesPattern.of(DAY, 1, null, 4);
+
+        SlotUnavailableException e = assertThrows(SlotUnavailableException.class, () -> reservationService.reserveSeries(
+                RESOURCE_ID, new SlotRange(DAY, 1, 36, 38), weekly, 7L, booked -> 99L));
+
+        assertTrue(e.getMessage().contains("2025-01-24"));
+        verify(orderRepository, never()).findLegacyBookingDetailsForResource(anyLong(), anyList());
+    }
+
+    @Test
+    void invalidate_dropsTheOrdersDaysOnlyOnceTheTransactionCommits() {
+        SlotRange range = new SlotRange(DAY, 1, 20, 22);
+        reservationService.reserveBooking(RESOURCE_ID, List.of(range), 7L, booked -> 42L);
+        when(bookingRepository.findByOrderId(42L)).thenReturn(List.of(Booking.builder().orderId(42L).resourceId(RESOURCE_ID)
+                .date(DAY).startSlot(20).endSlot(22).unit(1).build()));
+        Order order = Order.builder().id(42L).resourceId(RESOURCE_ID).booking(true).build();
+
+        new TransactionTemplate(new NoOpTransactionManager()).executeWithoutResult(status -> {
+            availabilityService.invalidate(order);
+            // Other connections still see the booking rows, so the cached day must stay as it is
+            assertFalse(availabilityService.isRangeFree(RESOURCE_ID, DAY, 1, 20, 22));
+        });
+
+        // Rebuilt from the stored bookings, of which there are none
+        assertTrue(availabilityService.isRangeFree(RESOURCE_ID, DAY, 1, 20, 22));
+    }
+
+    @Test
+    void invalidate_dropsTheDaysBeforeOtherAfterCommitCallbacksRun() {
+        SlotRange range = new SlotRange(DAY, 1, 20, 22);
+        reservationService.reserveBooking(RESOURCE_ID, List.of(range), 7L, booked -> 42L);
+        when(bookingRepository.findByOrderId(42L)).thenReturn(List.of(Booking.builder().orderId(42L).resourceId(RESOURCE_ID)
+                .date(DAY).startSlot(20).endSlot(22).unit(1).build()));
+        Order order = Order.builder().id(42L).resourceId(RESOURCE_ID).booking(true).build();
+        List<Boolean> seenFree = new ArrayList<>();
+
+        new TransactionTemplate(new NoOpTransactionManager()).executeWithoutResult(status -> {
+            // Registered first, like a status change whose release event is published in the same transaction
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    seenFree.add(availabilityService.isRangeFree(RESOURCE_ID, DAY, 1, 20, 22));
+                }
+            });
+            availabilityService.invalidate(order);
+        });
+
+        // The waitlist promotion and stream pushes must see the day rebuilt without the cancelled booking
+        assertEquals(List.of(true), seenFree);
+    }
+
+    @Test
+    void dayRebuiltBeforeTheCommit_keepsTheUncommittedBooking() {
+        SlotRange range = new SlotRange(DAY, 2, 24, 26);
+
+        new TransactionTemplate(new NoOpTransactionManager()).executeWithoutResult(status -> {
+            reservationService.reserve(RESOURCE_ID, List.of(range), () -> null);
+            // Evicted and rebuilt while the booking's rows are not visible to other connections yet
+            availabilityService.reload(RESOURCE_ID, DAY);
+            assertFalse(availabilityService.isRangeFree(RESOURCE_ID, DAY, 2, 24, 26));
+        });
+    }
+
+    @Test
+    void heldSlots_blockOtherUsersButNotTheHolder() {
+        SlotRange range = new SlotRange(DAY, 1, 20, 22);
+        SlotHolds.Hold hold = reservationService.hold(RESOURCE_ID, List.of(range), 7L, Duration.ofMinutes(10));
+
+        assertFalse(availabilityService.isRangeFree(RESOURCE_ID, DAY, 1, 20, 22));
+        assertThrows(SlotUnavailableException.class, () -> reservationService.hold(RESOURCE_ID, List.of(range), 8L, Duration.ofMinutes(10)));
+        assertThrows(SlotUnavailableException.class, () -> reservationService.reserve(RESOURCE_ID, List.of(range), 8L, () -> null));
+        assertThrows(SlotUnavailableException.class, () -> reservationService.reserve(RESOURCE_ID, List.of(range), () -> null));
+
+        // The holder books the held slots; the hold is consumed and the slots stay taken as a booking
+        reservationService.reserve(RESOURCE_ID, List.of(range), 7L, () -> null);
+        assertNull(slotHolds.get(hold.id()));
+        assertFalse(availabilityService.isRangeFree(RESOURCE_ID, DAY, 1, 20, 22));
+    }
+
+    @Test
+    void concurrentHoldsOfSameSlots_onlyOneWins() throws Exception {
+        int threads = 16;
+        AtomicInteger won = new AtomicInteger();
+        SlotRange range = new SlotRange(DAY, 2, 30, 32);
+
+        runConcurrently(threads, t -> {
+            try {
+                reservationService.hold(RESOURCE_ID, List.of(range), (long) t, Duration.ofMinutes(10));
+                won.incrementAndGet();
+            } catch (SlotUnavailableException ignored) {
+            }
+        });
+
+        assertEquals(1, won.get());
+        assertEquals(1, slotHolds.size());
+    }
+
+    @Test
+    void nonConflictingBookings_scaleWithThreadCount() throws Exception {
+        int bookingsPerThread = 100;
+        double baseline = 0;
+        for (int threads : new int[]{1, 2, 4, 8}) {
+            // A fresh service per run; the previous one's expiry wheel is stopped first
+            slotHolds.shutdown();
+            setUp();
+            long started = System.nanoTime();
+            runConcurrently(threads, t -> {
+                // Each thread books its own days, so no two threads compete for a (resource, date)
+                for (int i = 0; i < bookingsPerThread; i++) {
+                    LocalDate date = DAY.plusDays(t * 1000L + i);
+                    reservationService.reserve(RESOURCE_ID, List.of(new SlotRange(date, 1, 20, 21)), () -> {
+                        LockSupport.parkNanos(200_000); // simulated order insert
+                        return null;
+                    });
+                }
+            });
+            double seconds = (System.nanoTime() - started) / 1e9;
+            double throughput = threads * bookingsPerThread / seconds;
+            if (threads == 1) baseline = throughput;
+            System.out.printf("[DEBUG_LOG] threads=%d bookings/s=%.0f speedup=%.2fx%n", threads, throughput, throughput / baseline);
+            for (int t = 0; t < threads; t++) {
+                assertFalse(availabilityService.isSlotFree(RESOURCE_ID, DAY.plusDays(t * 1000L), 1, 20));
+            }
+        }
+    }
+
+    @Test
+    void advisoryLocks_areTakenPerDateInAscendingOrderBeforeTheConflictCheck() throws Exception {
+        Connection connection = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<Object>>any()))
+                .thenAnswer(inv -> inv.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+        ReservationServiceImpl service = new ReservationServiceImpl(availabilityService, slotHolds, bookingJdbcRepository,
+                mock(BookingSeriesRepository.class), mock(OccupancyService.class), new NoOpTransactionManager(),
+                jdbcTemplate, event -> { }, 1024);
+        ReflectionTestUtils.setField(service, "advisoryLocks", true);
+
+        // Requested out of date order; the keys are (resource id, epoch day)
+        service.reserve(RESOURCE_ID, List.of(new SlotRange(DAY.plusDays(1), 1, 20, 22), new SlotRange(DAY, 2, 20, 22)),
+                () -> null);
+
+        verify(connection, times(2)).prepareStatement("SELECT pg_advisory_xact_lock(?, ?)");
+        InOrder order = inOrder(statement);
+        order.verify(statement).setInt(1, (int) RESOURCE_ID);
+        order.verify(statement).setInt(2, (int) DAY.toEpochDay());
+        order.verify(statement).execute();
+        order.verify(statement).setInt(1, (int) RESOURCE_ID);
+        order.verify(statement).setInt(2, (int) DAY.plusDays(1).toEpochDay());
+        order.verify(statement).execute();
+        assertFalse(availabilityService.isRangeFree(RESOURCE_ID, DAY, 2, 20, 22));
+    }
+
+    private interface Worker {
+        void run(int threadIndex) throws Exception;
+    }
+
+    private static void runConcurrently(int threads, Worker worker) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<java.util.concurrent.Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            futures.add(pool.submit(() -> {
+                start.await();
+                worker.run(index);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (java.util.concurrent.Future<?> f : futures) {
+            f.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+    }
+
+    // Minimal transaction manager so transaction synchronization (rollback hooks) is active without a database
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
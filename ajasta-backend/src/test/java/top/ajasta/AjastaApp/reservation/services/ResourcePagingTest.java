@@ -0,0 +1,144 @@
+package top.ajasta.AjastaApp.reservation.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import top.ajasta.AjastaApp.exceptions.BadRequestException;
+import top.ajasta.AjastaApp.reservation.dtos.ResourceDTO;
+import top.ajasta.AjastaApp.reservation.dtos.ResourceFacetsDTO;
+import top.ajasta.AjastaApp.reservation.dtos.ResourcePageDTO;
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.config.import=",
+    "DB_URL=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "DB_USERNAME=sa",
+    "DB_PASSWORD="
+})
+@Transactional
+class ResourcePagingTest {
+
+    // Marker in every location so the test only sees its own rows
+    private static final String PROBE = "pagingprobe";
+
+    @Autowired
+    private ResourceService resourceService;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @BeforeEach
+    void seed() {
+        // Two "Beta" rows: the id breaks the tie
+        for (String name : List.of("Delta", "Beta", "Alpha", "Beta", "Echo")) {
+            resourceRepository.save(Resource.builder()
+                    .name(name)
+                    .type(name.startsWith("E") ? ResourceType.HAIRDRESSING_CHAIR : ResourceType.TURF_COURT)
+                    .location("Hall " + PROBE)
+                    .active(!name.equals("Delta"))
+                    .build());
+        }
+    }
+
+    @Test
+    void cursor_walksEveryRowOnceInNameThenIdOrder() {
+        List<String> names = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ResourcePageDTO page = resourceService.getResourcePage(null, PROBE, null, null, cursor, 2).getData();
+            System.out.println("[DEBUG_LOG] page " + page.getItems().stream().map(ResourceDTO::getName).toList() + " next=" + page.getNextCursor());
+            page.getItems().forEach(r -> {
+                names.add(r.getName());
+                ids.add(r.getId());
+            });
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(List.of("Alpha", "Beta", "Beta", "Delta", "Echo"), names);
+        assertTrue(ids.get(1) < ids.get(2));
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void descending_andFiltersAreApplied() {
+        ResourcePageDTO page = resourceService.getResourcePage(ResourceType.TURF_COURT, PROBE.toUpperCase(), true, "-name", null, 10).getData();
+
+        assertEquals(List.of("Beta", "Beta", "Alpha"), page.getItems().stream().map(ResourceDTO::getName).toList());
+        assertNull(page.getNextCursor());
+        assertEquals("-name", page.getSort());
+    }
+
+    @Test
+    void listing_filtersInTheDatabase() {
+        List<ResourceDTO> all = resourceService.getResources(null, PROBE, null).getData();
+        List<ResourceDTO> chairs = resourceService.getResources(ResourceType.HAIRDRESSING_CHAIR, PROBE, null).getData();
+        List<ResourceDTO> inactive = resourceService.getResources(null, PROBE, false).getData();
+
+        assertEquals(5, all.size());
+        assertEquals(List.of("Echo"), chairs.stream().map(ResourceDTO::getName).toList());
+        assertEquals(List.of("Delta"), inactive.stream().map(ResourceDTO::getName).toList());
+        assertTrue(resourceService.getResources(null, "pagingprobe%", null).getData().isEmpty());
+    }
+
+    @Test
+    void summaryListing_returnsCardFieldsOnly() {
+        // A search no other test lists, so the catalog cache cannot answer with rows of a rolled-back test
+        List<ResourceDTO> full = resourceService.getResources(null, "Hall " + PROBE, null, "full").getData();
+        List<ResourceDTO> summary = resourceService.getResources(null, "Hall " + PROBE, null, "summary").getData();
+
+        assertEquals(5, summary.size());
+        assertEquals(full.stream().map(ResourceDTO::getId).toList(), summary.stream().map(ResourceDTO::getId).toList());
+        assertEquals(full.stream().map(ResourceDTO::getName).toList(), summary.stream().map(ResourceDTO::getName).toList());
+        assertTrue(summary.stream().allMatch(r -> r.getType() != null && r.getActive() != null && r.getLocation().endsWith(PROBE)));
+        assertTrue(summary.stream().allMatch(r -> r.getManagerIds() == null && r.getOpenTime() == null));
+    }
+
+    @Test
+    void facets_countEachFilterNarrowedByTheOthers() {
+        ResourceFacetsDTO all = resourceService.getFacets(PROBE, null, null).getData();
+        assertEquals(5L, all.getTotal());
+        assertEquals(4L, all.getTypes().get(ResourceType.TURF_COURT));
+        assertEquals(1L, all.getTypes().get(ResourceType.HAIRDRESSING_CHAIR));
+        assertEquals(0L, all.getTypes().get(ResourceType.PLAYGROUND));
+        assertEquals(4L, all.getActive());
+        assertEquals(1L, all.getInactive());
+
+        ResourceFacetsDTO activeOnly = resourceService.getFacets(PROBE, null, true).getData();
+        assertEquals(4L, activeOnly.getTotal());
+        assertEquals(3L, activeOnly.getTypes().get(ResourceType.TURF_COURT));
+        assertEquals(1L, activeOnly.getInactive());
+
+        ResourceFacetsDTO courts = resourceService.getFacets(PROBE, ResourceType.TURF_COURT, null).getData();
+        assertEquals(4L, courts.getTotal());
+        assertEquals(1L, courts.getTypes().get(ResourceType.HAIRDRESSING_CHAIR));
+        assertEquals(3L, courts.getActive());
+    }
+
+    @Test
+    void invalidArguments_areBadRequests() {
+        assertThrows(BadRequestException.class, () -> resourceService.getResourcePage(null, null, null, "price", null, 10));
+        assertThrows(BadRequestException.class, () -> resourceService.getResourcePage(null, null, null, null, null, 0));
+        assertThrows(BadRequestException.class, () -> resourceService.getResources(null, null, null, "compact"));
+    }
+}
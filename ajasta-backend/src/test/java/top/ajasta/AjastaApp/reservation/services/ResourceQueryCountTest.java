@@ -0,0 +1,118 @@
+package top.ajasta.AjastaApp.reservation.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import top.ajasta.AjastaApp.auth_users.entity.User;
+import top.ajasta.AjastaApp.auth_users.repository.UserRepository;
+import top.ajasta.AjastaApp.reservation.dtos.ResourceDTO;
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.enums.ResourceType;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.config.import=",
+    "DB_URL=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+    "DB_USERNAME=sa",
+    "DB_PASSWORD="
+})
+@Transactional
+class ResourceQueryCountTest {
+
+    // Marker in every location so the test only sees its own rows
+    private static final String PROBE = "querycountprobe";
+
+    @Autowired
+    private ResourceService resourceService;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        List<User> managers = userRepository.saveAll(List.of(
+                User.builder().name("M1").email("m1@" + PROBE).password("x").build(),
+                User.builder().name("M2").email("m2@" + PROBE).password("x").build()));
+        for (int i = 0; i < 12; i++) {
+            resourceRepository.save(Resource.builder()
+                    .name("Court " + (char) ('A' + i))
+                    .type(ResourceType.TURF_COURT)
+                    .location("Hall " + PROBE)
+                    .managers(new ArrayList<>(managers.subList(0, i % 3)))
+                    .build());
+        }
+        // Start from an empty persistence context so managers are lazy again, as in a real request
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private long statementsOf(Runnable call) {
+        entityManager.clear();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void page_usesTheSameNumberOfStatementsForAnySize() {
+        long small = statementsOf(() -> resourceService.getResourcePage(null, PROBE, null, null, null, 2));
+        long large = statementsOf(() -> resourceService.getResourcePage(null, PROBE, null, null, null, 12));
+
+        System.out.println("[DEBUG_LOG] statements small=" + small + " large=" + large);
+        assertEquals(small, large);
+        assertEquals(2, large); // the page and the manager ids
+    }
+
+    @Test
+    void listing_andDetail_carryManagerIdsFromOneBatchedQuery() {
+        AtomicReference<List<ResourceDTO>> result = new AtomicReference<>();
+        long listing = statementsOf(() -> result.set(resourceService.getResources(null, PROBE, null).getData()));
+        List<ResourceDTO> listed = result.get();
+
+        assertEquals(2, listing);
+        assertEquals(12, listed.size());
+        assertEquals(List.of(), listed.get(0).getManagerIds());
+        assertEquals(1, listed.get(1).getManagerIds().size());
+        assertEquals(2, listed.get(2).getManagerIds().size());
+
+        Long id = listed.get(2).getId();
+        AtomicReference<ResourceDTO> detail = new AtomicReference<>();
+        long lookup = statementsOf(() -> detail.set(resourceService.getResourceById(id).getData()));
+        assertTrue(lookup <= 2);
+        assertEquals(listed.get(2).getManagerIds(), detail.get().getManagerIds());
+    }
+}
@@ -0,0 +1,214 @@
+package top.ajasta.AjastaApp.reservation.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.thymeleaf.TemplateEngine;
+import top.ajasta.AjastaApp.auth_users.entity.User;
+import top.ajasta.AjastaApp.auth_users.repository.UserRepository;
+import top.ajasta.AjastaApp.auth_users.services.UserService;
+import top.ajasta.AjastaApp.email_notification.dtos.NotificationDTO;
+import top.ajasta.AjastaApp.email_notification.services.NotificationService;
+import top.ajasta.AjastaApp.exceptions.BadRequestException;
+import top.ajasta.AjastaApp.exceptions.SlotUnavailableException;
+import top.ajasta.AjastaApp.reservation.availability.AvailabilityRulesCache;
+import top.ajasta.AjastaApp.reservation.availability.SlotHolds;
+import top.ajasta.AjastaApp.reservation.availability.SlotRange;
+import top.ajasta.AjastaApp.reservation.dtos.BookRequest;
+import top.ajasta.AjastaApp.reservation.entity.Resource;
+import top.ajasta.AjastaApp.reservation.entity.WaitlistEntry;
+import top.ajasta.AjastaApp.reservation.enums.WaitlistStatus;
+import top.ajasta.AjastaApp.reservation.events.SlotsReleasedEvent;
+import top.ajasta.AjastaApp.reservation.repository.ResourceRepository;
+import top.ajasta.AjastaApp.reservation.repository.WaitlistEntryRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+class WaitlistServiceImplTest {
+
+    private static final long RESOURCE_ID = 1L;
+    private static final LocalDate DAY = LocalDate.now().plusDays(3);
+
+    private final Map<Long, WaitlistEntry> rows = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    private WaitlistEntryRepository repository;
+    private AvailabilityService availabilityService;
+    private ReservationService reservationService;
+    private UserService userService;
+    private NotificationService notificationService;
+    private SlotHolds slotHolds;
+    private WaitlistServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(WaitlistEntryRepository.class);
+        given(repository.save(any(WaitlistEntry.class))).willAnswer(inv -> {
+            WaitlistEntry e = inv.getArgument(0);
+            if (e.getId() == null) e.setId(ids.incrementAndGet());
+            rows.put(e.getId(), e);
+            return e;
+        });
+        given(repository.findById(anyLong())).willAnswer(inv -> Optional.ofNullable(rows.get(inv.<Long>getArgument(0))));
+
+        availabilityService = mock(AvailabilityService.class);
+        // Every requested slot is taken when users join
+        given(availabilityService.assignUnits(anyLong(), anyList(), any())).willAnswer(inv -> inv.getArgument(1));
+        given(availabilityService.conflicts(anyLong(), anyList(), any())).willAnswer(inv -> inv.getArgument(1));
+
+        reservationService = mock(ReservationService.class);
+        userService = mock(UserService.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        given(userRepository.findById(anyLong())).willAnswer(inv -> Optional.of(user(inv.getArgument(0))));
+        notificationService = mock(NotificationService.class);
+        TemplateEngine templateEngine = mock(TemplateEngine.class);
+        given(templateEngine.process(anyString(), any(org.thymeleaf.context.IContext.class))).willReturn("<html/>");
+        slotHolds = new SlotHolds(1000, 512);
+        ResourceRepository resourceRepository = mock(ResourceRepository.class);
+        given(resourceRepository.findById(RESOURCE_ID)).willReturn(Optional.of(Resource.builder()
+                .id(RESOURCE_ID)
+                .name("Court A")
+                .unitsCount(2)
+                .openTime(LocalTime.of(8, 0))
+                .closeTime(LocalTime.of(22, 0))
+                .unavailableDates(DAY.plusDays(1).toString())
+                .build()));
+
+        service = new WaitlistServiceImpl(repository, availabilityService, new AvailabilityRulesCache(resourceRepository),
+                reservationService, slotHolds, userService, userRepository, resourceRepository, notificationService,
+                templateEngine);
+    }
+
+    @AfterEach
+    void tearDown() {
+        slotHolds.shutdown();
+    }
+
+    @Test
+    void releasedSlots_areOfferedToTheFirstWaiterOnly() {
+        join(10L, "18:00", "19:00");
+        join(20L, "18:00", "19:00");
+        SlotRange freed = new SlotRange(DAY, 1, 36, 38);
+        given(reservationService.hold(eq(RESOURCE_ID), anyList(), anyLong(), any(Duration.class)))
+                .willAnswer(inv -> new SlotHolds.Hold("h-" + inv.getArgument(2), RESOURCE_ID, inv.getArgument(2),
+                        List.of(freed), Instant.now().plusSeconds(900)))
+                .willThrow(new SlotUnavailableException("held"));
+
+        service.onSlotsReleased(new SlotsReleasedEvent(RESOURCE_ID, List.of(freed)));
+
+        WaitlistEntry first = rows.get(1L);
+        assertEquals(WaitlistStatus.OFFERED, first.getStatus());
+        assertEquals("h-10", first.getHoldId());
+        assertEquals(WaitlistStatus.WAITING, rows.get(2L).getStatus());
+        verify(reservationService).hold(eq(RESOURCE_ID), eq(List.of(new SlotRange(DAY, SlotRange.AUTO_UNIT, 36, 38))),
+                eq(10L), eq(Duration.ofMinutes(15)));
+        ArgumentCaptor<NotificationDTO> mail = ArgumentCaptor.forClass(NotificationDTO.class);
+        verify(notificationService, times(1)).sendEmail(mail.capture());
+        assertEquals("user10@example.com", mail.getValue().getRecipient());
+    }
+
+    @Test
+    void waiterWhoseRangeIsStillTaken_keepsItsPlace() {
+        join(10L, "18:00", "20:00");
+        given(reservationService.hold(anyLong(), anyList(), anyLong(), any(Duration.class)))
+                .willThrow(new SlotUnavailableException("still booked"));
+
+        service.promote(RESOURCE_ID, List.of(new SlotRange(DAY, 1, 36, 37)));
+
+        assertEquals(WaitlistStatus.WAITING, rows.get(1L).getStatus());
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void waiterWhoseRangeIsStillTaken_doesNotBlockALaterWaiterWhoseRangeIsFree() {
+        join(10L, "18:00", "20:00");
+        join(20L, "18:00", "19:00");
+        SlotRange freed = new SlotRange(DAY, 1, 36, 37);
+        given(availabilityService.isSlotFree(RESOURCE_ID, DAY, 1, 36)).willReturn(true);
+        given(reservationService.hold(eq(RESOURCE_ID), anyList(), eq(10L), any(Duration.class)))
+                .willThrow(new SlotUnavailableException("19:00 still booked"));
+        given(reservationService.hold(eq(RESOURCE_ID), anyList(), eq(20L), any(Duration.class)))
+                .willReturn(new SlotHolds.Hold("h-20", RESOURCE_ID, 20L, List.of(new SlotRange(DAY, 1, 36, 38)),
+                        Instant.now().plusSeconds(900)));
+
+        service.promote(RESOURCE_ID, List.of(freed));
+
+        assertEquals(WaitlistStatus.WAITING, rows.get(1L).getStatus());
+        assertEquals(WaitlistStatus.OFFERED, rows.get(2L).getStatus());
+        assertEquals("h-20", rows.get(2L).getHoldId());
+    }
+
+    @Test
+    void walkStops_onceTheFreedSlotIsTakenAgain() {
+        join(10L, "18:00", "20:00");
+        join(20L, "18:00", "20:00");
+        given(reservationService.hold(anyLong(), anyList(), anyLong(), any(Duration.class)))
+                .willThrow(new SlotUnavailableException("taken"));
+
+        service.promote(RESOURCE_ID, List.of(new SlotRange(DAY, 1, 36, 37)));
+
+        // isSlotFree is false (the mock's default), so only the head was tried
+        verify(reservationService, times(1)).hold(anyLong(), anyList(), anyLong(), any(Duration.class));
+    }
+
+    @Test
+    void join_rejectsSlotsThatCanNeverBeBooked() {
+        given(userService.getCurrentLoggedInUser()).willReturn(user(10L));
+
+        BookRequest closedDay = request("18:00", "19:00");
+        closedDay.setDate(DAY.plusDays(1).toString());
+        BookRequest missingUnit = request("18:00", "19:00");
+        missingUnit.setUnit(3);
+
+        assertThrows(BadRequestException.class, () -> service.join(RESOURCE_ID, closedDay));
+        assertThrows(BadRequestException.class, () -> service.join(RESOURCE_ID, request("22:00", "23:00")));
+        assertThrows(BadRequestException.class, () -> service.join(RESOURCE_ID, missingUnit));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void join_rejectsSlotsThatAreFree() {
+        given(availabilityService.assignUnits(anyLong(), anyList(), any()))
+                .willAnswer(inv -> List.of(inv.<List<SlotRange>>getArgument(1).get(0).withUnit(1)));
+        given(availabilityService.conflicts(anyLong(), anyList(), any())).willReturn(List.of());
+        given(userService.getCurrentLoggedInUser()).willReturn(user(10L));
+
+        assertThrows(BadRequestException.class, () -> service.join(RESOURCE_ID, request("18:00", "19:00")));
+        verify(repository, never()).save(any());
+    }
+
+    private void join(long userId, String start, String end) {
+        given(userService.getCurrentLoggedInUser()).willReturn(user(userId));
+        service.join(RESOURCE_ID, request(start, end));
+    }
+
+    private static BookRequest request(String start, String end) {
+        BookRequest r = new BookRequest();
+        r.setDate(DAY.toString());
+        r.setStartTime(start);
+        r.setEndTime(end);
+        return r;
+    }
+
+    private static User user(long id) {
+        User u = new User();
+        u.setId(id);
+        u.setName("User " + id);
+        u.setEmail("user" + id + "@example.com");
+        return u;
+    }
+}
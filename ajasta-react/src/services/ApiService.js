@@ -434,11 +434,141 @@ export default class ApiService {
         return resp.data;
     }
 
+    // Temporarily hold slots while the user completes the booking; body: { days: [{ date, slots }], minutes }
+    static async createResourceHold(id, body) {
+        const resp = await axios.post(`${this.BASE_URL}/resources/${id}/holds`, body, {
+            headers: this.getHeader()
+        });
+        return resp.data;
+    }
+
+    static async getMyResourceHolds(id) {
+        const resp = await axios.get(`${this.BASE_URL}/resources/${id}/holds`, {
+            headers: this.getHeader()
+        });
+        return resp.data;
+    }
+
+    static async releaseResourceHold(id, holdId) {
+        const resp = await axios.delete(`${this.BASE_URL}/resources/${id}/holds/${holdId}`, {
+            headers: this.getHeader()
+        });
+        return resp.data;
+    }
+
+    // Wait for a fully booked slot; body: { date, startTime, endTime, unit? }
+    static async joinResourceWaitlist(id, body) {
+        const resp = await axios.post(`${this.BASE_URL}/resources/${id}/waitlist`, body, {
+            headers: this.getHeader()
+        });
+        return resp.data;
+    }
+
+    static async getMyResourceWaitlist(id) {
+        const resp = await axios.get(`${this.BASE_URL}/resources/${id}/waitlist`, {
+            headers: this.getHeader()
+        });
+        return resp.data;
+    }
+
+    static async leaveResourceWaitlist(id, entryId) {
+        const resp = await axios.delete(`${this.BASE_URL}/resources/${id}/waitlist/${entryId}`, {
+            headers: this.getHeader()
+        });
+        return resp.data;
+    }
+
+    // Free slots per day and unit; each mask is 48 half-hour bits, base64 of 6 little-endian bytes
+    static async getResourceAvailability(id, from, to) {
+        const resp = await axios.get(`${this.BASE_URL}/resources/${id}/availability`, {
+            params: { from, to }
+        });
+        return resp.data;
+    }
+
+    // Price breakdown for a basket; body is the same { days: [{ date, slots: [...] }] } as book-multi
+    static async getResourceQuote(id, body) {
+        const resp = await axios.post(`${this.BASE_URL}/resources/${id}/quote`, body);
+        return resp.data;
+    }
+
+    static async getResourcePriceRules(id) {
+        const resp = await axios.get(`${this.BASE_URL}/resources/${id}/price-rules`, {
+            headers: this.getHeader()
+        });
+        return resp.data;
+    }
+
+    // Creates a rule, or updates it when rule.id is set
+    static async saveResourcePriceRule(id, rule) {
+        const resp = await axios.post(`${this.BASE_URL}/resources/${id}/price-rules`, rule, {
+            headers: this.getHeader()
+        });
+        return resp.data;
+    }
+
+    static async deleteResourcePriceRule(id, ruleId) {
+        const resp = await axios.delete(`${this.BASE_URL}/resources/${id}/price-rules/${ruleId}`, {
+            headers: this.getHeader()
+        });
+        return resp.data;
+    }
+
+    // Public .ics feed of a resource's bookings, for subscribing from a calendar app
+    static resourceCalendarUrl(id) {
+        return `${this.BASE_URL}/resources/${id}/calendar.ics`;
+    }
+
+    // The logged-in user's bookings as .ics text
+    static async getMyCalendar() {
+        const resp = await axios.get(`${this.BASE_URL}/orders/me/calendar.ics`, {
+            headers: this.getHeader(),
+            responseType: 'text'
+        });
+        return resp.data;
+    }
+
+    // Booked slots per weekday x half-hour plus a daily rollup for [from, to] (managers and admins)
+    static async getResourceOccupancy(id, from, to) {
+        const resp = await axios.get(`${this.BASE_URL}/resources/${id}/occupancy`, {
+            headers: this.getHeader(),
+            params: { from, to }
+        });
+        return resp.data;
+    }
+
+    // Live availability: onChange gets { seq, resourceId, date, free } whenever a day changes; returns a function
+    // that closes the stream. Events can arrive out of order, so changes older than the last seen seq are dropped.
+    static subscribeResourceAvailability(id, onChange) {
+        const source = new EventSource(`${this.BASE_URL}/resources/${id}/availability/stream`);
+        const lastSeq = {};
+        source.addEventListener('availability', (e) => {
+            const change = JSON.parse(e.data);
+            if (lastSeq[change.date] >= change.seq) return;
+            lastSeq[change.date] = change.seq;
+            onChange(change);
+        });
+        return () => source.close();
+    }
+
     static async getAllResources(params = {}) {
         const resp = await axios.get(`${this.BASE_URL}/resources`, { params });
         return resp.data;
     }
 
+    // One page of resources: params { type, search, active, sort: 'name' | '-name', size, cursor };
+    // data.nextCursor is the cursor of the next page and is missing on the last one
+    static async getResourcePage(params = {}) {
+        const resp = await axios.get(`${this.BASE_URL}/resources/page`, { params });
+        return resp.data;
+    }
+
+    // Ranked search over name, location and description that tolerates typos: params { q, type, active, limit }
+    static async searchResources(params = {}) {
+        const resp = await axios.get(`${this.BASE_URL}/resources/search`, { params });
+        return resp.data;
+    }
+
 
 
 
@@ -469,6 +599,14 @@ export default class ApiService {
         return resp.data;
     }
 
+    // body: { startDate, startTime, endTime, unit?, intervalWeeks?, untilDate?, count? }
+    static async bookResourceSeries(id, body) {
+        const resp = await axios.post(`${this.BASE_URL}/resources/${id}/book-series`, body, {
+            headers: this.getHeader()
+        });
+        return resp.data;
+    }
+
 
     /**PAYMENT SESSION */
 